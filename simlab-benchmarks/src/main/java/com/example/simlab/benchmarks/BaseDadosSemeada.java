@@ -0,0 +1,124 @@
+package com.example.simlab.benchmarks;
+
+import com.example.simlab.SimlabApplication;
+import com.example.simlab.index.FiltroUnicidade;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * Contexto Spring sobre uma base de dados H2 em ficheiro, semeada com pacientes e exames sintéticos.
+ *
+ * <p>A base de dados fica em {@code target/h2-benchmarks/} com o tamanho e a versão do esquema no
+ * nome, pelo que só é semeada na primeira execução de cada tamanho. As caches de segundo nível e de consultas ficam
+ * desligadas para os benchmarks medirem as consultas à base de dados.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class BaseDadosSemeada implements AutoCloseable {
+    /**
+     * Linhas por INSERT ... SELECT, para cada transação de sementeira ter um tamanho limitado.
+     */
+    private static final long LINHAS_POR_INSERT = 500_000;
+    /**
+     * Tem de acompanhar o allocationSize das sequências das entidades.
+     */
+    private static final long ALOCACAO_SEQUENCIAS = 50;
+    /**
+     * Versão do esquema das entidades: muda quando uma coluna obrigatória é acrescentada, para não
+     * reabrir uma base de dados antiga que o {@code ddl-auto=update} não consegue migrar.
+     */
+    private static final int VERSAO_ESQUEMA = 3;
+
+    private final ConfigurableApplicationContext contexto;
+
+    private BaseDadosSemeada(ConfigurableApplicationContext contexto) {
+        this.contexto = contexto;
+    }
+
+    /**
+     * Abre (semeando se necessário) a base de dados com o número de pacientes e exames indicado.
+     *
+     * <p>Só devolve quando os filtros de unicidade já refletem os dados semeados.</p>
+     */
+    static BaseDadosSemeada abrir(long pacientes, long exames) throws InterruptedException {
+        Path ficheiro = Path.of("target", "h2-benchmarks", "simlab-v" + VERSAO_ESQUEMA + "-" + pacientes + "-" + exames).toAbsolutePath();
+        String url = "jdbc:h2:file:" + ficheiro;
+
+        ConfigurableApplicationContext contexto = iniciar(url);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        Long existentes = jdbc.queryForObject("select count(*) from exames", Long.class);
+        if (existentes == null || existentes != exames) {
+            semear(jdbc, pacientes, exames);
+            // os filtros de unicidade são construídos no arranque: reabre para refletirem a sementeira
+            contexto.close();
+            contexto = iniciar(url);
+        }
+
+        FiltroUnicidade unicidade = contexto.getBean(FiltroUnicidade.class);
+        while (!unicidade.isPronto()) {
+            Thread.sleep(100);
+        }
+        return new BaseDadosSemeada(contexto);
+    }
+
+    <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    @Override
+    public void close() {
+        contexto.close();
+    }
+
+    private static ConfigurableApplicationContext iniciar(String url) {
+        return new SpringApplicationBuilder(SimlabApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    /**
+     * Semeia com INSERT ... SELECT sobre SYSTEM_RANGE do H2: pacientes com CC e email únicos e
+     * exames distribuídos uniformemente pelos pacientes.
+     */
+    private static void semear(JdbcTemplate jdbc, long pacientes, long exames) {
+        jdbc.update("delete from exames");
+        jdbc.update("delete from pacientes");
+
+        for (long inicio = 1; inicio <= pacientes; inicio += LINHAS_POR_INSERT) {
+            long fim = Math.min(pacientes, inicio + LINHAS_POR_INSERT - 1);
+            jdbc.update("""
+                    insert into pacientes (id, nome, data_nascimento, cartao_cidadao, telefone, email, nome_norm, versao)
+                    select x, 'Paciente ' || x, dateadd('DAY', -mod(x, 30000), date '2020-01-01'),
+                           lpad(cast(x as varchar), 8, '0'), '9' || lpad(cast(mod(x, 100000000) as varchar), 8, '0'),
+                           'paciente' || x || '@email.com', 'paciente ' || x, 0
+                    from system_range(?, ?)
+                    """, inicio, fim);
+        }
+        for (long inicio = 1; inicio <= exames; inicio += LINHAS_POR_INSERT) {
+            long fim = Math.min(exames, inicio + LINHAS_POR_INSERT - 1);
+            jdbc.update("""
+                    insert into exames (id, nome, descricao, preco, paciente_id, nome_norm, versao)
+                    select x, 'Exame ' || x, 'Análise ' || mod(x, 1000), mod(x, 500) + 0.5, mod(x, ?) + 1, 'exame ' || x, 0
+                    from system_range(?, ?)
+                    """, pacientes, inicio, fim);
+        }
+
+        // com o otimizador pooled o valor da sequência é o topo do bloco: recomeça acima do último bloco usado
+        jdbc.execute("alter sequence pacientes_seq restart with " + (pacientes + ALOCACAO_SEQUENCIAS + 1));
+        jdbc.execute("alter sequence exames_seq restart with " + (exames + ALOCACAO_SEQUENCIAS + 1));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.simlab.benchmarks;
+
+import com.example.simlab.dto.PacienteDTO;
+import com.example.simlab.exception.DuplicadoException;
+import com.example.simlab.exception.GlobalExceptionHandler;
+import com.example.simlab.exception.RecursoNaoEncontradoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da serialização JSON das respostas: páginas de pacientes e corpos de erro do {@link GlobalExceptionHandler}.
+ *
+ * <p>O {@link ObjectMapper} é configurado como o do Spring Boot (módulos Java Time, datas em ISO-8601).
+ * Os benchmarks de erro incluem a criação da exceção, tal como acontece em cada pedido rejeitado.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"20", "500"})
+    public int tamanhoPagina;
+
+    private ObjectMapper objectMapper;
+    private Page<PacienteDTO> pagina;
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        handler = new GlobalExceptionHandler();
+
+        List<PacienteDTO> pacientes = new ArrayList<>(tamanhoPagina);
+        for (int i = 1; i <= tamanhoPagina; i++) {
+            pacientes.add(new PacienteDTO("Paciente " + i, LocalDate.of(1990, 1, 1).plusDays(i),
+                    String.format("%08d", i), "912345678", "paciente" + i + "@email.com"));
+        }
+        pagina = new PageImpl<>(pacientes, PageRequest.of(0, tamanhoPagina), 1_000_000);
+    }
+
+    @Benchmark
+    public byte[] serializarPaginaPacientes() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] respostaDuplicado() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.tratarDuplicado(
+                new DuplicadoException("Não é possível cadastrar paciente, pois já existe paciente com este Cartão Cidadão")).getBody());
+    }
+
+    @Benchmark
+    public byte[] respostaNaoEncontrado() throws Exception {
+        return objectMapper.writeValueAsBytes(handler.tratarRecursoNaoEncontrado(
+                new RecursoNaoEncontradoException("Paciente não encontrado com ID: 999")).getBody());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.simlab.benchmarks;
+
+import com.example.simlab.cache.PacienteRegistoStore;
+import com.example.simlab.dto.ExameDTO;
+import com.example.simlab.dto.PacienteDTO;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.model.Exame;
+import com.example.simlab.model.Paciente;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.ExameResumo;
+import com.example.simlab.repository.PacienteRepository;
+import com.example.simlab.service.ExameService;
+import com.example.simlab.service.PacienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débito de {@code PacienteService.listar} e {@code ExameService.listar} sem base de dados.
+ *
+ * <p>Os repositórios devolvem páginas já carregadas, pelo que o resultado mede apenas o service
+ * e o mapeamento entidade/projeção → DTO de cada elemento da página.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+    @Param({"20", "500"})
+    public int tamanhoPagina;
+
+    private PacienteService pacienteService;
+    private ExameService exameService;
+    private Pageable pagina;
+
+    @Setup
+    public void preparar() {
+        pagina = PageRequest.of(0, tamanhoPagina);
+        ProjectionFactory projecoes = new SpelAwareProxyProjectionFactory();
+
+        List<Paciente> pacientes = new ArrayList<>(tamanhoPagina);
+        List<ExameResumo> exames = new ArrayList<>(tamanhoPagina);
+        for (int i = 1; i <= tamanhoPagina; i++) {
+            Paciente paciente = new Paciente("Paciente " + i, LocalDate.of(1990, 1, 1).plusDays(i),
+                    String.format("%08d", i), "912345678", "paciente" + i + "@email.com");
+            paciente.setId((long) i);
+            pacientes.add(paciente);
+
+            Exame exame = new Exame("Exame " + i, "Análise " + i, 10.0 + i, paciente);
+            exames.add(projecoes.createProjection(ExameResumo.class, exame));
+        }
+
+        PacienteRepository pacienteRepository = Repositorios.fixo(PacienteRepository.class,
+                Map.of("findAll", new PageImpl<>(pacientes, pagina, 1_000_000)));
+        ExameRepository exameRepository = Repositorios.fixo(ExameRepository.class,
+                Map.of("findAllBy", new PageImpl<>(exames, pagina, 10_000_000)));
+        FiltroUnicidade unicidade = new FiltroUnicidade(pacienteRepository, exameRepository, null, Runnable::run, 0.01);
+
+        pacienteService = new PacienteService(pacienteRepository, null, new PacienteRegistoStore(0), unicidade, null, exameRepository, null, null, null);
+        exameService = new ExameService(exameRepository, pacienteRepository, unicidade, null, null, null);
+    }
+
+    @Benchmark
+    public Page<PacienteDTO> listarPacientes() {
+        return pacienteService.listar(null, null, null, pagina);
+    }
+
+    @Benchmark
+    public Page<ExameDTO> listarExames() {
+        return exameService.listar(null, null, pagina);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.simlab.benchmarks;
+
+import com.example.simlab.dto.ExameDTO;
+import com.example.simlab.dto.JanelaDTO;
+import com.example.simlab.dto.PacienteDTO;
+import com.example.simlab.dto.PacienteDetalheDTO;
+import com.example.simlab.exception.DuplicadoException;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.repository.PacienteRepository;
+import com.example.simlab.service.ExameService;
+import com.example.simlab.service.PacienteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência dos caminhos de leitura e da verificação de duplicados contra uma base de dados H2 semeada.
+ *
+ * <p>Por omissão a base de dados tem 1 milhão de pacientes e 10 milhões de exames; a primeira
+ * execução semeia o ficheiro (alguns minutos) e as seguintes reutilizam-no. Para medições rápidas,
+ * os tamanhos podem ser reduzidos com {@code -p pacientes=... -p exames=...}.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RepositorioBenchmark {
+
+    @Param({"1000000"})
+    public long pacientes;
+
+    @Param({"10000000"})
+    public long exames;
+
+    private BaseDadosSemeada baseDados;
+    private PacienteRepository pacienteRepository;
+    private PacienteService pacienteService;
+    private ExameService exameService;
+    private FiltroUnicidade unicidade;
+    private Pageable pagina;
+    private String cursorMeio;
+    private PacienteDTO duplicado;
+
+    @Setup(Level.Trial)
+    public void preparar() throws InterruptedException {
+        baseDados = BaseDadosSemeada.abrir(pacientes, exames);
+        pacienteRepository = baseDados.bean(PacienteRepository.class);
+        pacienteService = baseDados.bean(PacienteService.class);
+        exameService = baseDados.bean(ExameService.class);
+        unicidade = baseDados.bean(FiltroUnicidade.class);
+
+        pagina = PageRequest.of(0, 20);
+        // mesmo formato dos cursores devolvidos pela API
+        cursorMeio = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("id:" + exames / 2).getBytes(StandardCharsets.UTF_8));
+        duplicado = new PacienteDTO("Duplicado", LocalDate.of(1990, 1, 1),
+                cartaoCidadao(pacientes / 2), "912345678", "duplicado@email.com");
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        baseDados.close();
+    }
+
+    @Benchmark
+    public Optional<PacienteDetalheDTO> detalhePorIdRepositorio() {
+        return pacienteRepository.findDetalheById(idAleatorio());
+    }
+
+    @Benchmark
+    public Optional<PacienteDetalheDTO> detalhePorIdService() {
+        return pacienteService.buscarPorId(idAleatorio());
+    }
+
+    @Benchmark
+    public Page<PacienteDTO> listarPacientesPorNome() {
+        return pacienteService.listar("Paciente " + idAleatorio(), null, null, pagina);
+    }
+
+    @Benchmark
+    public Page<PacienteDTO> listarPacientesPorCartaoCidadao() {
+        return pacienteService.listar(null, null, cartaoCidadao(idAleatorio()), pagina);
+    }
+
+    @Benchmark
+    public Page<ExameDTO> listarExamesPrimeiraPagina() {
+        return exameService.listar(null, null, pagina);
+    }
+
+    @Benchmark
+    public JanelaDTO<ExameDTO> listarExamesPorCursor() {
+        return exameService.listarPorCursor(null, null, cursorMeio, 20);
+    }
+
+    /**
+     * Criação rejeitada: o filtro responde "talvez" e a consulta de existência confirma o duplicado.
+     */
+    @Benchmark
+    public Object criarPacienteDuplicado() {
+        try {
+            return pacienteService.criar(duplicado);
+        } catch (DuplicadoException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Verificação de um Cartão de Cidadão novo, que o filtro rejeita sem consultar a base de dados.
+     */
+    @Benchmark
+    public boolean verificarCartaoCidadaoNovo() {
+        return unicidade.talvezCartaoCidadao(cartaoCidadao(pacientes + idAleatorio()));
+    }
+
+    private long idAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, pacientes + 1);
+    }
+
+    private static String cartaoCidadao(long id) {
+        return String.format("%08d", id);
+    }
+}
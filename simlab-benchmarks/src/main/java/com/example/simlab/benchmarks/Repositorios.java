@@ -0,0 +1,41 @@
+package com.example.simlab.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Repositórios em memória para os benchmarks que medem apenas os services e o mapeamento para DTOs.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class Repositorios {
+
+    private Repositorios() {
+    }
+
+    /**
+     * Cria uma implementação do repositório que devolve respostas fixas por nome de método.
+     *
+     * <p>Tal como os repositórios do Spring Data, é um proxy dinâmico; os métodos sem resposta
+     * definida lançam {@link UnsupportedOperationException}.</p>
+     *
+     * @param tipo      Interface do repositório
+     * @param respostas Valor devolvido por cada nome de método
+     * @return Repositório com as respostas indicadas
+     */
+    static <T> T fixo(Class<T> tipo, Map<String, Object> respostas) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            if (respostas.containsKey(metodo.getName())) {
+                return respostas.get(metodo.getName());
+            }
+            return switch (metodo.getName()) {
+                case "toString" -> tipo.getSimpleName() + " fixo";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(metodo.getName());
+            };
+        }));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.simlab.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gerador de carga HTTP para {@code /pacientes} e {@code /exames}.
+ *
+ * <p>Sem {@code --url}, arranca a aplicação no mesmo processo com o perfil {@code gerador} e os
+ * dados sintéticos pedidos; com {@code --url}, carrega uma instância já a correr (que deve ter sido
+ * preenchida com a mesma {@code --semente}, para os Cartões de Cidadão procurados existirem).</p>
+ *
+ * <pre>
+ * java -jar simlab-carga/target/carga.jar --cenario=balcao --clientes=200 --taxa=500 --duracao=60 \
+ *      --pacientes=1000000 --exames-por-paciente=9 --relatorio=balcao.json
+ * </pre>
+ *
+ * <p>Os argumentos {@code --spring.*} e {@code --simlab.*} são passados à instância embebida
+ * (por exemplo {@code --spring.datasource.url=jdbc:h2:file:./dados/simlab}).</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class Carga {
+    private static final Pattern TOTAL = Pattern.compile("\"totalElements\":(\\d+)");
+
+    private Carga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = new HashMap<>();
+        List<String> propriedades = new ArrayList<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                System.err.println("Argumento inválido: " + arg);
+                System.err.println("Uso: carga.jar [--cenario=" + String.join("|", nomesCenarios()) + "] [--clientes=N] "
+                        + "[--taxa=PEDIDOS_POR_SEGUNDO] [--aquecimento=S] [--duracao=S] [--url=URL | --pacientes=N "
+                        + "--exames-por-paciente=M --perfis=P1,P2] [--semente=S] [--relatorio=FICHEIRO.json]");
+                System.exit(2);
+            }
+            if (arg.startsWith("--spring.") || arg.startsWith("--simlab.")) {
+                propriedades.add(arg.substring(2));
+            } else {
+                opcoes.put(arg.substring(2, igual), arg.substring(igual + 1));
+            }
+        }
+
+        Cenario cenario = Cenario.valueOf(opcoes.getOrDefault("cenario", "balcao").toUpperCase());
+        int clientes = Integer.parseInt(opcoes.getOrDefault("clientes", "100"));
+        double taxa = Double.parseDouble(opcoes.getOrDefault("taxa", "200"));
+        Duration aquecimento = Duration.ofSeconds(Long.parseLong(opcoes.getOrDefault("aquecimento", "10")));
+        Duration medicao = Duration.ofSeconds(Long.parseLong(opcoes.getOrDefault("duracao", "30")));
+        long semente = Long.parseLong(opcoes.getOrDefault("semente", "42"));
+
+        InstanciaEmbebida instancia = null;
+        URI base;
+        if (opcoes.containsKey("url")) {
+            base = URI.create(opcoes.get("url").replaceAll("/?$", "/"));
+        } else {
+            List<String> perfis = opcoes.containsKey("perfis")
+                    ? Arrays.asList(opcoes.get("perfis").split(",")) : List.of();
+            instancia = InstanciaEmbebida.iniciar(
+                    Long.parseLong(opcoes.getOrDefault("pacientes", "100000")),
+                    Double.parseDouble(opcoes.getOrDefault("exames-por-paciente", "5")),
+                    semente, perfis, propriedades);
+            base = instancia.uri();
+        }
+
+        try {
+            Dados dados = new Dados(base, contar(base, "pacientes"), contar(base, "exames"), semente);
+            System.out.printf("A carregar %s (%d pacientes, %d exames) durante %d s + %d s de aquecimento%n",
+                    base, dados.pacientes(), dados.exames(), medicao.toSeconds(), aquecimento.toSeconds());
+
+            Metricas metricas = new ExecutorCarga(cenario, dados, clientes, taxa).executar(aquecimento, medicao);
+
+            Relatorio relatorio = new Relatorio(cenario, clientes, taxa, medicao, metricas);
+            relatorio.imprimir(System.out);
+            if (opcoes.containsKey("relatorio")) {
+                relatorio.guardar(Path.of(opcoes.get("relatorio")));
+            }
+        } finally {
+            if (instancia != null) {
+                instancia.close();
+            }
+        }
+    }
+
+    /**
+     * Número de registos da listagem, lido do total da primeira página.
+     */
+    private static long contar(URI base, String recurso) throws IOException, InterruptedException {
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(base.resolve(recurso + "?size=1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher m = TOTAL.matcher(resposta.body());
+            if (resposta.statusCode() != 200 || !m.find()) {
+                throw new IllegalStateException("Não foi possível contar " + recurso + " em " + base + ": " + resposta.statusCode());
+            }
+            return Long.parseLong(m.group(1));
+        }
+    }
+
+    private static List<String> nomesCenarios() {
+        return Arrays.stream(Cenario.values()).map(c -> c.name().toLowerCase()).toList();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.simlab.carga;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Misturas de pedidos que reproduzem os padrões de tráfego da aplicação.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+enum Cenario {
+
+    /**
+     * Balcão de atendimento: consultas de pacientes e exames por ID e por CC, com algumas criações.
+     */
+    BALCAO {
+        @Override
+        GeradorPedidos novoCliente(Dados dados) {
+            return new Mistura()
+                    .com(60, () -> get("GET /pacientes/{id}", dados.uri("/pacientes/" + dados.pacienteAleatorio())))
+                    .com(20, () -> get("GET /pacientes?cartaoCidadao",
+                            dados.uri("/pacientes?cartaoCidadao=" + dados.cartaoCidadaoExistente())))
+                    .com(15, () -> get("GET /exames/{id}", dados.uri("/exames/" + dados.exameAleatorio())))
+                    .com(5, () -> post("POST /pacientes", dados.uri("/pacientes"), JSON, paciente(dados)));
+        }
+    },
+
+    /**
+     * Ingestão em massa: lotes de pacientes e importações NDJSON de exames.
+     */
+    INGESTAO {
+        @Override
+        GeradorPedidos novoCliente(Dados dados) {
+            return new Mistura()
+                    .com(40, () -> post("POST /pacientes/lote", dados.uri("/pacientes/lote"), JSON, lotePacientes(dados, 100)))
+                    .com(40, () -> post("POST /exames/importar", dados.uri("/exames/importar"), NDJSON, exames(dados, 500)))
+                    .com(10, () -> post("POST /exames", dados.uri("/exames"), JSON, exame(dados)))
+                    .com(10, () -> get("GET /pacientes/{id}", dados.uri("/pacientes/" + dados.pacienteAleatorio())));
+        }
+    },
+
+    /**
+     * Listagens profundas e com filtros: páginas com OFFSET elevado e percursos completos por cursor.
+     */
+    LISTAGEM {
+        @Override
+        GeradorPedidos novoCliente(Dados dados) {
+            // cada cliente percorre as janelas seguidas da sua listagem por cursor, do início ao fim
+            String descricao = codificar(DESCRICOES[ThreadLocalRandom.current().nextInt(DESCRICOES.length)]);
+            String[] cursores = new String[2];
+            return new Mistura()
+                    .com(25, () -> get("GET /pacientes?page", dados.uri("/pacientes?size=50&page="
+                            + ThreadLocalRandom.current().nextLong(Math.max(1, dados.pacientes() / 50)))))
+                    .com(20, () -> get("GET /pacientes?dataDeNascimento", dados.uri("/pacientes?dataDeNascimento="
+                            + DATA_MINIMA.plusDays(ThreadLocalRandom.current().nextInt(DIAS_NASCIMENTO)))))
+                    .com(20, () -> get("GET /exames?descricao", dados.uri("/exames?size=50&descricao=" + descricao
+                            + "&page=" + ThreadLocalRandom.current().nextInt(200))))
+                    .com(20, () -> get("GET /exames/cursor", dados.uri("/exames/cursor?size=100&descricao=" + descricao
+                            + depois(cursores[0]))))
+                    .com(15, () -> get("GET /pacientes/cursor", dados.uri("/pacientes/cursor?size=100" + depois(cursores[1]))))
+                    .aoReceber((pedido, resposta) -> {
+                        if (pedido.endpoint().equals("GET /exames/cursor")) {
+                            cursores[0] = proximoCursor(resposta);
+                        } else if (pedido.endpoint().equals("GET /pacientes/cursor")) {
+                            cursores[1] = proximoCursor(resposta);
+                        }
+                    });
+        }
+    };
+
+    private static final String JSON = "application/json";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final Duration TEMPO_LIMITE = Duration.ofSeconds(60);
+    private static final LocalDate DATA_MINIMA = LocalDate.of(1926, 1, 1);
+    private static final int DIAS_NASCIMENTO = 36_500;
+    /**
+     * Texto procurado nas descrições dos exames gerados.
+     */
+    private static final String[] DESCRICOES = {"lipídico", "renal", "hepática", "sangue", "urina"};
+    private static final Pattern PROXIMO_CURSOR = Pattern.compile("\"proximoCursor\":\"([^\"]+)\"");
+
+    /**
+     * Cria o gerador de pedidos de um cliente virtual.
+     */
+    abstract GeradorPedidos novoCliente(Dados dados);
+
+    private static Pedido get(String endpoint, URI uri) {
+        return new Pedido(endpoint, HttpRequest.newBuilder(uri).timeout(TEMPO_LIMITE).GET().build());
+    }
+
+    private static Pedido post(String endpoint, URI uri, String tipo, String corpo) {
+        return new Pedido(endpoint, HttpRequest.newBuilder(uri)
+                .timeout(TEMPO_LIMITE)
+                .header("Content-Type", tipo)
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build());
+    }
+
+    private static String paciente(Dados dados) {
+        return "{\"nome\":\"Paciente Carga\",\"dataDeNascimento\":\"1980-05-17\",\"cartaoCidadao\":\""
+                + dados.cartaoCidadaoNovo() + "\",\"telefone\":\"912345678\",\"email\":\"carga@exemplo.pt\"}";
+    }
+
+    private static String lotePacientes(Dados dados, int tamanho) {
+        StringBuilder corpo = new StringBuilder("[");
+        for (int i = 0; i < tamanho; i++) {
+            corpo.append(i == 0 ? "" : ",").append(paciente(dados));
+        }
+        return corpo.append(']').toString();
+    }
+
+    private static String exame(Dados dados) {
+        return "{\"nome\":\"" + dados.nomeExameNovo() + "\",\"descricao\":\"Exame de carga\",\"preco\":12.5,\"pacienteId\":"
+                + dados.pacienteAleatorio() + "}";
+    }
+
+    private static String exames(Dados dados, int tamanho) {
+        StringBuilder corpo = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            corpo.append(exame(dados)).append('\n');
+        }
+        return corpo.toString();
+    }
+
+    private static String depois(String cursor) {
+        return cursor == null ? "" : "&after=" + cursor;
+    }
+
+    /**
+     * @return Cursor da janela seguinte, ou null no fim da listagem (o percurso recomeça do início)
+     */
+    private static String proximoCursor(HttpResponse<String> resposta) {
+        Matcher m = PROXIMO_CURSOR.matcher(resposta.body());
+        return m.find() ? m.group(1) : null;
+    }
+
+    private static String codificar(String texto) {
+        return URLEncoder.encode(texto, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.simlab.carga;
+
+import com.example.simlab.gerador.GeradorDados;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * O que o gerador de carga sabe sobre a instância e os dados carregados nela.
+ *
+ * <p>Os IDs existentes vão de 1 ao número de pacientes/exames da instância. Os Cartões de
+ * Cidadão existentes e os novos são obtidos do {@link GeradorDados} com a mesma semente dos
+ * dados: os IDs acima do número de pacientes dão CC que ainda não existem.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class Dados {
+    private final URI base;
+    private final long pacientes;
+    private final long exames;
+    private final GeradorDados gerador;
+    private final AtomicLong proximoPaciente;
+    private final AtomicLong proximoExame = new AtomicLong();
+    /**
+     * Identifica os nomes de exames criados por esta execução, para não colidirem com os de execuções anteriores.
+     */
+    private final String execucao = Long.toString(System.currentTimeMillis(), 36);
+
+    Dados(URI base, long pacientes, long exames, long semente) {
+        this.base = base;
+        this.pacientes = pacientes;
+        this.exames = exames;
+        this.gerador = new GeradorDados(semente, GeradorDados.DATA_REFERENCIA);
+        // começa num ponto aleatório acima dos pacientes existentes, para execuções repetidas não repetirem CC
+        long livres = 100_000_000L - pacientes;
+        this.proximoPaciente = new AtomicLong(pacientes + 1 + ThreadLocalRandom.current().nextLong(livres / 2));
+    }
+
+    URI uri(String caminho) {
+        return base.resolve(caminho);
+    }
+
+    long pacientes() {
+        return pacientes;
+    }
+
+    long exames() {
+        return exames;
+    }
+
+    long pacienteAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, Math.max(1, pacientes) + 1);
+    }
+
+    long exameAleatorio() {
+        return ThreadLocalRandom.current().nextLong(1, Math.max(1, exames) + 1);
+    }
+
+    /**
+     * @return Cartão de Cidadão de um paciente existente
+     */
+    String cartaoCidadaoExistente() {
+        return gerador.cartaoCidadao(pacienteAleatorio());
+    }
+
+    /**
+     * @return Cartão de Cidadão ainda não usado por esta execução nem pelos dados gerados
+     */
+    String cartaoCidadaoNovo() {
+        return gerador.cartaoCidadao(proximoPaciente.getAndIncrement());
+    }
+
+    /**
+     * @return Nome de exame ainda não usado
+     */
+    String nomeExameNovo() {
+        return "Carga " + execucao + " #" + proximoExame.incrementAndGet();
+    }
+}
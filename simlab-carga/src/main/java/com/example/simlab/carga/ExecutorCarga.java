@@ -0,0 +1,112 @@
+package com.example.simlab.carga;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Executa um cenário com clientes em ciclo fechado, cada um numa thread virtual.
+ *
+ * <p>Cada cliente envia um pedido de cada vez e espera pela resposta, ao ritmo de
+ * {@code taxa / clientes} pedidos por segundo: o pedido k tem um instante de envio previsto e,
+ * se o anterior se atrasou, é enviado logo que possível. A latência é medida a partir do instante
+ * previsto (ver {@link Metricas}), pelo que uma paragem do servidor conta para todos os pedidos
+ * que deviam ter sido enviados durante ela, e não só para o que estava em curso.</p>
+ *
+ * <p>O cliente HTTP também usa threads virtuais, pelo que o número de clientes só é limitado pela
+ * memória e pelas ligações que o servidor aceita.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class ExecutorCarga {
+    private final Cenario cenario;
+    private final Dados dados;
+    private final int clientes;
+    private final double taxa;
+
+    /**
+     * @param cenario  Cenário a executar
+     * @param dados    Instância e dados carregados
+     * @param clientes Número de clientes virtuais
+     * @param taxa     Pedidos por segundo pretendidos, no total dos clientes
+     */
+    ExecutorCarga(Cenario cenario, Dados dados, int clientes, double taxa) {
+        if (clientes < 1 || taxa <= 0) {
+            throw new IllegalArgumentException("São necessários pelo menos um cliente e uma taxa positiva");
+        }
+        this.cenario = cenario;
+        this.dados = dados;
+        this.clientes = clientes;
+        this.taxa = taxa;
+    }
+
+    /**
+     * Executa o aquecimento e a medição e devolve as métricas da medição.
+     *
+     * @param aquecimento Duração do aquecimento, que não é registado
+     * @param medicao     Duração da medição
+     * @return Latências e erros de cada endpoint durante a medição
+     */
+    Metricas executar(Duration aquecimento, Duration medicao) {
+        Metricas metricas = new Metricas();
+        long intervalo = (long) (clientes * 1e9 / taxa);
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + aquecimento.toNanos();
+        long fim = inicioMedicao + medicao.toNanos();
+
+        try (ExecutorService threadsHttp = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(threadsHttp)
+                     .build();
+             ExecutorService threadsClientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                // os primeiros envios são espalhados pelo intervalo, para os clientes não arrancarem em rajada
+                long primeiro = inicio + intervalo * i / clientes;
+                GeradorPedidos gerador = cenario.novoCliente(dados);
+                threadsClientes.execute(() -> cliente(http, gerador, metricas, primeiro, intervalo, inicioMedicao, fim));
+            }
+            // o close dos clientes (o primeiro recurso fechado) espera que terminem os pedidos ainda em curso no fim
+        }
+        return metricas;
+    }
+
+    private static void cliente(HttpClient http, GeradorPedidos gerador, Metricas metricas,
+                                long previsto, long intervalo, long inicioMedicao, long fim) {
+        while (previsto < fim) {
+            long espera;
+            while ((espera = previsto - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            Pedido pedido = gerador.proximo();
+            long envio = System.nanoTime();
+            boolean sucesso;
+            try {
+                HttpResponse<String> resposta = http.send(pedido.pedido(), HttpResponse.BodyHandlers.ofString());
+                sucesso = resposta.statusCode() / 100 == 2;
+                if (sucesso) {
+                    gerador.recebido(pedido, resposta);
+                }
+            } catch (IOException e) {
+                sucesso = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long chegada = System.nanoTime();
+
+            if (previsto >= inicioMedicao) {
+                metricas.registar(pedido.endpoint(), chegada - previsto, chegada - envio, sucesso);
+            }
+            previsto += intervalo;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.simlab.carga;
+
+import java.net.http.HttpResponse;
+
+/**
+ * Sequência de pedidos de um cliente virtual.
+ *
+ * <p>Cada cliente tem o seu gerador, que pode guardar estado entre pedidos (por exemplo, o cursor
+ * da janela seguinte de uma listagem).</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+interface GeradorPedidos {
+
+    /**
+     * @return Próximo pedido a enviar
+     */
+    Pedido proximo();
+
+    /**
+     * Chamado com a resposta de cada pedido bem-sucedido, antes do pedido seguinte.
+     */
+    default void recebido(Pedido pedido, HttpResponse<String> resposta) {
+    }
+}
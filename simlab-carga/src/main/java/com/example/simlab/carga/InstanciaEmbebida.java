@@ -0,0 +1,70 @@
+package com.example.simlab.carga;
+
+import com.example.simlab.SimlabApplication;
+import com.example.simlab.index.FiltroUnicidade;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instância da aplicação no mesmo processo do gerador de carga, preenchida pelo perfil {@code gerador}.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class InstanciaEmbebida implements AutoCloseable {
+    private final ConfigurableApplicationContext contexto;
+
+    private InstanciaEmbebida(ConfigurableApplicationContext contexto) {
+        this.contexto = contexto;
+    }
+
+    /**
+     * Arranca a aplicação numa porta livre com os dados sintéticos e espera que fique pronta.
+     *
+     * @param pacientes         Pacientes a gerar
+     * @param examesPorPaciente Média de exames por paciente
+     * @param semente           Semente dos dados
+     * @param perfis            Perfis adicionais (por exemplo {@code virtual})
+     * @param propriedades      Propriedades adicionais da aplicação ({@code chave=valor})
+     */
+    static InstanciaEmbebida iniciar(long pacientes, double examesPorPaciente, long semente,
+                                     List<String> perfis, List<String> propriedades) throws InterruptedException {
+        List<String> todosPerfis = new ArrayList<>(perfis);
+        todosPerfis.add(0, "gerador");
+        List<String> todasPropriedades = new ArrayList<>(List.of(
+                "server.port=0",
+                "simlab.gerador.pacientes=" + pacientes,
+                "simlab.gerador.exames-por-paciente=" + examesPorPaciente,
+                "simlab.gerador.semente=" + semente,
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN",
+                "logging.level.com.example.simlab=INFO"));
+        todasPropriedades.addAll(propriedades);
+
+        // como argumentos da linha de comandos, para se sobreporem aos ficheiros de propriedades dos perfis
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(SimlabApplication.class)
+                .profiles(todosPerfis.toArray(String[]::new))
+                .run(todasPropriedades.stream().map(p -> "--" + p).toArray(String[]::new));
+
+        // até os filtros de unicidade estarem construídos, cada criação faz uma consulta extra
+        FiltroUnicidade unicidade = contexto.getBean(FiltroUnicidade.class);
+        while (!unicidade.isPronto()) {
+            Thread.sleep(100);
+        }
+        return new InstanciaEmbebida(contexto);
+    }
+
+    URI uri() {
+        return URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/");
+    }
+
+    @Override
+    public void close() {
+        contexto.close();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.simlab.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências e erros registados por endpoint durante a medição.
+ *
+ * <p>Cada endpoint tem dois histogramas em nanossegundos:</p>
+ * <ul>
+ *     <li>resposta: desde o instante em que o pedido <em>devia</em> ter sido enviado segundo o
+ *     ritmo pedido até à resposta completa. Inclui o tempo que o pedido esperou porque o anterior
+ *     do mesmo cliente se atrasou, corrigindo a omissão coordenada de um cliente em ciclo fechado;</li>
+ *     <li>serviço: desde o envio efetivo até à resposta, como o mediria um cliente sem ritmo.</li>
+ * </ul>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class Metricas {
+    /**
+     * Algarismos significativos dos histogramas (erro relativo de 0,1%).
+     */
+    private static final int PRECISAO = 3;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Regista um pedido medido.
+     *
+     * @param endpoint Endpoint do pedido
+     * @param resposta Latência corrigida, desde o envio previsto (ns)
+     * @param servico  Latência desde o envio efetivo (ns)
+     * @param sucesso  false para respostas fora de 2xx e falhas de ligação
+     */
+    void registar(String endpoint, long resposta, long servico, boolean sucesso) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.resposta.recordValue(resposta);
+        e.servico.recordValue(servico);
+        if (!sucesso) {
+            e.erros.increment();
+        }
+    }
+
+    /**
+     * @return Métricas de cada endpoint, por ordem alfabética
+     */
+    Map<String, Endpoint> porEndpoint() {
+        return new TreeMap<>(endpoints);
+    }
+
+    static final class Endpoint {
+        private final Histogram resposta = new ConcurrentHistogram(PRECISAO);
+        private final Histogram servico = new ConcurrentHistogram(PRECISAO);
+        private final LongAdder erros = new LongAdder();
+
+        Histogram resposta() {
+            return resposta;
+        }
+
+        Histogram servico() {
+            return servico;
+        }
+
+        long erros() {
+            return erros.sum();
+        }
+    }
+}
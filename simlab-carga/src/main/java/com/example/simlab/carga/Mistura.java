@@ -0,0 +1,60 @@
+package com.example.simlab.carga;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Gerador de pedidos que escolhe, em cada pedido, uma operação com probabilidade proporcional ao seu peso.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class Mistura implements GeradorPedidos {
+    private final List<Supplier<Pedido>> operacoes = new ArrayList<>();
+    private final List<Integer> pesosAcumulados = new ArrayList<>();
+    private BiConsumer<Pedido, HttpResponse<String>> aoReceber = (pedido, resposta) -> {
+    };
+    private int total;
+
+    /**
+     * Acrescenta uma operação à mistura.
+     *
+     * @param peso     Peso relativo da operação
+     * @param operacao Cria o pedido da operação
+     * @return Esta mistura
+     */
+    Mistura com(int peso, Supplier<Pedido> operacao) {
+        total += peso;
+        operacoes.add(operacao);
+        pesosAcumulados.add(total);
+        return this;
+    }
+
+    /**
+     * Define o tratamento das respostas (por omissão, são ignoradas).
+     */
+    Mistura aoReceber(BiConsumer<Pedido, HttpResponse<String>> aoReceber) {
+        this.aoReceber = aoReceber;
+        return this;
+    }
+
+    @Override
+    public Pedido proximo() {
+        int alvo = ThreadLocalRandom.current().nextInt(total);
+        int i = 0;
+        while (pesosAcumulados.get(i) <= alvo) {
+            i++;
+        }
+        return operacoes.get(i).get();
+    }
+
+    @Override
+    public void recebido(Pedido pedido, HttpResponse<String> resposta) {
+        aoReceber.accept(pedido, resposta);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.simlab.carga;
+
+import java.net.http.HttpRequest;
+
+/**
+ * Pedido HTTP a enviar, com o endpoint (padrão do caminho) em que a latência é contabilizada.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+record Pedido(String endpoint, HttpRequest pedido) {
+}
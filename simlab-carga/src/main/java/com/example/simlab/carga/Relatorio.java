@@ -0,0 +1,105 @@
+package com.example.simlab.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relatório de uma execução: débito e percentis de latência por endpoint e no total.
+ *
+ * <p>Os percentis são os da latência corrigida (desde o envio previsto); a coluna "serviço p99"
+ * mostra o p99 sem correção, e a diferença entre os dois é o tempo que os pedidos esperaram por
+ * o cliente estar bloqueado no pedido anterior.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class Relatorio {
+    private final Cenario cenario;
+    private final int clientes;
+    private final double taxa;
+    private final Duration medicao;
+    private final Map<String, Metricas.Endpoint> endpoints;
+
+    Relatorio(Cenario cenario, int clientes, double taxa, Duration medicao, Metricas metricas) {
+        this.cenario = cenario;
+        this.clientes = clientes;
+        this.taxa = taxa;
+        this.medicao = medicao;
+        this.endpoints = metricas.porEndpoint();
+    }
+
+    /**
+     * Escreve a tabela do relatório.
+     */
+    void imprimir(PrintStream out) {
+        out.printf("%nCenário %s: %d clientes, %.0f pedidos/s pretendidos, %d s de medição%n%n",
+                cenario.name().toLowerCase(), clientes, taxa, medicao.toSeconds());
+        out.printf("%-34s %9s %7s %10s %10s %10s %10s %10s %12s%n",
+                "endpoint", "pedidos", "erros", "pedidos/s", "p50 ms", "p99 ms", "p99.9 ms", "máx ms", "serviço p99");
+        for (Map<String, Object> linha : linhas()) {
+            out.printf("%-34s %9d %7d %10.1f %10.2f %10.2f %10.2f %10.2f %12.2f%n",
+                    linha.get("endpoint"), linha.get("pedidos"), linha.get("erros"), linha.get("pedidosPorSegundo"),
+                    linha.get("p50Ms"), linha.get("p99Ms"), linha.get("p999Ms"), linha.get("maxMs"), linha.get("servicoP99Ms"));
+        }
+    }
+
+    /**
+     * Escreve o relatório em JSON, para comparação entre execuções.
+     */
+    void guardar(Path ficheiro) throws IOException {
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("cenario", cenario.name().toLowerCase());
+        relatorio.put("clientes", clientes);
+        relatorio.put("taxaPretendida", taxa);
+        relatorio.put("duracaoSegundos", medicao.toSeconds());
+        relatorio.put("endpoints", linhas());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(ficheiro.toFile(), relatorio);
+    }
+
+    /**
+     * Uma linha por endpoint, seguida da linha com o total de todos os pedidos.
+     */
+    private List<Map<String, Object>> linhas() {
+        List<Map<String, Object>> linhas = new ArrayList<>();
+        Histogram totalResposta = new Histogram(3);
+        Histogram totalServico = new Histogram(3);
+        long totalErros = 0;
+        for (Map.Entry<String, Metricas.Endpoint> e : endpoints.entrySet()) {
+            Metricas.Endpoint metricas = e.getValue();
+            linhas.add(linha(e.getKey(), metricas.resposta(), metricas.servico(), metricas.erros()));
+            totalResposta.add(metricas.resposta());
+            totalServico.add(metricas.servico());
+            totalErros += metricas.erros();
+        }
+        linhas.add(linha("total", totalResposta, totalServico, totalErros));
+        return linhas;
+    }
+
+    private Map<String, Object> linha(String endpoint, Histogram resposta, Histogram servico, long erros) {
+        Map<String, Object> linha = new LinkedHashMap<>();
+        linha.put("endpoint", endpoint);
+        linha.put("pedidos", resposta.getTotalCount());
+        linha.put("erros", erros);
+        linha.put("pedidosPorSegundo", resposta.getTotalCount() / (double) medicao.toSeconds());
+        linha.put("p50Ms", ms(resposta.getValueAtPercentile(50)));
+        linha.put("p99Ms", ms(resposta.getValueAtPercentile(99)));
+        linha.put("p999Ms", ms(resposta.getValueAtPercentile(99.9)));
+        linha.put("maxMs", ms(resposta.getMaxValue()));
+        linha.put("servicoP99Ms", ms(servico.getValueAtPercentile(99)));
+        return linha;
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.simlab.cache;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de dispersão de chaves {@code long} para valores {@code int}, sem boxing.
+ *
+ * <p>Usa endereçamento aberto com sondagem linear sobre dois arrays primitivos. A remoção
+ * desloca as entradas seguintes para trás, pelo que não há marcas de remoção a acumular.
+ * A chave {@code 0} é reservada para posição vazia (os IDs gerados começam em 1): nunca é
+ * guardada e é tratada como inexistente.</p>
+ *
+ * <p>Não é thread-safe: a sincronização fica a cargo de quem a usa.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class IndiceLongInt {
+    static final int AUSENTE = -1;
+
+    private static final long VAZIO = 0L;
+    private static final float CARGA_MAXIMA = 0.75f;
+
+    private long[] chaves;
+    private int[] valores;
+    private int mascara;
+    private int tamanho;
+    private int limite;
+
+    IndiceLongInt(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(16, (int) Math.ceil(capacidadeInicial / CARGA_MAXIMA)) - 1) << 1;
+        alocar(capacidade);
+    }
+
+    /**
+     * Devolve o valor associado à chave, ou {@link #AUSENTE} se não existir.
+     */
+    int get(long chave) {
+        if (chave == VAZIO) {
+            return AUSENTE;
+        }
+        for (int i = posicao(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                return valores[i];
+            }
+            if (atual == VAZIO) {
+                return AUSENTE;
+            }
+        }
+    }
+
+    /**
+     * Associa o valor à chave, substituindo o anterior. A chave reservada é ignorada.
+     *
+     * @return Valor anterior, ou {@link #AUSENTE} se a chave não existia
+     */
+    int put(long chave, int valor) {
+        if (chave == VAZIO) {
+            return AUSENTE;
+        }
+        if (tamanho >= limite) {
+            redimensionar();
+        }
+        for (int i = posicao(chave); ; i = (i + 1) & mascara) {
+            long atual = chaves[i];
+            if (atual == chave) {
+                int anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            if (atual == VAZIO) {
+                chaves[i] = chave;
+                valores[i] = valor;
+                tamanho++;
+                return AUSENTE;
+            }
+        }
+    }
+
+    /**
+     * Remove a chave.
+     *
+     * @return Valor removido, ou {@link #AUSENTE} se a chave não existia
+     */
+    int remove(long chave) {
+        if (chave == VAZIO) {
+            return AUSENTE;
+        }
+        int i = posicao(chave);
+        while (chaves[i] != chave) {
+            if (chaves[i] == VAZIO) {
+                return AUSENTE;
+            }
+            i = (i + 1) & mascara;
+        }
+        int removido = valores[i];
+
+        // desloca para a posição libertada as entradas cuja posição ideal já ficou para trás
+        int livre = i;
+        for (int j = (i + 1) & mascara; chaves[j] != VAZIO; j = (j + 1) & mascara) {
+            int ideal = posicao(chaves[j]);
+            if (((j - ideal) & mascara) >= ((j - livre) & mascara)) {
+                chaves[livre] = chaves[j];
+                valores[livre] = valores[j];
+                livre = j;
+            }
+        }
+        chaves[livre] = VAZIO;
+        tamanho--;
+        return removido;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    void limpar() {
+        Arrays.fill(chaves, VAZIO);
+        tamanho = 0;
+    }
+
+    private int posicao(long chave) {
+        // mistura de bits (finalizador do MurmurHash3) para IDs sequenciais não formarem agrupamentos
+        long h = chave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mascara;
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        alocar(chavesAntigas.length << 1);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != VAZIO) {
+                put(chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        mascara = capacidade - 1;
+        limite = (int) (capacidade * CARGA_MAXIMA);
+        tamanho = 0;
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.simlab.cache;
+
+import com.example.simlab.dto.PacienteDetalheDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Armazém de registos de pacientes fora da heap, usado como cache de leitura do detalhe por ID.
+ *
+ * <p>Cada paciente ocupa um registo de largura fixa ({@value #TAMANHO_REGISTO} bytes) em
+ * {@link ByteBuffer}s diretos, alocados por segmentos à medida que são precisos. O índice
+ * ID → registo é uma tabela de primitivos, pelo que cada paciente residente custa ao GC apenas
+ * uma posição num {@code long[]} e num {@code int[]}:</p>
+ *
+ * <pre>
+ *  0  id                 long
+ *  8  dataDeNascimento   int   (dia desde 1970-01-01)
+ * 12  cartaoCidadao      int   (8 dígitos)
+ * 16  telefone           int   (9 dígitos)
+ * 20  versao             int
+ * 24  nome               1 byte de comprimento + até {@value #MAX_BYTES_NOME} bytes UTF-8
+ * 137 email              1 byte de comprimento (0xFF = sem email) + até {@value #MAX_BYTES_EMAIL} bytes UTF-8
+ * </pre>
+ *
+ * <p>Pacientes que não cabem no formato (nome ou email demasiado longos, CC ou telefone fora do
+ * padrão, versão acima de {@code Integer.MAX_VALUE}) não são guardados e continuam a ser lidos da base de dados. Quando a capacidade se
+ * esgota, os novos pacientes deixam de ser guardados até serem libertados registos.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class PacienteRegistoStore {
+    static final int TAMANHO_REGISTO = 192;
+    static final int MAX_BYTES_NOME = 112;
+    static final int MAX_BYTES_EMAIL = 54;
+
+    private static final int OFFSET_ID = 0;
+    private static final int OFFSET_DATA = 8;
+    private static final int OFFSET_CC = 12;
+    private static final int OFFSET_TELEFONE = 16;
+    private static final int OFFSET_VERSAO = 20;
+    private static final int OFFSET_NOME = 24;
+    private static final int OFFSET_EMAIL = OFFSET_NOME + 1 + MAX_BYTES_NOME;
+    private static final int SEM_EMAIL = 0xFF;
+
+    /**
+     * Registos por segmento (potência de 2): 65536 × 192 bytes = 12 MiB por {@link ByteBuffer}.
+     */
+    private static final int BITS_SEGMENTO = 16;
+    private static final int REGISTOS_POR_SEGMENTO = 1 << BITS_SEGMENTO;
+
+    private final int capacidade;
+    private final List<ByteBuffer> segmentos = new ArrayList<>();
+    private final IndiceLongInt indice;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int[] livres = new int[64];
+    private int totalLivres;
+    private int proximoRegisto;
+    private long marca;
+
+    public PacienteRegistoStore(@Value("${simlab.registos.capacidade:1000000}") int capacidade) {
+        if (capacidade < 0) {
+            throw new IllegalArgumentException("A capacidade não pode ser negativa");
+        }
+        this.capacidade = capacidade;
+        this.indice = new IndiceLongInt(Math.min(capacidade, REGISTOS_POR_SEGMENTO));
+    }
+
+    /**
+     * Lê o paciente a partir do seu registo, sem acesso à base de dados.
+     *
+     * @param id Identificador do paciente
+     * @return Detalhe do paciente, ou vazio se não estiver residente
+     */
+    public Optional<PacienteDetalheDTO> ler(long id) {
+        lock.readLock().lock();
+        try {
+            int registo = indice.get(id);
+            if (registo == IndiceLongInt.AUSENTE) {
+                return Optional.empty();
+            }
+            ByteBuffer segmento = segmentos.get(registo >>> BITS_SEGMENTO);
+            int base = (registo & (REGISTOS_POR_SEGMENTO - 1)) * TAMANHO_REGISTO;
+
+            String nome = lerTexto(segmento, base + OFFSET_NOME);
+            String email = lerTexto(segmento, base + OFFSET_EMAIL);
+            return Optional.of(new PacienteDetalheDTO(
+                    segmento.getLong(base + OFFSET_ID),
+                    nome,
+                    LocalDate.ofEpochDay(segmento.getInt(base + OFFSET_DATA)),
+                    digitos(segmento.getInt(base + OFFSET_CC), 8),
+                    digitos(segmento.getInt(base + OFFSET_TELEFONE), 9),
+                    email,
+                    (long) segmento.getInt(base + OFFSET_VERSAO)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devolve a marca de invalidação atual, a obter antes de ler o paciente da base de dados.
+     *
+     * @return Marca a passar a {@link #guardar(PacienteDetalheDTO, long)}
+     */
+    public long marca() {
+        lock.readLock().lock();
+        try {
+            return marca;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Guarda o paciente lido da base de dados, se nenhuma invalidação ocorreu desde a marca.
+     *
+     * <p>A marca evita que uma leitura anterior a uma atualização volte a colocar dados
+     * desatualizados depois de a atualização ter invalidado o registo.</p>
+     *
+     * @param paciente Detalhe do paciente
+     * @param marca    Marca obtida com {@link #marca()} antes da leitura
+     * @return true se o paciente ficou residente
+     */
+    public boolean guardar(PacienteDetalheDTO paciente, long marca) {
+        // o ID 0 é a chave reservada do índice e nunca é gerado pela base de dados
+        if (paciente.getId() == null || paciente.getId() == 0 || paciente.getDataDeNascimento() == null) {
+            return false;
+        }
+        int cc = numero(paciente.getCartaoCidadao(), 8);
+        int telefone = numero(paciente.getTelefone(), 9);
+        byte[] nome = paciente.getNome() == null ? null : paciente.getNome().getBytes(StandardCharsets.UTF_8);
+        byte[] email = paciente.getEmail() == null ? null : paciente.getEmail().getBytes(StandardCharsets.UTF_8);
+        if (cc < 0 || telefone < 0 || paciente.getVersao() == null || paciente.getVersao() > Integer.MAX_VALUE || nome == null || nome.length > MAX_BYTES_NOME
+                || (email != null && email.length > MAX_BYTES_EMAIL)) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (marca != this.marca) {
+                return false;
+            }
+            int registo = indice.get(paciente.getId());
+            if (registo == IndiceLongInt.AUSENTE) {
+                registo = reservarRegisto();
+                if (registo == IndiceLongInt.AUSENTE) {
+                    return false;
+                }
+                indice.put(paciente.getId(), registo);
+            }
+
+            ByteBuffer segmento = segmentos.get(registo >>> BITS_SEGMENTO);
+            int base = (registo & (REGISTOS_POR_SEGMENTO - 1)) * TAMANHO_REGISTO;
+            segmento.putLong(base + OFFSET_ID, paciente.getId());
+            segmento.putInt(base + OFFSET_DATA, Math.toIntExact(paciente.getDataDeNascimento().toEpochDay()));
+            segmento.putInt(base + OFFSET_CC, cc);
+            segmento.putInt(base + OFFSET_TELEFONE, telefone);
+            segmento.putInt(base + OFFSET_VERSAO, paciente.getVersao().intValue());
+            escreverTexto(segmento, base + OFFSET_NOME, nome);
+            escreverTexto(segmento, base + OFFSET_EMAIL, email);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Invalida o registo do paciente, libertando-o para reutilização.
+     *
+     * <p>Deve ser chamado depois de o paciente ser alterado ou apagado na base de dados.</p>
+     *
+     * @param id Identificador do paciente
+     */
+    public void remover(long id) {
+        lock.writeLock().lock();
+        try {
+            marca++;
+            int registo = indice.remove(id);
+            if (registo != IndiceLongInt.AUSENTE) {
+                if (totalLivres == livres.length) {
+                    livres = Arrays.copyOf(livres, livres.length << 1);
+                }
+                livres[totalLivres++] = registo;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Invalida todos os registos, mantendo os segmentos já alocados.
+     */
+    public void limpar() {
+        lock.writeLock().lock();
+        try {
+            marca++;
+            indice.limpar();
+            totalLivres = 0;
+            proximoRegisto = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Número de pacientes residentes
+     */
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return indice.tamanho();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Bytes fora da heap reservados pelos segmentos alocados
+     */
+    public long bytesReservados() {
+        lock.readLock().lock();
+        try {
+            return (long) segmentos.size() * REGISTOS_POR_SEGMENTO * TAMANHO_REGISTO;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reserva um registo livre, alocando um novo segmento se necessário. Chamado com o lock de escrita.
+     */
+    private int reservarRegisto() {
+        if (totalLivres > 0) {
+            return livres[--totalLivres];
+        }
+        if (proximoRegisto >= capacidade) {
+            return IndiceLongInt.AUSENTE;
+        }
+        if ((proximoRegisto >>> BITS_SEGMENTO) == segmentos.size()) {
+            segmentos.add(ByteBuffer.allocateDirect(REGISTOS_POR_SEGMENTO * TAMANHO_REGISTO));
+        }
+        return proximoRegisto++;
+    }
+
+    private static String lerTexto(ByteBuffer segmento, int posicao) {
+        int comprimento = segmento.get(posicao) & 0xFF;
+        if (comprimento == SEM_EMAIL) {
+            return null;
+        }
+        byte[] bytes = new byte[comprimento];
+        segmento.get(posicao + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void escreverTexto(ByteBuffer segmento, int posicao, byte[] bytes) {
+        if (bytes == null) {
+            segmento.put(posicao, (byte) SEM_EMAIL);
+            return;
+        }
+        segmento.put(posicao, (byte) bytes.length);
+        segmento.put(posicao + 1, bytes);
+    }
+
+    /**
+     * Converte um texto de exatamente {@code largura} dígitos num inteiro, ou devolve -1.
+     */
+    private static int numero(String texto, int largura) {
+        if (texto == null || texto.length() != largura) {
+            return -1;
+        }
+        int valor = 0;
+        for (int i = 0; i < largura; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+
+    /**
+     * Formata o inteiro com {@code largura} dígitos, preservando zeros à esquerda.
+     */
+    private static String digitos(int valor, int largura) {
+        char[] texto = new char[largura];
+        for (int i = largura - 1; i >= 0; i--) {
+            texto[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+        return new String(texto);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.simlab.cache;
+
+import com.example.simlab.exception.ChaveReutilizadaException;
+import com.example.simlab.exception.PedidoEmCursoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Respostas das criações com {@code Idempotency-Key}, para um cliente que repete o pedido (por
+ * exemplo depois de um timeout) receber a resposta do original em vez de criar outro registo.
+ *
+ * <p>Cada chave fica associada à impressão (SHA-256) do corpo do pedido e a um
+ * {@link CompletableFuture} com a resposta. O primeiro pedido com a chave executa a operação;
+ * uma repetição com o mesmo corpo espera por ele, até {@code simlab.idempotencia.espera}, e
+ * devolve a mesma resposta; uma repetição com outro corpo é recusada. As chaves ficam num cache
+ * Caffeine limitado a {@code simlab.idempotencia.capacidade} entradas e expiram ao fim de
+ * {@code simlab.idempotencia.validade}.</p>
+ *
+ * <p>Os erros não são guardados: se a operação falhar a chave é libertada e os pedidos que
+ * esperavam por ela executam-na de novo. O cache é local a cada instância da aplicação.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class RespostasIdempotentes {
+    /**
+     * Cabeçalho com a chave escolhida pelo cliente.
+     */
+    public static final String CABECALHO = "Idempotency-Key";
+    /**
+     * Cabeçalho acrescentado às respostas repetidas.
+     */
+    public static final String CABECALHO_REPETIDA = "Idempotent-Replayed";
+    static final int MAX_CHAVE = 255;
+
+    private final Cache<String, Execucao> execucoes;
+    private final ObjectMapper objectMapper;
+    private final Duration espera;
+
+    public RespostasIdempotentes(ObjectMapper objectMapper,
+                                 MeterRegistry registry,
+                                 @Value("${simlab.idempotencia.capacidade:20000}") long capacidade,
+                                 @Value("${simlab.idempotencia.validade:24h}") Duration validade,
+                                 @Value("${simlab.idempotencia.espera:30s}") Duration espera) {
+        this.objectMapper = objectMapper;
+        this.espera = espera;
+        this.execucoes = Caffeine.newBuilder()
+                .maximumSize(capacidade)
+                .expireAfterWrite(validade)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, execucoes, "idempotencia");
+    }
+
+    /**
+     * Executa uma criação uma só vez por chave.
+     *
+     * @param operacao Operação (por exemplo {@code "POST /pacientes"}), para a mesma chave poder
+     *                 ser usada em operações diferentes
+     * @param chave    Valor do cabeçalho {@value #CABECALHO}, ou null para executar sem idempotência
+     * @param pedido   Corpo do pedido, comparado com o do pedido original
+     * @param criar    Operação a executar; não pode devolver null
+     * @param <T>      Tipo da resposta
+     * @return Resposta da operação, e se foi repetida de um pedido anterior
+     * @throws IllegalArgumentException se a chave estiver vazia ou for demasiado longa
+     * @throws ChaveReutilizadaException se a chave já tiver sido usada com outro corpo
+     * @throws PedidoEmCursoException    se o pedido original não terminar dentro do tempo de espera
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Resposta<T> executar(String operacao, String chave, Object pedido, Supplier<T> criar) {
+        if (chave == null) {
+            return new Resposta<>(criar.get(), false);
+        }
+        if (chave.isBlank() || chave.length() > MAX_CHAVE) {
+            throw new IllegalArgumentException(CABECALHO + " deve ter entre 1 e " + MAX_CHAVE + " caracteres");
+        }
+        String id = operacao + ' ' + chave;
+        String impressao = impressao(pedido);
+        long limite = System.nanoTime() + espera.toNanos();
+        while (true) {
+            Execucao nova = new Execucao(impressao);
+            Execucao existente = execucoes.asMap().putIfAbsent(id, nova);
+            if (existente == null) {
+                return new Resposta<>(executar(id, nova, criar), false);
+            }
+            if (!existente.impressao().equals(impressao)) {
+                throw new ChaveReutilizadaException(CABECALHO + " já foi usada num pedido diferente");
+            }
+            Object corpo = aguardar(existente, limite);
+            if (corpo != null) {
+                return new Resposta<>((T) corpo, true);
+            }
+            // o pedido original falhou e libertou a chave: este pedido executa a operação
+        }
+    }
+
+    /**
+     * @return Número de chaves guardadas (aproximado, pode incluir chaves expiradas)
+     */
+    long tamanho() {
+        return execucoes.estimatedSize();
+    }
+
+    private <T> T executar(String id, Execucao execucao, Supplier<T> criar) {
+        T corpo;
+        try {
+            corpo = criar.get();
+        } catch (RuntimeException | Error e) {
+            execucoes.asMap().remove(id, execucao);
+            execucao.resposta().complete(null);
+            throw e;
+        }
+        execucao.resposta().complete(corpo);
+        return corpo;
+    }
+
+    private Object aguardar(Execucao execucao, long limite) {
+        try {
+            return execucao.resposta().get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new PedidoEmCursoException("Ainda está em curso um pedido com a mesma " + CABECALHO + "; repita mais tarde");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PedidoEmCursoException("Interrompido à espera do pedido com a mesma " + CABECALHO);
+        } catch (ExecutionException e) {
+            // as respostas nunca terminam com exceção: uma falha termina-as com null
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String impressao(Object pedido) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(pedido);
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Não foi possível calcular a impressão do pedido", e);
+        }
+    }
+
+    /**
+     * Pedido com uma chave: impressão do corpo e resposta, que termina com null se a operação falhar.
+     */
+    private record Execucao(String impressao, CompletableFuture<Object> resposta) {
+        Execucao(String impressao) {
+            this(impressao, new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Resposta de uma criação idempotente.
+     *
+     * @param corpo    Resposta da operação
+     * @param repetida true se a resposta é a de um pedido anterior com a mesma chave
+     * @param <T>      Tipo da resposta
+     */
+    public record Resposta<T>(T corpo, boolean repetida) {
+    }
+}
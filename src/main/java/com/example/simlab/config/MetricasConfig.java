@@ -0,0 +1,88 @@
+package com.example.simlab.config;
+
+import com.example.simlab.metricas.ContagemLinhas;
+import com.example.simlab.metricas.ConvencaoPedidosHttp;
+import com.example.simlab.metricas.OuvinteConsultasLentas;
+import com.example.simlab.metricas.RegistoConsultasLentas;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração das métricas próprias da aplicação, exportadas em {@code /actuator/prometheus},
+ * e do registo de consultas lentas.
+ *
+ * <p>As restantes (pedidos HTTP, métodos dos repositórios, pool Hikari, estatísticas do Hibernate
+ * e JVM) são registadas pelo Spring Boot; os histogramas de percentis são ativados em
+ * {@code application.properties}.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Acrescenta a tag {@code filtros} às métricas dos pedidos HTTP.
+     *
+     * @return Convenção usada pelo Spring MVC em vez da predefinida
+     */
+    @Bean
+    public ServerRequestObservationConvention convencaoPedidosHttp() {
+        return new ConvencaoPedidosHttp();
+    }
+
+    /**
+     * Instrumenta todos os repositórios Spring Data com a contagem de linhas devolvidas.
+     *
+     * <p>Estático e com o registo obtido só na primeira invocação, para o post-processor não
+     * obrigar a criar o {@link MeterRegistry} antes dos restantes beans.</p>
+     *
+     * @param registry Registo das métricas
+     * @return Post-processor das fábricas de repositórios
+     */
+    @Bean
+    public static BeanPostProcessor contagemLinhasRepositorios(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(repositoryFactory -> repositoryFactory.addRepositoryProxyPostProcessor(
+                            (proxy, informacao) -> proxy.addAdvice(
+                                    new ContagemLinhas(registry::getObject, informacao.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Envolve o DataSource num proxy JDBC que mede cada instrução e regista as lentas.
+     *
+     * @param registo Registo das consultas lentas
+     * @return Post-processor do DataSource
+     */
+    @Bean
+    public static BeanPostProcessor consultasLentasDataSource(ObjectProvider<RegistoConsultasLentas> registo) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new OuvinteConsultasLentas(registo.getObject(), dataSource))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.dto.ConsultaLentaDTO;
+import com.example.simlab.dto.EstatisticasCacheDTO;
+import com.example.simlab.metricas.RegistoConsultasLentas;
+import com.example.simlab.service.EstatisticasCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller REST com endpoints de administração e diagnóstico.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final EstatisticasCacheService estatisticasCacheService;
+    private final RegistoConsultasLentas consultasLentas;
+
+    public AdminController(EstatisticasCacheService estatisticasCacheService, RegistoConsultasLentas consultasLentas) {
+        this.estatisticasCacheService = estatisticasCacheService;
+        this.consultasLentas = consultasLentas;
+    }
+
+    /**
+     * Devolve as estatísticas da cache de segundo nível.
+     *
+     * @return ResponseEntity com status 200 OK e acertos/falhas por região
+     */
+    @Operation(summary = "Estatísticas da cache", description = "Acertos, falhas e taxa de acerto da cache de segundo nível por região")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso")
+    })
+    @GetMapping("/cache")
+    public ResponseEntity<List<EstatisticasCacheDTO>> estatisticasCache() {
+        return ResponseEntity.ok(estatisticasCacheService.listar());
+    }
+
+    /**
+     * Devolve as instruções SQL mais lentas, com os parâmetros e o plano da pior execução.
+     *
+     * @return ResponseEntity com status 200 OK e as instruções da mais lenta para a mais rápida
+     */
+    @Operation(summary = "Consultas lentas", description = "Instruções SQL acima do limiar, com parâmetros e EXPLAIN ANALYZE")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Consultas lentas retornadas com sucesso")
+    })
+    @GetMapping("/consultas-lentas")
+    public ResponseEntity<List<ConsultaLentaDTO>> consultasLentas() {
+        return ResponseEntity.ok(consultasLentas.listar());
+    }
+
+    /**
+     * Esquece as consultas lentas registadas.
+     *
+     * @return ResponseEntity com status 204 No Content
+     */
+    @Operation(summary = "Limpar consultas lentas", description = "Esquece as instruções registadas, por exemplo depois de criar um índice")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Registo limpo")
+    })
+    @DeleteMapping("/consultas-lentas")
+    public ResponseEntity<Void> limparConsultasLentas() {
+        consultasLentas.limpar();
+        return ResponseEntity.noContent().build();
+    }
+}
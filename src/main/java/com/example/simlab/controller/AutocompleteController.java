@@ -0,0 +1,54 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.dto.SugestaoDTO;
+import com.example.simlab.service.AutocompleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller REST para o autocompletar de nomes de pacientes e exames.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@RestController
+@RequestMapping("/autocomplete")
+public class AutocompleteController {
+
+    private final AutocompleteService service;
+
+    public AutocompleteController(AutocompleteService service) {
+        this.service = service;
+    }
+
+    /**
+     * Sugere nomes de pacientes e/ou exames que começam pelo texto escrito.
+     *
+     * @param q      Início do nome
+     * @param tipo   "paciente" ou "exame" (opcional; por omissão, ambos)
+     * @param limite Número máximo de sugestões (1 a 10)
+     * @return ResponseEntity com status 200 OK e as sugestões, da mais para a menos frequente
+     */
+    @Operation(summary = "Autocompletar nomes", description = "Sugere os nomes de pacientes e exames mais frequentes que começam pelo texto, sem distinguir maiúsculas nem acentos, sem consultar a base de dados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões, da mais para a menos frequente"),
+            @ApiResponse(responseCode = "400", description = "Texto vazio, tipo não suportado ou limite fora de 1 a 10"),
+            @ApiResponse(responseCode = "503", description = "Índice de sugestões ainda em construção")
+    })
+    @GetMapping
+    public ResponseEntity<List<SugestaoDTO>> sugerir(@RequestParam String q,
+                                                     @RequestParam(required = false) String tipo,
+                                                     @RequestParam(defaultValue = "10") int limite) {
+
+        return ResponseEntity.ok(service.sugerir(q, tipo, limite));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.exception.VersaoDesatualizadaException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversão entre a versão de uma entidade e a ETag devolvida aos clientes.
+ *
+ * <p>A ETag é forte e é só a versão entre aspas ({@code "3"}): identifica a representação dentro
+ * do mesmo URI. O {@code If-None-Match} dos GET é tratado pelo Spring ao ver a ETag na resposta
+ * (304 sem corpo); o {@code If-Match} é convertido aqui na versão esperada, que os services
+ * verificam na própria escrita.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class Etags {
+
+    private Etags() {
+    }
+
+    /**
+     * @param versao Versão da entidade
+     * @return ETag forte da versão
+     */
+    static String etag(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * Versão exigida por um cabeçalho If-Match.
+     *
+     * @param ifMatch Valor do cabeçalho, ou null
+     * @return Versão esperada, ou null se o cabeçalho faltar ou for {@code *}
+     * @throws VersaoDesatualizadaException se nenhuma das ETags puder ser uma versão atual
+     *                                      (ETags fracas nunca correspondem no If-Match)
+     * @throws IllegalArgumentException se indicar mais de uma versão
+     */
+    static Long versao(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        List<Long> versoes = new ArrayList<>();
+        for (String etag : ifMatch.split(",")) {
+            String valor = etag.strip();
+            if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+                try {
+                    versoes.add(Long.parseLong(valor.substring(1, valor.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // não é uma ETag emitida por esta API: não corresponde a nenhuma versão
+                }
+            }
+        }
+        if (versoes.isEmpty()) {
+            throw new VersaoDesatualizadaException("O If-Match não corresponde à versão atual: " + ifMatch);
+        }
+        if (versoes.size() > 1) {
+            throw new IllegalArgumentException("O If-Match só pode indicar uma versão");
+        }
+        return versoes.get(0);
+    }
+}
@@ -1,22 +1,36 @@
 package com.example.simlab.controller;
 
+import com.example.simlab.cache.RespostasIdempotentes;
+import com.example.simlab.dto.JanelaDTO;
 import com.example.simlab.dto.ExameDTO;
 import com.example.simlab.dto.ExameDetalheDTO;
 import com.example.simlab.dto.ExameUpdateDTO;
+import com.example.simlab.dto.LoteResultadoDTO;
+import com.example.simlab.service.ExameImportacaoService;
 import com.example.simlab.service.ExameService;
+import com.example.simlab.service.CursorPaginacao;
+import com.example.simlab.service.ExportacaoService;
+import com.example.simlab.service.FormatoExportacao;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * Controller REST para gerenciar operações relacionadas a exames.
  *
@@ -31,15 +45,26 @@ import org.springframework.web.bind.annotation.*;
 public class ExameController {
 
     private final ExameService service;
+    private final ExameImportacaoService importacaoService;
+    private final ExportacaoService exportacaoService;
+    private final RespostasIdempotentes idempotentes;
 
-    public ExameController(ExameService service) {
+    public ExameController(ExameService service, ExameImportacaoService importacaoService, ExportacaoService exportacaoService,
+                           RespostasIdempotentes idempotentes) {
         this.service = service;
+        this.importacaoService = importacaoService;
+        this.exportacaoService = exportacaoService;
+        this.idempotentes = idempotentes;
     }
 
     /**
      * Cria um novo exame.
      *
-     * @param dto Dados iniciais para criação do exame
+     * <p>Com o cabeçalho {@code Idempotency-Key}, um pedido repetido com a mesma chave e o mesmo
+     * corpo devolve a resposta do original, sem criar outro exame.</p>
+     *
+     * @param dto   Dados iniciais para criação do exame
+     * @param chave Chave de idempotência escolhida pelo cliente (opcional)
      * @return ResponseEntity com status 201 Created e detalhes do exame criado
      */
     @Operation(summary = "Criar novo exame", description = "Cria um novo exame associado a um paciente")
@@ -119,15 +144,39 @@ public class ExameController {
                                             """
                             )
 
-                    ))
+                    )),
+            @ApiResponse(responseCode = "409", description = "Ainda está em curso um pedido com a mesma Idempotency-Key"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada num pedido com outro corpo")
     })
 
     @PostMapping
-    public ResponseEntity<ExameDetalheDTO> criar(@Valid @RequestBody ExameDTO dto) {
-
-        ExameDetalheDTO criar = service.criar(dto);
+    public ResponseEntity<ExameDetalheDTO> criar(@Valid @RequestBody ExameDTO dto,
+                                                 @RequestHeader(value = RespostasIdempotentes.CABECALHO, required = false) String chave) {
+        RespostasIdempotentes.Resposta<ExameDetalheDTO> resposta = idempotentes.executar("POST /exames", chave, dto, () -> service.criar(dto));
+        ResponseEntity.BodyBuilder criado = ResponseEntity.status(HttpStatus.CREATED);
+        if (resposta.repetida()) {
+            criado.header(RespostasIdempotentes.CABECALHO_REPETIDA, "true");
+        }
+        return criado.body(resposta.corpo());
+    }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(criar);
+    /**
+     * Importa exames em NDJSON (um exame JSON por linha).
+     *
+     * <p>O corpo é lido em streaming e gravado em blocos, sem carregar o ficheiro inteiro em memória.</p>
+     *
+     * @param entrada Corpo do pedido em NDJSON
+     * @return ResponseEntity com status 200 OK e o resumo da importação
+     * @throws IOException se não for possível ler o corpo do pedido
+     */
+    @Operation(summary = "Importar exames em NDJSON", description = "Importa exames em streaming, um exame JSON por linha, reportando os erros por linha")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importação processada; consultar os erros por linha no resultado")
+    })
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<LoteResultadoDTO> importar(InputStream entrada) throws IOException {
+        LoteResultadoDTO resultado = importacaoService.importar(entrada);
+        return ResponseEntity.ok(resultado);
     }
 
     /**
@@ -150,6 +199,74 @@ public class ExameController {
 
     }
 
+    /**
+     * Lista exames por cursor (keyset), para scroll infinito.
+     *
+     * <p>Não devolve totais: o custo de cada janela é constante em qualquer profundidade.</p>
+     *
+     * @param nome      Nome do exame para filtrar (opcional)
+     * @param descricao Descrição do exame para filtrar (opcional)
+     * @param after Cursor devolvido na janela anterior (omitir para a primeira janela)
+     * @param size  Número máximo de elementos da janela
+     * @return ResponseEntity com status 200 OK e a janela de exames
+     */
+    @Operation(summary = "Listar exames por cursor", description = "Lista exames por cursor (keyset), sem contagem total, para scroll infinito")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Janela de exames retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de janela inválido")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<JanelaDTO<ExameDTO>> listarPorCursor(@RequestParam(required = false) String nome,
+                                                               @RequestParam(required = false) String descricao,
+                                                               @RequestParam(required = false) String after,
+                                                               @RequestParam(defaultValue = "" + CursorPaginacao.TAMANHO_PADRAO) int size) {
+
+        return ResponseEntity.ok(service.listarPorCursor(nome, descricao, after, size));
+    }
+
+    /**
+     * Pesquisa exames por texto no nome e na descrição, ordenados por relevância.
+     *
+     * @param q        Palavras a pesquisar
+     * @param pageable Parâmetros de paginação (a ordenação é a da relevância)
+     * @return ResponseEntity com status 200 OK e página de exames
+     */
+    @Operation(summary = "Pesquisar exames", description = "Pesquisa de texto no nome e na descrição dos exames, sem distinguir maiúsculas, acentos, singular e plural, ordenada por relevância")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exames encontrados, do mais para o menos relevante"),
+            @ApiResponse(responseCode = "400", description = "Pesquisa sem palavras pesquisáveis"),
+            @ApiResponse(responseCode = "503", description = "Índice de pesquisa ainda em construção")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<Page<ExameDTO>> pesquisar(@RequestParam String q, @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(service.pesquisar(q, pageable));
+    }
+
+    /**
+     * Exporta todos os exames em NDJSON ou CSV.
+     *
+     * <p>As linhas são escritas diretamente na resposta à medida que são lidas da base de dados,
+     * sem paginação.</p>
+     *
+     * @param formato  Formato da exportação: ndjson (por omissão) ou csv
+     * @param response Resposta HTTP onde as linhas são escritas
+     * @throws IOException se não for possível escrever na resposta
+     */
+    @Operation(summary = "Exportar exames", description = "Exporta todos os exames em streaming, em NDJSON ou CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação devolvida com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Formato de exportação não suportado")
+    })
+    @GetMapping("/exportar")
+    public void exportar(@RequestParam(defaultValue = "ndjson") String formato, HttpServletResponse response) throws IOException {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+
+        response.setContentType(formatoExportacao.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=exames." + formatoExportacao.getExtensao());
+        exportacaoService.exportarExames(formatoExportacao, response.getOutputStream());
+    }
+
     /**
      * Busca um exame pelo seu identificador único.
      *
@@ -158,13 +275,17 @@ public class ExameController {
      */
     @Operation(summary = "Buscar exame por ID", description = "Retorna os detalhes de um exame específico")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Exame encontrado com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Exame encontrado com sucesso; a ETag é a versão"),
+            @ApiResponse(responseCode = "304", description = "A versão indicada no If-None-Match ainda é a atual"),
             @ApiResponse(responseCode = "404", description = "Exame não encontrado com o ID fornecido")
     })
     @GetMapping("/{id}")
     public ResponseEntity<ExameDetalheDTO> buscar(@PathVariable Long id) {
 
-        return service.buscarPorId(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        // com a ETag na resposta, o Spring responde 304 sem corpo quando o If-None-Match corresponde
+        return service.buscarPorId(id)
+                .map(dto -> ResponseEntity.ok().eTag(Etags.etag(dto.getVersao())).body(dto))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -172,35 +293,66 @@ public class ExameController {
      *
      * @param id  Identificador único do exame a ser atualizado
      * @param dto Novos dados do exame
+     * @param ifMatch ETag da versão lida (opcional); se já não for a atual, responde 412
      * @return ResponseEntity com status 200 OK e detalhes do exame atualizado
      */
     @Operation(summary = "Atualizar exame", description = "Atualiza os dados de um exame existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Exame atualizado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos (validação falhou)"),
-            @ApiResponse(responseCode = "404", description = "Exame não encontrado com o ID fornecido")
+            @ApiResponse(responseCode = "404", description = "Exame não encontrado com o ID fornecido"),
+            @ApiResponse(responseCode = "409", description = "Exame alterado por outro pedido durante a atualização"),
+            @ApiResponse(responseCode = "412", description = "A versão indicada no If-Match já não é a atual")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<ExameDetalheDTO> atualizar(@PathVariable Long id, @Valid @RequestBody ExameUpdateDTO dto) {
-        ExameDetalheDTO atualizada = service.atualizar(id, dto);
+    public ResponseEntity<ExameDetalheDTO> atualizar(@PathVariable Long id, @Valid @RequestBody ExameUpdateDTO dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ExameDetalheDTO atualizada = service.atualizar(id, dto, Etags.versao(ifMatch));
+
+        return ResponseEntity.ok().eTag(Etags.etag(atualizada.getVersao())).body(atualizada);
+    }
 
-        return ResponseEntity.ok(atualizada);
+    /**
+     * Altera só os campos enviados de um exame existente (JSON Merge Patch).
+     *
+     * @param id    Identificador único do exame a ser atualizado
+     * @param patch Campos a alterar; nenhum campo pode ser apagado com null
+     * @param ifMatch ETag da versão lida (opcional); se já não for a atual, responde 412
+     * @return ResponseEntity com status 200 OK e detalhes do exame atualizado
+     */
+    @Operation(summary = "Atualizar exame parcialmente", description = "Altera só os campos enviados (JSON Merge Patch, RFC 7396), "
+            + "com um UPDATE que escreve apenas as colunas desses campos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exame atualizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido, campo obrigatório a null ou valor inválido"),
+            @ApiResponse(responseCode = "404", description = "Exame não encontrado com o ID fornecido"),
+            @ApiResponse(responseCode = "412", description = "A versão indicada no If-Match já não é a atual"),
+            @ApiResponse(responseCode = "409", description = "Já existe outro exame com o nome enviado")
+    })
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ExameDetalheDTO> atualizarParcial(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ExameDetalheDTO atualizada = service.atualizarParcial(id, patch, Etags.versao(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.etag(atualizada.getVersao())).body(atualizada);
     }
 
     /**
      * Apaga um exame da base de dados.
      *
      * @param id Identificação única do exame a ser apagado
+     * @param ifMatch ETag da versão lida (opcional); se já não for a atual, responde 412
      * @return ResponseEntity com status 204 No Content se apagado com sucesso ou status 404 Not Found se não encontrado
      */
     @Operation(summary = "Apagar exame", description = "Remove um exame do sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Exame apagado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Exame não encontrado com o ID fornecido")
+            @ApiResponse(responseCode = "404", description = "Exame não encontrado com o ID fornecido"),
+            @ApiResponse(responseCode = "412", description = "A versão indicada no If-Match já não é a atual")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> apagar(@PathVariable Long id) {
-        if (service.apagar(id)) {
+    public ResponseEntity<Void> apagar(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (service.apagar(id, Etags.versao(ifMatch))) {
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -1,23 +1,36 @@
 package com.example.simlab.controller;
 
+import com.example.simlab.cache.RespostasIdempotentes;
+import com.example.simlab.dto.ExameDetalheDTO;
+import com.example.simlab.dto.LoteResultadoDTO;
+import com.example.simlab.dto.JanelaDTO;
 import com.example.simlab.dto.PacienteDTO;
 import com.example.simlab.dto.PacienteDetalheDTO;
 import com.example.simlab.dto.PacienteUpdateDTO;
 import com.example.simlab.service.PacienteService;
+import com.example.simlab.service.CursorPaginacao;
+import com.example.simlab.service.ExportacaoService;
+import com.example.simlab.service.FormatoExportacao;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Controller REST para gerenciar operações relacionadas a pacientes.
@@ -34,16 +47,25 @@ import java.time.LocalDate;
 @RequestMapping("/pacientes")
 public class PacienteController {
 
+    private static final String INCLUIR_EXAMES = "exames";
     private final PacienteService service;
+    private final ExportacaoService exportacaoService;
+    private final RespostasIdempotentes idempotentes;
 
-    public PacienteController(PacienteService service) {
+    public PacienteController(PacienteService service, ExportacaoService exportacaoService, RespostasIdempotentes idempotentes) {
         this.service = service;
+        this.exportacaoService = exportacaoService;
+        this.idempotentes = idempotentes;
     }
 
     /**
      * Cria um novo paciente.
      *
-     * @param dto Dados do paciente a ser criado
+     * <p>Com o cabeçalho {@code Idempotency-Key}, um pedido repetido com a mesma chave e o mesmo
+     * corpo devolve a resposta do original, sem criar outro paciente.</p>
+     *
+     * @param dto   Dados do paciente a ser criado
+     * @param chave Chave de idempotência escolhida pelo cliente (opcional)
      * @return ResponseEntity com status 201 Created e detalhes do paciente criado
      */
     @Operation(summary = "Criar novo paciente", description = "Cria um novo paciente no sistema")
@@ -103,12 +125,38 @@ public class PacienteController {
                                             """
                             )
                     )
-            )
+            ),
+            @ApiResponse(responseCode = "409", description = "Ainda está em curso um pedido com a mesma Idempotency-Key"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usada num pedido com outro corpo")
     })
     @PostMapping
-    public ResponseEntity<PacienteDetalheDTO> criar(@Valid @RequestBody PacienteDTO dto) {
-        PacienteDetalheDTO criado = service.criar(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(criado);
+    public ResponseEntity<PacienteDetalheDTO> criar(@Valid @RequestBody PacienteDTO dto,
+                                                    @RequestHeader(value = RespostasIdempotentes.CABECALHO, required = false) String chave) {
+        RespostasIdempotentes.Resposta<PacienteDetalheDTO> resposta = idempotentes.executar("POST /pacientes", chave, dto, () -> service.criar(dto));
+        ResponseEntity.BodyBuilder criado = ResponseEntity.status(HttpStatus.CREATED);
+        if (resposta.repetida()) {
+            criado.header(RespostasIdempotentes.CABECALHO_REPETIDA, "true");
+        }
+        return criado.body(resposta.corpo());
+    }
+
+    /**
+     * Cria vários pacientes num único pedido.
+     *
+     * <p>Cada linha é validada individualmente; as linhas rejeitadas são reportadas no resultado
+     * e as restantes são gravadas.</p>
+     *
+     * @param dtos Lista de pacientes a serem criados
+     * @return ResponseEntity com status 200 OK e o resumo do lote
+     */
+    @Operation(summary = "Criar pacientes em lote", description = "Cria vários pacientes de uma vez, reportando os erros por linha")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado; consultar os erros por linha no resultado")
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<LoteResultadoDTO> criarLote(@RequestBody List<PacienteDTO> dtos) {
+        LoteResultadoDTO resultado = service.criarLote(dtos);
+        return ResponseEntity.ok(resultado);
     }
 
     /**
@@ -136,64 +184,202 @@ public class PacienteController {
 
     }
 
+    /**
+     * Lista pacientes por cursor (keyset), para scroll infinito.
+     *
+     * <p>Não devolve totais: o custo de cada janela é constante em qualquer profundidade.</p>
+     *
+     * @param nome             Nome do paciente para filtrar (opcional)
+     * @param dataDeNascimento Data de Nascimento do paciente para filtrar (opcional)
+     * @param cartaoCidadao    Cartão de Cidadão para filtrar (opcional)
+     * @param after Cursor devolvido na janela anterior (omitir para a primeira janela)
+     * @param size  Número máximo de elementos da janela
+     * @return ResponseEntity com status 200 OK e a janela de pacientes
+     */
+    @Operation(summary = "Listar pacientes por cursor", description = "Lista pacientes por cursor (keyset), sem contagem total, para scroll infinito")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Janela de pacientes retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de janela inválido")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<JanelaDTO<PacienteDTO>> listarPorCursor(@RequestParam(required = false) String nome,
+                                                                  @RequestParam(required = false) LocalDate dataDeNascimento,
+                                                                  @RequestParam(required = false) String cartaoCidadao,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(defaultValue = "" + CursorPaginacao.TAMANHO_PADRAO) int size) {
+
+        return ResponseEntity.ok(service.listarPorCursor(nome, dataDeNascimento, cartaoCidadao, after, size));
+    }
+
+    /**
+     * Pesquisa pacientes pelo nome, ordenados por semelhança.
+     *
+     * @param q        Nome, ou parte do nome, a pesquisar
+     * @param fuzzy    true para aceitar também nomes com erros de escrita
+     * @param pageable Parâmetros de paginação (a ordenação é a da semelhança)
+     * @return ResponseEntity com status 200 OK e página de pacientes
+     */
+    @Operation(summary = "Pesquisar pacientes por nome", description = "Pesquisa pelo nome sem distinguir maiúsculas, acentos e grafias que soam igual (Sousa/Souza); com fuzzy=true aceita também erros de escrita, ordenando por semelhança")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pacientes encontrados, do mais para o menos semelhante"),
+            @ApiResponse(responseCode = "400", description = "Pesquisa sem letras"),
+            @ApiResponse(responseCode = "503", description = "Índice de pesquisa ainda em construção")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<Page<PacienteDTO>> pesquisar(@RequestParam String q,
+                                                       @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                       @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(service.pesquisar(q, fuzzy, pageable));
+    }
+
+    /**
+     * Exporta todos os pacientes em NDJSON ou CSV.
+     *
+     * <p>As linhas são escritas diretamente na resposta à medida que são lidas da base de dados,
+     * sem paginação.</p>
+     *
+     * @param formato  Formato da exportação: ndjson (por omissão) ou csv
+     * @param response Resposta HTTP onde as linhas são escritas
+     * @throws IOException se não for possível escrever na resposta
+     */
+    @Operation(summary = "Exportar pacientes", description = "Exporta todos os pacientes em streaming, em NDJSON ou CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação devolvida com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Formato de exportação não suportado")
+    })
+    @GetMapping("/exportar")
+    public void exportar(@RequestParam(defaultValue = "ndjson") String formato, HttpServletResponse response) throws IOException {
+        FormatoExportacao formatoExportacao = FormatoExportacao.de(formato);
+
+        response.setContentType(formatoExportacao.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=pacientes." + formatoExportacao.getExtensao());
+        exportacaoService.exportarPacientes(formatoExportacao, response.getOutputStream());
+    }
+
     /**
      * Busca um paciente pelo seu identificador único.
      *
-     * @param id Identificador único do paciente
+     * <p>Com {@code include=exames} a resposta inclui todos os exames do paciente, lidos na mesma
+     * consulta. Essa resposta não tem ETag: a versão do paciente não muda quando mudam os exames.</p>
+     *
+     * @param id      Identificador único do paciente
+     * @param include "exames" para incluir os exames do paciente (opcional)
      * @return ResponseEntity com status 200 OK e detalhes do paciente se encontrado
      * ou status 404 Not Found se não encontrado
      */
-    @Operation(summary = "Buscar paciente por ID", description = "Retorna os detalhes de um paciente específico")
+    @Operation(summary = "Buscar paciente por ID", description = "Retorna os detalhes de um paciente específico e, com include=exames, os seus exames")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Paciente encontrado com sucesso"),
+            @ApiResponse(responseCode = "200", description = "Paciente encontrado com sucesso; sem include, a ETag é a versão"),
+            @ApiResponse(responseCode = "304", description = "A versão indicada no If-None-Match ainda é a atual"),
+            @ApiResponse(responseCode = "400", description = "Valor de include desconhecido"),
             @ApiResponse(responseCode = "404", description = "Paciente não encontrado com o ID fornecido")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<PacienteDetalheDTO> buscar(@PathVariable Long id) {
+    public ResponseEntity<PacienteDetalheDTO> buscar(@PathVariable Long id,
+                                                     @RequestParam(required = false) String include) {
+
+        if (include != null) {
+            if (!INCLUIR_EXAMES.equals(include)) {
+                throw new IllegalArgumentException("include desconhecido: " + include + " (aceita: " + INCLUIR_EXAMES + ")");
+            }
+            return service.buscarComExames(id)
+                    .<ResponseEntity<PacienteDetalheDTO>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }
 
+        // com a ETag na resposta, o Spring responde 304 sem corpo quando o If-None-Match corresponde
         return service.buscarPorId(id)
-                .map(dto -> ResponseEntity.ok(dto))
+                .map(dto -> ResponseEntity.ok().eTag(Etags.etag(dto.getVersao())).body(dto))
                 .orElseGet(() -> ResponseEntity.notFound().build());
 
     }
 
+    /**
+     * Lista os exames de um paciente com paginação.
+     *
+     * @param id       Identificador único do paciente
+     * @param pageable Parâmetro para paginação e organização (por omissão, por ID)
+     * @return ResponseEntity com status 200 OK e página de exames do paciente
+     */
+    @Operation(summary = "Listar exames do paciente", description = "Lista os exames de um paciente com paginação, por ID se não for pedida outra ordenação")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de exames do paciente retornada com sucesso"),
+            @ApiResponse(responseCode = "404", description = "Paciente não encontrado com o ID fornecido")
+    })
+    @GetMapping("/{id}/exames")
+    public ResponseEntity<Page<ExameDetalheDTO>> listarExames(@PathVariable Long id, @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(service.listarExames(id, pageable));
+    }
+
     /**
      * Atualiza os dados de um paciente existente.
      *
      * @param id  Identificador único do paciente a ser atualizado
      * @param dto Novos dados do paciente
+     * @param ifMatch ETag da versão lida (opcional); se já não for a atual, responde 412
      * @return ResponseEntity com status 200 OK e detalhes do paciente atualizado
      */
     @Operation(summary = "Atualizar paciente", description = "Atualiza os dados de um paciente existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Paciente atualizado com sucesso"),
             @ApiResponse(responseCode = "400", description = "Dados de entrada inválidos (validação falhou)"),
-            @ApiResponse(responseCode = "404", description = "Paciente não encontrado com o ID fornecido")
+            @ApiResponse(responseCode = "404", description = "Paciente não encontrado com o ID fornecido"),
+            @ApiResponse(responseCode = "409", description = "Paciente alterado por outro pedido durante a atualização"),
+            @ApiResponse(responseCode = "412", description = "A versão indicada no If-Match já não é a atual")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<PacienteDetalheDTO> atualizar(@PathVariable Long id, @Valid @RequestBody PacienteUpdateDTO dto) {
+    public ResponseEntity<PacienteDetalheDTO> atualizar(@PathVariable Long id, @Valid @RequestBody PacienteUpdateDTO dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        PacienteDetalheDTO atualizada = service.atualizar(id, dto);
+        PacienteDetalheDTO atualizada = service.atualizar(id, dto, Etags.versao(ifMatch));
 
-        return ResponseEntity.ok(atualizada);
+        return ResponseEntity.ok().eTag(Etags.etag(atualizada.getVersao())).body(atualizada);
 
     }
 
+    /**
+     * Altera só os campos enviados de um paciente existente (JSON Merge Patch).
+     *
+     * @param id    Identificador único do paciente a ser atualizado
+     * @param patch Campos a alterar; um campo a null apaga o valor (só o email pode ser apagado)
+     * @param ifMatch ETag da versão lida (opcional); se já não for a atual, responde 412
+     * @return ResponseEntity com status 200 OK e detalhes do paciente atualizado
+     */
+    @Operation(summary = "Atualizar paciente parcialmente", description = "Altera só os campos enviados (JSON Merge Patch, RFC 7396), "
+            + "com um UPDATE que escreve apenas as colunas desses campos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Paciente atualizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo desconhecido, campo obrigatório a null ou valor inválido"),
+            @ApiResponse(responseCode = "404", description = "Paciente não encontrado com o ID fornecido"),
+            @ApiResponse(responseCode = "412", description = "A versão indicada no If-Match já não é a atual"),
+            @ApiResponse(responseCode = "409", description = "Já existe outro paciente com o Cartão de Cidadão enviado")
+    })
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<PacienteDetalheDTO> atualizarParcial(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PacienteDetalheDTO atualizada = service.atualizarParcial(id, patch, Etags.versao(ifMatch));
+        return ResponseEntity.ok().eTag(Etags.etag(atualizada.getVersao())).body(atualizada);
+    }
+
     /**
      * Apaga um paciente da base de dados.
      *
      * @param id Identificador único do paciente a ser apagado
+     * @param ifMatch ETag da versão lida (opcional); se já não for a atual, responde 412
      * @return ResponseEntity com status 204 No Content se apagado com sucesso ou status 404 Not Found se não encontrado
      */
     @Operation(summary = "Apagar paciente", description = "Remove um paciente do sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Paciente apagado com sucesso"),
-            @ApiResponse(responseCode = "404", description = "Paciente não encontrado com o ID fornecido")
+            @ApiResponse(responseCode = "404", description = "Paciente não encontrado com o ID fornecido"),
+            @ApiResponse(responseCode = "412", description = "A versão indicada no If-Match já não é a atual")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> apagar(@PathVariable Long id) {
+    public ResponseEntity<Void> apagar(@PathVariable Long id,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        if (service.apagar(id)) {
+        if (service.apagar(id, Etags.versao(ifMatch))) {
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,98 @@
+package com.example.simlab.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO com uma instrução SQL que ultrapassou o limiar de consultas lentas.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ConsultaLentaDTO {
+    /**
+     * Instrução SQL, tal como foi preparada.
+     */
+    private String sql;
+    /**
+     * Valores dos parâmetros da execução mais lenta, por ordem.
+     */
+    private List<String> parametros;
+    /**
+     * Duração da execução mais lenta, em milissegundos.
+     */
+    private long duracaoMs;
+    /**
+     * Número de execuções acima do limiar.
+     */
+    private long ocorrencias;
+    /**
+     * Instante da execução mais lenta.
+     */
+    private Instant instante;
+    /**
+     * Plano do {@code EXPLAIN ANALYZE} da execução mais lenta, ou null se não estiver (ainda) disponível.
+     */
+    private String plano;
+
+    public ConsultaLentaDTO() {
+    }
+
+    public ConsultaLentaDTO(String sql, List<String> parametros, long duracaoMs, long ocorrencias, Instant instante, String plano) {
+        this.sql = sql;
+        this.parametros = parametros;
+        this.duracaoMs = duracaoMs;
+        this.ocorrencias = ocorrencias;
+        this.instante = instante;
+        this.plano = plano;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public List<String> getParametros() {
+        return parametros;
+    }
+
+    public void setParametros(List<String> parametros) {
+        this.parametros = parametros;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    public void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    public long getOcorrencias() {
+        return ocorrencias;
+    }
+
+    public void setOcorrencias(long ocorrencias) {
+        this.ocorrencias = ocorrencias;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    public void setInstante(Instant instante) {
+        this.instante = instante;
+    }
+
+    public String getPlano() {
+        return plano;
+    }
+
+    public void setPlano(String plano) {
+        this.plano = plano;
+    }
+}
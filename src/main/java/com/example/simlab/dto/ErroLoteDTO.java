@@ -0,0 +1,43 @@
+package com.example.simlab.dto;
+
+/**
+ * DTO que descreve a rejeição de uma linha numa operação em lote.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ErroLoteDTO {
+    /**
+     * Posição da linha no lote (começa em 1).
+     */
+    private long linha;
+    /**
+     * Motivo pelo qual a linha foi rejeitada.
+     */
+    private String mensagem;
+
+    public ErroLoteDTO() {
+    }
+
+    public ErroLoteDTO(long linha, String mensagem) {
+        this.linha = linha;
+        this.mensagem = mensagem;
+    }
+
+    public long getLinha() {
+        return linha;
+    }
+
+    public void setLinha(long linha) {
+        this.linha = linha;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.simlab.dto;
+
+/**
+ * DTO com as estatísticas de uma região da cache de segundo nível.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class EstatisticasCacheDTO {
+    /**
+     * Nome da região da cache.
+     */
+    private String regiao;
+    /**
+     * Número de leituras servidas pela cache.
+     */
+    private long acertos;
+    /**
+     * Número de leituras que tiveram de ir à base de dados.
+     */
+    private long falhas;
+    /**
+     * Número de entradas colocadas na cache.
+     */
+    private long insercoes;
+    /**
+     * Proporção de acertos (entre 0 e 1) sobre o total de leituras.
+     */
+    private double taxaAcerto;
+
+    public EstatisticasCacheDTO() {
+    }
+
+    public EstatisticasCacheDTO(String regiao, long acertos, long falhas, long insercoes) {
+        this.regiao = regiao;
+        this.acertos = acertos;
+        this.falhas = falhas;
+        this.insercoes = insercoes;
+        long leituras = acertos + falhas;
+        this.taxaAcerto = leituras == 0 ? 0 : (double) acertos / leituras;
+    }
+
+    public String getRegiao() {
+        return regiao;
+    }
+
+    public void setRegiao(String regiao) {
+        this.regiao = regiao;
+    }
+
+    public long getAcertos() {
+        return acertos;
+    }
+
+    public void setAcertos(long acertos) {
+        this.acertos = acertos;
+    }
+
+    public long getFalhas() {
+        return falhas;
+    }
+
+    public void setFalhas(long falhas) {
+        this.falhas = falhas;
+    }
+
+    public long getInsercoes() {
+        return insercoes;
+    }
+
+    public void setInsercoes(long insercoes) {
+        this.insercoes = insercoes;
+    }
+
+    public double getTaxaAcerto() {
+        return taxaAcerto;
+    }
+
+    public void setTaxaAcerto(double taxaAcerto) {
+        this.taxaAcerto = taxaAcerto;
+    }
+}
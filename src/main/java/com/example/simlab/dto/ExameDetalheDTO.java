@@ -31,16 +31,21 @@ public class ExameDetalheDTO {
      * Identificador do paciente ao qual o exame pertence.
      */
     private Long pacienteId;
+    /**
+     * Versão do exame, também devolvida como ETag.
+     */
+    private Long versao;
 
     public ExameDetalheDTO() {
     }
 
-    public ExameDetalheDTO(Long id, String nome, String descricao, Double preco, Long pacienteId) {
+    public ExameDetalheDTO(Long id, String nome, String descricao, Double preco, Long pacienteId, Long versao) {
         this.id = id;
         this.nome = nome;
         this.descricao = descricao;
         this.preco = preco;
         this.pacienteId = pacienteId;
+        this.versao = versao;
     }
 
     public Long getId() {
@@ -82,4 +87,12 @@ public class ExameDetalheDTO {
     public void setPacienteId(Long pacienteId) {
         this.pacienteId = pacienteId;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
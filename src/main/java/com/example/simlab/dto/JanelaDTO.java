@@ -0,0 +1,62 @@
+package com.example.simlab.dto;
+
+import java.util.List;
+
+/**
+ * DTO de retorno das listagens por cursor (keyset).
+ *
+ * <p>Não inclui total de elementos nem de páginas: para obter a janela seguinte basta enviar
+ * {@code proximoCursor} no parâmetro {@code after}.</p>
+ *
+ * @param <T> Tipo dos elementos da janela
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class JanelaDTO<T> {
+    /**
+     * Elementos da janela atual.
+     */
+    private List<T> conteudo;
+    /**
+     * Cursor opaco para pedir a janela seguinte, ou null se esta for a última.
+     */
+    private String proximoCursor;
+    /**
+     * Indica se existem mais elementos depois desta janela.
+     */
+    private boolean temMais;
+
+    public JanelaDTO() {
+    }
+
+    public JanelaDTO(List<T> conteudo, String proximoCursor, boolean temMais) {
+        this.conteudo = conteudo;
+        this.proximoCursor = proximoCursor;
+        this.temMais = temMais;
+    }
+
+    public List<T> getConteudo() {
+        return conteudo;
+    }
+
+    public void setConteudo(List<T> conteudo) {
+        this.conteudo = conteudo;
+    }
+
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    public void setProximoCursor(String proximoCursor) {
+        this.proximoCursor = proximoCursor;
+    }
+
+    public boolean isTemMais() {
+        return temMais;
+    }
+
+    public void setTemMais(boolean temMais) {
+        this.temMais = temMais;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.simlab.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de retorno das operações em lote.
+ *
+ * <p>Resume quantas linhas foram recebidas, criadas e rejeitadas, com o motivo de cada rejeição.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class LoteResultadoDTO {
+    /**
+     * Número de linhas recebidas no lote.
+     */
+    private long recebidos;
+    /**
+     * Número de linhas gravadas na base de dados.
+     */
+    private long criados;
+    /**
+     * Número de linhas rejeitadas.
+     */
+    private long rejeitados;
+    /**
+     * Erros por linha.
+     */
+    private List<ErroLoteDTO> erros = new ArrayList<>();
+
+    public LoteResultadoDTO() {
+    }
+
+    public LoteResultadoDTO(long recebidos, long criados, long rejeitados, List<ErroLoteDTO> erros) {
+        this.recebidos = recebidos;
+        this.criados = criados;
+        this.rejeitados = rejeitados;
+        this.erros = erros;
+    }
+
+    public long getRecebidos() {
+        return recebidos;
+    }
+
+    public void setRecebidos(long recebidos) {
+        this.recebidos = recebidos;
+    }
+
+    public long getCriados() {
+        return criados;
+    }
+
+    public void setCriados(long criados) {
+        this.criados = criados;
+    }
+
+    public long getRejeitados() {
+        return rejeitados;
+    }
+
+    public void setRejeitados(long rejeitados) {
+        this.rejeitados = rejeitados;
+    }
+
+    public List<ErroLoteDTO> getErros() {
+        return erros;
+    }
+
+    public void setErros(List<ErroLoteDTO> erros) {
+        this.erros = erros;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.simlab.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para retorno detalhado de um paciente com os seus exames.
+ *
+ * <p>Utilizado como resposta de {@code GET /pacientes/{id}?include=exames}, para mostrar a ficha
+ * do paciente sem um pedido por cada página de exames.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class PacienteComExamesDTO extends PacienteDetalheDTO {
+    /**
+     * Exames do paciente, por ordem de ID.
+     */
+    private List<ExameDetalheDTO> exames;
+
+    public PacienteComExamesDTO() {
+    }
+
+    public PacienteComExamesDTO(Long id, String nome, LocalDate dataDeNascimento, String cartaoCidadao, String telefone, String email,
+                                Long versao, List<ExameDetalheDTO> exames) {
+        super(id, nome, dataDeNascimento, cartaoCidadao, telefone, email, versao);
+        this.exames = exames;
+    }
+
+    public List<ExameDetalheDTO> getExames() {
+        return exames;
+    }
+
+    public void setExames(List<ExameDetalheDTO> exames) {
+        this.exames = exames;
+    }
+}
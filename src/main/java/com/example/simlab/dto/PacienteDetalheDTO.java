@@ -37,18 +37,22 @@ public class PacienteDetalheDTO {
      * Endereço de e-mail do paciente.
      */
     private String email;
-
+    /**
+     * Versão do paciente, também devolvida como ETag.
+     */
+    private Long versao;
 
     public PacienteDetalheDTO() {
     }
 
-    public PacienteDetalheDTO(Long id, String nome, LocalDate dataDeNascimento, String cartaoCidadao, String telefone, String email) {
+    public PacienteDetalheDTO(Long id, String nome, LocalDate dataDeNascimento, String cartaoCidadao, String telefone, String email, Long versao) {
         this.id = id;
         this.nome = nome;
         this.dataDeNascimento = dataDeNascimento;
         this.cartaoCidadao = cartaoCidadao;
         this.telefone = telefone;
         this.email = email;
+        this.versao = versao;
     }
 
     public Long getId() {
@@ -99,4 +103,11 @@ public class PacienteDetalheDTO {
         this.email = email;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
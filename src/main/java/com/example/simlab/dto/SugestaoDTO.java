@@ -0,0 +1,56 @@
+package com.example.simlab.dto;
+
+/**
+ * DTO de um nome sugerido pelo autocompletar.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class SugestaoDTO {
+    /**
+     * Nome sugerido.
+     */
+    private String texto;
+    /**
+     * Origem do nome: "paciente" ou "exame".
+     */
+    private String tipo;
+    /**
+     * Número de registos com este nome.
+     */
+    private int ocorrencias;
+
+    public SugestaoDTO() {
+    }
+
+    public SugestaoDTO(String texto, String tipo, int ocorrencias) {
+        this.texto = texto;
+        this.tipo = tipo;
+        this.ocorrencias = ocorrencias;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public int getOcorrencias() {
+        return ocorrencias;
+    }
+
+    public void setOcorrencias(int ocorrencias) {
+        this.ocorrencias = ocorrencias;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.simlab.exception;
+
+/**
+ * Exceção lançada quando uma Idempotency-Key já usada chega com um pedido diferente.
+ *
+ *  <p>Utilizada nas criações idempotentes: a mesma chave só pode repetir o mesmo pedido, e
+ *  um corpo diferente indica um erro do cliente que não deve devolver a resposta do original.</p>
+ *
+ *  @author Amanda
+ *  @version 1.0
+ *  @since 2026-10-17
+ */
+
+//Será usada quando a chave de idempotência é reutilizada noutro pedido (422)
+public class ChaveReutilizadaException extends RuntimeException {
+    /**
+     * Cria uma exceção com mensagem específica.
+     *
+     * @param mensagem Mensagem de erro descrevendo a chave reutilizada
+     */
+
+    public ChaveReutilizadaException(String mensagem) {
+        super(mensagem);
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.example.simlab.exception;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -39,6 +41,78 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
     }
 
+    // Trata IndisponivelException → 503 Service Unavailable
+    @ExceptionHandler(IndisponivelException.class)
+    public ResponseEntity<Map<String, Object>> tratarIndisponivel(IndisponivelException ex) {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("timestamp", LocalDateTime.now());
+        erro.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        erro.put("error", "Service Unavailable");
+        erro.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(erro);
+    }
+
+    // Trata VersaoDesatualizadaException → 412 Precondition Failed
+    @ExceptionHandler(VersaoDesatualizadaException.class)
+    public ResponseEntity<Map<String, Object>> tratarVersaoDesatualizada(VersaoDesatualizadaException ex) {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("timestamp", LocalDateTime.now());
+        erro.put("status", HttpStatus.PRECONDITION_FAILED.value());
+        erro.put("error", "Precondition Failed");
+        erro.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(erro);
+    }
+
+    // Trata PedidoEmCursoException → 409 Conflict
+    @ExceptionHandler(PedidoEmCursoException.class)
+    public ResponseEntity<Map<String, Object>> tratarPedidoEmCurso(PedidoEmCursoException ex) {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("timestamp", LocalDateTime.now());
+        erro.put("status", HttpStatus.CONFLICT.value());
+        erro.put("error", "Conflict");
+        erro.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
+    }
+
+    // Trata ChaveReutilizadaException → 422 Unprocessable Entity
+    @ExceptionHandler(ChaveReutilizadaException.class)
+    public ResponseEntity<Map<String, Object>> tratarChaveReutilizada(ChaveReutilizadaException ex) {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("timestamp", LocalDateTime.now());
+        erro.put("status", HttpStatus.UNPROCESSABLE_ENTITY.value());
+        erro.put("error", "Unprocessable Entity");
+        erro.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(erro);
+    }
+
+    // Trata atualizações concorrentes detetadas pela versão, sem If-Match → 409 Conflict
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> tratarConcorrencia(OptimisticLockingFailureException ex) {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("timestamp", LocalDateTime.now());
+        erro.put("status", HttpStatus.CONFLICT.value());
+        erro.put("error", "Conflict");
+        erro.put("message", "O recurso foi alterado por outro pedido; leia-o de novo e repita a alteração");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
+    }
+
+    // Trata violações de restrições da bd não traduzidas pelos services → 409 Conflict
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> tratarIntegridade(DataIntegrityViolationException ex) {
+        Map<String, Object> erro = new HashMap<>();
+        erro.put("timestamp", LocalDateTime.now());
+        erro.put("status", HttpStatus.CONFLICT.value());
+        erro.put("error", "Conflict");
+        erro.put("message", "Os dados violam uma restrição de integridade");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(erro);
+    }
+
     // Trata validações (@Valid) → 400 Bad Request
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> tratarValidacao(MethodArgumentNotValidException ex) {
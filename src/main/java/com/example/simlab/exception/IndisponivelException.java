@@ -0,0 +1,26 @@
+package com.example.simlab.exception;
+
+/**
+ * Exceção lançada quando um recurso ainda não está disponível para responder ao pedido.
+ *
+ *  <p>Utilizada quando o índice de pesquisa de exames ainda está a ser construído, logo
+ *  após o arranque da aplicação.</p>
+ *
+ *  @author Amanda
+ *  @version 1.0
+ *  @since 2026-10-17
+ */
+
+//Será usada quando o pedido pode ser repetido mais tarde (503)
+public class IndisponivelException extends RuntimeException {
+    /**
+     * Cria uma exceção com mensagem específica.
+     *
+     * @param mensagem Mensagem de erro descrevendo o que está indisponível
+     */
+
+    public IndisponivelException(String mensagem) {
+        super(mensagem);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.simlab.exception;
+
+/**
+ * Exceção lançada quando ainda está a ser processado um pedido com a mesma Idempotency-Key.
+ *
+ *  <p>Utilizada quando a repetição de um pedido chega antes de o original terminar e este não
+ *  termina dentro do tempo de espera: o cliente deve repetir o pedido mais tarde.</p>
+ *
+ *  @author Amanda
+ *  @version 1.0
+ *  @since 2026-10-17
+ */
+
+//Será usada quando o pedido original ainda está em curso (409)
+public class PedidoEmCursoException extends RuntimeException {
+    /**
+     * Cria uma exceção com mensagem específica.
+     *
+     * @param mensagem Mensagem de erro descrevendo o pedido em curso
+     */
+
+    public PedidoEmCursoException(String mensagem) {
+        super(mensagem);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.simlab.exception;
+
+/**
+ * Exceção lançada quando a versão indicada pelo cliente (If-Match) já não é a atual.
+ *
+ *  <p>Utilizada nas atualizações e remoções condicionais: o recurso foi alterado depois de o
+ *  cliente o ter lido, e a operação é recusada em vez de sobrepor essa alteração.</p>
+ *
+ *  @author Amanda
+ *  @version 1.0
+ *  @since 2026-10-17
+ */
+
+//Será usada quando a pré-condição do pedido falha (412)
+public class VersaoDesatualizadaException extends RuntimeException {
+    /**
+     * Cria uma exceção com mensagem específica.
+     *
+     * @param mensagem Mensagem de erro descrevendo o recurso alterado
+     */
+
+    public VersaoDesatualizadaException(String mensagem) {
+        super(mensagem);
+    }
+
+}
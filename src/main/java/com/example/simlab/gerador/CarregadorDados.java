@@ -0,0 +1,110 @@
+package com.example.simlab.gerador;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Preenche a base de dados com dados sintéticos no arranque, no perfil {@code gerador}.
+ *
+ * <p>Os dados são gerados pelo {@link GeradorDados} em ficheiros CSV temporários e carregados
+ * bloco a bloco com {@code INSERT ... SELECT FROM CSVREAD}, que o H2 executa sem passar pelo
+ * Hibernate nem pelo JDBC linha a linha. No fim, as sequências dos IDs recomeçam acima dos IDs
+ * carregados, para as criações pela API continuarem a funcionar.</p>
+ *
+ * <p>Corre antes de a aplicação ficar pronta, pelo que os filtros de unicidade já são construídos
+ * sobre os dados carregados. Se a tabela de pacientes já tiver dados (base de dados em ficheiro
+ * reaberta), a geração é ignorada.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+@Profile("gerador")
+public class CarregadorDados implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(CarregadorDados.class);
+
+    /**
+     * Tem de acompanhar o allocationSize das sequências das entidades.
+     */
+    private static final long ALOCACAO_SEQUENCIAS = 50;
+
+    private final JdbcTemplate jdbc;
+    private final long pacientes;
+    private final double examesPorPaciente;
+    private final long semente;
+    private final LocalDate dataReferencia;
+
+    public CarregadorDados(JdbcTemplate jdbc,
+                           @Value("${simlab.gerador.pacientes}") long pacientes,
+                           @Value("${simlab.gerador.exames-por-paciente}") double examesPorPaciente,
+                           @Value("${simlab.gerador.semente}") long semente,
+                           @Value("${simlab.gerador.data-referencia}") LocalDate dataReferencia) {
+        this.jdbc = jdbc;
+        this.pacientes = pacientes;
+        this.examesPorPaciente = examesPorPaciente;
+        this.semente = semente;
+        this.dataReferencia = dataReferencia;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Long existentes = jdbc.queryForObject("select count(*) from pacientes", Long.class);
+        if (existentes != null && existentes > 0) {
+            log.warn("A base de dados já tem {} pacientes; geração de dados ignorada", existentes);
+            return;
+        }
+
+        Path diretorio = Files.createTempDirectory("simlab-gerador");
+        try {
+            long inicio = System.nanoTime();
+            ResumoGeracao resumo = new GeradorDados(semente, dataReferencia)
+                    .gerar(diretorio, pacientes, examesPorPaciente, GeradorDados.PACIENTES_POR_FICHEIRO);
+            long gerado = System.nanoTime();
+            log.info("Gerados {} pacientes e {} exames em {} ms", resumo.getPacientes(), resumo.getExames(),
+                    (gerado - inicio) / 1_000_000);
+
+            for (ResumoGeracao.Bloco bloco : resumo.getBlocos()) {
+                carregar(bloco.getPacientes(), "pacientes", GeradorDados.CABECALHO_PACIENTES);
+                carregar(bloco.getExames(), "exames", GeradorDados.CABECALHO_EXAMES);
+                Files.delete(bloco.getPacientes());
+                Files.delete(bloco.getExames());
+            }
+
+            // com o otimizador pooled o valor da sequência é o topo do bloco: recomeça acima do último bloco usado
+            jdbc.execute("alter sequence pacientes_seq restart with " + (resumo.getPacientes() + ALOCACAO_SEQUENCIAS + 1));
+            jdbc.execute("alter sequence exames_seq restart with " + (resumo.getExames() + ALOCACAO_SEQUENCIAS + 1));
+            log.info("Carregados {} pacientes e {} exames em {} ms", resumo.getPacientes(), resumo.getExames(),
+                    (System.nanoTime() - gerado) / 1_000_000);
+        } finally {
+            try (var restantes = Files.list(diretorio)) {
+                for (Path ficheiro : restantes.toList()) {
+                    Files.delete(ficheiro);
+                }
+            }
+            Files.delete(diretorio);
+        }
+    }
+
+    /**
+     * Carrega um ficheiro CSV numa tabela com as colunas do cabeçalho, numa única instrução.
+     */
+    private void carregar(Path ficheiro, String tabela, String colunas) {
+        // o H2 lê a tabela do CSVREAD ao preparar a instrução, pelo que o ficheiro não pode ser um parâmetro;
+        // os campos vazios são lidos como NULL (emails em falta); todas as linhas começam na versão 0
+        String caminho = ficheiro.toAbsolutePath().toString().replace("'", "''");
+        jdbc.update("insert into " + tabela + " (" + colunas + ",versao) select " + colunas
+                + ",0 from csvread('" + caminho + "', null, 'charset=UTF-8')");
+    }
+}
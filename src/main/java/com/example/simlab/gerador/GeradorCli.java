@@ -0,0 +1,60 @@
+package com.example.simlab.gerador;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Linha de comandos do gerador de dados: escreve os ficheiros CSV sem arrancar a aplicação.
+ *
+ * <p>Como só usa o JDK, corre a partir do jar simples da aplicação:</p>
+ * <pre>
+ * java -cp target/simlab-0.0.1-SNAPSHOT.jar com.example.simlab.gerador.GeradorCli \
+ *      --pacientes=1000000 --exames-por-paciente=9 --semente=42 --saida=dados
+ * </pre>
+ *
+ * <p>Os ficheiros podem depois ser carregados com o perfil {@code gerador} (que gera e carrega
+ * os mesmos dados para a mesma semente) ou com {@code CSVREAD} noutra base de dados H2.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class GeradorCli {
+
+    private GeradorCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                System.err.println("Argumento inválido: " + arg);
+                System.err.println("Uso: GeradorCli --pacientes=N [--exames-por-paciente=M] [--semente=S] "
+                        + "[--saida=DIR] [--data-referencia=AAAA-MM-DD] [--pacientes-por-ficheiro=N]");
+                System.exit(2);
+            }
+            opcoes.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+
+        long pacientes = Long.parseLong(opcoes.getOrDefault("pacientes", "100000"));
+        double examesPorPaciente = Double.parseDouble(opcoes.getOrDefault("exames-por-paciente", "5"));
+        long semente = Long.parseLong(opcoes.getOrDefault("semente", "42"));
+        Path saida = Path.of(opcoes.getOrDefault("saida", "dados"));
+        LocalDate dataReferencia = opcoes.containsKey("data-referencia")
+                ? LocalDate.parse(opcoes.get("data-referencia")) : GeradorDados.DATA_REFERENCIA;
+        int pacientesPorFicheiro = Integer.parseInt(opcoes.getOrDefault("pacientes-por-ficheiro",
+                String.valueOf(GeradorDados.PACIENTES_POR_FICHEIRO)));
+
+        long inicio = System.nanoTime();
+        ResumoGeracao resumo = new GeradorDados(semente, dataReferencia)
+                .gerar(saida, pacientes, examesPorPaciente, pacientesPorFicheiro);
+        long ms = (System.nanoTime() - inicio) / 1_000_000;
+
+        System.out.printf("%d pacientes e %d exames em %d ficheiros (%s) em %d ms%n",
+                resumo.getPacientes(), resumo.getExames(), resumo.getBlocos().size() * 2, saida.toAbsolutePath(), ms);
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.simlab.gerador;
+
+import com.example.simlab.model.Normalizacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador determinístico de pacientes e exames sintéticos, escritos em ficheiros CSV.
+ *
+ * <p>Cada paciente é gerado a partir de um gerador aleatório próprio, derivado da semente e do seu
+ * ID, pelo que a mesma semente produz sempre os mesmos dados, independentemente do tamanho dos
+ * ficheiros. Os dados respeitam as validações das entidades:</p>
+ * <ul>
+ *     <li>Cartão de Cidadão de 8 dígitos, único: permutação afim de [0, 10^8) sobre o ID;</li>
+ *     <li>telefone de 9 dígitos começado por 9 (prefixos móveis 91, 92, 93 e 96);</li>
+ *     <li>data de nascimento segundo uma pirâmide etária com mais utentes entre os 40 e os 70 anos;</li>
+ *     <li>número de exames por paciente com distribuição log-normal: a maioria tem poucos e
+ *     alguns têm dezenas, com a média pedida;</li>
+ *     <li>nome de exame único, formado pelo nome do catálogo e pelo ID do exame.</li>
+ * </ul>
+ *
+ * <p>Os nomes são também escritos normalizados (coluna {@code NOME_NORM}), porque a carga em massa
+ * não passa pelos callbacks das entidades que mantêm essa coluna.</p>
+ *
+ * <p>Os ficheiros são escritos em blocos de pacientes ({@code pacientes-NNN.csv} e
+ * {@code exames-NNN.csv}, com cabeçalho com os nomes das colunas), para a carga poder ser feita
+ * bloco a bloco, com os pacientes de cada bloco carregados antes dos respetivos exames.</p>
+ *
+ * <p>Só depende do JDK, para poder ser usado pelo {@link GeradorCli} sem o contexto Spring.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class GeradorDados {
+    /**
+     * Data de referência por omissão das idades geradas.
+     */
+    public static final LocalDate DATA_REFERENCIA = LocalDate.of(2026, 1, 1);
+    /**
+     * Pacientes por bloco de ficheiros por omissão.
+     */
+    public static final int PACIENTES_POR_FICHEIRO = 250_000;
+    /**
+     * Número de Cartões de Cidadão distintos (8 dígitos).
+     */
+    static final long CARTOES_POSSIVEIS = 100_000_000L;
+    /**
+     * Limite de exames de um só paciente, para a cauda da distribuição não gerar valores absurdos.
+     */
+    static final int MAXIMO_EXAMES_POR_PACIENTE = 500;
+    /**
+     * Desvio da log-normal do número de exames por paciente (maior = mais assimétrica).
+     */
+    private static final double DISPERSAO_EXAMES = 1.0;
+
+    static final String CABECALHO_PACIENTES = "ID,NOME,DATA_NASCIMENTO,CARTAO_CIDADAO,TELEFONE,EMAIL,NOME_NORM";
+    static final String CABECALHO_EXAMES = "ID,NOME,DESCRICAO,PRECO,PACIENTE_ID,NOME_NORM";
+
+    private static final String[] NOMES_PROPRIOS = {
+            "Maria", "Ana", "Beatriz", "Inês", "Mariana", "Sofia", "Joana", "Carolina", "Rita", "Catarina",
+            "Francisca", "Leonor", "Matilde", "Marta", "Sara", "Helena", "Teresa", "Conceição", "Fátima", "Rosa",
+            "João", "José", "António", "Francisco", "Manuel", "Pedro", "Tiago", "Rui", "Miguel", "Afonso",
+            "Duarte", "Tomás", "Gonçalo", "Diogo", "Rodrigo", "Luís", "Carlos", "Paulo", "Nuno", "Ricardo"
+    };
+    private static final String[] APELIDOS = {
+            "Silva", "Santos", "Ferreira", "Pereira", "Oliveira", "Costa", "Rodrigues", "Martins", "Jesus", "Sousa",
+            "Fernandes", "Gonçalves", "Gomes", "Lopes", "Marques", "Alves", "Almeida", "Ribeiro", "Pinto", "Carvalho",
+            "Teixeira", "Moreira", "Correia", "Mendes", "Nunes", "Soares", "Vieira", "Monteiro", "Cardoso", "Rocha"
+    };
+    /**
+     * Nomes normalizados, usados na coluna NOME_NORM e nos emails.
+     */
+    private static final String[] NOMES_PROPRIOS_NORM = normalizar(NOMES_PROPRIOS);
+    private static final String[] APELIDOS_NORM = normalizar(APELIDOS);
+    private static final String[] PREFIXOS_TELEFONE = {"91", "92", "93", "96"};
+    /**
+     * Peso de cada década de idade (0-9, 10-19, ..., 90-99) entre os utentes do laboratório.
+     */
+    private static final int[] PESOS_DECADA = {6, 7, 9, 12, 15, 16, 15, 12, 6, 2};
+    private static final int[] PESOS_DECADA_ACUMULADOS = acumular(PESOS_DECADA);
+
+    private static final ExameCatalogo[] CATALOGO = {
+            new ExameCatalogo("Hemograma completo", "Contagem de células sanguíneas", 850, 20),
+            new ExameCatalogo("Glicemia em jejum", "Glicose no sangue após jejum", 320, 18),
+            new ExameCatalogo("Colesterol total", "Perfil lipídico", 410, 14),
+            new ExameCatalogo("Triglicéridos", "Perfil lipídico", 420, 10),
+            new ExameCatalogo("Creatinina", "Função renal", 380, 10),
+            new ExameCatalogo("Urina tipo II", "Análise sumária da urina", 560, 9),
+            new ExameCatalogo("TSH", "Função tiroideia", 1240, 6),
+            new ExameCatalogo("Hemoglobina A1c", "Controlo da diabetes", 980, 5),
+            new ExameCatalogo("Proteína C reativa", "Marcador de inflamação", 720, 5),
+            new ExameCatalogo("Vitamina D", "Doseamento de 25-OH vitamina D", 1850, 4),
+            new ExameCatalogo("Ferritina", "Reservas de ferro", 1100, 3),
+            new ExameCatalogo("ALT", "Função hepática", 350, 3),
+            new ExameCatalogo("Gama-GT", "Função hepática", 360, 2),
+            new ExameCatalogo("PSA total", "Antigénio específico da próstata", 1560, 2),
+            new ExameCatalogo("Vitamina B12", "Doseamento de cianocobalamina", 1420, 1),
+            new ExameCatalogo("INR", "Tempo de protrombina", 640, 1)
+    };
+    private static final int[] PESOS_CATALOGO_ACUMULADOS;
+    private static final String[] CATALOGO_NOMES_NORM;
+
+    static {
+        int[] pesos = new int[CATALOGO.length];
+        String[] nomes = new String[CATALOGO.length];
+        for (int i = 0; i < CATALOGO.length; i++) {
+            pesos[i] = CATALOGO[i].peso();
+            nomes[i] = CATALOGO[i].nome();
+        }
+        PESOS_CATALOGO_ACUMULADOS = acumular(pesos);
+        CATALOGO_NOMES_NORM = normalizar(nomes);
+    }
+
+    private final long semente;
+    private final LocalDate dataReferencia;
+    /**
+     * Multiplicador e deslocamento da permutação dos Cartões de Cidadão, derivados da semente.
+     */
+    private final long multiplicadorCartao;
+    private final long deslocamentoCartao;
+
+    /**
+     * @param semente        Semente dos dados gerados
+     * @param dataReferencia Data a que se referem as idades (fixa, para os dados não dependerem do dia da geração)
+     */
+    public GeradorDados(long semente, LocalDate dataReferencia) {
+        this.semente = semente;
+        this.dataReferencia = dataReferencia;
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        long multiplicador = aleatorio.nextLong(1, CARTOES_POSSIVEIS);
+        // primo com 10^8 (nem par nem múltiplo de 5) para a permutação ser bijetiva
+        while (multiplicador % 2 == 0 || multiplicador % 5 == 0) {
+            multiplicador++;
+        }
+        this.multiplicadorCartao = multiplicador;
+        this.deslocamentoCartao = aleatorio.nextLong(CARTOES_POSSIVEIS);
+    }
+
+    /**
+     * Gera os ficheiros CSV no diretório indicado.
+     *
+     * @param diretorio            Diretório de destino (criado se não existir)
+     * @param pacientes            Número de pacientes, com IDs de 1 a {@code pacientes}
+     * @param examesPorPaciente    Média de exames por paciente
+     * @param pacientesPorFicheiro Número de pacientes de cada bloco
+     * @return Resumo da geração, com os ficheiros de cada bloco por ordem
+     * @throws IllegalArgumentException se os parâmetros forem inválidos
+     * @throws IOException              se não for possível escrever os ficheiros
+     */
+    public ResumoGeracao gerar(Path diretorio, long pacientes, double examesPorPaciente, int pacientesPorFicheiro) throws IOException {
+        if (pacientes < 0 || pacientes > CARTOES_POSSIVEIS) {
+            throw new IllegalArgumentException("O número de pacientes deve estar entre 0 e " + CARTOES_POSSIVEIS);
+        }
+        if (examesPorPaciente < 0) {
+            throw new IllegalArgumentException("A média de exames por paciente não pode ser negativa");
+        }
+        if (pacientesPorFicheiro < 1) {
+            throw new IllegalArgumentException("Cada ficheiro deve ter pelo menos um paciente");
+        }
+        Files.createDirectories(diretorio);
+
+        List<ResumoGeracao.Bloco> blocos = new ArrayList<>();
+        StringBuilder linha = new StringBuilder(256);
+        long exameId = 0;
+        for (long inicio = 1, bloco = 0; inicio <= pacientes; inicio += pacientesPorFicheiro, bloco++) {
+            long fim = Math.min(pacientes, inicio + pacientesPorFicheiro - 1);
+            Path ficheiroPacientes = diretorio.resolve(String.format("pacientes-%03d.csv", bloco));
+            Path ficheiroExames = diretorio.resolve(String.format("exames-%03d.csv", bloco));
+            long primeiroExame = exameId + 1;
+
+            try (Writer outPacientes = abrir(ficheiroPacientes, CABECALHO_PACIENTES);
+                 Writer outExames = abrir(ficheiroExames, CABECALHO_EXAMES)) {
+                for (long id = inicio; id <= fim; id++) {
+                    SplittableRandom aleatorio = aleatorioDoPaciente(id);
+                    escreverPaciente(linha, id, aleatorio);
+                    outPacientes.append(linha);
+
+                    int exames = numeroExames(aleatorio, examesPorPaciente);
+                    for (int i = 0; i < exames; i++) {
+                        escreverExame(linha, ++exameId, id, aleatorio);
+                        outExames.append(linha);
+                    }
+                }
+            }
+            blocos.add(new ResumoGeracao.Bloco(ficheiroPacientes, ficheiroExames, fim - inicio + 1, exameId - primeiroExame + 1));
+        }
+        return new ResumoGeracao(pacientes, exameId, blocos);
+    }
+
+    /**
+     * Cartão de Cidadão do paciente com o ID indicado: distinto para cada ID até {@value #CARTOES_POSSIVEIS}.
+     *
+     * <p>Os IDs acima do número de pacientes gerados dão Cartões de Cidadão que de certeza não
+     * existem nos dados gerados com a mesma semente.</p>
+     */
+    public String cartaoCidadao(long id) {
+        // a * i cabe num long: ambos os fatores são menores que 10^8
+        long valor = (multiplicadorCartao * (id - 1) + deslocamentoCartao) % CARTOES_POSSIVEIS;
+        return preencher(valor, 8);
+    }
+
+    private SplittableRandom aleatorioDoPaciente(long id) {
+        return new SplittableRandom(misturar(semente + id * 0x9E3779B97F4A7C15L));
+    }
+
+    private void escreverPaciente(StringBuilder linha, long id, SplittableRandom aleatorio) {
+        int proprio = aleatorio.nextInt(NOMES_PROPRIOS.length);
+        int apelido1 = aleatorio.nextInt(APELIDOS.length);
+        int apelido2 = aleatorio.nextInt(APELIDOS.length);
+
+        int decada = escolher(PESOS_DECADA_ACUMULADOS, aleatorio);
+        int diasDeIdade = decada * 3652 + aleatorio.nextInt(3652);
+        LocalDate nascimento = dataReferencia.minusDays(diasDeIdade);
+
+        String telefone = PREFIXOS_TELEFONE[aleatorio.nextInt(PREFIXOS_TELEFONE.length)] + preencher(aleatorio.nextInt(10_000_000), 7);
+
+        linha.setLength(0);
+        linha.append(id).append(',')
+                .append(NOMES_PROPRIOS[proprio]).append(' ').append(APELIDOS[apelido1]).append(' ').append(APELIDOS[apelido2]).append(',')
+                .append(nascimento).append(',')
+                .append(cartaoCidadao(id)).append(',')
+                .append(telefone).append(',');
+        // cerca de 3 em cada 10 pacientes não têm email (campo vazio = NULL)
+        if (aleatorio.nextInt(10) >= 3) {
+            linha.append(NOMES_PROPRIOS_NORM[proprio]).append('.').append(APELIDOS_NORM[apelido2]).append(id).append("@exemplo.pt");
+        }
+        linha.append(',')
+                .append(NOMES_PROPRIOS_NORM[proprio]).append(' ').append(APELIDOS_NORM[apelido1]).append(' ').append(APELIDOS_NORM[apelido2])
+                .append('\n');
+    }
+
+    private static void escreverExame(StringBuilder linha, long id, long pacienteId, SplittableRandom aleatorio) {
+        int indice = escolher(PESOS_CATALOGO_ACUMULADOS, aleatorio);
+        ExameCatalogo exame = CATALOGO[indice];
+        // preço do catálogo com variação de ±20% entre laboratórios, em cêntimos
+        long centimos = exame.centimos() * (80 + aleatorio.nextInt(41)) / 100;
+
+        linha.setLength(0);
+        linha.append(id).append(',')
+                .append(exame.nome()).append(" #").append(id).append(',')
+                .append(exame.descricao()).append(',')
+                .append(centimos / 100).append('.').append(preencher(centimos % 100, 2)).append(',')
+                .append(pacienteId).append(',')
+                .append(CATALOGO_NOMES_NORM[indice]).append(" #").append(id).append('\n');
+    }
+
+    /**
+     * Número de exames de um paciente: log-normal com a média pedida, arredondada de forma
+     * aleatória para a média se manter nos valores inteiros.
+     */
+    private static int numeroExames(SplittableRandom aleatorio, double media) {
+        if (media == 0) {
+            return 0;
+        }
+        double mu = Math.log(media) - DISPERSAO_EXAMES * DISPERSAO_EXAMES / 2;
+        double valor = Math.exp(mu + DISPERSAO_EXAMES * normal(aleatorio));
+        return (int) Math.min(MAXIMO_EXAMES_POR_PACIENTE, Math.floor(valor + aleatorio.nextDouble()));
+    }
+
+    /**
+     * Amostra da normal padrão pelo método de Box-Muller.
+     */
+    private static double normal(SplittableRandom aleatorio) {
+        double u = 1.0 - aleatorio.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * aleatorio.nextDouble());
+    }
+
+    private static int escolher(int[] pesosAcumulados, SplittableRandom aleatorio) {
+        int alvo = aleatorio.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        int i = 0;
+        while (pesosAcumulados[i] <= alvo) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] acumular(int[] pesos) {
+        int[] acumulados = new int[pesos.length];
+        int soma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            soma += pesos[i];
+            acumulados[i] = soma;
+        }
+        return acumulados;
+    }
+
+    private static Writer abrir(Path ficheiro, String cabecalho) throws IOException {
+        BufferedWriter out = new BufferedWriter(Files.newBufferedWriter(ficheiro, StandardCharsets.UTF_8), 1 << 20);
+        out.write(cabecalho);
+        out.write('\n');
+        return out;
+    }
+
+    private static String preencher(long valor, int digitos) {
+        String texto = Long.toString(valor);
+        return texto.length() >= digitos ? texto : "0".repeat(digitos - texto.length()) + texto;
+    }
+
+    private static String[] normalizar(String[] textos) {
+        String[] resultado = new String[textos.length];
+        for (int i = 0; i < textos.length; i++) {
+            resultado[i] = Normalizacao.normalizar(textos[i]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Função de mistura do SplittableRandom (variante 13 do Stafford), para sementes vizinhas darem sequências independentes.
+     */
+    private static long misturar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Exame do catálogo: preço de referência em cêntimos e peso relativo na frequência de pedidos.
+     */
+    private record ExameCatalogo(String nome, String descricao, long centimos, int peso) {
+    }
+}
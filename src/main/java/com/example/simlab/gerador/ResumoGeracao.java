@@ -0,0 +1,68 @@
+package com.example.simlab.gerador;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Resultado de uma geração de dados: totais e ficheiros CSV de cada bloco, pela ordem de carga.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ResumoGeracao {
+    private final long pacientes;
+    private final long exames;
+    private final List<Bloco> blocos;
+
+    public ResumoGeracao(long pacientes, long exames, List<Bloco> blocos) {
+        this.pacientes = pacientes;
+        this.exames = exames;
+        this.blocos = List.copyOf(blocos);
+    }
+
+    public long getPacientes() {
+        return pacientes;
+    }
+
+    public long getExames() {
+        return exames;
+    }
+
+    public List<Bloco> getBlocos() {
+        return blocos;
+    }
+
+    /**
+     * Par de ficheiros de um bloco: os exames referem apenas pacientes do próprio bloco ou de blocos anteriores.
+     */
+    public static class Bloco {
+        private final Path pacientes;
+        private final Path exames;
+        private final long linhasPacientes;
+        private final long linhasExames;
+
+        public Bloco(Path pacientes, Path exames, long linhasPacientes, long linhasExames) {
+            this.pacientes = pacientes;
+            this.exames = exames;
+            this.linhasPacientes = linhasPacientes;
+            this.linhasExames = linhasExames;
+        }
+
+        public Path getPacientes() {
+            return pacientes;
+        }
+
+        public Path getExames() {
+            return exames;
+        }
+
+        public long getLinhasPacientes() {
+            return linhasPacientes;
+        }
+
+        public long getLinhasExames() {
+            return linhasExames;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.simlab.index;
+
+import com.example.simlab.repository.ExameTexto;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Entrega aos índices em memória as remoções feitas com DELETE diretos em JPQL.
+ *
+ * <p>Estas instruções não carregam as entidades e não geram os eventos que o
+ * {@link OuvinteIndices} recebe: quem as executa tem de indicar aqui o que alterou, dentro da
+ * mesma transação. Os índices só são alterados depois do commit.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class AlteracoesDiretas {
+    private final PesquisaPacientes pesquisaPacientes;
+    private final SugestoesPacientes sugestoesPacientes;
+    private final PesquisaExames pesquisaExames;
+    private final SugestoesExames sugestoesExames;
+
+    public AlteracoesDiretas(PesquisaPacientes pesquisaPacientes, SugestoesPacientes sugestoesPacientes,
+                             PesquisaExames pesquisaExames, SugestoesExames sugestoesExames) {
+        this.pesquisaPacientes = pesquisaPacientes;
+        this.sugestoesPacientes = sugestoesPacientes;
+        this.pesquisaExames = pesquisaExames;
+        this.sugestoesExames = sugestoesExames;
+    }
+
+    /**
+     * Regista um paciente apagado.
+     *
+     * @param id ID do paciente
+     */
+    public void pacienteApagado(long id) {
+        List<Long> ids = List.of(id);
+        pesquisaPacientes.apagados(ids);
+        sugestoesPacientes.apagados(ids);
+    }
+
+    /**
+     * Regista um exame apagado cujos termos não foram lidos.
+     *
+     * @param id ID do exame
+     */
+    public void exameApagado(long id) {
+        pesquisaExames.apagado(id);
+        sugestoesExames.apagados(List.of(id));
+    }
+
+    /**
+     * Regista exames apagados.
+     *
+     * @param exames Exames apagados, com o nome e a descrição que tinham
+     */
+    public void examesApagados(Collection<? extends ExameTexto> exames) {
+        if (exames.isEmpty()) {
+            return;
+        }
+        pesquisaExames.apagados(exames);
+        sugestoesExames.apagados(exames.stream().map(ExameTexto::getId).toList());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.simlab.index;
+
+import com.example.simlab.model.Normalizacao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Divide texto em português nos termos usados pelo índice de pesquisa.
+ *
+ * <p>O texto é normalizado (minúsculas, sem acentos) e dividido nos carateres que não são letras
+ * nem dígitos. As palavras vazias (artigos, preposições, ...) e os números isolados são
+ * descartados: nos nomes dos exames os números são, em geral, identificadores, e indexá-los
+ * criaria um termo por exame. As restantes palavras são reduzidas a um radical por um stemmer
+ * leve, que retira o plural e a vogal final de género ({@code "análises"} e {@code "análise"}
+ * ficam {@code "analis"}, {@code "sanguíneas"} fica {@code "sanguine"}). Não trata derivação
+ * (por exemplo, {@code "sangue"} e {@code "sanguíneo"} ficam com radicais distintos).</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class AnalisadorPortugues {
+    /**
+     * Palavras vazias, já sem acentos.
+     */
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "e", "as", "os", "ao", "aos", "um", "uma", "uns", "umas",
+            "de", "da", "do", "das", "dos", "em", "no", "na", "nos", "nas",
+            "para", "por", "pelo", "pela", "pelos", "pelas", "com", "sem", "sob", "sobre", "entre", "apos", "ate",
+            "que", "ou", "se", "mais", "menos", "muito", "seu", "sua");
+    /**
+     * Palavras com menos letras do que isto não são reduzidas.
+     */
+    private static final int TAMANHO_MINIMO_RADICAL = 4;
+
+    private AnalisadorPortugues() {
+    }
+
+    /**
+     * Termos do texto, pela ordem em que aparecem (com repetições).
+     *
+     * @param texto Texto a analisar (pode ser null)
+     * @return Radicais das palavras do texto
+     */
+    static List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        if (texto == null) {
+            return termos;
+        }
+        String normalizado = Normalizacao.normalizar(texto);
+        int inicio = -1;
+        boolean soDigitos = true;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            char c = i < normalizado.length() ? normalizado.charAt(i) : ' ';
+            boolean letra = c >= 'a' && c <= 'z';
+            boolean digito = c >= '0' && c <= '9';
+            if (letra || digito) {
+                if (inicio < 0) {
+                    inicio = i;
+                    soDigitos = true;
+                }
+                soDigitos &= digito;
+            } else if (inicio >= 0) {
+                String palavra = normalizado.substring(inicio, i);
+                if (!soDigitos && !PALAVRAS_VAZIAS.contains(palavra)) {
+                    termos.add(radical(palavra));
+                }
+                inicio = -1;
+            }
+        }
+        return termos;
+    }
+
+    /**
+     * Radical de uma palavra normalizada: sem o plural e sem a vogal final.
+     */
+    static String radical(String palavra) {
+        if (palavra.length() < TAMANHO_MINIMO_RADICAL) {
+            return palavra;
+        }
+        String singular = singular(palavra);
+        char ultima = singular.charAt(singular.length() - 1);
+        if (singular.length() >= TAMANHO_MINIMO_RADICAL && (ultima == 'a' || ultima == 'e' || ultima == 'o')) {
+            return singular.substring(0, singular.length() - 1);
+        }
+        return singular;
+    }
+
+    private static String singular(String palavra) {
+        if (palavra.endsWith("oes") || palavra.endsWith("aes")) {
+            // funções -> funcao, pães -> pao
+            return palavra.substring(0, palavra.length() - 3) + "ao";
+        }
+        if (palavra.endsWith("ais") || palavra.endsWith("eis") || palavra.endsWith("ois") || palavra.endsWith("uis")) {
+            // renais -> renal, possíveis -> possivel
+            return palavra.substring(0, palavra.length() - 2) + "l";
+        }
+        if (palavra.endsWith("is")) {
+            // perfis -> perfil
+            return palavra.substring(0, palavra.length() - 1) + "l";
+        }
+        if (palavra.endsWith("ns")) {
+            // jejuns -> jejum
+            return palavra.substring(0, palavra.length() - 2) + "m";
+        }
+        if (palavra.endsWith("res") || palavra.endsWith("zes") || palavra.endsWith("les") || palavra.endsWith("ses")) {
+            // valores -> valor, análises -> analis (o singular perde a vogal final)
+            return palavra.substring(0, palavra.length() - 2);
+        }
+        if (palavra.endsWith("s") && !palavra.endsWith("ss")) {
+            return palavra.substring(0, palavra.length() - 1);
+        }
+        return palavra;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.simlab.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para textos, seguro para inserções e consultas concorrentes.
+ *
+ * <p>Responde "de certeza ausente" ou "talvez presente": nunca dá falsos negativos, e a
+ * probabilidade de falso positivo mantém-se próxima da configurada enquanto o número de
+ * elementos não ultrapassar o esperado. Não suporta remoções.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoes;
+    private final long elementosEsperados;
+
+    /**
+     * @param elementosEsperados   Número de elementos para o qual o filtro é dimensionado
+     * @param probabilidadeFalsoPositivo Probabilidade de falso positivo pretendida (entre 0 e 1, exclusive)
+     */
+    public BloomFilter(long elementosEsperados, double probabilidadeFalsoPositivo) {
+        if (elementosEsperados <= 0) {
+            throw new IllegalArgumentException("O número de elementos esperados deve ser positivo");
+        }
+        if (probabilidadeFalsoPositivo <= 0 || probabilidadeFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("A probabilidade de falso positivo deve estar entre 0 e 1");
+        }
+        // m = -n ln(p) / ln(2)^2 e k = (m / n) ln(2), arredondado a múltiplos de 64 bits
+        long m = (long) Math.ceil(-elementosEsperados * Math.log(probabilidadeFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int palavras = Math.toIntExact(Math.max(1, (m + 63) >>> 6));
+        this.bits = new AtomicLongArray(palavras);
+        this.totalBits = (long) palavras << 6;
+        this.funcoes = Math.max(1, (int) Math.round((double) totalBits / elementosEsperados * Math.log(2)));
+        this.elementosEsperados = elementosEsperados;
+    }
+
+    /**
+     * Adiciona o texto ao filtro.
+     */
+    public void adicionar(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, totalBits);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = bits.get(palavra);
+            while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = bits.get(palavra);
+            }
+        }
+    }
+
+    /**
+     * Indica se o texto pode estar no filtro.
+     *
+     * @return false se o texto nunca foi adicionado; true se talvez tenha sido
+     */
+    public boolean talvezContenha(String valor) {
+        long h1 = hash(valor);
+        long h2 = misturar(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < funcoes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getElementosEsperados() {
+        return elementosEsperados;
+    }
+
+    public long getTotalBits() {
+        return totalBits;
+    }
+
+    public int getFuncoes() {
+        return funcoes;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres, seguido de mistura de bits para dispersar bem textos curtos.
+     */
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
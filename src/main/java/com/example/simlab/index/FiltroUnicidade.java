@@ -0,0 +1,245 @@
+package com.example.simlab.index;
+
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Filtros de Bloom sobre os Cartões de Cidadão e os nomes de exames existentes.
+ *
+ * <p>Permitem saltar a consulta de unicidade quando o valor de certeza não existe. Um "talvez"
+ * deve ser confirmado com uma consulta exata, e a restrição de unicidade da base de dados
+ * continua a ser a autoridade final.</p>
+ *
+ * <p>Os filtros são construídos no executor de tarefas da aplicação (em threads virtuais no
+ * perfil {@code virtual}) quando a aplicação arranca; até lá respondem
+ * sempre "talvez". Como não suportam remoções, valores apagados ou substituídos ficam no filtro
+ * como falsos positivos; quando estes ou o crescimento dos dados ultrapassam o dimensionamento,
+ * o filtro é reconstruído a partir da base de dados. Os valores registados numa transação que
+ * ainda não terminou ficam de lado até ao fim dela e são copiados para o filtro reconstruído:
+ * um valor gravado depois de a reconstrução ler a base de dados não se perde.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class FiltroUnicidade {
+    /**
+     * Dimensão mínima de cada filtro, para a base de dados vazia não obrigar a reconstruções frequentes.
+     */
+    static final long ELEMENTOS_MINIMOS = 100_000;
+
+    private final Conjunto cartoesCidadao;
+    private final Conjunto nomesExames;
+    private final TransactionTemplate transactionTemplate;
+    private final double probabilidadeFalsoPositivo;
+    private final TaskExecutor executor;
+
+    public FiltroUnicidade(PacienteRepository pacienteRepository,
+                           ExameRepository exameRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor,
+                           @Value("${simlab.unicidade.falsos-positivos:0.01}") double probabilidadeFalsoPositivo) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.probabilidadeFalsoPositivo = probabilidadeFalsoPositivo;
+        this.executor = executor;
+        this.cartoesCidadao = new Conjunto(pacienteRepository::count, pacienteRepository::streamCartoesCidadao);
+        this.nomesExames = new Conjunto(exameRepository::count, exameRepository::streamNomes);
+    }
+
+    /**
+     * Constrói os dois filtros em segundo plano quando a aplicação fica pronta.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        cartoesCidadao.agendarReconstrucao();
+        nomesExames.agendarReconstrucao();
+    }
+
+    /**
+     * @return true quando os dois filtros já foram construídos e deixaram de responder sempre "talvez"
+     */
+    public boolean isPronto() {
+        return cartoesCidadao.atual != null && nomesExames.atual != null;
+    }
+
+    /**
+     * @return false se de certeza não existe paciente com este Cartão de Cidadão
+     */
+    public boolean talvezCartaoCidadao(String cartaoCidadao) {
+        return cartoesCidadao.talvezContenha(cartaoCidadao);
+    }
+
+    /**
+     * Regista um Cartão de Cidadão. Deve ser chamado na transação que o grava, antes do commit, para nunca
+     * haver falsos negativos.
+     */
+    public void adicionarCartaoCidadao(String cartaoCidadao) {
+        cartoesCidadao.adicionar(cartaoCidadao);
+    }
+
+    /**
+     * Regista que um Cartão de Cidadão deixou de existir (paciente apagado ou CC alterado).
+     */
+    public void removerCartaoCidadao() {
+        cartoesCidadao.registarObsoletos(1);
+    }
+
+    /**
+     * @return false se de certeza não existe exame com este nome
+     */
+    public boolean talvezNomeExame(String nome) {
+        return nomesExames.talvezContenha(nome);
+    }
+
+    /**
+     * Regista um nome de exame. Deve ser chamado na transação que o grava, antes do commit, para nunca
+     * haver falsos negativos.
+     */
+    public void adicionarNomeExame(String nome) {
+        nomesExames.adicionar(nome);
+    }
+
+    /**
+     * Regista que um nome de exame deixou de existir (exame apagado ou renomeado).
+     */
+    public void removerNomeExame() {
+        removerNomesExames(1);
+    }
+
+    /**
+     * Regista que vários nomes de exame deixaram de existir (exames apagados de uma só vez).
+     *
+     * @param quantidade Número de exames apagados
+     */
+    public void removerNomesExames(long quantidade) {
+        nomesExames.registarObsoletos(quantidade);
+    }
+
+    /**
+     * Filtro de um conjunto de valores, com a reconstrução a partir da base de dados.
+     */
+    private final class Conjunto {
+        private final Supplier<Long> contar;
+        private final Supplier<Stream<String>> ler;
+        private final AtomicLong elementos = new AtomicLong();
+        private final AtomicLong obsoletos = new AtomicLong();
+        private final AtomicBoolean reconstrucaoAgendada = new AtomicBoolean();
+        /**
+         * Valores das transações ainda em curso, com o número de transações que os registaram.
+         */
+        private final Map<String, Integer> pendentes = new ConcurrentHashMap<>();
+        private volatile BloomFilter atual;
+        private volatile BloomFilter emConstrucao;
+
+        Conjunto(Supplier<Long> contar, Supplier<Stream<String>> ler) {
+            this.contar = contar;
+            this.ler = ler;
+        }
+
+        boolean talvezContenha(String valor) {
+            BloomFilter filtro = atual;
+            return filtro == null || filtro.talvezContenha(valor);
+        }
+
+        void adicionar(String valor) {
+            pendenteAteFimDaTransacao(valor);
+            BloomFilter filtro = atual;
+            if (filtro != null) {
+                filtro.adicionar(valor);
+            }
+            // durante a reconstrução o valor pode já não ser visto pela leitura da base de dados
+            BloomFilter novo = emConstrucao;
+            if (novo != null) {
+                novo.adicionar(valor);
+            }
+            if (filtro != null && elementos.incrementAndGet() > filtro.getElementosEsperados()) {
+                agendarReconstrucao();
+            }
+        }
+
+        /**
+         * Guarda o valor até a transação terminar, para uma reconstrução que comece entretanto o
+         * acrescentar mesmo que a leitura da base de dados ainda não o veja.
+         */
+        private void pendenteAteFimDaTransacao(String valor) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            pendentes.merge(valor, 1, Integer::sum);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    pendentes.computeIfPresent(valor, (v, n) -> n == 1 ? null : n - 1);
+                }
+            });
+        }
+
+        void registarObsoletos(long quantidade) {
+            BloomFilter filtro = atual;
+            if (filtro != null && obsoletos.addAndGet(quantidade) > filtro.getElementosEsperados() / 4) {
+                agendarReconstrucao();
+            }
+        }
+
+        void agendarReconstrucao() {
+            if (reconstrucaoAgendada.compareAndSet(false, true)) {
+                executor.execute(() -> {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> reconstruir());
+                    } finally {
+                        reconstrucaoAgendada.set(false);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Lê todos os valores da base de dados para um filtro dimensionado para o dobro dos existentes.
+         *
+         * <p>Os valores registados depois de {@code emConstrucao} ser publicado entram diretamente no
+         * filtro novo. Os registados antes e cuja transação ainda não terminou estão em
+         * {@code pendentes}, que é copiado antes da leitura: ou a transação terminou antes e o valor
+         * vem da base de dados, ou está na cópia.</p>
+         */
+        private void reconstruir() {
+            long existentes = contar.get();
+            BloomFilter novo = new BloomFilter(Math.max(ELEMENTOS_MINIMOS, existentes * 2), probabilidadeFalsoPositivo);
+            emConstrucao = novo;
+            Set<String> porTerminar = Set.copyOf(pendentes.keySet());
+            try (Stream<String> valores = ler.get()) {
+                long lidos = 0;
+                for (String valor : (Iterable<String>) valores::iterator) {
+                    novo.adicionar(valor);
+                    lidos++;
+                }
+                porTerminar.forEach(novo::adicionar);
+                elementos.set(lidos);
+                obsoletos.set(0);
+                atual = novo;
+            } finally {
+                emConstrucao = null;
+            }
+        }
+    }
+}
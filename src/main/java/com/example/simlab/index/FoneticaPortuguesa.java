@@ -0,0 +1,115 @@
+package com.example.simlab.index;
+
+import com.example.simlab.model.Normalizacao;
+
+/**
+ * Chave fonética de nomes em português, para comparar nomes escritos de formas diferentes.
+ *
+ * <p>O nome é normalizado (minúsculas, sem acentos) e cada palavra é reescrita com as grafias que
+ * soam igual reduzidas a uma só: {@code "z"} e {@code "ss"} ficam {@code "s"}, {@code "c"} antes de
+ * e/i fica {@code "s"} e nos restantes casos {@code "k"}, {@code "qu"} fica {@code "k"},
+ * {@code "ch"}, {@code "sh"} e {@code "x"} ficam {@code "x"}, {@code "ph"} fica {@code "f"},
+ * {@code "y"} fica {@code "i"}, {@code "w"} fica {@code "v"}, o {@code "h"} desaparece, o
+ * {@code "m"} antes de consoante fica {@code "n"} e as letras repetidas contam uma vez. Assim,
+ * {@code "Souza"} e {@code "Sousa"}, ou {@code "Conceição"} e {@code "Conceicao"}, têm a mesma
+ * chave. Os carateres que não são letras separam palavras.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class FoneticaPortuguesa {
+
+    private FoneticaPortuguesa() {
+    }
+
+    /**
+     * Chave fonética de um texto: as chaves das palavras, separadas por um espaço.
+     *
+     * @param texto Texto a converter (pode ser null)
+     * @return Chave só com letras de a a z e espaços, vazia se o texto não tiver letras
+     */
+    static String chave(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String normalizado = Normalizacao.normalizar(texto);
+        StringBuilder chave = new StringBuilder(normalizado.length());
+        int n = normalizado.length();
+        for (int i = 0; i < n; i++) {
+            char c = normalizado.charAt(i);
+            if (c < 'a' || c > 'z') {
+                if (!chave.isEmpty() && chave.charAt(chave.length() - 1) != ' ') {
+                    chave.append(' ');
+                }
+                continue;
+            }
+            char seguinte = i + 1 < n ? normalizado.charAt(i + 1) : ' ';
+            char som;
+            switch (c) {
+                case 'c' -> {
+                    if (seguinte == 'h') {
+                        som = 'x';
+                        i++;
+                    } else {
+                        som = seguinte == 'e' || seguinte == 'i' || seguinte == 'y' ? 's' : 'k';
+                    }
+                }
+                case 's' -> {
+                    if (seguinte == 'h') {
+                        som = 'x';
+                        i++;
+                    } else {
+                        som = 's';
+                    }
+                }
+                case 'p' -> {
+                    if (seguinte == 'h') {
+                        som = 'f';
+                        i++;
+                    } else {
+                        som = 'p';
+                    }
+                }
+                case 'q' -> {
+                    som = 'k';
+                    if (seguinte == 'u') {
+                        i++;
+                    }
+                }
+                case 'g' -> {
+                    if (seguinte == 'e' || seguinte == 'i' || seguinte == 'y') {
+                        som = 'j';
+                    } else {
+                        som = 'g';
+                        // "gue" e "gui": o u não se lê
+                        char depois = i + 2 < n ? normalizado.charAt(i + 2) : ' ';
+                        if (seguinte == 'u' && (depois == 'e' || depois == 'i')) {
+                            i++;
+                        }
+                    }
+                }
+                case 'm' -> som = vogal(seguinte) ? 'm' : 'n';
+                case 'z' -> som = 's';
+                case 'y' -> som = 'i';
+                case 'w' -> som = 'v';
+                case 'h' -> {
+                    continue;
+                }
+                default -> som = c;
+            }
+            if (chave.isEmpty() || chave.charAt(chave.length() - 1) != som) {
+                chave.append(som);
+            }
+        }
+        int fim = chave.length();
+        if (fim > 0 && chave.charAt(fim - 1) == ' ') {
+            chave.setLength(fim - 1);
+        }
+        return chave.toString();
+    }
+
+    private static boolean vogal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.simlab.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice invertido de termos para identificadores de documentos, com pesquisa ordenada por relevância.
+ *
+ * <p>Cada termo tem uma lista de documentos ordenada por ID, em arrays primitivos (cerca de 10
+ * bytes por par termo/documento), com o peso do termo em cada documento. A pesquisa devolve os
+ * documentos que contêm todos os termos, ordenados pela soma dos pesos multiplicados pelo IDF
+ * (os termos raros valem mais) e, em caso de empate, pelo ID. A interseção começa pelo termo com
+ * menos documentos e procura os restantes por pesquisa binária.</p>
+ *
+ * <p>As operações são idempotentes (adicionar um documento já presente só atualiza os pesos), para
+ * as alterações feitas durante uma reconstrução poderem ser reaplicadas no fim. Não é
+ * thread-safe: a sincronização fica a cargo de quem o usa.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class IndiceInvertido {
+    private final Map<String, Documentos> porTermo = new HashMap<>();
+    /**
+     * Número de documentos indexados, usado no IDF. É aproximado se forem removidos termos que
+     * um documento não tinha (por exemplo, ao reaplicar alterações).
+     */
+    private long documentos;
+
+    /**
+     * Adiciona um documento, ou atualiza os pesos dos termos indicados se já existir.
+     *
+     * @param id    Identificador do documento
+     * @param pesos Peso de cada termo no documento
+     */
+    void adicionar(long id, Map<String, Integer> pesos) {
+        boolean novo = false;
+        boolean primeiro = true;
+        for (Map.Entry<String, Integer> termo : pesos.entrySet()) {
+            boolean inserido = porTermo.computeIfAbsent(termo.getKey(), t -> new Documentos())
+                    .colocar(id, (short) Math.min(Short.MAX_VALUE, termo.getValue()));
+            if (primeiro) {
+                novo = inserido;
+                primeiro = false;
+            }
+        }
+        if (novo) {
+            documentos++;
+        }
+    }
+
+    /**
+     * Remove um documento das listas dos termos indicados.
+     *
+     * @param id     Identificador do documento
+     * @param termos Termos que o documento tinha
+     */
+    void remover(long id, Collection<String> termos) {
+        boolean removido = false;
+        for (String termo : termos) {
+            Documentos lista = porTermo.get(termo);
+            if (lista != null && lista.retirar(id)) {
+                removido = true;
+                if (lista.tamanho == 0) {
+                    porTermo.remove(termo);
+                }
+            }
+        }
+        if (removido) {
+            documentos--;
+        }
+    }
+
+    /**
+     * Remove um documento de todas as listas, quando não se sabe que termos tinha.
+     *
+     * <p>Faz uma pesquisa binária na lista de cada termo do índice: evita ler o documento da base
+     * de dados, mas custa mais do que {@link #remover(long, Collection)}.</p>
+     *
+     * @param id Identificador do documento
+     */
+    void remover(long id) {
+        remover(id, new ArrayList<>(porTermo.keySet()));
+    }
+
+    /**
+     * @return Número de documentos indexados
+     */
+    long getDocumentos() {
+        return documentos;
+    }
+
+    /**
+     * @return Número de termos distintos
+     */
+    int getTermos() {
+        return porTermo.size();
+    }
+
+    /**
+     * Pesquisa os documentos que contêm todos os termos.
+     *
+     * @param termos     Termos da pesquisa (repetições são ignoradas)
+     * @param inicio     Posição do primeiro resultado a devolver, na ordem de relevância
+     * @param quantidade Número máximo de resultados a devolver
+     * @return Total de documentos encontrados e os IDs da página pedida
+     */
+    Resultado pesquisar(Collection<String> termos, int inicio, int quantidade) {
+        List<Documentos> listas = new ArrayList<>();
+        for (String termo : termos.stream().distinct().toList()) {
+            Documentos lista = porTermo.get(termo);
+            if (lista == null) {
+                return new Resultado(0, new long[0]);
+            }
+            listas.add(lista);
+        }
+        if (listas.isEmpty()) {
+            return new Resultado(0, new long[0]);
+        }
+        listas.sort(Comparator.comparingInt(l -> l.tamanho));
+
+        Documentos maisRaro = listas.get(0);
+        long[] ids = Arrays.copyOf(maisRaro.ids, maisRaro.tamanho);
+        double[] pontos = new double[ids.length];
+        double idf = idf(maisRaro);
+        for (int i = 0; i < ids.length; i++) {
+            pontos[i] = idf * maisRaro.pesos[i];
+        }
+        int encontrados = ids.length;
+        for (Documentos lista : listas.subList(1, listas.size())) {
+            idf = idf(lista);
+            int mantidos = 0;
+            for (int i = 0; i < encontrados; i++) {
+                int posicao = lista.posicao(ids[i]);
+                if (posicao >= 0) {
+                    ids[mantidos] = ids[i];
+                    pontos[mantidos] = pontos[i] + idf * lista.pesos[posicao];
+                    mantidos++;
+                }
+            }
+            encontrados = mantidos;
+        }
+
+        return new Resultado(encontrados, melhores(ids, pontos, encontrados, inicio, quantidade));
+    }
+
+    private double idf(Documentos lista) {
+        return Math.log(1.0 + (double) Math.max(documentos, lista.tamanho) / lista.tamanho);
+    }
+
+    /**
+     * IDs da página pedida, por pontuação decrescente e ID crescente, com um heap limitado ao fim da página.
+     */
+    private static long[] melhores(long[] ids, double[] pontos, int encontrados, int inicio, int quantidade) {
+        long fim = Math.min(encontrados, (long) inicio + quantidade);
+        if (inicio >= fim) {
+            return new long[0];
+        }
+        int k = (int) fim;
+        // heap de mínimos com as k melhores posições: a raiz é a pior das melhores
+        int[] heap = new int[k];
+        int tamanho = 0;
+        for (int i = 0; i < encontrados; i++) {
+            if (tamanho < k) {
+                heap[tamanho] = i;
+                subir(heap, tamanho++, ids, pontos);
+            } else if (melhor(i, heap[0], ids, pontos)) {
+                heap[0] = i;
+                descer(heap, tamanho, ids, pontos);
+            }
+        }
+        // esvazia o heap do pior para o melhor
+        long[] ordenados = new long[tamanho];
+        for (int n = tamanho - 1; n >= 0; n--) {
+            ordenados[n] = ids[heap[0]];
+            heap[0] = heap[--tamanho];
+            descer(heap, tamanho, ids, pontos);
+        }
+        return Arrays.copyOfRange(ordenados, inicio, k);
+    }
+
+    private static boolean melhor(int a, int b, long[] ids, double[] pontos) {
+        return pontos[a] > pontos[b] || (pontos[a] == pontos[b] && ids[a] < ids[b]);
+    }
+
+    private static void subir(int[] heap, int i, long[] ids, double[] pontos) {
+        while (i > 0) {
+            int pai = (i - 1) / 2;
+            if (!melhor(heap[pai], heap[i], ids, pontos)) {
+                return;
+            }
+            trocar(heap, pai, i);
+            i = pai;
+        }
+    }
+
+    private static void descer(int[] heap, int tamanho, long[] ids, double[] pontos) {
+        int i = 0;
+        while (true) {
+            int pior = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && melhor(heap[pior], heap[esquerda], ids, pontos)) {
+                pior = esquerda;
+            }
+            if (direita < tamanho && melhor(heap[pior], heap[direita], ids, pontos)) {
+                pior = direita;
+            }
+            if (pior == i) {
+                return;
+            }
+            trocar(heap, i, pior);
+            i = pior;
+        }
+    }
+
+    private static void trocar(int[] heap, int a, int b) {
+        int t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+
+    /**
+     * Resultado de uma pesquisa.
+     *
+     * @param total Número de documentos que contêm todos os termos
+     * @param ids   IDs da página pedida, por ordem de relevância
+     */
+    record Resultado(long total, long[] ids) {
+    }
+
+    /**
+     * Documentos de um termo, ordenados por ID, com o peso do termo em cada um.
+     */
+    private static final class Documentos {
+        private long[] ids = new long[4];
+        private short[] pesos = new short[4];
+        private int tamanho;
+
+        /**
+         * @return true se o documento não estava na lista
+         */
+        boolean colocar(long id, short peso) {
+            // os IDs novos são quase sempre maiores que os existentes: acrescenta no fim
+            int posicao = tamanho == 0 || ids[tamanho - 1] < id ? -(tamanho + 1) : posicao(id);
+            if (posicao >= 0) {
+                pesos[posicao] = peso;
+                return false;
+            }
+            int insercao = -(posicao + 1);
+            if (tamanho == ids.length) {
+                int capacidade = ids.length + (ids.length >> 1);
+                ids = Arrays.copyOf(ids, capacidade);
+                pesos = Arrays.copyOf(pesos, capacidade);
+            }
+            System.arraycopy(ids, insercao, ids, insercao + 1, tamanho - insercao);
+            System.arraycopy(pesos, insercao, pesos, insercao + 1, tamanho - insercao);
+            ids[insercao] = id;
+            pesos[insercao] = peso;
+            tamanho++;
+            return true;
+        }
+
+        /**
+         * @return true se o documento estava na lista
+         */
+        boolean retirar(long id) {
+            int posicao = posicao(id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            System.arraycopy(pesos, posicao + 1, pesos, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        int posicao(long id) {
+            return Arrays.binarySearch(ids, 0, tamanho, id);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.simlab.index;
+
+import com.example.simlab.exception.IndisponivelException;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Índice em memória sobre uma entidade, construído ao arrancar e mantido pelos eventos pós-commit
+ * do Hibernate.
+ *
+ * <p>O índice é construído no executor de tarefas da aplicação quando a aplicação arranca, numa
+ * transação só de leitura, e depois atualizado pelas inserções, atualizações e remoções da
+ * entidade (incluindo as feitas em cascata), que o {@link OuvinteIndices} só lhe entrega quando a
+ * transação é confirmada. As alterações confirmadas durante a construção são guardadas e
+ * reaplicadas no fim, pelo que as operações do índice têm de ser idempotentes. Até o índice estar
+ * pronto, {@link #isPronto()} é false e as pesquisas lançam {@link IndisponivelException}.</p>
+ *
+ * @param <I> Tipo do índice, que não precisa de ser thread-safe
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+abstract class IndiceSincronizado<I> {
+    private final Class<?> entidade;
+    private final String descricao;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor executor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private I indice;
+    /**
+     * Alterações confirmadas durante a construção do índice, reaplicadas no fim; null fora da construção.
+     */
+    private List<Consumer<I>> pendentes;
+
+    /**
+     * @param entidade           Classe da entidade indexada
+     * @param descricao          Descrição do índice, para as mensagens de erro
+     * @param transactionManager Gestor de transações, para a leitura inicial
+     * @param executor           Executor onde o índice é construído
+     */
+    protected IndiceSincronizado(Class<?> entidade, String descricao,
+                                 PlatformTransactionManager transactionManager,
+                                 TaskExecutor executor) {
+        this.entidade = entidade;
+        this.descricao = descricao;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = executor;
+    }
+
+    /**
+     * Constrói o índice em segundo plano quando a aplicação fica pronta.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        lock.writeLock().lock();
+        try {
+            pendentes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        executor.execute(() -> transactionTemplate.executeWithoutResult(status -> reconstruir()));
+    }
+
+    /**
+     * @return true quando o índice já foi construído
+     */
+    public boolean isPronto() {
+        lock.readLock().lock();
+        try {
+            return indice != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Consulta o índice com o lock de leitura.
+     *
+     * @throws IndisponivelException se o índice ainda não estiver construído
+     */
+    protected <R> R consultar(Function<I, R> consulta) {
+        lock.readLock().lock();
+        try {
+            if (indice == null) {
+                throw new IndisponivelException("O índice de pesquisa de " + descricao + " ainda está a ser construído");
+            }
+            return consulta.apply(indice);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lê todas as entidades para um índice novo. É chamado dentro de uma transação só de leitura.
+     */
+    protected abstract I carregar();
+
+    /**
+     * Alteração do índice para uma entidade inserida.
+     */
+    protected abstract Consumer<I> inserido(PostInsertEvent event);
+
+    /**
+     * Alteração do índice para uma entidade atualizada.
+     */
+    protected abstract Consumer<I> atualizado(PostUpdateEvent event);
+
+    /**
+     * Alteração do índice para uma entidade removida.
+     */
+    protected abstract Consumer<I> removido(PostDeleteEvent event);
+
+    /**
+     * Valor de uma propriedade num estado da entidade (anterior ou removido), ou null se não existir.
+     */
+    protected static Object valor(EntityPersister persister, Object[] estado, String propriedade) {
+        String[] nomes = persister.getPropertyNames();
+        for (int i = 0; i < nomes.length; i++) {
+            if (nomes[i].equals(propriedade)) {
+                return estado[i];
+            }
+        }
+        return null;
+    }
+
+    private void reconstruir() {
+        I novo = carregar();
+        lock.writeLock().lock();
+        try {
+            // as alterações confirmadas durante a leitura podem ou não ter sido vistas por ela;
+            // como as operações do índice são idempotentes, basta reaplicá-las
+            pendentes.forEach(alteracao -> alteracao.accept(novo));
+            pendentes = null;
+            indice = novo;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Classe da entidade indexada
+     */
+    Class<?> getEntidade() {
+        return entidade;
+    }
+
+    void aoInserir(PostInsertEvent event) {
+        aplicar(inserido(event));
+    }
+
+    void aoAtualizar(PostUpdateEvent event) {
+        aplicar(atualizado(event));
+    }
+
+    void aoRemover(PostDeleteEvent event) {
+        aplicar(removido(event));
+    }
+
+    /**
+     * Aplica uma alteração feita sem eventos do Hibernate (DELETE em massa) depois do commit da
+     * transação atual, ou de imediato se não houver transação.
+     */
+    void aposCommit(Consumer<I> alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(alteracao);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicar(alteracao);
+            }
+        });
+    }
+
+    private void aplicar(Consumer<I> alteracao) {
+        lock.writeLock().lock();
+        try {
+            if (pendentes != null) {
+                pendentes.add(alteracao);
+            }
+            if (indice != null) {
+                alteracao.accept(indice);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.simlab.index;
+
+import com.example.simlab.model.Normalizacao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sugestões de nomes pelo início, por ordem de popularidade, numa trie comprimida.
+ *
+ * <p>Cada nome distinto (sem distinguir maiúsculas nem acentos) é uma entrada, com o número de
+ * registos que o têm. As entradas ficam numa trie comprimida (radix) pelo nome normalizado, e cada
+ * nó guarda as {@link #MAXIMO_SUGESTOES} entradas mais populares da sua subárvore: uma sugestão só
+ * desce a trie até ao prefixo e copia essa lista, sem percorrer a subárvore. Quando a contagem de
+ * uma entrada muda, só as listas dos nós no caminho até ela são recalculadas, a partir das listas
+ * dos filhos.</p>
+ *
+ * <p>O nome de cada registo é guardado num {@link MapaIds}, para as operações serem idempotentes
+ * (colocar o mesmo nome duas vezes no mesmo registo não o conta duas vezes). Não é thread-safe:
+ * a sincronização fica a cargo de quem o usa.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class IndiceSugestoes {
+    /**
+     * Número máximo de sugestões guardadas em cada nó, e devolvidas por pesquisa.
+     */
+    static final int MAXIMO_SUGESTOES = 10;
+    private static final No[] SEM_FILHOS = new No[0];
+    private static final int[] SEM_ENTRADAS = new int[0];
+
+    private final No raiz = new No("");
+    private final MapaIds entradaPorId = new MapaIds();
+    private final Map<String, Integer> entradaPorChave = new HashMap<>();
+    /**
+     * Chave normalizada, texto apresentado e número de registos de cada entrada; a chave é null nas livres.
+     */
+    private String[] chaves = new String[64];
+    private String[] textos = new String[64];
+    private int[] ocorrencias = new int[64];
+    private int[] livres = new int[16];
+    private int quantidadeLivres;
+    private int proximaEntrada;
+    /**
+     * false durante a carga inicial, em que as listas dos nós só são calculadas no fim.
+     */
+    private boolean ordenado = true;
+
+    /**
+     * Associa um nome a um registo, substituindo o anterior.
+     *
+     * @param id   Identificador do registo
+     * @param nome Nome do registo
+     */
+    void colocar(long id, String nome) {
+        String chave = chave(nome);
+        Integer existente = entradaPorChave.get(chave);
+        int anterior = entradaPorId.obter(id);
+        if (existente != null && existente == anterior) {
+            return;
+        }
+        int entrada = existente != null ? existente : criar(chave, nome);
+        entradaPorId.colocar(id, entrada);
+        ocorrencias[entrada]++;
+        reordenar(chave);
+        if (anterior >= 0) {
+            descontar(anterior);
+        }
+    }
+
+    /**
+     * Remove um registo, se existir.
+     *
+     * @param id Identificador do registo
+     */
+    void remover(long id) {
+        int entrada = entradaPorId.remover(id);
+        if (entrada >= 0) {
+            descontar(entrada);
+        }
+    }
+
+    /**
+     * Acrescenta registos sem atualizar as listas dos nós, para a carga inicial; no fim é
+     * preciso chamar {@link #concluirCarga()}.
+     *
+     * @param id   Identificador do registo
+     * @param nome Nome do registo
+     */
+    void carregar(long id, String nome) {
+        ordenado = false;
+        colocar(id, nome);
+    }
+
+    /**
+     * Calcula as listas de todos os nós, depois da carga inicial.
+     */
+    void concluirCarga() {
+        ordenado = true;
+        recalcularSubarvore(raiz);
+    }
+
+    /**
+     * @return Número de registos
+     */
+    int getRegistos() {
+        return entradaPorId.tamanho();
+    }
+
+    /**
+     * @return Número de nomes distintos
+     */
+    int getEntradas() {
+        return entradaPorChave.size();
+    }
+
+    /**
+     * Nomes mais populares que começam pelo prefixo.
+     *
+     * @param prefixo Início do nome (sem distinguir maiúsculas nem acentos)
+     * @param limite  Número máximo de sugestões, até {@link #MAXIMO_SUGESTOES}
+     * @return Sugestões por número de registos decrescente e, em caso de empate, por ordem alfabética
+     */
+    List<Sugestao> sugerir(String prefixo, int limite) {
+        String procurado = Normalizacao.normalizar(prefixo).stripLeading().replaceAll("\\s+", " ");
+        No no = raiz;
+        int i = 0;
+        while (i < procurado.length()) {
+            int f = filho(no, procurado.charAt(i));
+            if (f < 0) {
+                return List.of();
+            }
+            no = no.filhos[f];
+            int comum = comum(no.rotulo, procurado, i);
+            if (comum < no.rotulo.length() && i + comum < procurado.length()) {
+                return List.of();
+            }
+            i += comum;
+        }
+        List<Sugestao> sugestoes = new ArrayList<>(Math.min(limite, no.melhores.length));
+        for (int k = 0; k < no.melhores.length && k < limite; k++) {
+            sugestoes.add(new Sugestao(textos[no.melhores[k]], ocorrencias[no.melhores[k]]));
+        }
+        return sugestoes;
+    }
+
+    /**
+     * Chave de um nome: normalizado, sem espaços nas pontas e com um só espaço entre palavras.
+     */
+    private static String chave(String nome) {
+        return Normalizacao.normalizar(nome).strip().replaceAll("\\s+", " ");
+    }
+
+    private int criar(String chave, String texto) {
+        int entrada;
+        if (quantidadeLivres > 0) {
+            entrada = livres[--quantidadeLivres];
+        } else {
+            if (proximaEntrada == chaves.length) {
+                int capacidade = chaves.length * 2;
+                chaves = Arrays.copyOf(chaves, capacidade);
+                textos = Arrays.copyOf(textos, capacidade);
+                ocorrencias = Arrays.copyOf(ocorrencias, capacidade);
+            }
+            entrada = proximaEntrada++;
+        }
+        chaves[entrada] = chave;
+        textos[entrada] = texto;
+        ocorrencias[entrada] = 0;
+        entradaPorChave.put(chave, entrada);
+        inserir(chave, entrada);
+        return entrada;
+    }
+
+    /**
+     * Tira um registo a uma entrada e, se era o último, remove a entrada da trie.
+     */
+    private void descontar(int entrada) {
+        String chave = chaves[entrada];
+        if (--ocorrencias[entrada] > 0) {
+            reordenar(chave);
+            return;
+        }
+        List<No> caminho = caminho(chave);
+        No no = caminho.get(caminho.size() - 1);
+        no.entrada = -1;
+        if (no != raiz) {
+            No pai = caminho.get(caminho.size() - 2);
+            if (no.filhos.length == 0) {
+                retirarFilho(pai, no);
+                caminho.remove(caminho.size() - 1);
+                if (pai != raiz && pai.entrada < 0 && pai.filhos.length == 1) {
+                    fundir(pai);
+                }
+            } else if (no.filhos.length == 1) {
+                fundir(no);
+            }
+        }
+        entradaPorChave.remove(chave);
+        chaves[entrada] = null;
+        textos[entrada] = null;
+        if (quantidadeLivres == livres.length) {
+            livres = Arrays.copyOf(livres, livres.length * 2);
+        }
+        livres[quantidadeLivres++] = entrada;
+        recalcular(caminho);
+    }
+
+    /**
+     * Recalcula as listas do caminho até à entrada de uma chave, depois de a contagem mudar.
+     */
+    private void reordenar(String chave) {
+        if (ordenado) {
+            recalcular(caminho(chave));
+        }
+    }
+
+    /**
+     * Insere uma entrada na trie, dividindo o rótulo de um nó se a chave se separar a meio dele.
+     */
+    private void inserir(String chave, int entrada) {
+        No no = raiz;
+        int i = 0;
+        while (i < chave.length()) {
+            int f = filho(no, chave.charAt(i));
+            if (f < 0) {
+                No folha = new No(chave.substring(i));
+                folha.entrada = entrada;
+                int posicao = -(f + 1);
+                No[] filhos = new No[no.filhos.length + 1];
+                System.arraycopy(no.filhos, 0, filhos, 0, posicao);
+                System.arraycopy(no.filhos, posicao, filhos, posicao + 1, no.filhos.length - posicao);
+                filhos[posicao] = folha;
+                no.filhos = filhos;
+                return;
+            }
+            No seguinte = no.filhos[f];
+            int comum = comum(seguinte.rotulo, chave, i);
+            if (comum < seguinte.rotulo.length()) {
+                No meio = new No(seguinte.rotulo.substring(0, comum));
+                seguinte.rotulo = seguinte.rotulo.substring(comum);
+                meio.filhos = new No[]{seguinte};
+                meio.melhores = seguinte.melhores;
+                no.filhos[f] = meio;
+                seguinte = meio;
+            }
+            no = seguinte;
+            i += comum;
+        }
+        no.entrada = entrada;
+    }
+
+    /**
+     * Nós da raiz até ao nó da chave, que tem de existir.
+     */
+    private List<No> caminho(String chave) {
+        List<No> caminho = new ArrayList<>();
+        No no = raiz;
+        caminho.add(no);
+        int i = 0;
+        while (i < chave.length()) {
+            no = no.filhos[filho(no, chave.charAt(i))];
+            caminho.add(no);
+            i += no.rotulo.length();
+        }
+        return caminho;
+    }
+
+    /**
+     * Junta a um nó sem entrada o seu único filho, para a trie continuar comprimida.
+     */
+    private static void fundir(No no) {
+        No unico = no.filhos[0];
+        no.rotulo = no.rotulo + unico.rotulo;
+        no.entrada = unico.entrada;
+        no.filhos = unico.filhos;
+        no.melhores = unico.melhores;
+    }
+
+    private static void retirarFilho(No pai, No filho) {
+        No[] filhos = new No[pai.filhos.length - 1];
+        int j = 0;
+        for (No outro : pai.filhos) {
+            if (outro != filho) {
+                filhos[j++] = outro;
+            }
+        }
+        pai.filhos = filhos;
+    }
+
+    private void recalcular(List<No> caminho) {
+        for (int i = caminho.size() - 1; i >= 0; i--) {
+            recalcular(caminho.get(i));
+        }
+    }
+
+    private void recalcularSubarvore(No no) {
+        for (No filho : no.filhos) {
+            recalcularSubarvore(filho);
+        }
+        recalcular(no);
+    }
+
+    /**
+     * Calcula as melhores entradas de um nó a partir da sua entrada e das listas dos filhos.
+     */
+    private void recalcular(No no) {
+        int candidatas = no.entrada >= 0 ? 1 : 0;
+        for (No filho : no.filhos) {
+            candidatas += filho.melhores.length;
+        }
+        if (candidatas == 0) {
+            no.melhores = SEM_ENTRADAS;
+            return;
+        }
+        Integer[] todas = new Integer[candidatas];
+        int n = 0;
+        if (no.entrada >= 0) {
+            todas[n++] = no.entrada;
+        }
+        for (No filho : no.filhos) {
+            for (int entrada : filho.melhores) {
+                todas[n++] = entrada;
+            }
+        }
+        Arrays.sort(todas, (a, b) -> ocorrencias[a] != ocorrencias[b]
+                ? Integer.compare(ocorrencias[b], ocorrencias[a])
+                : chaves[a].compareTo(chaves[b]));
+        int[] melhores = new int[Math.min(MAXIMO_SUGESTOES, candidatas)];
+        for (int i = 0; i < melhores.length; i++) {
+            melhores[i] = todas[i];
+        }
+        no.melhores = melhores;
+    }
+
+    /**
+     * Posição do filho cujo rótulo começa pelo carácter, ou {@code -(posição de inserção + 1)}.
+     */
+    private static int filho(No no, char c) {
+        int baixo = 0;
+        int alto = no.filhos.length - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            char primeiro = no.filhos[meio].rotulo.charAt(0);
+            if (primeiro < c) {
+                baixo = meio + 1;
+            } else if (primeiro > c) {
+                alto = meio - 1;
+            } else {
+                return meio;
+            }
+        }
+        return -(baixo + 1);
+    }
+
+    /**
+     * Comprimento do prefixo comum entre o rótulo e o texto a partir da posição dada.
+     */
+    private static int comum(String rotulo, String texto, int inicio) {
+        int n = Math.min(rotulo.length(), texto.length() - inicio);
+        int i = 0;
+        while (i < n && rotulo.charAt(i) == texto.charAt(inicio + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Nó da trie: o rótulo é o troço da chave entre o pai e este nó.
+     */
+    private static final class No {
+        private String rotulo;
+        private No[] filhos = SEM_FILHOS;
+        private int entrada = -1;
+        private int[] melhores = SEM_ENTRADAS;
+
+        No(String rotulo) {
+            this.rotulo = rotulo;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.simlab.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice de trigramas de nomes, com pesquisa exata por palavras ou aproximada por semelhança.
+ *
+ * <p>Cada chave distinta (muitos pacientes partilham o mesmo nome) é indexada uma só vez, com a
+ * lista ordenada dos IDs dos documentos que a têm. Cada palavra da chave é dividida nos trigramas
+ * de {@code "  palavra "} (as margens marcam o início e o fim da palavra), codificados num inteiro,
+ * e cada trigrama tem uma lista ordenada dos números internos das chaves, em arrays de
+ * {@code int}. Os números internos são atribuídos por ordem de inserção; os das chaves que deixam
+ * de ter documentos ficam por usar até o índice ser compactado, o que acontece quando passam a ser
+ * metade.</p>
+ *
+ * <p>A semelhança de um nome à pesquisa é o número de trigramas da pesquisa que o nome contém;
+ * em caso de empate ganha o nome mais parecido no todo (coeficiente de Dice), depois a chave por
+ * ordem alfabética e por fim o ID mais baixo. Para não percorrer todas as listas, os candidatos
+ * saem só das listas dos trigramas mais raros: um nome que não contém nenhum deles não pode atingir
+ * o mínimo de trigramas em comum. Os restantes trigramas são procurados nas suas listas por
+ * pesquisa binária.</p>
+ *
+ * <p>As operações são idempotentes. Não é thread-safe: a sincronização fica a cargo de quem o usa.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class IndiceTrigramas {
+    /**
+     * Fração mínima dos trigramas da pesquisa que um nome tem de conter na pesquisa aproximada.
+     */
+    static final double SEMELHANCA_MINIMA = 0.5;
+    /**
+     * Símbolos de um trigrama: o espaço e as letras de a a z.
+     */
+    private static final int SIMBOLOS = 27;
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private final int[][] listas = new int[SIMBOLOS * SIMBOLOS * SIMBOLOS][];
+    private final int[] tamanhos = new int[listas.length];
+    private final Map<String, Integer> numeros = new HashMap<>();
+    private final Map<Long, String> chavePorId = new HashMap<>();
+    /**
+     * Chave, número de trigramas e IDs dos documentos de cada chave, pelo número interno; a chave
+     * é null nas que deixaram de ter documentos.
+     */
+    private String[] chaves = new String[CAPACIDADE_INICIAL];
+    private int[] contagens = new int[CAPACIDADE_INICIAL];
+    private long[][] documentos = new long[CAPACIDADE_INICIAL][];
+    private int[] quantidades = new int[CAPACIDADE_INICIAL];
+    private int proximo;
+
+    /**
+     * Adiciona um documento, ou substitui a chave se já existir.
+     *
+     * @param id    Identificador do documento
+     * @param chave Chave fonética do nome (ver {@link FoneticaPortuguesa})
+     */
+    void adicionar(long id, String chave) {
+        String atual = chavePorId.get(id);
+        if (chave.equals(atual)) {
+            return;
+        }
+        if (atual != null) {
+            retirar(id, atual);
+        }
+        Integer numero = numeros.get(chave);
+        if (numero == null) {
+            numero = indexar(chave);
+        }
+        chavePorId.put(id, chave);
+        long[] ids = documentos[numero];
+        int quantidade = quantidades[numero];
+        if (quantidade == ids.length) {
+            ids = documentos[numero] = Arrays.copyOf(ids, quantidade + Math.max(1, quantidade >> 1));
+        }
+        // os IDs novos são quase sempre maiores que os existentes: acrescenta no fim
+        int insercao = quantidade == 0 || ids[quantidade - 1] < id
+                ? quantidade : -(Arrays.binarySearch(ids, 0, quantidade, id) + 1);
+        System.arraycopy(ids, insercao, ids, insercao + 1, quantidade - insercao);
+        ids[insercao] = id;
+        quantidades[numero] = quantidade + 1;
+    }
+
+    /**
+     * Remove um documento, se existir.
+     *
+     * @param id Identificador do documento
+     */
+    void remover(long id) {
+        String chave = chavePorId.get(id);
+        if (chave != null) {
+            retirar(id, chave);
+        }
+    }
+
+    /**
+     * @return Número de documentos indexados
+     */
+    int getDocumentos() {
+        return chavePorId.size();
+    }
+
+    /**
+     * @return Número de chaves distintas indexadas
+     */
+    int getChaves() {
+        return numeros.size();
+    }
+
+    /**
+     * Pesquisa os nomes semelhantes a uma chave.
+     *
+     * @param chave      Chave fonética da pesquisa, com pelo menos uma letra
+     * @param aproximada false para exigir todas as palavras da pesquisa, true para aceitar nomes
+     *                   com pelo menos {@link #SEMELHANCA_MINIMA} dos trigramas
+     * @param inicio     Posição do primeiro resultado a devolver, por ordem de semelhança
+     * @param quantidade Número máximo de resultados a devolver
+     * @return Total de documentos encontrados e os IDs da página pedida
+     */
+    Resultado pesquisar(String chave, boolean aproximada, int inicio, int quantidade) {
+        int[] codigos = trigramas(chave);
+        int n = codigos.length;
+        if (n == 0) {
+            return new Resultado(0, new long[0]);
+        }
+        // do trigrama mais raro para o mais comum
+        Integer[] ordem = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            ordem[i] = codigos[i];
+        }
+        Arrays.sort(ordem, (a, b) -> Integer.compare(tamanhos[a], tamanhos[b]));
+        int minimo = aproximada ? Math.max(1, (int) Math.ceil(SEMELHANCA_MINIMA * n)) : n;
+        int prefixo = n - minimo + 1;
+
+        // candidatas: as chaves nas listas dos trigramas mais raros, com as vezes que aparecem
+        int totalPrefixo = 0;
+        for (int i = 0; i < prefixo; i++) {
+            totalPrefixo += tamanhos[ordem[i]];
+        }
+        int[] candidatas = new int[totalPrefixo];
+        int posicao = 0;
+        for (int i = 0; i < prefixo; i++) {
+            if (tamanhos[ordem[i]] > 0) {
+                System.arraycopy(listas[ordem[i]], 0, candidatas, posicao, tamanhos[ordem[i]]);
+                posicao += tamanhos[ordem[i]];
+            }
+        }
+        Arrays.sort(candidatas);
+
+        String[] palavras = aproximada ? null : chave.split(" ");
+        int[] encontradas = new int[candidatas.length];
+        double[] pontos = new double[candidatas.length];
+        int total = 0;
+        long documentosEncontrados = 0;
+        for (int i = 0; i < candidatas.length; ) {
+            int numero = candidatas[i];
+            int comuns = 0;
+            while (i < candidatas.length && candidatas[i] == numero) {
+                comuns++;
+                i++;
+            }
+            for (int j = prefixo; j < n && comuns + (n - j) >= minimo; j++) {
+                if (Arrays.binarySearch(listas[ordem[j]], 0, tamanhos[ordem[j]], numero) >= 0) {
+                    comuns++;
+                }
+            }
+            if (comuns < minimo || (palavras != null && !contemPalavras(chaves[numero], palavras))) {
+                continue;
+            }
+            // o número de trigramas em comum decide; o Dice (entre 0 e 1) só desempata
+            encontradas[total] = numero;
+            pontos[total] = comuns + 2.0 * comuns / (n + contagens[numero]);
+            total++;
+            documentosEncontrados += quantidades[numero];
+        }
+
+        Integer[] ordenadas = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            ordenadas[i] = i;
+        }
+        Arrays.sort(ordenadas, (a, b) -> pontos[a] != pontos[b]
+                ? Double.compare(pontos[b], pontos[a])
+                : chaves[encontradas[a]].compareTo(chaves[encontradas[b]]));
+        return new Resultado(documentosEncontrados, pagina(encontradas, ordenadas, inicio, quantidade));
+    }
+
+    /**
+     * IDs dos documentos da página pedida, percorrendo as chaves encontradas pela ordem dada.
+     */
+    private long[] pagina(int[] encontradas, Integer[] ordenadas, int inicio, int quantidade) {
+        long[] pagina = new long[quantidade];
+        int n = 0;
+        long saltar = inicio;
+        for (int i = 0; i < ordenadas.length && n < quantidade; i++) {
+            int numero = encontradas[ordenadas[i]];
+            if (saltar >= quantidades[numero]) {
+                saltar -= quantidades[numero];
+                continue;
+            }
+            int copiar = (int) Math.min(quantidades[numero] - saltar, quantidade - n);
+            System.arraycopy(documentos[numero], (int) saltar, pagina, n, copiar);
+            n += copiar;
+            saltar = 0;
+        }
+        return Arrays.copyOf(pagina, n);
+    }
+
+    /**
+     * Dá um número interno a uma chave nova e acrescenta-o às listas dos seus trigramas.
+     */
+    private int indexar(String chave) {
+        if (proximo == chaves.length) {
+            int capacidade = chaves.length + (chaves.length >> 1);
+            chaves = Arrays.copyOf(chaves, capacidade);
+            contagens = Arrays.copyOf(contagens, capacidade);
+            documentos = Arrays.copyOf(documentos, capacidade);
+            quantidades = Arrays.copyOf(quantidades, capacidade);
+        }
+        int numero = proximo++;
+        int[] codigos = trigramas(chave);
+        chaves[numero] = chave;
+        contagens[numero] = codigos.length;
+        documentos[numero] = new long[1];
+        quantidades[numero] = 0;
+        numeros.put(chave, numero);
+        // os números novos são sempre os maiores: acrescentam-se no fim de cada lista
+        for (int codigo : codigos) {
+            int[] lista = listas[codigo];
+            int tamanho = tamanhos[codigo];
+            if (lista == null) {
+                lista = listas[codigo] = new int[4];
+            } else if (tamanho == lista.length) {
+                lista = listas[codigo] = Arrays.copyOf(lista, tamanho + (tamanho >> 1));
+            }
+            lista[tamanho] = numero;
+            tamanhos[codigo] = tamanho + 1;
+        }
+        return numero;
+    }
+
+    /**
+     * Retira um documento da sua chave e, se for o último, a chave das listas dos trigramas.
+     */
+    private void retirar(long id, String chave) {
+        chavePorId.remove(id);
+        int numero = numeros.get(chave);
+        long[] ids = documentos[numero];
+        int posicao = Arrays.binarySearch(ids, 0, quantidades[numero], id);
+        System.arraycopy(ids, posicao + 1, ids, posicao, quantidades[numero] - posicao - 1);
+        if (--quantidades[numero] > 0) {
+            return;
+        }
+        for (int codigo : trigramas(chave)) {
+            int indice = Arrays.binarySearch(listas[codigo], 0, tamanhos[codigo], numero);
+            System.arraycopy(listas[codigo], indice + 1, listas[codigo], indice, tamanhos[codigo] - indice - 1);
+            tamanhos[codigo]--;
+        }
+        numeros.remove(chave);
+        chaves[numero] = null;
+        documentos[numero] = null;
+        if (numeros.size() < proximo / 2 && proximo > CAPACIDADE_INICIAL) {
+            compactar();
+        }
+    }
+
+    /**
+     * Renumera as chaves sem deixar números por usar, mantendo a ordem (e as listas ordenadas).
+     */
+    private void compactar() {
+        int[] renumeracao = new int[proximo];
+        int vivas = 0;
+        for (int numero = 0; numero < proximo; numero++) {
+            if (chaves[numero] != null) {
+                renumeracao[numero] = vivas;
+                chaves[vivas] = chaves[numero];
+                contagens[vivas] = contagens[numero];
+                documentos[vivas] = documentos[numero];
+                quantidades[vivas] = quantidades[numero];
+                numeros.put(chaves[vivas], vivas);
+                vivas++;
+            }
+        }
+        Arrays.fill(chaves, vivas, proximo, null);
+        Arrays.fill(documentos, vivas, proximo, null);
+        proximo = vivas;
+        for (int codigo = 0; codigo < listas.length; codigo++) {
+            int[] lista = listas[codigo];
+            for (int i = 0; i < tamanhos[codigo]; i++) {
+                lista[i] = renumeracao[lista[i]];
+            }
+        }
+    }
+
+    private static boolean contemPalavras(String chave, String[] palavras) {
+        String delimitada = " " + chave + " ";
+        for (String palavra : palavras) {
+            if (!delimitada.contains(" " + palavra + " ")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Códigos distintos dos trigramas de uma chave, por ordem crescente.
+     */
+    static int[] trigramas(String chave) {
+        int[] codigos = new int[chave.length() * 3 + 3];
+        int n = 0;
+        int a = 0;
+        int b = 0;
+        // cada palavra começa com dois espaços e termina com um
+        for (int i = 0; i <= chave.length(); i++) {
+            int c = i < chave.length() && chave.charAt(i) != ' ' ? chave.charAt(i) - 'a' + 1 : 0;
+            if (c == 0 && b == 0) {
+                // espaço a seguir a espaço, ou antes do início: não há palavra em curso
+                a = 0;
+                continue;
+            }
+            codigos[n++] = (a * SIMBOLOS + b) * SIMBOLOS + c;
+            a = b;
+            b = c;
+            if (c == 0) {
+                a = 0;
+            }
+        }
+        return Arrays.stream(codigos, 0, n).sorted().distinct().toArray();
+    }
+
+    /**
+     * Resultado de uma pesquisa.
+     *
+     * @param total Número de documentos encontrados
+     * @param ids   IDs da página pedida, por ordem de semelhança
+     */
+    record Resultado(long total, long[] ids) {
+    }
+}
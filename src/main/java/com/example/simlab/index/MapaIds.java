@@ -0,0 +1,117 @@
+package com.example.simlab.index;
+
+/**
+ * Mapa de IDs (long positivos) para inteiros, em arrays primitivos com endereçamento aberto.
+ *
+ * <p>Ocupa entre 16 e 32 bytes por ID, contra cerca de 80 de um {@code HashMap<Long, Integer>},
+ * o que conta quando há um valor por cada registo da tabela. As colisões são resolvidas por
+ * sondagem linear e as remoções deslocam para trás as entradas seguintes, sem marcas de
+ * remoção. O ID 0 é reservado para as posições vazias. Não é thread-safe.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class MapaIds {
+    private static final long VAZIO = 0;
+    private static final int AUSENTE = -1;
+
+    private long[] ids = new long[16];
+    private int[] valores = new int[16];
+    private int tamanho;
+
+    /**
+     * @param id ID a procurar
+     * @return Valor associado ao ID, ou -1 se não existir
+     */
+    int obter(long id) {
+        for (int i = posicao(id); ; i = (i + 1) & (ids.length - 1)) {
+            if (ids[i] == id) {
+                return valores[i];
+            }
+            if (ids[i] == VAZIO) {
+                return AUSENTE;
+            }
+        }
+    }
+
+    /**
+     * Associa um valor a um ID, substituindo o anterior.
+     *
+     * @param id    ID, maior que 0
+     * @param valor Valor a associar
+     */
+    void colocar(long id, int valor) {
+        if (id <= VAZIO) {
+            throw new IllegalArgumentException("ID inválido: " + id);
+        }
+        if ((tamanho + 1) * 4L > ids.length * 3L) {
+            redimensionar();
+        }
+        int i = posicao(id);
+        while (ids[i] != VAZIO && ids[i] != id) {
+            i = (i + 1) & (ids.length - 1);
+        }
+        if (ids[i] == VAZIO) {
+            ids[i] = id;
+            tamanho++;
+        }
+        valores[i] = valor;
+    }
+
+    /**
+     * Remove um ID.
+     *
+     * @param id ID a remover
+     * @return Valor que estava associado, ou -1 se não existir
+     */
+    int remover(long id) {
+        int mascara = ids.length - 1;
+        int i = posicao(id);
+        while (ids[i] != id) {
+            if (ids[i] == VAZIO) {
+                return AUSENTE;
+            }
+            i = (i + 1) & mascara;
+        }
+        int valor = valores[i];
+        // desloca para o buraco as entradas seguintes que não ficariam alcançáveis
+        int buraco = i;
+        for (int j = (i + 1) & mascara; ids[j] != VAZIO; j = (j + 1) & mascara) {
+            int ideal = posicao(ids[j]);
+            if (((j - ideal) & mascara) >= ((j - buraco) & mascara)) {
+                ids[buraco] = ids[j];
+                valores[buraco] = valores[j];
+                buraco = j;
+            }
+        }
+        ids[buraco] = VAZIO;
+        tamanho--;
+        return valor;
+    }
+
+    /**
+     * @return Número de IDs no mapa
+     */
+    int tamanho() {
+        return tamanho;
+    }
+
+    private int posicao(long id) {
+        long misturado = id * 0x9E3779B97F4A7C15L;
+        return (int) (misturado ^ (misturado >>> 32)) & (ids.length - 1);
+    }
+
+    private void redimensionar() {
+        long[] antigosIds = ids;
+        int[] antigosValores = valores;
+        ids = new long[antigosIds.length * 2];
+        valores = new int[antigosIds.length * 2];
+        tamanho = 0;
+        for (int i = 0; i < antigosIds.length; i++) {
+            if (antigosIds[i] != VAZIO) {
+                colocar(antigosIds[i], antigosValores[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.simlab.index;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Entrega aos índices em memória as inserções, atualizações e remoções confirmadas das entidades
+ * que indexam.
+ *
+ * <p>É um só ouvinte para todos os índices porque o Hibernate não aceita dois ouvintes da mesma
+ * classe no mesmo evento. Os eventos pós-commit só chegam depois de a transação ser confirmada:
+ * as alterações revertidas nunca chegam aos índices.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+class OuvinteIndices implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private final List<IndiceSincronizado<?>> indices;
+
+    OuvinteIndices(List<IndiceSincronizado<?>> indices, EntityManagerFactory entityManagerFactory) {
+        this.indices = indices;
+        EventListenerRegistry registo = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        registo.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registo.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registo.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return indices.stream().anyMatch(indice -> indice.getEntidade() == persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        for (IndiceSincronizado<?> indice : indices) {
+            if (indice.getEntidade().isInstance(event.getEntity())) {
+                indice.aoInserir(event);
+            }
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        for (IndiceSincronizado<?> indice : indices) {
+            if (indice.getEntidade().isInstance(event.getEntity())) {
+                indice.aoAtualizar(event);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        for (IndiceSincronizado<?> indice : indices) {
+            if (indice.getEntidade().isInstance(event.getEntity())) {
+                indice.aoRemover(event);
+            }
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.simlab.index;
+
+import com.example.simlab.dto.ExameDetalheDTO;
+import com.example.simlab.model.Exame;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.ExameTexto;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Pesquisa de texto sobre o nome e a descrição dos exames, num índice invertido em memória.
+ *
+ * <p>O índice é construído ao arrancar e acompanha as alterações confirmadas de {@link Exame}
+ * (ver {@link IndiceSincronizado}). Os termos do nome valem o dobro dos da descrição. O índice
+ * ocupa cerca de 10 bytes por cada termo distinto de cada exame.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class PesquisaExames extends IndiceSincronizado<IndiceInvertido> {
+    /**
+     * Peso de cada ocorrência de um termo no nome do exame; na descrição vale 1.
+     */
+    static final int PESO_NOME = 2;
+
+    private final ExameRepository exameRepository;
+
+    public PesquisaExames(ExameRepository exameRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor) {
+        super(Exame.class, "exames", transactionManager, executor);
+        this.exameRepository = exameRepository;
+    }
+
+    /**
+     * Pesquisa os exames cujo nome ou descrição contêm todas as palavras do texto.
+     *
+     * @param texto      Texto da pesquisa
+     * @param inicio     Posição do primeiro resultado a devolver
+     * @param quantidade Número máximo de resultados a devolver
+     * @return Total de exames encontrados e os IDs da página, do mais para o menos relevante
+     * @throws IllegalArgumentException se o texto não tiver palavras pesquisáveis
+     * @throws com.example.simlab.exception.IndisponivelException se o índice ainda não estiver construído
+     */
+    public Resultado pesquisar(String texto, int inicio, int quantidade) {
+        List<String> termos = AnalisadorPortugues.termos(texto);
+        if (termos.isEmpty()) {
+            throw new IllegalArgumentException("A pesquisa não tem palavras pesquisáveis");
+        }
+        IndiceInvertido.Resultado resultado = consultar(indice -> indice.pesquisar(termos, inicio, quantidade));
+        return new Resultado(resultado.total(), resultado.ids());
+    }
+
+    @Override
+    protected IndiceInvertido carregar() {
+        IndiceInvertido novo = new IndiceInvertido();
+        try (Stream<ExameDetalheDTO> exames = exameRepository.streamTodos()) {
+            exames.forEach(exame -> novo.adicionar(exame.getId(), pesos(exame.getNome(), exame.getDescricao())));
+        }
+        return novo;
+    }
+
+    @Override
+    protected Consumer<IndiceInvertido> inserido(PostInsertEvent event) {
+        Exame exame = (Exame) event.getEntity();
+        return new Alteracao(exame.getId(), List.of(), pesos(exame.getNome(), exame.getDescricao()));
+    }
+
+    @Override
+    protected Consumer<IndiceInvertido> atualizado(PostUpdateEvent event) {
+        Exame exame = (Exame) event.getEntity();
+        return new Alteracao(exame.getId(), termos(event.getPersister(), event.getOldState()),
+                pesos(exame.getNome(), exame.getDescricao()));
+    }
+
+    @Override
+    protected Consumer<IndiceInvertido> removido(PostDeleteEvent event) {
+        return new Alteracao((Long) event.getId(), termos(event.getPersister(), event.getDeletedState()), Map.of());
+    }
+
+    /**
+     * Retira do índice, depois do commit, um exame apagado sem eventos do Hibernate e cujos termos
+     * não são conhecidos: o índice procura-o em todos os termos, sem ler a base de dados.
+     *
+     * @param id ID do exame apagado
+     */
+    void apagado(long id) {
+        aposCommit(new Alteracao(id, null, Map.of()));
+    }
+
+    /**
+     * Retira do índice, depois do commit, exames apagados sem eventos do Hibernate.
+     *
+     * @param exames Exames apagados, com o nome e a descrição que tinham
+     */
+    void apagados(Collection<? extends ExameTexto> exames) {
+        List<Alteracao> alteracoes = new ArrayList<>(exames.size());
+        for (ExameTexto exame : exames) {
+            alteracoes.add(new Alteracao(exame.getId(), termos(exame), Map.of()));
+        }
+        aposCommit(indice -> alteracoes.forEach(alteracao -> alteracao.accept(indice)));
+    }
+
+    /**
+     * Termos do nome e da descrição de um exame.
+     */
+    private static List<String> termos(ExameTexto exame) {
+        List<String> termos = new ArrayList<>(AnalisadorPortugues.termos(exame.getNome()));
+        termos.addAll(AnalisadorPortugues.termos(exame.getDescricao()));
+        return termos;
+    }
+
+    /**
+     * Peso de cada termo de um exame.
+     */
+    static Map<String, Integer> pesos(String nome, String descricao) {
+        Map<String, Integer> pesos = new HashMap<>();
+        for (String termo : AnalisadorPortugues.termos(nome)) {
+            pesos.merge(termo, PESO_NOME, Integer::sum);
+        }
+        for (String termo : AnalisadorPortugues.termos(descricao)) {
+            pesos.merge(termo, 1, Integer::sum);
+        }
+        return pesos;
+    }
+
+    /**
+     * Termos do nome e da descrição num estado anterior, ou null se o Hibernate não o tiver.
+     */
+    private static List<String> termos(EntityPersister persister, Object[] estado) {
+        if (estado == null) {
+            return null;
+        }
+        List<String> termos = new ArrayList<>(AnalisadorPortugues.termos((String) valor(persister, estado, "nome")));
+        termos.addAll(AnalisadorPortugues.termos((String) valor(persister, estado, "descricao")));
+        return termos;
+    }
+
+    /**
+     * Resultado de uma pesquisa.
+     *
+     * @param total Número de exames encontrados
+     * @param ids   IDs dos exames da página pedida, por ordem de relevância
+     */
+    public record Resultado(long total, long[] ids) {
+    }
+
+    /**
+     * Alteração confirmada de um exame: os termos antigos saem e os novos entram.
+     *
+     * @param id     ID do exame
+     * @param antigo Termos do exame antes da alteração, vazio numa inserção, ou null se não forem conhecidos
+     * @param novo   Pesos dos termos depois da alteração, vazio numa remoção
+     */
+    private record Alteracao(long id, List<String> antigo, Map<String, Integer> novo) implements Consumer<IndiceInvertido> {
+        @Override
+        public void accept(IndiceInvertido indice) {
+            if (antigo == null) {
+                indice.remover(id);
+            } else if (!antigo.isEmpty()) {
+                indice.remover(id, antigo);
+            }
+            if (!novo.isEmpty()) {
+                indice.adicionar(id, novo);
+            }
+        }
+    }
+}
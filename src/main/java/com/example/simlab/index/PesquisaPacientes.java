@@ -0,0 +1,110 @@
+package com.example.simlab.index;
+
+import com.example.simlab.dto.PacienteDetalheDTO;
+import com.example.simlab.model.Paciente;
+import com.example.simlab.repository.PacienteRepository;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Pesquisa de pacientes por nome, tolerante a acentos, grafias que soam igual e erros de escrita.
+ *
+ * <p>Os nomes são convertidos numa chave fonética ({@link FoneticaPortuguesa}) e indexados por
+ * trigramas ({@link IndiceTrigramas}). O índice é construído ao arrancar e acompanha as alterações
+ * confirmadas de {@link Paciente} (ver {@link IndiceSincronizado}).</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class PesquisaPacientes extends IndiceSincronizado<IndiceTrigramas> {
+    private final PacienteRepository pacienteRepository;
+
+    public PesquisaPacientes(PacienteRepository pacienteRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor) {
+        super(Paciente.class, "pacientes", transactionManager, executor);
+        this.pacienteRepository = pacienteRepository;
+    }
+
+    /**
+     * Pesquisa os pacientes pelo nome.
+     *
+     * @param texto      Nome, ou parte do nome, a pesquisar
+     * @param aproximada false para exigir todas as palavras (a menos de acentos e grafia), true
+     *                   para aceitar também nomes parecidos, por ordem de semelhança
+     * @param inicio     Posição do primeiro resultado a devolver
+     * @param quantidade Número máximo de resultados a devolver
+     * @return Total de pacientes encontrados e os IDs da página, do mais para o menos semelhante
+     * @throws IllegalArgumentException se o texto não tiver letras
+     * @throws com.example.simlab.exception.IndisponivelException se o índice ainda não estiver construído
+     */
+    public Resultado pesquisar(String texto, boolean aproximada, int inicio, int quantidade) {
+        String chave = FoneticaPortuguesa.chave(texto);
+        if (chave.isEmpty()) {
+            throw new IllegalArgumentException("A pesquisa não tem letras");
+        }
+        IndiceTrigramas.Resultado resultado = consultar(indice -> indice.pesquisar(chave, aproximada, inicio, quantidade));
+        return new Resultado(resultado.total(), resultado.ids());
+    }
+
+    @Override
+    protected IndiceTrigramas carregar() {
+        IndiceTrigramas novo = new IndiceTrigramas();
+        try (Stream<PacienteDetalheDTO> pacientes = pacienteRepository.streamTodos()) {
+            pacientes.forEach(paciente -> novo.adicionar(paciente.getId(), FoneticaPortuguesa.chave(paciente.getNome())));
+        }
+        return novo;
+    }
+
+    @Override
+    protected Consumer<IndiceTrigramas> inserido(PostInsertEvent event) {
+        return adicionar((Paciente) event.getEntity());
+    }
+
+    @Override
+    protected Consumer<IndiceTrigramas> atualizado(PostUpdateEvent event) {
+        return adicionar((Paciente) event.getEntity());
+    }
+
+    @Override
+    protected Consumer<IndiceTrigramas> removido(PostDeleteEvent event) {
+        long id = (Long) event.getId();
+        return indice -> indice.remover(id);
+    }
+
+    /**
+     * Retira do índice, depois do commit, pacientes apagados sem eventos do Hibernate.
+     *
+     * @param ids IDs dos pacientes apagados
+     */
+    void apagados(Collection<Long> ids) {
+        aposCommit(indice -> ids.forEach(indice::remover));
+    }
+
+    private static Consumer<IndiceTrigramas> adicionar(Paciente paciente) {
+        long id = paciente.getId();
+        String chave = FoneticaPortuguesa.chave(paciente.getNome());
+        return indice -> indice.adicionar(id, chave);
+    }
+
+    /**
+     * Resultado de uma pesquisa.
+     *
+     * @param total Número de pacientes encontrados
+     * @param ids   IDs dos pacientes da página pedida, por ordem de semelhança
+     */
+    public record Resultado(long total, long[] ids) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.simlab.index;
+
+/**
+ * Nome sugerido para um prefixo.
+ *
+ * @param texto       Nome, como foi escrito no primeiro registo que o teve
+ * @param ocorrencias Número de registos com este nome
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public record Sugestao(String texto, int ocorrencias) {
+}
@@ -0,0 +1,51 @@
+package com.example.simlab.index;
+
+import com.example.simlab.dto.ExameDetalheDTO;
+import com.example.simlab.model.Exame;
+import com.example.simlab.repository.ExameRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+/**
+ * Sugestões de nomes de exames, para o autocompletar.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class SugestoesExames extends SugestoesNomes {
+    private final ExameRepository exameRepository;
+
+    public SugestoesExames(ExameRepository exameRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor) {
+        super(Exame.class, "sugestões de exames", transactionManager, executor);
+        this.exameRepository = exameRepository;
+    }
+
+    @Override
+    protected IndiceSugestoes carregar() {
+        IndiceSugestoes novo = new IndiceSugestoes();
+        try (Stream<ExameDetalheDTO> exames = exameRepository.streamTodos()) {
+            exames.forEach(exame -> novo.carregar(exame.getId(), exame.getNome()));
+        }
+        novo.concluirCarga();
+        return novo;
+    }
+
+    @Override
+    protected long id(Object entidade) {
+        return ((Exame) entidade).getId();
+    }
+
+    @Override
+    protected String nome(Object entidade) {
+        return ((Exame) entidade).getNome();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.simlab.index;
+
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sugestões de nomes de uma entidade pelo início do nome, num {@link IndiceSugestoes} mantido em
+ * memória (ver {@link IndiceSincronizado}), sem acessos à base de dados por pesquisa.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+abstract class SugestoesNomes extends IndiceSincronizado<IndiceSugestoes> {
+
+    protected SugestoesNomes(Class<?> entidade, String descricao,
+                             PlatformTransactionManager transactionManager,
+                             TaskExecutor executor) {
+        super(entidade, descricao, transactionManager, executor);
+    }
+
+    /**
+     * Nomes mais frequentes que começam pelo prefixo, sem distinguir maiúsculas nem acentos.
+     *
+     * @param prefixo Início do nome
+     * @param limite  Número máximo de sugestões
+     * @return Sugestões por número de registos decrescente e, em caso de empate, por ordem alfabética
+     * @throws IllegalArgumentException se o limite não estiver entre 1 e {@link IndiceSugestoes#MAXIMO_SUGESTOES}
+     * @throws com.example.simlab.exception.IndisponivelException se o índice ainda não estiver construído
+     */
+    public List<Sugestao> sugerir(String prefixo, int limite) {
+        if (limite < 1 || limite > IndiceSugestoes.MAXIMO_SUGESTOES) {
+            throw new IllegalArgumentException("O número de sugestões deve estar entre 1 e " + IndiceSugestoes.MAXIMO_SUGESTOES);
+        }
+        return consultar(indice -> indice.sugerir(prefixo, limite));
+    }
+
+    /**
+     * Retira das sugestões, depois do commit, registos apagados sem eventos do Hibernate.
+     *
+     * @param ids IDs dos registos apagados
+     */
+    void apagados(Collection<Long> ids) {
+        aposCommit(indice -> ids.forEach(indice::remover));
+    }
+
+    /**
+     * ID e nome de uma entidade.
+     */
+    protected abstract long id(Object entidade);
+
+    protected abstract String nome(Object entidade);
+
+    @Override
+    protected Consumer<IndiceSugestoes> inserido(PostInsertEvent event) {
+        return colocar(event.getEntity());
+    }
+
+    @Override
+    protected Consumer<IndiceSugestoes> atualizado(PostUpdateEvent event) {
+        return colocar(event.getEntity());
+    }
+
+    @Override
+    protected Consumer<IndiceSugestoes> removido(PostDeleteEvent event) {
+        long id = (Long) event.getId();
+        return indice -> indice.remover(id);
+    }
+
+    private Consumer<IndiceSugestoes> colocar(Object entidade) {
+        long id = id(entidade);
+        String nome = nome(entidade);
+        return indice -> indice.colocar(id, nome);
+    }
+}
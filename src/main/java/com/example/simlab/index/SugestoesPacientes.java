@@ -0,0 +1,51 @@
+package com.example.simlab.index;
+
+import com.example.simlab.dto.PacienteDetalheDTO;
+import com.example.simlab.model.Paciente;
+import com.example.simlab.repository.PacienteRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+/**
+ * Sugestões de nomes de pacientes, para o autocompletar.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class SugestoesPacientes extends SugestoesNomes {
+    private final PacienteRepository pacienteRepository;
+
+    public SugestoesPacientes(PacienteRepository pacienteRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor) {
+        super(Paciente.class, "sugestões de pacientes", transactionManager, executor);
+        this.pacienteRepository = pacienteRepository;
+    }
+
+    @Override
+    protected IndiceSugestoes carregar() {
+        IndiceSugestoes novo = new IndiceSugestoes();
+        try (Stream<PacienteDetalheDTO> pacientes = pacienteRepository.streamTodos()) {
+            pacientes.forEach(paciente -> novo.carregar(paciente.getId(), paciente.getNome()));
+        }
+        novo.concluirCarga();
+        return novo;
+    }
+
+    @Override
+    protected long id(Object entidade) {
+        return ((Paciente) entidade).getId();
+    }
+
+    @Override
+    protected String nome(Object entidade) {
+        return ((Paciente) entidade).getNome();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.simlab.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Regista o número de linhas devolvidas por cada método de um repositório.
+ *
+ * <p>O tempo de cada método já é medido pelo Spring Boot ({@code spring.data.repository.invocations});
+ * esta métrica ({@value #METRICA}) usa as mesmas tags {@code repository} e {@code method}, para as
+ * duas poderem ser cruzadas. Conta os elementos de páginas, janelas, coleções e {@link Optional}s e
+ * 1 para uma entidade ou projeção. Nos {@link Stream}s, conta os elementos percorridos quando o
+ * stream é fechado. Resultados que não são linhas (contagens, {@code exists...}) não são registados.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ContagemLinhas implements MethodInterceptor {
+    /**
+     * Nome da métrica (no Prometheus, {@code simlab_repositorio_linhas}).
+     */
+    public static final String METRICA = "simlab.repositorio.linhas";
+
+    private final Supplier<MeterRegistry> registry;
+    private final String repositorio;
+    private final Map<Method, DistributionSummary> porMetodo = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry    Registo das métricas, obtido só na primeira invocação
+     * @param repositorio Interface do repositório instrumentado
+     */
+    public ContagemLinhas(Supplier<MeterRegistry> registry, Class<?> repositorio) {
+        this.registry = registry;
+        this.repositorio = repositorio.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object resultado = invocation.proceed();
+        Method metodo = invocation.getMethod();
+        Class<?> tipo = metodo.getReturnType();
+        if (tipo == void.class || tipo.isPrimitive() || Number.class.isAssignableFrom(tipo) || tipo == Boolean.class) {
+            return resultado;
+        }
+
+        if (resultado instanceof Stream<?> stream) {
+            AtomicLong linhas = new AtomicLong();
+            return stream.peek(linha -> linhas.incrementAndGet()).onClose(() -> resumo(metodo).record(linhas.get()));
+        }
+        resumo(metodo).record(linhas(resultado));
+        return resultado;
+    }
+
+    private static long linhas(Object resultado) {
+        if (resultado == null) {
+            return 0;
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Window<?> janela) {
+            return janela.size();
+        }
+        if (resultado instanceof Collection<?> colecao) {
+            return colecao.size();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    private DistributionSummary resumo(Method metodo) {
+        return porMetodo.computeIfAbsent(metodo, m -> DistributionSummary.builder(METRICA)
+                .description("Linhas devolvidas por método de repositório")
+                .baseUnit("linhas")
+                .tag("repository", repositorio)
+                .tag("method", m.getName())
+                .register(registry.get()));
+    }
+}
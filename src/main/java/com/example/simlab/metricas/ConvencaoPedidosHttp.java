@@ -0,0 +1,44 @@
+package com.example.simlab.metricas;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Métricas dos pedidos HTTP ({@code http.server.requests}) com a combinação de filtros usada.
+ *
+ * <p>Acrescenta às tags do Spring a tag {@code filtros}, com os parâmetros de filtro presentes no
+ * pedido por ordem alfabética (por exemplo {@code cartaoCidadao+nome}) ou {@code nenhum}. Só os
+ * nomes dos filtros conhecidos são considerados, para o número de séries não depender dos
+ * parâmetros enviados pelos clientes.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class ConvencaoPedidosHttp extends DefaultServerRequestObservationConvention {
+    /**
+     * Parâmetros de filtro das listagens de pacientes e exames, por ordem alfabética.
+     */
+    static final List<String> FILTROS = List.of("cartaoCidadao", "dataDeNascimento", "descricao", "nome");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(filtros(context));
+    }
+
+    private static KeyValue filtros(ServerRequestObservationContext context) {
+        StringJoiner filtros = new StringJoiner("+");
+        for (String filtro : FILTROS) {
+            String valor = context.getCarrier().getParameter(filtro);
+            if (valor != null && !valor.isBlank()) {
+                filtros.add(filtro);
+            }
+        }
+        return KeyValue.of("filtros", filtros.length() == 0 ? "nenhum" : filtros.toString());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.simlab.metricas;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Mede cada instrução executada através do proxy JDBC e regista as que ultrapassam o limiar.
+ *
+ * <p>O plano é obtido com {@code EXPLAIN ANALYZE} do H2 sobre uma ligação do {@link DataSource}
+ * original, com os mesmos parâmetros, pelo que a análise não é ela própria medida. Como o
+ * {@code EXPLAIN ANALYZE} executa a instrução, só os {@code SELECT} são analisados.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class OuvinteConsultasLentas implements QueryExecutionListener {
+    private final RegistoConsultasLentas registo;
+    private final DataSource original;
+
+    /**
+     * @param registo  Registo das instruções lentas
+     * @param original DataSource sem proxy, usado para obter os planos
+     */
+    public OuvinteConsultasLentas(RegistoConsultasLentas registo, DataSource original) {
+        this.registo = registo;
+        this.original = original;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long duracaoMs = execInfo.getElapsedTime();
+        if (duracaoMs < registo.getLimiarMs()) {
+            return;
+        }
+        for (QueryInfo consulta : queryInfoList) {
+            String sql = consulta.getQuery();
+            // num batch, os parâmetros da primeira linha representam a instrução
+            List<ParameterSetOperation> operacoes = consulta.getParametersList().isEmpty()
+                    ? List.of() : consulta.getParametersList().get(0);
+            boolean analisavel = sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+            registo.registar(sql, valores(operacoes), duracaoMs, analisavel ? () -> explicar(sql, operacoes) : null);
+        }
+    }
+
+    private String explicar(String sql, List<ParameterSetOperation> operacoes) {
+        try (Connection ligacao = original.getConnection();
+             PreparedStatement explain = ligacao.prepareStatement("EXPLAIN ANALYZE " + sql)) {
+            for (ParameterSetOperation operacao : operacoes) {
+                Object[] args = operacao.getArgs();
+                if (!(args[0] instanceof Integer indice)) {
+                    continue;
+                }
+                if (operacao.getMethod().getName().equals("setNull")) {
+                    explain.setNull(indice, (Integer) args[1]);
+                } else {
+                    explain.setObject(indice, args[1]);
+                }
+            }
+            StringBuilder plano = new StringBuilder();
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plano.append(rs.getString(1));
+                }
+            }
+            return plano.toString();
+        } catch (SQLException e) {
+            return "Plano indisponível: " + e.getMessage();
+        }
+    }
+
+    private static List<String> valores(List<ParameterSetOperation> operacoes) {
+        List<String> valores = new ArrayList<>(operacoes.size());
+        for (ParameterSetOperation operacao : operacoes) {
+            Object[] args = operacao.getArgs();
+            valores.add(operacao.getMethod().getName().equals("setNull") ? "NULL" : String.valueOf(args[1]));
+        }
+        return valores;
+    }
+}
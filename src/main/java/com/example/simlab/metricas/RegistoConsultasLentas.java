@@ -0,0 +1,117 @@
+package com.example.simlab.metricas;
+
+import com.example.simlab.dto.ConsultaLentaDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Instruções SQL mais lentas desde o arranque, com os parâmetros e o plano da pior execução.
+ *
+ * <p>Guarda no máximo {@code simlab.consultas-lentas.maximo} instruções distintas: cada uma fica
+ * com a sua execução mais lenta e o número de execuções acima do limiar, e quando o registo está
+ * cheio a mais rápida dá lugar a uma mais lenta. O plano só é obtido quando uma execução entra no
+ * registo, no executor de tarefas da aplicação, para não atrasar ainda mais o pedido que a fez.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+public class RegistoConsultasLentas {
+    private final TaskExecutor executor;
+    private final long limiarMs;
+    private final int maximo;
+    private final Map<String, Amostra> porSql = new HashMap<>();
+
+    public RegistoConsultasLentas(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor,
+                                  @Value("${simlab.consultas-lentas.limiar-ms:100}") long limiarMs,
+                                  @Value("${simlab.consultas-lentas.maximo:50}") int maximo) {
+        this.executor = executor;
+        this.limiarMs = limiarMs;
+        this.maximo = maximo;
+    }
+
+    /**
+     * @return Duração a partir da qual uma execução é registada, em milissegundos
+     */
+    public long getLimiarMs() {
+        return limiarMs;
+    }
+
+    /**
+     * Regista uma execução acima do limiar.
+     *
+     * @param sql        Instrução SQL
+     * @param parametros Valores dos parâmetros da execução
+     * @param duracaoMs  Duração da execução
+     * @param plano      Obtém o plano da execução, ou null se a instrução não puder ser analisada
+     */
+    public void registar(String sql, List<String> parametros, long duracaoMs, Supplier<String> plano) {
+        Amostra amostra;
+        synchronized (this) {
+            Amostra existente = porSql.get(sql);
+            long ocorrencias = 1;
+            if (existente != null) {
+                existente.ocorrencias++;
+                if (duracaoMs <= existente.duracaoMs) {
+                    return;
+                }
+                ocorrencias = existente.ocorrencias;
+            } else if (porSql.size() >= maximo) {
+                Amostra maisRapida = porSql.values().stream().min(Comparator.comparingLong(a -> a.duracaoMs)).orElseThrow();
+                if (duracaoMs <= maisRapida.duracaoMs) {
+                    return;
+                }
+                porSql.remove(maisRapida.sql);
+            }
+            amostra = new Amostra(sql, List.copyOf(parametros), duracaoMs, ocorrencias);
+            porSql.put(sql, amostra);
+        }
+        if (plano != null) {
+            executor.execute(() -> amostra.plano = plano.get());
+        }
+    }
+
+    /**
+     * @return Instruções registadas, da mais lenta para a mais rápida
+     */
+    public synchronized List<ConsultaLentaDTO> listar() {
+        return porSql.values().stream()
+                .sorted(Comparator.comparingLong((Amostra a) -> a.duracaoMs).reversed())
+                .map(a -> new ConsultaLentaDTO(a.sql, a.parametros, a.duracaoMs, a.ocorrencias, a.instante, a.plano))
+                .toList();
+    }
+
+    /**
+     * Esquece as instruções registadas (por exemplo, depois de criar um índice).
+     */
+    public synchronized void limpar() {
+        porSql.clear();
+    }
+
+    private static final class Amostra {
+        private final String sql;
+        private final List<String> parametros;
+        private final long duracaoMs;
+        private final Instant instante = Instant.now();
+        private long ocorrencias;
+        private volatile String plano;
+
+        private Amostra(String sql, List<String> parametros, long duracaoMs, long ocorrencias) {
+            this.sql = sql;
+            this.parametros = parametros;
+            this.duracaoMs = duracaoMs;
+            this.ocorrencias = ocorrencias;
+        }
+    }
+}
@@ -4,33 +4,61 @@ package com.example.simlab.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 /**
  * Entidade que representa um exame no sistema.
  *
  *<p>Exames são cadastrados com dados do exame e associados a um paciente específico.
  * Cada exame pertence a apenas um paciente.</p>
  *
+ * <p>Como em {@link Paciente}, os UPDATEs só escrevem as colunas alteradas. O índice de
+ * {@code paciente_id} serve as leituras dos exames de um paciente e é o mesmo que a chave
+ * estrangeira usa, em vez de a base de dados criar outro.</p>
+ *
  * @author Amanda
  * @version 1.0
  * @since 2026-01-15
  */
 @Entity
-@Table(name = "exames")
+@Table(name = "exames", uniqueConstraints = @UniqueConstraint(name = Exame.RESTRICAO_NOME, columnNames = "nome"),
+        indexes = {@Index(name = "idx_exames_nome_norm", columnList = "nome_norm"),
+                @Index(name = "idx_exames_paciente_id", columnList = "paciente_id")})
+@Cacheable
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "exames")
 public class Exame {
+    /**
+     * Nome da restrição de unicidade do nome do exame, usado para traduzir a violação em {@code DuplicadoException}.
+     */
+    public static final String RESTRICAO_NOME = "uk_exames_nome";
+
     /**
      * Identificador único do exame, gerado automaticamente.
+     *
+     * <p>Gerado por sequência com alocação em bloco (pooled) para permitir batch JDBC na importação.</p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exames_seq")
+    @SequenceGenerator(name = "exames_seq", sequenceName = "exames_seq", allocationSize = 50)
     private Long id;
     /**
      * Nome do exame.
      */
     @NotNull(message = "Nome é obrigatório")
     @NotBlank(message = "Nome não pode estar vazio")
-    @Column(unique = true, nullable = false,length = 100)
+    @Column(nullable = false,length = 100)
     private String nome;
 
+    /**
+     * Nome normalizado (minúsculas, sem acentos), indexado para as pesquisas por nome.
+     *
+     * <p>Mantido por {@link #normalizarNome()} antes de cada inserção e atualização.</p>
+     */
+    @Column(name = "nome_norm", nullable = false, length = 100)
+    private String nomeNorm;
+
     /**
      * Descrição do exame.
      */
@@ -42,15 +70,31 @@ public class Exame {
      */
     @Column(nullable = false)
     private Double  preco;
+    /**
+     * Versão do exame, incrementada em cada atualização (ver {@link Paciente}).
+     */
+    @Version
+    @Column(nullable = false)
+    private Long versao;
     /**
      * Paciente ao qual o exame pertence.
      *
-     * <p>Relacionamento obrigatório: cada exame deve estar associado a um paciente.</p>
+     * <p>Relacionamento obrigatório: cada exame deve estar associado a um paciente.
+     * Carregado só quando acedido, para que listar exames não leia a tabela de pacientes.</p>
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paciente_id", nullable = false)
     private Paciente paciente;
 
+    /**
+     * Identificador do paciente, lido diretamente da chave estrangeira.
+     *
+     * <p>Mapeamento só de leitura da mesma coluna da associação: permite obter o ID do paciente
+     * sem carregar o {@link Paciente}. A escrita é feita sempre através de {@link #setPaciente}.</p>
+     */
+    @Column(name = "paciente_id", insertable = false, updatable = false)
+    private Long pacienteId;
+
     public Exame() {
     }
 
@@ -61,6 +105,15 @@ public class Exame {
         this.paciente = paciente;
     }
 
+    /**
+     * Atualiza o nome normalizado a partir do nome.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizarNome() {
+        this.nomeNorm = Normalizacao.normalizar(nome);
+    }
+
     public Long getId() {
         return id;
     }
@@ -77,6 +130,10 @@ public class Exame {
         this.nome = nome;
     }
 
+    public String getNomeNorm() {
+        return nomeNorm;
+    }
+
     public String getDescricao() {
         return descricao;
     }
@@ -100,4 +157,16 @@ public class Exame {
     public void setPaciente(Paciente paciente) {
         this.paciente = paciente;
     }
+
+    public Long getPacienteId() {
+        // numa entidade ainda não lida da bd a coluna só de leitura está vazia
+        if (pacienteId == null && paciente != null) {
+            return paciente.getId();
+        }
+        return pacienteId;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
 }
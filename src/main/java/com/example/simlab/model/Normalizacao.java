@@ -0,0 +1,37 @@
+package com.example.simlab.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Forma normalizada dos nomes, guardada nas colunas {@code nome_norm} para pesquisas indexadas.
+ *
+ * <p>Minúsculas e sem acentos ({@code "José Gonçalves"} fica {@code "jose goncalves"}), para que a
+ * pesquisa compare a coluna diretamente com o valor normalizado, sem funções como {@code UPPER()}
+ * que impedem o uso do índice. Só depende do JDK, para o gerador de dados produzir os mesmos
+ * valores fora do contexto Spring.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class Normalizacao {
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}");
+
+    private Normalizacao() {
+    }
+
+    /**
+     * Normaliza um nome para pesquisa.
+     *
+     * @param texto Nome a normalizar
+     * @return Nome em minúsculas e sem acentos, ou null se o texto for null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        return MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -5,6 +5,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -16,18 +19,34 @@ import java.util.List;
  * <p>Pacientes são cadastrados com dados pessoais únicos (Cartão de Cidadão)
  * e podem ter múltiplos exames associados.</p>
  *
+ * <p>Os UPDATEs só escrevem as colunas alteradas ({@link DynamicUpdate}): mudar o telefone não
+ * reescreve a linha toda.</p>
+ *
  * @author Amanda
  * @version 1.0
  * @since 2026-01-15
  */
 @Entity
-@Table(name = "pacientes")
+@Table(name = "pacientes", uniqueConstraints = @UniqueConstraint(name = Paciente.RESTRICAO_CARTAO_CIDADAO, columnNames = "cartao_cidadao"),
+        indexes = @Index(name = "idx_pacientes_nome_norm", columnList = "nome_norm"))
+@Cacheable
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pacientes")
 public class Paciente {
+    /**
+     * Nome da restrição de unicidade do Cartão de Cidadão, usado para traduzir a violação em {@code DuplicadoException}.
+     */
+    public static final String RESTRICAO_CARTAO_CIDADAO = "uk_pacientes_cartao_cidadao";
+
     /**
      * Identificador único do paciente, gerado automaticamente.
+     *
+     * <p>Gerado por sequência com alocação em bloco (pooled), o que permite ao Hibernate
+     * agrupar os INSERTs em batch JDBC na importação em lote.</p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pacientes_seq")
+    @SequenceGenerator(name = "pacientes_seq", sequenceName = "pacientes_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -38,6 +57,14 @@ public class Paciente {
     @Column(nullable = false, length = 100)
     private String nome;
 
+    /**
+     * Nome normalizado (minúsculas, sem acentos), indexado para as pesquisas por nome.
+     *
+     * <p>Mantido por {@link #normalizarNome()} antes de cada inserção e atualização.</p>
+     */
+    @Column(name = "nome_norm", nullable = false, length = 100)
+    private String nomeNorm;
+
     /**
      * Data de nascimento do paciente.
      */
@@ -51,7 +78,7 @@ public class Paciente {
      */
     @NotBlank(message = "Número do CC é obrigatório")
     @Pattern(regexp = "^[0-9]{8}$",message = "Cartão de Cidadão deve ter exatamente 8 dígitos")
-    @Column(name="cartao_cidadao",nullable = false, unique = true,length = 8)
+    @Column(name="cartao_cidadao",nullable = false,length = 8)
     private String cartaoCidadao;
     /**
      * Telefone do paciente.
@@ -65,6 +92,16 @@ public class Paciente {
      */
     @Column(length = 100)
     private String email;
+    /**
+     * Versão do paciente, incrementada pelo Hibernate em cada atualização.
+     *
+     * <p>Controlo de concorrência otimista: o UPDATE só se aplica se a versão na bd ainda for a que
+     * foi lida, pelo que duas atualizações concorrentes não se sobrepõem em silêncio. É devolvida
+     * aos clientes como ETag.</p>
+     */
+    @Version
+    @Column(nullable = false)
+    private Long versao;
     /**
      * Lista de exames associados a este paciente.
      *
@@ -87,6 +124,15 @@ public class Paciente {
     }
 
 
+    /**
+     * Atualiza o nome normalizado a partir do nome.
+     */
+    @PrePersist
+    @PreUpdate
+    void normalizarNome() {
+        this.nomeNorm = Normalizacao.normalizar(nome);
+    }
+
     public LocalDate getDataDeNascimento() {
         return dataDeNascimento;
     }
@@ -111,6 +157,10 @@ public class Paciente {
         this.nome = nome;
     }
 
+    public String getNomeNorm() {
+        return nomeNorm;
+    }
+
     public String getCartaoCidadao() {
         return cartaoCidadao;
     }
@@ -142,4 +192,8 @@ public class Paciente {
     public void setExames(List<Exame> exames) {
         this.exames = exames;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
 }
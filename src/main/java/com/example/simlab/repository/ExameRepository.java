@@ -1,13 +1,31 @@
 package com.example.simlab.repository;
 
+import com.example.simlab.dto.ExameDetalheDTO;
 import com.example.simlab.model.Exame;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Repository para acesso aos dados de exames.
  *
- * <p>Fornece métodos de consulta customizados além dos métodos padrão do JpaRepository.</p>
+ * <p>Fornece métodos de consulta customizados além dos métodos padrão do JpaRepository.
+ * Os resultados das consultas findBy paginadas ficam na cache de consultas do Hibernate,
+ * invalidada automaticamente quando a tabela de exames é alterada.</p>
  *
  * @author Amanda
  * @version 1.0
@@ -15,20 +33,21 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 public interface ExameRepository extends JpaRepository<Exame,Long> {
     /**
-     * Busca exame por nome com paginação.
+     * Busca exame por nome normalizado com paginação.
      *
-     *<p>Busca exata e case-sensitive (não diferencia maiúsculas/minúsculas).</p>
+     *<p>Busca exata sobre a coluna indexada {@code nome_norm}, que não diferencia maiúsculas/minúsculas nem acentos.</p>
      *
-     * @param nome Nome do exame
+     * @param nomeNorm Nome do exame, normalizado com {@link com.example.simlab.model.Normalizacao}
      * @param pageable Configuração de página e ordenação
      * @return Página de exames com o nome especificado
      */
-    Page<Exame> findByNomeIgnoreCase (String nome, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<ExameResumo> findByNomeNorm(String nomeNorm, Pageable pageable);
 
     /**
      * Verifica se existe exame com o nome especificado.
      *
-     * <p>Utilizado para validar duplicação de nomes de exames.</p>
+     * <p>Utilizado para validar duplicação de nomes de exames, quando o filtro de unicidade responde "talvez".</p>
      *
      * @param nome Nome do exame
      * @return True se existir o nome exame com o nome especificado, false caso não exista
@@ -44,7 +63,8 @@ public interface ExameRepository extends JpaRepository<Exame,Long> {
      * @param pageable Configuração de paginação e ordenação
      * @return Página de exame com a descrição especificado
      */
-    Page<Exame> findByDescricaoContainingIgnoreCase(String descricao, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<ExameResumo> findByDescricaoContainingIgnoreCase(String descricao, Pageable pageable);
 
     /**
      * Busca exame por nome e descrição com paginação.
@@ -56,7 +76,159 @@ public interface ExameRepository extends JpaRepository<Exame,Long> {
      * @param pageable Configuração de paginação e ordenação
      * @return Página de exame com nome e descrição especificado
      */
-    Page<Exame> findByNomeAndDescricaoIgnoreCase (String nome, String descricao, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<ExameResumo> findByNomeAndDescricaoIgnoreCase (String nome, String descricao, Pageable pageable);
+
+    /**
+     * Lista todos os exames com paginação, apenas com as colunas da projeção.
+     *
+     * @param pageable Configuração de paginação e ordenação
+     * @return Página de exames
+     */
+    Page<ExameResumo> findAllBy(Pageable pageable);
+
+    /**
+     * Lista exames por cursor (keyset), sem consulta de contagem.
+     *
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de exames da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de exames
+     */
+    Window<Exame> findBy(ScrollPosition posicao, Limit limite, Sort sort);
+
+    /**
+     * Lista exames por nome normalizado, por cursor (keyset).
+     *
+     * @param nomeNorm Nome do exame, normalizado
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de exames da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de exames com o nome especificado
+     */
+    Window<Exame> findByNomeNorm(String nomeNorm, ScrollPosition posicao, Limit limite, Sort sort);
+
+    /**
+     * Lista exames por descrição (contém texto), por cursor (keyset).
+     *
+     * @param descricao Descrição do exame
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de exames da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de exames com a descrição especificada
+     */
+    Window<Exame> findByDescricaoContainingIgnoreCase(String descricao, ScrollPosition posicao, Limit limite, Sort sort);
+
+    /**
+     * Lista exames por nome e descrição, por cursor (keyset).
+     *
+     * @param nome Nome do exame
+     * @param descricao Descrição do exame
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de exames da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de exames com nome e descrição especificados
+     */
+    Window<Exame> findByNomeAndDescricaoIgnoreCase(String nome, String descricao, ScrollPosition posicao, Limit limite, Sort sort);
+
+    /**
+     * Devolve, de entre os nomes indicados, os que já pertencem a algum exame.
+     *
+     * <p>Utilizado na importação em lote para validar duplicação de um bloco inteiro numa única consulta.</p>
+     *
+     * @param nomes Nomes de exames a verificar
+     * @return Lista dos nomes já existentes
+     */
+    @Query("select e.nome from Exame e where e.nome in :nomes")
+    List<String> findNomesExistentes(Collection<String> nomes);
+
+    /**
+     * Percorre os nomes de todos os exames, para construir o filtro de unicidade.
+     *
+     * <p>Tem de ser consumido dentro de uma transação e fechado no fim.</p>
+     *
+     * @return Stream dos nomes dos exames
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.nome from Exame e")
+    Stream<String> streamNomes();
+
+    /**
+     * Percorre todos os exames por ordem de ID com um cursor JDBC forward-only.
+     *
+     * <p>Devolve DTOs diretamente (sem entidades geridas nem carregamento do paciente).
+     * Tem de ser consumido dentro de uma transação e fechado no fim.</p>
+     *
+     * @return Stream de todos os exames
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.simlab.dto.ExameDetalheDTO(e.id, e.nome, e.descricao, e.preco, e.pacienteId, e.versao) from Exame e order by e.id")
+    Stream<ExameDetalheDTO> streamTodos();
+
+    /**
+     * Busca o detalhe de um exame diretamente como DTO, sem carregar a entidade.
+     *
+     * @param id Identificador do exame
+     * @return Optional com o detalhe do exame, vazio se não existir
+     */
+    @Query("select new com.example.simlab.dto.ExameDetalheDTO(e.id, e.nome, e.descricao, e.preco, e.pacienteId, e.versao) from Exame e where e.id = :id")
+    Optional<ExameDetalheDTO> findDetalheById(Long id);
+
+    /**
+     * Busca o ID, o nome e a descrição dos exames de um paciente, sem carregar entidades.
+     *
+     * @param pacienteId Identificador do paciente
+     * @return Texto pesquisável dos exames do paciente
+     */
+    @Query("select e.id as id, e.nome as nome, e.descricao as descricao from Exame e where e.pacienteId = :pacienteId")
+    List<ExameTexto> findTextosByPacienteId(Long pacienteId);
+
+    /**
+     * Busca uma página dos exames de um paciente como DTOs, sem carregar entidades.
+     *
+     * <p>Lê só a tabela de exames, pelo índice de {@code paciente_id}.</p>
+     *
+     * @param pacienteId Identificador do paciente
+     * @param pageable   Configuração de paginação e ordenação
+     * @return Página de exames do paciente
+     */
+    @Query(value = "select new com.example.simlab.dto.ExameDetalheDTO(e.id, e.nome, e.descricao, e.preco, e.pacienteId, e.versao) from Exame e where e.pacienteId = :pacienteId",
+            countQuery = "select count(e) from Exame e where e.pacienteId = :pacienteId")
+    Page<ExameDetalheDTO> findDetalhesByPacienteId(Long pacienteId, Pageable pageable);
+
+    /**
+     * Apaga um exame com um único DELETE, sem o carregar.
+     *
+     * <p>Não gera eventos do Hibernate: quem chama tem de atualizar os índices em memória.</p>
+     *
+     * @param id Identificador do exame
+     * @return Número de exames apagados (0 ou 1)
+     */
+    @Modifying
+    @Query("delete from Exame e where e.id = :id")
+    int apagarPorId(Long id);
 
+    /**
+     * Apaga um exame com um único DELETE, só se ainda estiver na versão indicada.
+     *
+     * @param id     Identificador do exame
+     * @param versao Versão esperada
+     * @return Número de exames apagados (0 se não existir ou estiver noutra versão)
+     */
+    @Modifying
+    @Query("delete from Exame e where e.id = :id and e.versao = :versao")
+    int apagarPorIdEVersao(Long id, Long versao);
+
+    /**
+     * Apaga todos os exames de um paciente com um único DELETE.
+     *
+     * <p>Não gera eventos do Hibernate: quem chama tem de atualizar os índices em memória.</p>
+     *
+     * @param pacienteId Identificador do paciente
+     * @return Número de exames apagados
+     */
+    @Modifying
+    @Query("delete from Exame e where e.pacienteId = :pacienteId")
+    int apagarPorPaciente(Long pacienteId);
 
 }
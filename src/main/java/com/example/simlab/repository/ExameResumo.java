@@ -0,0 +1,22 @@
+package com.example.simlab.repository;
+
+/**
+ * Projeção de exame usada nas listagens paginadas.
+ *
+ * <p>Seleciona apenas as colunas da tabela de exames (incluindo a chave estrangeira do paciente),
+ * pelo que construir um {@link com.example.simlab.dto.ExameDTO} não lê a tabela de pacientes.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public interface ExameResumo {
+
+    String getNome();
+
+    String getDescricao();
+
+    Double getPreco();
+
+    Long getPacienteId();
+}
@@ -0,0 +1,20 @@
+package com.example.simlab.repository;
+
+/**
+ * Projeção com o texto pesquisável de um exame.
+ *
+ * <p>Seleciona só o ID, o nome e a descrição: é o que os índices em memória precisam para
+ * retirar um exame apagado sem eventos do Hibernate.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public interface ExameTexto {
+
+    Long getId();
+
+    String getNome();
+
+    String getDescricao();
+}
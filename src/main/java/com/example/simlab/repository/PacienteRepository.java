@@ -1,16 +1,37 @@
 package com.example.simlab.repository;
 
+import com.example.simlab.dto.PacienteDetalheDTO;
 import com.example.simlab.model.Paciente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para acesso aos dados de pacientes.
  *
- * <p>Fornece métodos de consulta customizados além dos métodos padrão do JpaRepository.</p>
+ * <p>Fornece métodos de consulta customizados além dos métodos padrão do JpaRepository.
+ * Os resultados das consultas findBy paginadas ficam na cache de consultas do Hibernate,
+ * invalidada automaticamente quando a tabela de pacientes é alterada.</p>
+ *
+ * <p>As pesquisas por nome comparam a coluna indexada {@code nome_norm} com o valor já normalizado
+ * por {@link com.example.simlab.model.Normalizacao}, e as por Cartão de Cidadão (só dígitos) usam
+ * comparação exata, para que ambas usem um índice em vez de {@code UPPER()} sobre toda a tabela.</p>
  *
  * @author Amanda
  * @version 1.0
@@ -19,13 +40,14 @@ import java.time.LocalDate;
 public interface PacienteRepository extends JpaRepository<Paciente, Long> {
 
     /**
-     * Busca paciente por nome com paginação.
+     * Busca paciente por nome normalizado com paginação.
      *
-     * @param nome Nome do paciente
+     * @param nomeNorm Nome do paciente, normalizado
      * @param pageable Configuração de paginação e ordenação
      * @return Página de pacientes com o nome especificado
      */
-    Page<Paciente> findByNomeIgnoreCase (String nome, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Paciente> findByNomeNorm(String nomeNorm, Pageable pageable);
 
     /**
      * Busca pacientes por data de nascimento com paginação.
@@ -34,6 +56,7 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
      * @param pageable Configurção de paginação e ordenação
      * @return Página de pacientes com a  Data de Nascimento especificada
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Paciente>findByDataDeNascimento (LocalDate dataDeNascimento,Pageable pageable);
 
     /**
@@ -43,7 +66,8 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
      * @param pageable Configuração de paginação e ordenação.
      * @return Página de paciente encontrado com o Cartão de Cidadão especificado
      */
-    Page<Paciente> findByCartaoCidadaoIgnoreCase (String cartaoCidadao, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Paciente> findByCartaoCidadao(String cartaoCidadao, Pageable pageable);
 
     /**
      * Busca pacientes por nome e Cartão de Cidadão com paginação.
@@ -53,30 +77,186 @@ public interface PacienteRepository extends JpaRepository<Paciente, Long> {
      * @param pageable Configuração de página e ordenação
      * @return Página de pacientes que correspondem a ambos critérios.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Paciente>findByNomeAndCartaoCidadao ( String nome, String cartaoCidadao, Pageable pageable);
 
     /**
      * Verifica se existe paciente com o Cartão de Cidadão especificado
      *
-     * <p>Busca case-sensitive para evitar duplicações com diferenças de maiúscula/minúsculas. </p>
+     * <p>Comparação exata: o Cartão de Cidadão só tem dígitos, e sem {@code UPPER()} na coluna a
+     * consulta usa o índice único. É chamada apenas quando o filtro de unicidade responde "talvez".</p>
      *
      * @param cartaoCidadao Cartão de Cidadão a verificar
      * @return True se existe paciente com este Cartão de Cidadão, false caso contrário
      */
-    boolean existsByCartaoCidadaoIgnoreCase ( String cartaoCidadao);
+    boolean existsByCartaoCidadao(String cartaoCidadao);
 
     /**
-     * Busca pacientes por nome E Cartão de Cidadão com paginação.
-     *
-     * <p>Busca case-insensitive em ambos os campos.</p>
+     * Busca pacientes por nome normalizado E Cartão de Cidadão com paginação.
      *
-     * @param nome Nome do paciente
+     * @param nomeNorm Nome do paciente, normalizado
      * @param cartaoCidadao Cartão de Cidadão do paciente
      * @param pageable Configuração de paginação e ordenação
      * @return Página de pacientes que correspondem a ambos os critérios
      */
-    Page<Paciente> findByNomeIgnoreCaseAndCartaoCidadaoIgnoreCase(String nome, String cartaoCidadao, Pageable pageable);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Paciente> findByNomeNormAndCartaoCidadao(String nomeNorm, String cartaoCidadao, Pageable pageable);
+
+    /**
+     * Lista pacientes por cursor (keyset), sem consulta de contagem.
+     *
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de pacientes da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de pacientes
+     */
+    Window<Paciente> findBy(ScrollPosition posicao, Limit limite, Sort sort);
+
+    /**
+     * Lista pacientes por nome normalizado, por cursor (keyset).
+     *
+     * @param nomeNorm Nome do paciente, normalizado
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de pacientes da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de pacientes com o nome especificado
+     */
+    Window<Paciente> findByNomeNorm(String nomeNorm, ScrollPosition posicao, Limit limite, Sort sort);
+
+    /**
+     * Lista pacientes por data de nascimento, por cursor (keyset).
+     *
+     * @param dataDeNascimento Data de nascimento do paciente
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de pacientes da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de pacientes com a data de nascimento especificada
+     */
+    Window<Paciente> findByDataDeNascimento(LocalDate dataDeNascimento, ScrollPosition posicao, Limit limite, Sort sort);
 
+    /**
+     * Lista pacientes por Cartão de Cidadão, por cursor (keyset).
+     *
+     * @param cartaoCidadao Cartão de Cidadão do paciente
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de pacientes da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de pacientes com o Cartão de Cidadão especificado
+     */
+    Window<Paciente> findByCartaoCidadao(String cartaoCidadao, ScrollPosition posicao, Limit limite, Sort sort);
+
+    /**
+     * Lista pacientes por nome normalizado e Cartão de Cidadão, por cursor (keyset).
+     *
+     * @param nomeNorm Nome do paciente, normalizado
+     * @param cartaoCidadao Cartão de Cidadão do paciente
+     * @param posicao Posição a partir da qual ler
+     * @param limite Número máximo de pacientes da janela
+     * @param sort Ordenação (deve terminar numa chave única, como o ID)
+     * @return Janela de pacientes que correspondem a ambos os critérios
+     */
+    Window<Paciente> findByNomeNormAndCartaoCidadao(String nomeNorm, String cartaoCidadao, ScrollPosition posicao, Limit limite, Sort sort);
 
+    /**
+     * Devolve, de entre os Cartões de Cidadão indicados, os que já estão cadastrados.
+     *
+     * <p>Utilizado na criação em lote para validar duplicação de todo o conjunto numa única consulta.</p>
+     *
+     * @param cartoesCidadao Cartões de Cidadão a verificar
+     * @return Lista dos Cartões de Cidadão já existentes
+     */
+    @Query("select p.cartaoCidadao from Paciente p where p.cartaoCidadao in :cartoesCidadao")
+    List<String> findCartoesCidadaoExistentes(Collection<String> cartoesCidadao);
+
+    /**
+     * Devolve, de entre os identificadores indicados, os que correspondem a pacientes existentes.
+     *
+     * <p>Utilizado na importação de exames para resolver os pacientes de um bloco numa única consulta.</p>
+     *
+     * @param ids Identificadores de pacientes a verificar
+     * @return Lista dos identificadores existentes
+     */
+    @Query("select p.id from Paciente p where p.id in :ids")
+    List<Long> findIdsExistentes(Collection<Long> ids);
+
+    /**
+     * Percorre os Cartões de Cidadão de todos os pacientes, para construir o filtro de unicidade.
+     *
+     * <p>Tem de ser consumido dentro de uma transação e fechado no fim.</p>
+     *
+     * @return Stream dos Cartões de Cidadão
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.cartaoCidadao from Paciente p")
+    Stream<String> streamCartoesCidadao();
+
+    /**
+     * Busca o detalhe de um paciente diretamente como DTO, sem carregar a entidade.
+     *
+     * @param id Identificador do paciente
+     * @return Optional com o detalhe do paciente, vazio se não existir
+     */
+    @Query("select new com.example.simlab.dto.PacienteDetalheDTO(p.id, p.nome, p.dataDeNascimento, p.cartaoCidadao, p.telefone, p.email, p.versao) from Paciente p where p.id = :id")
+    Optional<PacienteDetalheDTO> findDetalheById(Long id);
+
+    /**
+     * Busca só a versão de um paciente.
+     *
+     * @param id Identificador do paciente
+     * @return Optional com a versão, vazio se o paciente não existir
+     */
+    @Query("select p.versao from Paciente p where p.id = :id")
+    Optional<Long> findVersaoById(Long id);
+
+    /**
+     * Busca um paciente com os exames numa única consulta (LEFT JOIN), em vez de uma consulta
+     * pelo paciente e outra ao aceder aos exames.
+     *
+     * @param id Identificador do paciente
+     * @return Optional com o paciente e os exames carregados, vazio se não existir
+     */
+    @EntityGraph(attributePaths = "exames")
+    @Query("select p from Paciente p where p.id = :id")
+    Optional<Paciente> findComExamesById(Long id);
+
+    /**
+     * Percorre todos os pacientes por ordem de ID com um cursor JDBC forward-only.
+     *
+     * <p>Devolve DTOs diretamente (sem entidades geridas), pelo que a memória usada não cresce com
+     * o número de linhas. Tem de ser consumido dentro de uma transação e fechado no fim.</p>
+     *
+     * @return Stream de todos os pacientes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.simlab.dto.PacienteDetalheDTO(p.id, p.nome, p.dataDeNascimento, p.cartaoCidadao, p.telefone, p.email, p.versao) from Paciente p order by p.id")
+    Stream<PacienteDetalheDTO> streamTodos();
+
+    /**
+     * Apaga um paciente com um único DELETE, sem o carregar nem percorrer os exames.
+     *
+     * <p>Os exames do paciente têm de ser apagados antes (ver
+     * {@link ExameRepository#apagarPorPaciente(Long)}). Não gera eventos do Hibernate: quem chama
+     * tem de atualizar os índices em memória.</p>
+     *
+     * @param id Identificador do paciente
+     * @return Número de pacientes apagados (0 ou 1)
+     */
+    @Modifying
+    @Query("delete from Paciente p where p.id = :id")
+    int apagarPorId(Long id);
+
+    /**
+     * Apaga um paciente com um único DELETE, só se ainda estiver na versão indicada.
+     *
+     * <p>Como {@link #apagarPorId(Long)}, mas a condição sobre a versão é verificada pela própria
+     * instrução, sem janela entre a verificação e a remoção.</p>
+     *
+     * @param id     Identificador do paciente
+     * @param versao Versão esperada
+     * @return Número de pacientes apagados (0 se não existir ou estiver noutra versão)
+     */
+    @Modifying
+    @Query("delete from Paciente p where p.id = :id and p.versao = :versao")
+    int apagarPorIdEVersao(Long id, Long versao);
 
 }
@@ -0,0 +1,69 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.SugestaoDTO;
+import com.example.simlab.index.Sugestao;
+import com.example.simlab.index.SugestoesExames;
+import com.example.simlab.index.SugestoesPacientes;
+import com.example.simlab.model.Normalizacao;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Serviço de autocompletar nomes de pacientes e exames.
+ *
+ * <p>As sugestões vêm dos índices em memória ({@link SugestoesPacientes} e {@link SugestoesExames}):
+ * nenhuma tecla escrita pelo utilizador chega à base de dados.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Service
+public class AutocompleteService {
+    private static final Comparator<SugestaoDTO> POR_POPULARIDADE = Comparator
+            .comparingInt(SugestaoDTO::getOcorrencias).reversed()
+            .thenComparing(sugestao -> Normalizacao.normalizar(sugestao.getTexto()));
+
+    private final SugestoesPacientes pacientes;
+    private final SugestoesExames exames;
+
+    public AutocompleteService(SugestoesPacientes pacientes, SugestoesExames exames) {
+        this.pacientes = pacientes;
+        this.exames = exames;
+    }
+
+    /**
+     * Sugere os nomes mais frequentes que começam pelo prefixo.
+     *
+     * @param prefixo Início do nome (sem distinguir maiúsculas nem acentos)
+     * @param tipo    "paciente" ou "exame"; null para sugerir de ambos
+     * @param limite  Número máximo de sugestões
+     * @return Sugestões por número de registos decrescente e, em caso de empate, por ordem alfabética
+     * @throws IllegalArgumentException se o prefixo estiver vazio, o tipo não for suportado ou o limite for inválido
+     * @throws com.example.simlab.exception.IndisponivelException se algum índice ainda estiver a ser construído
+     */
+    public List<SugestaoDTO> sugerir(String prefixo, String tipo, int limite) {
+        if (prefixo == null || prefixo.isBlank()) {
+            throw new IllegalArgumentException("O prefixo a completar é obrigatório");
+        }
+        if (tipo != null) {
+            return switch (TipoSugestao.de(tipo)) {
+                case PACIENTE -> converter(pacientes.sugerir(prefixo, limite), TipoSugestao.PACIENTE);
+                case EXAME -> converter(exames.sugerir(prefixo, limite), TipoSugestao.EXAME);
+            };
+        }
+        List<SugestaoDTO> todas = new ArrayList<>(converter(pacientes.sugerir(prefixo, limite), TipoSugestao.PACIENTE));
+        todas.addAll(converter(exames.sugerir(prefixo, limite), TipoSugestao.EXAME));
+        todas.sort(POR_POPULARIDADE);
+        return todas.size() > limite ? todas.subList(0, limite) : todas;
+    }
+
+    private static List<SugestaoDTO> converter(List<Sugestao> sugestoes, TipoSugestao tipo) {
+        return sugestoes.stream()
+                .map(sugestao -> new SugestaoDTO(sugestao.texto(), tipo.getValor(), sugestao.ocorrencias()))
+                .toList();
+    }
+}
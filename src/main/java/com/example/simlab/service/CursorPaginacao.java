@@ -0,0 +1,107 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.JanelaDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Utilitário para a paginação por cursor (keyset) ordenada por ID.
+ *
+ * <p>O cursor é o ID do último elemento devolvido, codificado em Base64 URL-safe. Cada janela é
+ * obtida com {@code WHERE id > ? ORDER BY id LIMIT n}, com custo constante em qualquer profundidade
+ * e sem consulta de contagem.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class CursorPaginacao {
+    /**
+     * Tamanho de janela usado quando o pedido não indica nenhum.
+     */
+    public static final int TAMANHO_PADRAO = 20;
+    /**
+     * Tamanho máximo de janela aceite.
+     */
+    public static final int TAMANHO_MAXIMO = 500;
+    /**
+     * Ordenação das listagens por cursor.
+     */
+    static final Sort ORDENACAO = Sort.by("id");
+
+    private static final String PREFIXO = "id:";
+
+    private CursorPaginacao() {
+    }
+
+    /**
+     * Converte o cursor recebido no pedido na posição de scroll correspondente.
+     *
+     * @param cursor Cursor opaco (null para a primeira janela)
+     * @return Posição keyset a partir da qual ler
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    static KeysetScrollPosition posicao(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (texto.startsWith(PREFIXO)) {
+                return ScrollPosition.forward(Map.of("id", Long.parseLong(texto.substring(PREFIXO.length()))));
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 ou número malformado
+        }
+        throw new IllegalArgumentException("Cursor inválido");
+    }
+
+    /**
+     * Valida o tamanho da janela pedido.
+     *
+     * @param tamanho Tamanho pedido
+     * @return Limite a aplicar à consulta
+     * @throws IllegalArgumentException se o tamanho estiver fora do intervalo aceite
+     */
+    static Limit limite(int tamanho) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new IllegalArgumentException("O tamanho da janela deve estar entre 1 e " + TAMANHO_MAXIMO);
+        }
+        return Limit.of(tamanho);
+    }
+
+    /**
+     * Codifica o ID do último elemento de uma janela como cursor opaco.
+     *
+     * @param id ID do último elemento
+     * @return Cursor opaco
+     */
+    static String codificar(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXO + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Converte uma janela de entidades no DTO de retorno, com o cursor para a janela seguinte.
+     *
+     * @param janela Janela devolvida pelo repository
+     * @param id     Função que obtém o ID de uma entidade
+     * @param mapper Conversão de entidade para DTO
+     * @return Janela pronta a devolver
+     */
+    static <E, D> JanelaDTO<D> converter(Window<E> janela, Function<E, Long> id, Function<E, D> mapper) {
+        String proximo = null;
+        if (janela.hasNext() && !janela.isEmpty()) {
+            proximo = codificar(id.apply(janela.getContent().get(janela.size() - 1)));
+        }
+        return new JanelaDTO<>(janela.map(mapper).getContent(), proximo, janela.hasNext());
+    }
+}
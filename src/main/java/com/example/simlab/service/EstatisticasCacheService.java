@@ -0,0 +1,49 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.EstatisticasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service que expõe as estatísticas da cache de segundo nível do Hibernate.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Service
+public class EstatisticasCacheService {
+    private final Statistics statistics;
+
+    public EstatisticasCacheService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Lista acertos, falhas e taxa de acerto de cada região (entidades e consultas) e do total.
+     *
+     * @return Estatísticas por região, terminando com o total
+     */
+    public List<EstatisticasCacheDTO> listar() {
+        List<EstatisticasCacheDTO> resultado = new ArrayList<>();
+
+        for (String regiao : statistics.getSecondLevelCacheRegionNames()) {
+            // getCacheRegionStatistics aceita regiões de entidades e de resultados de consultas
+            CacheRegionStatistics regiaoStats = statistics.getCacheRegionStatistics(regiao);
+            if (regiaoStats == null) {
+                continue;
+            }
+            resultado.add(new EstatisticasCacheDTO(regiao, regiaoStats.getHitCount(), regiaoStats.getMissCount(), regiaoStats.getPutCount()));
+        }
+        resultado.add(new EstatisticasCacheDTO("total", statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+
+        return resultado;
+    }
+}
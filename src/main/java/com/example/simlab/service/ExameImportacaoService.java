@@ -0,0 +1,207 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.ErroLoteDTO;
+import com.example.simlab.dto.ExameDTO;
+import com.example.simlab.dto.LoteResultadoDTO;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.model.Exame;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service responsável pela importação de exames em NDJSON (um exame JSON por linha).
+ *
+ * <p>O corpo do pedido é lido incrementalmente com o parser de streaming do Jackson e gravado
+ * em blocos de tamanho fixo, cada um na sua transação. Só um bloco está em memória de cada vez,
+ * pelo que o consumo de heap não depende do tamanho do ficheiro.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Service
+public class ExameImportacaoService {
+    /**
+     * Número máximo de erros devolvidos no resultado; os restantes são apenas contados.
+     */
+    static final int MAX_ERROS_REPORTADOS = 1000;
+
+    private final ExameRepository exameRepository;
+    private final PacienteRepository pacienteRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final FiltroUnicidade unicidade;
+    private final int tamanhoBloco;
+
+    public ExameImportacaoService(ExameRepository exameRepository,
+                                  PacienteRepository pacienteRepository,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper,
+                                  Validator validator,
+                                  PlatformTransactionManager transactionManager,
+                                  FiltroUnicidade unicidade,
+                                  @Value("${simlab.importacao.tamanho-bloco:500}") int tamanhoBloco) {
+        this.exameRepository = exameRepository;
+        this.pacienteRepository = pacienteRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unicidade = unicidade;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Importa exames a partir de um fluxo NDJSON.
+     *
+     * <p>Linhas inválidas, com nome duplicado ou com paciente inexistente são rejeitadas
+     * individualmente. Se o JSON estiver malformado, a importação pára nessa linha e os
+     * blocos anteriores mantêm-se gravados.</p>
+     *
+     * @param entrada Fluxo com um exame JSON por linha
+     * @return Resumo da importação com o erro de cada linha rejeitada
+     * @throws IOException se não for possível ler o fluxo de entrada
+     */
+    public LoteResultadoDTO importar(InputStream entrada) throws IOException {
+        LoteResultadoDTO resultado = new LoteResultadoDTO();
+        List<LinhaExame> bloco = new ArrayList<>(tamanhoBloco);
+        long linha = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada)) {
+            while (true) {
+                JsonNode no;
+                try {
+                    if (parser.nextToken() == null) {
+                        break;
+                    }
+                    linha++;
+                    no = objectMapper.readTree(parser);
+                } catch (JsonProcessingException e) {
+                    rejeitar(resultado, linha, "JSON malformado: " + e.getOriginalMessage());
+                    break;
+                }
+
+                ExameDTO dto;
+                try {
+                    dto = objectMapper.treeToValue(no, ExameDTO.class);
+                } catch (JsonProcessingException e) {
+                    rejeitar(resultado, linha, "Exame inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<ExameDTO>> violacoes = validator.validate(dto);
+                if (!violacoes.isEmpty()) {
+                    rejeitar(resultado, linha, violacoes.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+
+                bloco.add(new LinhaExame(linha, dto));
+                if (bloco.size() == tamanhoBloco) {
+                    gravarBloco(bloco, resultado);
+                    bloco.clear();
+                }
+            }
+        }
+
+        if (!bloco.isEmpty()) {
+            gravarBloco(bloco, resultado);
+        }
+        resultado.setRecebidos(linha);
+        return resultado;
+    }
+
+    /**
+     * Grava um bloco numa única transação, resolvendo nomes duplicados e pacientes com uma consulta cada.
+     */
+    private void gravarBloco(List<LinhaExame> bloco, LoteResultadoDTO resultado) {
+        Set<String> nomes = new HashSet<>();
+        Set<Long> pacienteIds = new HashSet<>();
+        for (LinhaExame l : bloco) {
+            // só os nomes que o filtro não exclui precisam de ser confirmados na bd
+            if (unicidade.talvezNomeExame(l.dto().getNome())) {
+                nomes.add(l.dto().getNome());
+            }
+            pacienteIds.add(l.dto().getPacienteId());
+        }
+
+        List<ErroLoteDTO> errosDoBloco = new ArrayList<>();
+        try {
+            Integer criados = transactionTemplate.execute(status -> {
+                Set<String> nomesUsados = nomes.isEmpty() ? new HashSet<>() : new HashSet<>(exameRepository.findNomesExistentes(nomes));
+                Set<Long> pacientesExistentes = new HashSet<>(pacienteRepository.findIdsExistentes(pacienteIds));
+
+                List<Exame> novos = new ArrayList<>(bloco.size());
+                for (LinhaExame l : bloco) {
+                    ExameDTO dto = l.dto();
+                    if (!pacientesExistentes.contains(dto.getPacienteId())) {
+                        errosDoBloco.add(new ErroLoteDTO(l.linha(), "Paciente não encontrado com ID: " + dto.getPacienteId()));
+                    } else if (!nomesUsados.add(dto.getNome())) {
+                        errosDoBloco.add(new ErroLoteDTO(l.linha(), "Existe exame com esse nome: " + dto.getNome()));
+                    } else {
+                        // referência sem SELECT: o paciente já foi confirmado pela consulta do bloco
+                        novos.add(new Exame(dto.getNome(), dto.getDescricao(), dto.getPreco(),
+                                pacienteRepository.getReferenceById(dto.getPacienteId())));
+                    }
+                }
+
+                novos.forEach(exame -> unicidade.adicionarNomeExame(exame.getNome()));
+
+                // flush pelo repository para a violação de unicidade chegar como DataIntegrityViolationException
+                exameRepository.saveAll(novos);
+                exameRepository.flush();
+                entityManager.clear();
+                return novos.size();
+            });
+            resultado.setCriados(resultado.getCriados() + (criados == null ? 0 : criados));
+            errosDoBloco.forEach(e -> rejeitar(resultado, e.getLinha(), e.getMensagem()));
+        } catch (DataIntegrityViolationException e) {
+            // outro pedido gravou um nome do bloco entretanto: o bloco inteiro foi revertido, mas as
+            // linhas já rejeitadas mantêm o seu erro e só as que se tentou gravar são reclassificadas
+            Map<Long, String> rejeitadas = errosDoBloco.stream()
+                    .collect(Collectors.toMap(ErroLoteDTO::getLinha, ErroLoteDTO::getMensagem));
+            String revertido = "Bloco revertido por conflito de integridade: " + e.getMostSpecificCause().getMessage();
+            for (LinhaExame l : bloco) {
+                rejeitar(resultado, l.linha(), rejeitadas.getOrDefault(l.linha(), revertido));
+            }
+        }
+    }
+
+    private void rejeitar(LoteResultadoDTO resultado, long linha, String mensagem) {
+        resultado.setRejeitados(resultado.getRejeitados() + 1);
+        if (resultado.getErros().size() < MAX_ERROS_REPORTADOS) {
+            resultado.getErros().add(new ErroLoteDTO(linha, mensagem));
+        }
+    }
+
+    /**
+     * Exame lido do fluxo, com a posição da linha de origem.
+     */
+    private record LinhaExame(long linha, ExameDTO dto) {
+    }
+}
@@ -3,47 +3,86 @@ package com.example.simlab.service;
 import com.example.simlab.dto.ExameDTO;
 import com.example.simlab.dto.ExameDetalheDTO;
 import com.example.simlab.dto.ExameUpdateDTO;
+import com.example.simlab.dto.JanelaDTO;
 import com.example.simlab.exception.DuplicadoException;
 import com.example.simlab.exception.RecursoNaoEncontradoException;
+import com.example.simlab.exception.VersaoDesatualizadaException;
+import com.example.simlab.index.AlteracoesDiretas;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.index.PesquisaExames;
 import com.example.simlab.model.Exame;
+import com.example.simlab.model.Normalizacao;
 import com.example.simlab.model.Paciente;
 import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.ExameResumo;
 import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsável pela lógica de negócio do Exame.
  *
+ * <p>As leituras correm em transações só de leitura (ver {@link PacienteService}); criar,
+ * atualizar e apagar têm transação de escrita.</p>
+ *
  * @author Amanda
  * @version 1.0
  * @since 2026-01-15
  */
 @Service
+@Transactional(readOnly = true)
 public class ExameService {
     private final ExameRepository exameRepository;
     private final PacienteRepository pacienteRepository;
+    private final FiltroUnicidade unicidade;
+    private final PesquisaExames pesquisa;
+    private final AlteracoesDiretas alteracoes;
+    private final LeitorMergePatch leitorPatch;
 
-    public ExameService(ExameRepository exameRepository, PacienteRepository pacienteRepository) {
+    public ExameService(ExameRepository exameRepository, PacienteRepository pacienteRepository, FiltroUnicidade unicidade,
+                        PesquisaExames pesquisa, AlteracoesDiretas alteracoes, LeitorMergePatch leitorPatch) {
         this.exameRepository = exameRepository;
         this.pacienteRepository = pacienteRepository;
+        this.unicidade = unicidade;
+        this.pesquisa = pesquisa;
+        this.alteracoes = alteracoes;
+        this.leitorPatch = leitorPatch;
     }
 
     /**
      * Cria um exame novo no sistema.
      *
+     * <p>O exame é inserido diretamente e a restrição de unicidade do nome decide os duplicados,
+     * incluindo os de pedidos concorrentes. Só quando o filtro de unicidade responde "talvez" é
+     * feita uma consulta prévia.</p>
+     *
      * @param dto Dados do exame a ser criado
      * @return Detalhe do exame criado com ID gerado
      * @throws DuplicadoException se já existe exame com o mesmo nome
      * @throws RecursoNaoEncontradoException se o paciente não for encontrado
      */
+    @Transactional
     public ExameDetalheDTO criar(ExameDTO dto) {
 
-        if (exameRepository.existsByNome(dto.getNome())) {
+        // o filtro evita a consulta quando o nome de certeza é novo
+        if (unicidade.talvezNomeExame(dto.getNome()) && exameRepository.existsByNome(dto.getNome())) {
             throw new DuplicadoException("Existe exame com esse nome");
         }
 
@@ -56,9 +95,10 @@ public class ExameService {
         exame.setPreco(dto.getPreco());
         exame.setPaciente(paciente);
 
-        Exame salvar = exameRepository.save(exame);
+        unicidade.adicionarNomeExame(exame.getNome());
+        Exame salvar = gravar(exame);
 
-        return new ExameDetalheDTO(salvar.getId(), salvar.getNome(), salvar.getDescricao(), salvar.getPreco(), salvar.getPaciente().getId());
+        return new ExameDetalheDTO(salvar.getId(), salvar.getNome(), salvar.getDescricao(), salvar.getPreco(), salvar.getPacienteId(), salvar.getVersao());
 
 
     }
@@ -73,23 +113,87 @@ public class ExameService {
      */
     public Page<ExameDTO> listar(String nome, String descricao, Pageable pageable) {
 
-        Page<Exame> pagina;
+        Page<ExameResumo> pagina;
 
         if (nome != null && descricao != null) {
             pagina = exameRepository.findByNomeAndDescricaoIgnoreCase(nome, descricao, pageable);
         } else if (nome != null && !nome.isBlank()) {
-            pagina =exameRepository.findByNomeIgnoreCase(nome, pageable);
+            pagina = exameRepository.findByNomeNorm(Normalizacao.normalizar(nome), pageable);
 
         } else if (descricao != null && !descricao.isBlank()) {
             pagina = exameRepository.findByDescricaoContainingIgnoreCase(descricao, pageable);
         } else {
-            pagina =exameRepository.findAll(pageable);
+            pagina =exameRepository.findAllBy(pageable);
         }
 
-        return pagina.map(exame -> new ExameDTO(exame.getNome(), exame.getDescricao(), exame.getPreco(), exame.getPaciente().getId()));
+        return pagina.map(exame -> new ExameDTO(exame.getNome(), exame.getDescricao(), exame.getPreco(), exame.getPacienteId()));
 
     }
 
+    /**
+     * Lista exames por cursor (keyset), com os mesmos filtros da listagem paginada.
+     *
+     * <p>Cada janela é lida a partir do ID do último exame da janela anterior, sem OFFSET nem
+     * consulta de contagem.</p>
+     *
+     * @param nome Nome do exame para filtrar (opcional)
+     * @param descricao Descrição do exame para filtrar (opcional)
+     * @param cursor Cursor devolvido na janela anterior (null para a primeira)
+     * @param tamanho Número máximo de exames da janela
+     * @return Janela de exames com o cursor para a seguinte
+     * @throws IllegalArgumentException se o cursor ou o tamanho forem inválidos
+     */
+    public JanelaDTO<ExameDTO> listarPorCursor(String nome, String descricao, String cursor, int tamanho) {
+
+        KeysetScrollPosition posicao = CursorPaginacao.posicao(cursor);
+        Limit limite = CursorPaginacao.limite(tamanho);
+        Window<Exame> janela;
+
+        if (nome != null && descricao != null) {
+            janela = exameRepository.findByNomeAndDescricaoIgnoreCase(nome, descricao, posicao, limite, CursorPaginacao.ORDENACAO);
+        } else if (nome != null && !nome.isBlank()) {
+            janela = exameRepository.findByNomeNorm(Normalizacao.normalizar(nome), posicao, limite, CursorPaginacao.ORDENACAO);
+        } else if (descricao != null && !descricao.isBlank()) {
+            janela = exameRepository.findByDescricaoContainingIgnoreCase(descricao, posicao, limite, CursorPaginacao.ORDENACAO);
+        } else {
+            janela = exameRepository.findBy(posicao, limite, CursorPaginacao.ORDENACAO);
+        }
+
+        return CursorPaginacao.converter(janela, Exame::getId,
+                exame -> new ExameDTO(exame.getNome(), exame.getDescricao(), exame.getPreco(), exame.getPacienteId()));
+    }
+
+    /**
+     * Pesquisa exames por palavras do nome ou da descrição, do mais para o menos relevante.
+     *
+     * <p>Usa o índice invertido em memória em vez de {@code LIKE '%...%'}: encontra os exames com
+     * todas as palavras (sem distinguir maiúsculas, acentos, singular e plural) e só lê da base de
+     * dados os exames da página pedida. A ordenação do {@code pageable} é ignorada.</p>
+     *
+     * @param texto Palavras a pesquisar
+     * @param pageable Configuração de página
+     * @return Página de exames por ordem de relevância
+     * @throws IllegalArgumentException se o texto não tiver palavras pesquisáveis
+     * @throws com.example.simlab.exception.IndisponivelException se o índice ainda estiver a ser construído
+     */
+    public Page<ExameDTO> pesquisar(String texto, Pageable pageable) {
+        int inicio = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset());
+        PesquisaExames.Resultado resultado = pesquisa.pesquisar(texto, inicio, pageable.getPageSize());
+
+        List<Long> ids = Arrays.stream(resultado.ids()).boxed().toList();
+        Map<Long, Exame> porId = exameRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Exame::getId, Function.identity()));
+        List<ExameDTO> conteudo = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // um exame apagado entre a pesquisa e a leitura fica de fora
+            Exame exame = porId.get(id);
+            if (exame != null) {
+                conteudo.add(new ExameDTO(exame.getNome(), exame.getDescricao(), exame.getPreco(), exame.getPacienteId()));
+            }
+        }
+        return new PageImpl<>(conteudo, pageable, resultado.total());
+    }
+
     /**
      * Buscar exame pelo identificador único do exame.
      *
@@ -98,7 +202,7 @@ public class ExameService {
      */
     public Optional<ExameDetalheDTO> buscarPorId(Long id) {
 
-        return exameRepository.findById(id).map(exame -> new ExameDetalheDTO(exame.getId(),exame.getNome(),exame.getDescricao(), exame.getPreco(), exame.getPaciente().getId()));
+        return exameRepository.findById(id).map(exame -> new ExameDetalheDTO(exame.getId(),exame.getNome(),exame.getDescricao(), exame.getPreco(), exame.getPacienteId(), exame.getVersao()));
 
 
     }
@@ -106,12 +210,18 @@ public class ExameService {
     /**
      * Atualizar dados sobre o exame.
      *
+     * <p>Como em {@link PacienteService#atualizar}, o UPDATE é condicionado pela versão lida.</p>
+     *
      * @param id Identificação única do exame
      * @param dto Novos dados do exame
+     * @param versao Versão que o cliente leu (If-Match), ou null para não a verificar
      * @return Exame detalhe do exame atualizado
      * @throws RecursoNaoEncontradoException se o exame não for encontrado
+     * @throws VersaoDesatualizadaException se o exame já não estiver na versão indicada
+     * @throws DuplicadoException se o novo nome pertencer a outro exame
      */
-    public ExameDetalheDTO atualizar (Long id, ExameUpdateDTO dto){
+    @Transactional
+    public ExameDetalheDTO atualizar (Long id, ExameUpdateDTO dto, Long versao){
         Optional<Exame> optional= exameRepository.findById(id);
 
         if (optional.isEmpty()){
@@ -120,27 +230,112 @@ public class ExameService {
         }
 
         Exame exame=optional.get();
+        verificarVersao(versao, exame.getVersao());
+        boolean renomeado = !exame.getNome().equals(dto.getNome());
+        if (renomeado) {
+            unicidade.adicionarNomeExame(dto.getNome());
+        }
         exame.setNome(dto.getNome());
         exame.setDescricao(dto.getDescricao());
         exame.setPreco(dto.getPreco());
 
-        Exame atualizada= exameRepository.save(exame);
+        Exame atualizada= gravar(exame);
+        if (renomeado) {
+            unicidade.removerNomeExame();
+        }
 
-        return new ExameDetalheDTO(atualizada.getId(),atualizada.getNome(), atualizada.getDescricao(), atualizada.getPreco(),atualizada.getPaciente().getId());
+        return new ExameDetalheDTO(atualizada.getId(),atualizada.getNome(), atualizada.getDescricao(), atualizada.getPreco(),atualizada.getPacienteId(), atualizada.getVersao());
+    }
+
+    /**
+     * Altera só os campos presentes num documento JSON Merge Patch.
+     *
+     * <p>O exame é lido (normalmente da cache de segundo nível), os campos presentes são copiados
+     * para ele e o UPDATE só escreve as colunas que mudaram ({@code @DynamicUpdate}). Como no
+     * {@link #atualizar}, o UPDATE é condicionado pela versão lida, pelo que o estado anterior
+     * que chega ao índice de pesquisa é sempre o que foi substituído. Nenhum campo pode ser
+     * apagado com {@code null}; um documento sem alterações não escreve nada.</p>
+     *
+     * @param id     Identificação única do exame
+     * @param patch  Documento com os campos a alterar
+     * @param versao Versão que o cliente leu (If-Match), ou null para não a verificar
+     * @return Exame detalhe do exame atualizado
+     * @throws IllegalArgumentException se o documento tiver campos desconhecidos ou valores inválidos
+     * @throws RecursoNaoEncontradoException se o exame não for encontrado
+     * @throws VersaoDesatualizadaException se o exame já não estiver na versão indicada
+     * @throws DuplicadoException se o novo nome pertencer a outro exame
+     */
+    @Transactional
+    public ExameDetalheDTO atualizarParcial(Long id, JsonNode patch, Long versao) {
+        Map<String, Object> valores = leitorPatch.ler(patch, ExameUpdateDTO.class, Set.of());
+
+        Exame exame = exameRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Exame não encontrado"));
+        verificarVersao(versao, exame.getVersao());
+        String nome = (String) valores.get("nome");
+        boolean renomeado = nome != null && !nome.equals(exame.getNome());
+        if (renomeado) {
+            unicidade.adicionarNomeExame(nome);
+        }
+        leitorPatch.aplicar(valores, exame);
+
+        Exame atualizado = gravar(exame);
+        if (renomeado) {
+            unicidade.removerNomeExame();
+        }
+        return new ExameDetalheDTO(atualizado.getId(), atualizado.getNome(), atualizado.getDescricao(), atualizado.getPreco(),
+                atualizado.getPacienteId(), atualizado.getVersao());
+    }
+
+    /**
+     * Recusa a operação se o cliente indicou uma versão e ela não é a atual.
+     */
+    private static void verificarVersao(Long esperada, Long atual) {
+        if (esperada != null && !esperada.equals(atual)) {
+            throw new VersaoDesatualizadaException("O exame foi alterado desde a versão " + esperada + "; a versão atual é " + atual);
+        }
+    }
+
+    /**
+     * Grava o exame de imediato (flush), traduzindo a violação da unicidade do nome.
+     */
+    private Exame gravar(Exame exame) {
+        try {
+            return exameRepository.saveAndFlush(exame);
+        } catch (DataIntegrityViolationException e) {
+            if (Restricoes.violou(e, Exame.RESTRICAO_NOME)) {
+                throw new DuplicadoException("Existe exame com esse nome");
+            }
+            throw e;
+        }
     }
 
     /**
      * Apaga exame da base de dados.
      *
+     * <p>O exame é apagado com um único DELETE pelo ID, sem o ler antes; o resultado é decidido
+     * pelo número de linhas apagadas. Com versão, o DELETE só se aplica nessa versão e, se não
+     * apagar nada, a pré-condição falhou: o exame foi alterado ou já não existe (RFC 9110, um
+     * If-Match sem representação atual também falha). Só depois de apagar o exame é retirado dos
+     * índices em memória, que procuram os termos dele sem ler a base de dados.</p>
+     *
      * @param id Identificação única do exame
+     * @param versao Versão que o cliente leu (If-Match), ou null para não a verificar
      * @return True se o exame foi apagado, false se não foi encontrado
+     * @throws VersaoDesatualizadaException se o exame já não estiver na versão indicada
      */
-    public boolean apagar(Long id){
-        if (exameRepository.existsById(id)){
-            exameRepository.deleteById(id);
-            return true;
+    @Transactional
+    public boolean apagar(Long id, Long versao){
+        int apagados = versao == null ? exameRepository.apagarPorId(id) : exameRepository.apagarPorIdEVersao(id, versao);
+        if (apagados == 0) {
+            if (versao != null) {
+                throw new VersaoDesatualizadaException("O exame foi alterado ou apagado desde a versão " + versao);
+            }
+            return false;
         }
-        return false;
+        unicidade.removerNomeExame();
+        alteracoes.exameApagado(id);
+        return true;
     }
 
 
@@ -0,0 +1,136 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.ExameDetalheDTO;
+import com.example.simlab.dto.PacienteDetalheDTO;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Service responsável pela exportação completa de pacientes e exames.
+ *
+ * <p>As linhas são lidas com um cursor forward-only e escritas diretamente no fluxo de saída,
+ * sem paginação nem {@code count(*)}: a memória usada é constante e o tempo linear no número de linhas.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Service
+public class ExportacaoService {
+    private static final String CABECALHO_PACIENTES = "id,nome,dataDeNascimento,cartaoCidadao,telefone,email";
+    private static final String CABECALHO_EXAMES = "id,nome,descricao,preco,pacienteId";
+
+    private final PacienteRepository pacienteRepository;
+    private final ExameRepository exameRepository;
+    private final ObjectWriter ndjsonWriter;
+
+    public ExportacaoService(PacienteRepository pacienteRepository, ExameRepository exameRepository, ObjectMapper objectMapper) {
+        this.pacienteRepository = pacienteRepository;
+        this.exameRepository = exameRepository;
+        // sem flush por linha e sem fechar o fluxo da resposta (pertence ao container)
+        this.ndjsonWriter = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Exporta todos os pacientes para o fluxo de saída.
+     *
+     * @param formato Formato da exportação
+     * @param saida   Fluxo onde as linhas são escritas
+     * @throws IOException se não for possível escrever no fluxo de saída
+     */
+    @Transactional(readOnly = true)
+    public void exportarPacientes(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<PacienteDetalheDTO> pacientes = pacienteRepository.streamTodos()) {
+            escrever(pacientes, formato, saida, CABECALHO_PACIENTES, p -> new Object[]{
+                    p.getId(), p.getNome(), p.getDataDeNascimento(), p.getCartaoCidadao(), p.getTelefone(), p.getEmail()
+            });
+        }
+    }
+
+    /**
+     * Exporta todos os exames para o fluxo de saída.
+     *
+     * @param formato Formato da exportação
+     * @param saida   Fluxo onde as linhas são escritas
+     * @throws IOException se não for possível escrever no fluxo de saída
+     */
+    @Transactional(readOnly = true)
+    public void exportarExames(FormatoExportacao formato, OutputStream saida) throws IOException {
+        try (Stream<ExameDetalheDTO> exames = exameRepository.streamTodos()) {
+            escrever(exames, formato, saida, CABECALHO_EXAMES, e -> new Object[]{
+                    e.getId(), e.getNome(), e.getDescricao(), e.getPreco(), e.getPacienteId()
+            });
+        }
+    }
+
+    private <T> void escrever(Stream<T> linhas, FormatoExportacao formato, OutputStream saida,
+                              String cabecalho, Function<T, Object[]> colunas) throws IOException {
+        Iterator<T> it = linhas.iterator();
+
+        if (formato == FormatoExportacao.NDJSON) {
+            boolean vazio = !it.hasNext();
+            try (SequenceWriter sequencia = ndjsonWriter.writeValues(saida)) {
+                while (it.hasNext()) {
+                    sequencia.write(it.next());
+                }
+            }
+            if (!vazio) {
+                saida.write('\n');
+            }
+            saida.flush();
+            return;
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        writer.write(cabecalho);
+        writer.write('\n');
+        while (it.hasNext()) {
+            Object[] valores = colunas.apply(it.next());
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                escreverCampoCsv(writer, valores[i]);
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Escreve um campo CSV, entre aspas apenas quando contém separadores, aspas ou quebras de linha.
+     */
+    private static void escreverCampoCsv(Writer writer, Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            writer.write(texto);
+        } else {
+            writer.write('"');
+            writer.write(texto.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.simlab.service;
+
+/**
+ * Formatos suportados na exportação de pacientes e exames.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public enum FormatoExportacao {
+    /**
+     * Um objeto JSON por linha.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * Valores separados por vírgula, com linha de cabeçalho.
+     */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    /**
+     * Obtém o formato a partir do valor recebido no pedido (sem diferenciar maiúsculas/minúsculas).
+     *
+     * @param valor Nome do formato
+     * @return Formato correspondente
+     * @throws IllegalArgumentException se o formato não for suportado
+     */
+    public static FormatoExportacao de(String valor) {
+        for (FormatoExportacao formato : values()) {
+            if (formato.extensao.equalsIgnoreCase(valor)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportação não suportado: " + valor);
+    }
+}
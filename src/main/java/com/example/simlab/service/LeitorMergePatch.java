@@ -0,0 +1,93 @@
+package com.example.simlab.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lê um documento JSON Merge Patch (RFC 7396) sobre os campos de um DTO de atualização.
+ *
+ * <p>Só os campos presentes no documento são devolvidos: um campo ausente fica como está e um
+ * campo a {@code null} é apagado, se o DTO o permitir. Os valores são convertidos para os tipos
+ * do DTO e validados com as anotações de cada campo presente, ignorando as dos ausentes.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+@Component
+class LeitorMergePatch {
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    LeitorMergePatch(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Lê os campos alterados por um documento.
+     *
+     * @param documento Documento JSON Merge Patch
+     * @param tipo      DTO de atualização, que define os campos aceites e as suas validações
+     * @param anulaveis Campos que podem ser apagados com {@code null}
+     * @return Valor novo de cada campo presente, pela ordem do documento
+     * @throws IllegalArgumentException se o documento não for um objeto, tiver campos que o DTO
+     *                                  não tem, apagar campos obrigatórios ou tiver valores inválidos
+     */
+    Map<String, Object> ler(JsonNode documento, Class<?> tipo, Set<String> anulaveis) {
+        if (documento == null || !documento.isObject()) {
+            throw new IllegalArgumentException("O documento de alteração tem de ser um objeto JSON");
+        }
+
+        Object dto;
+        try {
+            dto = objectMapper.treeToValue(documento, tipo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Valor inválido no documento de alteração: " + e.getOriginalMessage());
+        }
+        BeanWrapper campos = PropertyAccessorFactory.forBeanPropertyAccess(dto);
+
+        Map<String, Object> valores = new LinkedHashMap<>();
+        List<String> erros = new ArrayList<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = documento.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> campo = it.next();
+            String nome = campo.getKey();
+            if (!campos.isWritableProperty(nome)) {
+                throw new IllegalArgumentException("Campo desconhecido: " + nome);
+            }
+            if (campo.getValue().isNull() && !anulaveis.contains(nome)) {
+                erros.add(nome + ": não pode ser apagado");
+                continue;
+            }
+            validator.validateProperty(dto, nome).forEach(v -> erros.add(nome + ": " + v.getMessage()));
+            valores.put(nome, campos.getPropertyValue(nome));
+        }
+        if (!erros.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", erros.stream().sorted().toList()));
+        }
+        return valores;
+    }
+
+    /**
+     * Copia os campos lidos por {@link #ler} para uma entidade, que tem de ter propriedades com os
+     * mesmos nomes do DTO.
+     *
+     * @param valores  Valor novo de cada campo
+     * @param entidade Entidade a alterar
+     */
+    void aplicar(Map<String, Object> valores, Object entidade) {
+        PropertyAccessorFactory.forBeanPropertyAccess(entidade).setPropertyValues(valores);
+    }
+}
@@ -1,45 +1,123 @@
 package com.example.simlab.service;
 
+import com.example.simlab.cache.PacienteRegistoStore;
+import com.example.simlab.dto.ErroLoteDTO;
+import com.example.simlab.dto.ExameDetalheDTO;
+import com.example.simlab.dto.JanelaDTO;
+import com.example.simlab.dto.LoteResultadoDTO;
+import com.example.simlab.dto.PacienteComExamesDTO;
 import com.example.simlab.dto.PacienteDTO;
 import com.example.simlab.dto.PacienteDetalheDTO;
 import com.example.simlab.dto.PacienteUpdateDTO;
 import com.example.simlab.exception.DuplicadoException;
 import com.example.simlab.exception.RecursoNaoEncontradoException;
+import com.example.simlab.exception.VersaoDesatualizadaException;
+import com.example.simlab.index.AlteracoesDiretas;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.index.PesquisaPacientes;
+import com.example.simlab.model.Exame;
+import com.example.simlab.model.Normalizacao;
 import com.example.simlab.model.Paciente;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.ExameTexto;
 import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsável pela lógica de negócio relacionada a pacientes.
  *
+ * <p>Os métodos correm por omissão numa transação só de leitura: o Hibernate não faz flush
+ * (FlushMode MANUAL) nem guarda cópias das entidades lidas para as comparar no fim, e a ligação
+ * fica marcada como só de leitura. Os métodos que escrevem declaram a sua própria transação.</p>
+ *
  * @author Amanda
  * @version 1.0
  * @since 2026-01-15
  */
 @Service
+@Transactional(readOnly = true)
 public class PacienteService {
+    /**
+     * Campos que um PATCH pode apagar com {@code null}.
+     */
+    private static final Set<String> ANULAVEIS = Set.of("email");
+
+    /**
+     * Número de vezes que um lote é gravado quando outro pedido grava entretanto um dos seus Cartões de Cidadão.
+     */
+    static final int TENTATIVAS_LOTE = 3;
+
     private final PacienteRepository repository;
+    private final Validator validator;
+    private final PacienteRegistoStore registos;
+    private final FiltroUnicidade unicidade;
+    private final PesquisaPacientes pesquisa;
+    private final ExameRepository exameRepository;
+    private final AlteracoesDiretas alteracoes;
+    private final LeitorMergePatch leitorPatch;
+    private final TransactionTemplate transactionTemplate;
 
-    public PacienteService(PacienteRepository repository) {
+    public PacienteService(PacienteRepository repository, Validator validator, PacienteRegistoStore registos, FiltroUnicidade unicidade,
+                           PesquisaPacientes pesquisa, ExameRepository exameRepository, AlteracoesDiretas alteracoes,
+                           LeitorMergePatch leitorPatch, PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.validator = validator;
+        this.registos = registos;
+        this.unicidade = unicidade;
+        this.pesquisa = pesquisa;
+        this.exameRepository = exameRepository;
+        this.alteracoes = alteracoes;
+        this.leitorPatch = leitorPatch;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Cria um novo paciente no sistema
      *
+     * <p>O paciente é inserido diretamente: a restrição de unicidade do Cartão de Cidadão decide
+     * os duplicados, incluindo os de pedidos concorrentes, e a violação é traduzida em
+     * {@link DuplicadoException}. Só quando o filtro de unicidade responde "talvez" é feita uma
+     * consulta prévia.</p>
+     *
      * @param dto Dados do paciente a ser criado
      * @return Detalhes do paciente criado com ID gerado
      * @throws DuplicadoException se o Cartão Cidadão já existir no sistema
      */
-
+    @Transactional
     public PacienteDetalheDTO criar(PacienteDTO dto) {
-        // se existir cc igual , lança exception
-        if (repository.existsByCartaoCidadaoIgnoreCase(dto.getCartaoCidadao())) {
+        // se existir cc igual , lança exception (o filtro evita a consulta quando o cc de certeza é novo)
+        if (unicidade.talvezCartaoCidadao(dto.getCartaoCidadao()) && repository.existsByCartaoCidadao(dto.getCartaoCidadao())) {
             throw new DuplicadoException("Não é possível cadastrar paciente, pois já existe paciente com este Cartão Cidadão");
         }
 
@@ -53,13 +131,99 @@ public class PacienteService {
 
 
         // tem que salvar na bd para criar id
-        Paciente salvar = repository.save(paciente);
+        unicidade.adicionarCartaoCidadao(paciente.getCartaoCidadao());
+        Paciente salvar = gravar(paciente);
 
         // retorna uma paciente detalhe e transforma entity em dto
-        return new PacienteDetalheDTO(salvar.getId(), salvar.getNome(), salvar.getDataDeNascimento(), salvar.getCartaoCidadao(), salvar.getTelefone(), salvar.getEmail());
+        return new PacienteDetalheDTO(salvar.getId(), salvar.getNome(), salvar.getDataDeNascimento(), salvar.getCartaoCidadao(), salvar.getTelefone(), salvar.getEmail(), salvar.getVersao());
 
     }
 
+    /**
+     * Cria vários pacientes de uma só vez.
+     *
+     * <p>A duplicação de Cartão de Cidadão é verificada para todo o lote numa única consulta e
+     * os pacientes válidos são gravados com batch JDBC. As linhas inválidas ou duplicadas são
+     * rejeitadas individualmente, sem impedir a gravação das restantes; um elemento
+     * {@code null} no lote é rejeitado da mesma forma.</p>
+     *
+     * <p>Se outro pedido gravar um dos Cartões de Cidadão entre a consulta e o flush, a restrição
+     * de unicidade reverte a transação e o lote é gravado de novo numa transação nova: a consulta
+     * passa a ver esse cartão e só a linha correspondente é rejeitada.</p>
+     *
+     * @param dtos Dados dos pacientes a serem criados
+     * @return Resumo do lote com o erro de cada linha rejeitada
+     * @throws DuplicadoException se as colisões com pedidos concorrentes persistirem em todas as tentativas
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LoteResultadoDTO criarLote(List<PacienteDTO> dtos) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> gravarLote(dtos));
+            } catch (DataIntegrityViolationException e) {
+                if (!Restricoes.violou(e, Paciente.RESTRICAO_CARTAO_CIDADAO)) {
+                    throw e;
+                }
+                if (tentativa == TENTATIVAS_LOTE) {
+                    throw new DuplicadoException("Não é possível cadastrar o lote, pois outros pedidos estão a cadastrar os mesmos Cartões Cidadão");
+                }
+            }
+        }
+    }
+
+    /**
+     * Uma tentativa de {@link #criarLote}, na transação de quem chama.
+     */
+    private LoteResultadoDTO gravarLote(List<PacienteDTO> dtos) {
+        List<ErroLoteDTO> erros = new ArrayList<>();
+
+        // só os cc que o filtro não exclui precisam de ser confirmados na bd
+        Set<String> cartoes = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(PacienteDTO::getCartaoCidadao)
+                .filter(cc -> cc != null && !cc.isBlank())
+                .filter(unicidade::talvezCartaoCidadao)
+                .collect(Collectors.toSet());
+        Set<String> existentes = cartoes.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(repository.findCartoesCidadaoExistentes(cartoes));
+
+        List<Paciente> novos = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            PacienteDTO dto = dtos.get(i);
+            long linha = i + 1;
+
+            if (dto == null) {
+                erros.add(new ErroLoteDTO(linha, "Linha sem dados do paciente"));
+                continue;
+            }
+
+            Set<ConstraintViolation<PacienteDTO>> violacoes = validator.validate(dto);
+            if (!violacoes.isEmpty()) {
+                erros.add(new ErroLoteDTO(linha, violacoes.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+                continue;
+            }
+
+            // add() devolve false quando o CC já existe na bd ou apareceu antes no mesmo lote
+            if (!existentes.add(dto.getCartaoCidadao())) {
+                erros.add(new ErroLoteDTO(linha, "Já existe paciente com este Cartão Cidadão: " + dto.getCartaoCidadao()));
+                continue;
+            }
+
+            novos.add(new Paciente(dto.getNome(), dto.getDataDeNascimento(), dto.getCartaoCidadao(), dto.getTelefone(), dto.getEmail()));
+        }
+
+        // flush pelo repository para a violação de unicidade chegar aqui, e não no commit
+        repository.saveAll(novos);
+        repository.flush();
+        novos.forEach(p -> unicidade.adicionarCartaoCidadao(p.getCartaoCidadao()));
+
+        return new LoteResultadoDTO(dtos.size(), novos.size(), erros.size(), erros);
+    }
+
     /**
      * Lista pacientes com filtros e paginação.
      *
@@ -74,11 +238,11 @@ public class PacienteService {
         Page<Paciente> pagina;
 
         if (nome != null && cartaoCidadao != null) {
-            pagina = repository.findByNomeIgnoreCaseAndCartaoCidadaoIgnoreCase(nome, cartaoCidadao, pageable);
+            pagina = repository.findByNomeNormAndCartaoCidadao(Normalizacao.normalizar(nome), cartaoCidadao, pageable);
         } else if (nome != null && !nome.isBlank()) {
-            pagina = repository.findByNomeIgnoreCase(nome, pageable);
+            pagina = repository.findByNomeNorm(Normalizacao.normalizar(nome), pageable);
         } else if (cartaoCidadao != null && !cartaoCidadao.isBlank()) {
-            pagina = repository.findByCartaoCidadaoIgnoreCase(cartaoCidadao, pageable);
+            pagina = repository.findByCartaoCidadao(cartaoCidadao, pageable);
         } else if (dataDeNascimento != null) {
             pagina = repository.findByDataDeNascimento(dataDeNascimento, pageable);
         } else {
@@ -94,26 +258,168 @@ public class PacienteService {
         ));
     }
 
+    /**
+     * Pesquisa pacientes pelo nome no índice de trigramas, do mais para o menos semelhante.
+     *
+     * <p>O índice só devolve os IDs da página pedida; os pacientes são lidos numa única consulta.</p>
+     *
+     * @param texto      Nome, ou parte do nome, a pesquisar
+     * @param aproximada true para aceitar também nomes com erros de escrita
+     * @param pageable   Configuração de página
+     * @return Página de pacientes por ordem de semelhança
+     * @throws IllegalArgumentException se o texto não tiver letras
+     * @throws com.example.simlab.exception.IndisponivelException se o índice ainda estiver a ser construído
+     */
+    public Page<PacienteDTO> pesquisar(String texto, boolean aproximada, Pageable pageable) {
+        int inicio = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset());
+        PesquisaPacientes.Resultado resultado = pesquisa.pesquisar(texto, aproximada, inicio, pageable.getPageSize());
+
+        List<Long> ids = Arrays.stream(resultado.ids()).boxed().toList();
+        Map<Long, Paciente> porId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Paciente::getId, Function.identity()));
+        List<PacienteDTO> conteudo = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // um paciente apagado entre a pesquisa e a leitura fica de fora
+            Paciente paciente = porId.get(id);
+            if (paciente != null) {
+                conteudo.add(new PacienteDTO(paciente.getNome(), paciente.getDataDeNascimento(),
+                        paciente.getCartaoCidadao(), paciente.getTelefone(), paciente.getEmail()));
+            }
+        }
+        return new PageImpl<>(conteudo, pageable, resultado.total());
+    }
+
+    /**
+     * Lista pacientes por cursor (keyset), com os mesmos filtros da listagem paginada.
+     *
+     * <p>Cada janela é lida a partir do ID do último paciente da janela anterior, sem OFFSET nem
+     * consulta de contagem, pelo que o custo é o mesmo em qualquer profundidade.</p>
+     *
+     * @param nome             Nome do paciente para filtrar (opcional)
+     * @param dataDeNascimento Data de nascimento para filtrar (opcional)
+     * @param cartaoCidadao    Cartão de Cidadão para filtrar (opcional)
+     * @param cursor           Cursor devolvido na janela anterior (null para a primeira)
+     * @param tamanho          Número máximo de pacientes da janela
+     * @return Janela de pacientes com o cursor para a seguinte
+     * @throws IllegalArgumentException se o cursor ou o tamanho forem inválidos
+     */
+    public JanelaDTO<PacienteDTO> listarPorCursor(String nome, LocalDate dataDeNascimento, String cartaoCidadao, String cursor, int tamanho) {
+
+        KeysetScrollPosition posicao = CursorPaginacao.posicao(cursor);
+        Limit limite = CursorPaginacao.limite(tamanho);
+        Window<Paciente> janela;
+
+        if (nome != null && cartaoCidadao != null) {
+            janela = repository.findByNomeNormAndCartaoCidadao(Normalizacao.normalizar(nome), cartaoCidadao, posicao, limite, CursorPaginacao.ORDENACAO);
+        } else if (nome != null && !nome.isBlank()) {
+            janela = repository.findByNomeNorm(Normalizacao.normalizar(nome), posicao, limite, CursorPaginacao.ORDENACAO);
+        } else if (cartaoCidadao != null && !cartaoCidadao.isBlank()) {
+            janela = repository.findByCartaoCidadao(cartaoCidadao, posicao, limite, CursorPaginacao.ORDENACAO);
+        } else if (dataDeNascimento != null) {
+            janela = repository.findByDataDeNascimento(dataDeNascimento, posicao, limite, CursorPaginacao.ORDENACAO);
+        } else {
+            janela = repository.findBy(posicao, limite, CursorPaginacao.ORDENACAO);
+        }
+
+        return CursorPaginacao.converter(janela, Paciente::getId, paciente -> new PacienteDTO(
+                paciente.getNome(),
+                paciente.getDataDeNascimento(),
+                paciente.getCartaoCidadao(),
+                paciente.getTelefone(),
+                paciente.getEmail()
+        ));
+    }
+
     /**
      * Busca um paciente pelo seu identificador único.
      *
+     * <p>Lê primeiro do armazém de registos fora da heap; na falha, lê o DTO da base de dados
+     * (sem carregar a entidade) e guarda-o no armazém para as leituras seguintes. Não abre
+     * transação: um paciente residente é servido sem ocupar uma ligação do pool.</p>
+     *
      * @param id Identificador único do paciente
      * @return Optional contendo o paciente se encontrado, e vazio caso contrário
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<PacienteDetalheDTO> buscarPorId(Long id) {
 
-        return repository.findById(id).map(paciente -> new PacienteDetalheDTO(paciente.getId(), paciente.getNome(), paciente.getDataDeNascimento(), paciente.getCartaoCidadao(), paciente.getTelefone(), paciente.getEmail()));
+        Optional<PacienteDetalheDTO> residente = registos.ler(id);
+        if (residente.isPresent()) {
+            return residente;
+        }
+
+        // a marca é obtida antes da leitura para descartar o resultado se entretanto houver uma atualização
+        long marca = registos.marca();
+        Optional<PacienteDetalheDTO> detalhe = repository.findDetalheById(id);
+        detalhe.ifPresent(paciente -> registos.guardar(paciente, marca));
+        return detalhe;
+    }
+
+    /**
+     * Busca um paciente com todos os seus exames.
+     *
+     * <p>O paciente e os exames são lidos numa única consulta ({@code @EntityGraph}), pelo que os
+     * exames devolvidos correspondem à mesma leitura do paciente.</p>
+     *
+     * @param id Identificador único do paciente
+     * @return Optional contendo o paciente com os exames por ordem de ID, e vazio caso não exista
+     */
+    public Optional<PacienteComExamesDTO> buscarComExames(Long id) {
+        return repository.findComExamesById(id).map(paciente -> new PacienteComExamesDTO(
+                paciente.getId(),
+                paciente.getNome(),
+                paciente.getDataDeNascimento(),
+                paciente.getCartaoCidadao(),
+                paciente.getTelefone(),
+                paciente.getEmail(),
+                paciente.getVersao(),
+                paciente.getExames().stream()
+                        .sorted(Comparator.comparing(Exame::getId))
+                        .map(exame -> new ExameDetalheDTO(exame.getId(), exame.getNome(), exame.getDescricao(),
+                                exame.getPreco(), paciente.getId(), exame.getVersao()))
+                        .toList()
+        ));
+    }
+
+    /**
+     * Lista os exames de um paciente com paginação.
+     *
+     * <p>Os exames são lidos diretamente como DTOs pelo índice de {@code paciente_id}; sem
+     * ordenação pedida, ficam por ordem de ID, que desempata também as outras ordenações.</p>
+     *
+     * @param id       Identificador único do paciente
+     * @param pageable Configuração de paginação e ordenação
+     * @return Página de exames do paciente
+     * @throws RecursoNaoEncontradoException se o paciente não for encontrado
+     */
+    public Page<ExameDetalheDTO> listarExames(Long id, Pageable pageable) {
+        Pageable ordenado = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by("id")));
+        Page<ExameDetalheDTO> pagina = exameRepository.findDetalhesByPacienteId(id, ordenado);
+        // uma página vazia pode ser de um paciente sem exames ou de um paciente que não existe
+        if (pagina.getTotalElements() == 0 && buscarPorId(id).isEmpty()) {
+            throw new RecursoNaoEncontradoException("Paciente não foi encontrado");
+        }
+        return pagina;
     }
 
 /**
  * Atualiza os dados de um paciente existente.
  *
+ * <p>O UPDATE é condicionado pela versão lida ({@code @Version}): se outro pedido alterar o
+ * paciente entretanto, falha com {@link org.springframework.dao.OptimisticLockingFailureException}
+ * em vez de sobrepor essa alteração.</p>
+ *
  * @param id Identificador único do paciente
  * @param dto Novos dados do paciente
+ * @param versao Versão que o cliente leu (If-Match), ou null para não a verificar
  * @return Detalhes do paciente atualizado
  * @throws RecursoNaoEncontradoException se o paciente não for encontrado
+ * @throws VersaoDesatualizadaException se o paciente já não estiver na versão indicada
+ * @throws DuplicadoException se o novo Cartão de Cidadão pertencer a outro paciente
  */
-        public PacienteDetalheDTO atualizar (Long id, PacienteUpdateDTO dto ){
+        @Transactional
+        public PacienteDetalheDTO atualizar (Long id, PacienteUpdateDTO dto, Long versao){
 
             //pesquiso se existe ID
             Optional<Paciente> optional = repository.findById(id);
@@ -124,6 +430,12 @@ public class PacienteService {
 
             // se existe preciso buscar esse paciente em optional
             Paciente paciente = optional.get();
+            verificarVersao(versao, paciente.getVersao());
+
+            boolean novoCartao = !paciente.getCartaoCidadao().equals(dto.getCartaoCidadao());
+            if (novoCartao) {
+                unicidade.adicionarCartaoCidadao(dto.getCartaoCidadao());
+            }
 
             // vai substituir os valores antigos pelos novos
             paciente.setNome(dto.getNome());
@@ -133,7 +445,11 @@ public class PacienteService {
             paciente.setEmail(dto.getEmail());
 
             //aqui o spring vê id e atualiza na bd
-            Paciente atualizada = repository.save(paciente);
+            Paciente atualizada = gravar(paciente);
+            if (novoCartao) {
+                unicidade.removerCartaoCidadao();
+            }
+            invalidarRegisto(id);
 
             return new PacienteDetalheDTO(
                     atualizada.getId(),
@@ -141,22 +457,141 @@ public class PacienteService {
                     atualizada.getDataDeNascimento(),
                     atualizada.getCartaoCidadao(),
                     atualizada.getTelefone(),
-                    atualizada.getEmail());
+                    atualizada.getEmail(),
+                    atualizada.getVersao());
         }
 
         /**
-         * Apaga um paciente da base de dados.
+         * Altera só os campos presentes num documento JSON Merge Patch.
+         *
+         * <p>O paciente é lido (normalmente da cache de segundo nível), os campos presentes são
+         * copiados para ele e o UPDATE só escreve as colunas que mudaram ({@code @DynamicUpdate}):
+         * mudar o telefone não reescreve o resto nem esvazia a cache. Como no {@link #atualizar},
+         * o UPDATE é condicionado pela versão lida. Um documento sem alterações não escreve nada.
+         * Só o email pode ser apagado com {@code null}.</p>
+         *
+         * @param id     Identificador único do paciente
+         * @param patch  Documento com os campos a alterar
+         * @param versao Versão que o cliente leu (If-Match), ou null para não a verificar
+         * @return Detalhes do paciente atualizado
+         * @throws IllegalArgumentException se o documento tiver campos desconhecidos ou valores inválidos
+         * @throws RecursoNaoEncontradoException se o paciente não for encontrado
+         * @throws VersaoDesatualizadaException se o paciente já não estiver na versão indicada
+         * @throws DuplicadoException se o novo Cartão de Cidadão pertencer a outro paciente
+         */
+        @Transactional
+        public PacienteDetalheDTO atualizarParcial(Long id, JsonNode patch, Long versao) {
+            Map<String, Object> valores = leitorPatch.ler(patch, PacienteUpdateDTO.class, ANULAVEIS);
+
+            Paciente paciente = repository.findById(id)
+                    .orElseThrow(() -> new RecursoNaoEncontradoException("Paciente não foi encontrado"));
+            verificarVersao(versao, paciente.getVersao());
+            String cartaoCidadao = (String) valores.get("cartaoCidadao");
+            boolean novoCartao = cartaoCidadao != null && !cartaoCidadao.equals(paciente.getCartaoCidadao());
+            if (novoCartao) {
+                unicidade.adicionarCartaoCidadao(cartaoCidadao);
+            }
+            leitorPatch.aplicar(valores, paciente);
+
+            Paciente atualizado = gravar(paciente);
+            if (novoCartao) {
+                unicidade.removerCartaoCidadao();
+            }
+            invalidarRegisto(id);
+
+            return new PacienteDetalheDTO(
+                    atualizado.getId(),
+                    atualizado.getNome(),
+                    atualizado.getDataDeNascimento(),
+                    atualizado.getCartaoCidadao(),
+                    atualizado.getTelefone(),
+                    atualizado.getEmail(),
+                    atualizado.getVersao());
+        }
+
+        /**
+         * Recusa a operação se o cliente indicou uma versão e ela não é a atual.
+         */
+        private static void verificarVersao(Long esperada, Long atual) {
+            if (esperada != null && !esperada.equals(atual)) {
+                throw new VersaoDesatualizadaException("O paciente foi alterado desde a versão " + esperada + "; a versão atual é " + atual);
+            }
+        }
+
+        /**
+         * Grava o paciente de imediato (flush), traduzindo a violação da unicidade do Cartão de Cidadão.
+         */
+        private Paciente gravar(Paciente paciente) {
+            try {
+                return repository.saveAndFlush(paciente);
+            } catch (DataIntegrityViolationException e) {
+                if (Restricoes.violou(e, Paciente.RESTRICAO_CARTAO_CIDADAO)) {
+                    throw new DuplicadoException("Não é possível cadastrar paciente, pois já existe paciente com este Cartão Cidadão");
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * Invalida o registo do paciente no armazém depois do commit: invalidado antes, uma leitura
+         * concorrente ainda veria a versão anterior na bd e voltaria a guardá-la.
+         */
+        private void invalidarRegisto(Long id) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                registos.remover(id);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registos.remover(id);
+                }
+            });
+        }
+
+        /**
+         * Apaga um paciente e os seus exames da base de dados.
+         *
+         * <p>Com versão, esta é lida e verificada primeiro, pelo que um pedido desatualizado falha
+         * antes de tocar nos exames. Depois, sem carregar entidades, há uma consulta do ID, nome e
+         * descrição dos exames (para os retirar dos índices em memória), um único DELETE por
+         * {@code paciente_id}, omitido se não houver exames, e um DELETE do paciente pelo ID: no
+         * máximo quatro instruções, qualquer que seja o número de exames. O resultado é decidido
+         * pelo número de linhas apagadas; com versão, o DELETE do paciente também a exige e, se o
+         * paciente foi alterado entretanto, a transação é revertida e os exames ficam.</p>
          *
          * @param id Identificador único do paciente
+         * @param versao Versão que o cliente leu (If-Match), ou null para não a verificar
          * @return Retorna true quando apagado e false quando não é encontrado
+         * @throws VersaoDesatualizadaException se o paciente já não estiver na versão indicada
          */
-
-        public boolean apagar (Long id){
-            if (repository.existsById(id)) {
-                repository.deleteById(id);
-                return true;
+        @Transactional
+        public boolean apagar (Long id, Long versao){
+            if (versao != null) {
+                Optional<Long> atual = repository.findVersaoById(id);
+                if (atual.isEmpty()) {
+                    return false;
+                }
+                verificarVersao(versao, atual.get());
+            }
+            List<ExameTexto> exames = exameRepository.findTextosByPacienteId(id);
+            if (!exames.isEmpty()) {
+                exameRepository.apagarPorPaciente(id);
+            }
+            int apagados = versao == null ? repository.apagarPorId(id) : repository.apagarPorIdEVersao(id, versao);
+            if (apagados == 0) {
+                if (versao != null) {
+                    // alterado entre a verificação e o DELETE: a exceção reverte a remoção dos exames
+                    throw new VersaoDesatualizadaException("O paciente foi alterado desde a versão " + versao);
+                }
+                return false;
             }
-            return false;
+            invalidarRegisto(id);
+            unicidade.removerCartaoCidadao();
+            unicidade.removerNomesExames(exames.size());
+            alteracoes.pacienteApagado(id);
+            alteracoes.examesApagados(exames);
+            return true;
         }
 
     }
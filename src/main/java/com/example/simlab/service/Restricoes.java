@@ -0,0 +1,43 @@
+package com.example.simlab.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Utilitário para identificar a restrição da base de dados violada numa escrita.
+ *
+ * <p>Permite gravar diretamente e deixar a restrição de unicidade decidir, traduzindo a violação
+ * na exceção de negócio correspondente em vez de verificar a existência antes de inserir.</p>
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class Restricoes {
+
+    private Restricoes() {
+    }
+
+    /**
+     * Indica se a exceção resulta da violação da restrição indicada.
+     *
+     * @param e         Exceção lançada pela escrita
+     * @param restricao Nome da restrição, tal como declarado na entidade
+     * @return true se a restrição violada for a indicada
+     */
+    static boolean violou(DataIntegrityViolationException e, String restricao) {
+        for (Throwable causa = e.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao && contem(violacao.getConstraintName(), restricao)) {
+                return true;
+            }
+        }
+        // alguns drivers não expõem o nome da restrição, mas incluem-no na mensagem
+        return contem(e.getMostSpecificCause().getMessage(), restricao);
+    }
+
+    private static boolean contem(String texto, String restricao) {
+        return texto != null && texto.toLowerCase(Locale.ROOT).contains(restricao);
+    }
+}
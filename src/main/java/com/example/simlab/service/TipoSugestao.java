@@ -0,0 +1,45 @@
+package com.example.simlab.service;
+
+/**
+ * Origem dos nomes sugeridos pelo autocompletar.
+ *
+ * @author Amanda
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public enum TipoSugestao {
+    /**
+     * Nomes de pacientes.
+     */
+    PACIENTE("paciente"),
+    /**
+     * Nomes de exames.
+     */
+    EXAME("exame");
+
+    private final String valor;
+
+    TipoSugestao(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    /**
+     * Obtém o tipo a partir do valor recebido no pedido (sem diferenciar maiúsculas/minúsculas).
+     *
+     * @param valor Nome do tipo
+     * @return Tipo correspondente
+     * @throws IllegalArgumentException se o tipo não for suportado
+     */
+    public static TipoSugestao de(String valor) {
+        for (TipoSugestao tipo : values()) {
+            if (tipo.valor.equalsIgnoreCase(valor)) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de sugestão não suportado: " + valor);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.simlab;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Esvazia a cache de segundo nível do Hibernate antes de cada classe de testes.
+ *
+ * <p>O CacheManager do JCache é único na JVM, pelo que os contextos de teste guardados pelo
+ * Spring, cada um com a sua base de dados H2, partilham as mesmas regiões: sem isto, um teste
+ * podia ler um paciente ou um exame com o mesmo ID gravado por outro contexto.</p>
+ */
+public class LimpezaCacheSegundoNivel extends AbstractTestExecutionListener {
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void beforeTestClass(TestContext testContext) {
+        testContext.getApplicationContext().getBeanProvider(EntityManagerFactory.class)
+                .ifAvailable(emf -> emf.getCache().unwrap(Cache.class).evictAllRegions());
+    }
+}
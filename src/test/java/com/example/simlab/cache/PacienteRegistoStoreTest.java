@@ -0,0 +1,107 @@
+package com.example.simlab.cache;
+
+import com.example.simlab.dto.PacienteDetalheDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do PacienteRegistoStore")
+public class PacienteRegistoStoreTest {
+
+    private PacienteRegistoStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PacienteRegistoStore(2);
+    }
+
+    private static PacienteDetalheDTO paciente(long id, String nome, String cc, String email) {
+        return new PacienteDetalheDTO(id, nome, LocalDate.of(1990, 1, 15), cc, "912345678", email, 0L);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o paciente guardado com todos os campos, incluindo zeros à esquerda no CC")
+    void deveGuardarELerPaciente() {
+
+        assertTrue(store.guardar(paciente(1L, "João Conceição", "01234567", "joao@email.com"), store.marca()));
+        assertTrue(store.guardar(paciente(2L, "Maria Silva", "12345678", null), store.marca()));
+
+        PacienteDetalheDTO joao = store.ler(1L).orElseThrow();
+        assertEquals(1L, joao.getId());
+        assertEquals("João Conceição", joao.getNome());
+        assertEquals(LocalDate.of(1990, 1, 15), joao.getDataDeNascimento());
+        assertEquals("01234567", joao.getCartaoCidadao());
+        assertEquals("912345678", joao.getTelefone());
+        assertEquals("joao@email.com", joao.getEmail());
+        assertEquals(0L, joao.getVersao());
+        assertNull(store.ler(2L).orElseThrow().getEmail());
+        assertTrue(store.ler(3L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar pacientes fora do formato nem acima da capacidade")
+    void naoDeveGuardarForaDoFormatoOuDaCapacidade() {
+
+        assertFalse(store.guardar(paciente(1L, "A".repeat(PacienteRegistoStore.MAX_BYTES_NOME + 1), "12345678", null), store.marca()));
+        assertFalse(store.guardar(paciente(1L, "Maria", "1234567X", null), store.marca()));
+
+        assertTrue(store.guardar(paciente(1L, "Maria", "12345678", null), store.marca()));
+        assertTrue(store.guardar(paciente(2L, "João", "87654321", null), store.marca()));
+        assertFalse(store.guardar(paciente(3L, "Ana", "11111111", null), store.marca()));
+        assertEquals(2, store.tamanho());
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o registo removido e descartar leituras anteriores à invalidação")
+    void deveRemoverEDescartarLeiturasDesatualizadas() {
+
+        store.guardar(paciente(1L, "Maria", "12345678", null), store.marca());
+        store.guardar(paciente(2L, "João", "87654321", null), store.marca());
+
+        long marcaAntiga = store.marca();
+        store.remover(1L);
+
+        assertTrue(store.ler(1L).isEmpty());
+        assertFalse(store.guardar(paciente(1L, "Maria (antiga)", "12345678", null), marcaAntiga));
+        assertTrue(store.guardar(paciente(3L, "Ana", "11111111", null), store.marca()));
+        assertEquals("Ana", store.ler(3L).orElseThrow().getNome());
+        assertEquals("João", store.ler(2L).orElseThrow().getNome());
+    }
+
+    @Test
+    @DisplayName("O ID 0, reservado no índice, nunca fica residente nem é rejeitado")
+    void deveTratarIdZeroComoAusente() {
+
+        assertTrue(store.ler(0L).isEmpty());
+        assertFalse(store.guardar(paciente(0L, "Ana", "11111111", null), store.marca()));
+        store.remover(0L);
+
+        IndiceLongInt indice = new IndiceLongInt(4);
+        assertEquals(IndiceLongInt.AUSENTE, indice.put(0L, 7));
+        assertEquals(IndiceLongInt.AUSENTE, indice.get(0L));
+        assertEquals(IndiceLongInt.AUSENTE, indice.remove(0L));
+        assertEquals(0, indice.tamanho());
+    }
+
+    @Test
+    @DisplayName("O índice primitivo deve manter as chaves após remoções e redimensionamento")
+    void indiceDeveManterChaves() {
+
+        IndiceLongInt indice = new IndiceLongInt(4);
+        for (long id = 1; id <= 10_000; id++) {
+            indice.put(id, (int) id);
+        }
+        for (long id = 1; id <= 10_000; id += 2) {
+            assertEquals((int) id, indice.remove(id));
+        }
+
+        assertEquals(5_000, indice.tamanho());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id % 2 == 0 ? (int) id : IndiceLongInt.AUSENTE, indice.get(id));
+        }
+    }
+}
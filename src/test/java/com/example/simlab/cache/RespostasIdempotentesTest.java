@@ -0,0 +1,152 @@
+package com.example.simlab.cache;
+
+import com.example.simlab.exception.ChaveReutilizadaException;
+import com.example.simlab.exception.PedidoEmCursoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do RespostasIdempotentes")
+public class RespostasIdempotentesTest {
+
+    private RespostasIdempotentes respostas;
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        respostas = new RespostasIdempotentes(new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofHours(1), Duration.ofSeconds(5));
+    }
+
+    private String criar() {
+        return "criado-" + execucoes.incrementAndGet();
+    }
+
+    @Test
+    @DisplayName("Deve repetir a resposta original sem voltar a executar a operação")
+    void deveRepetirResposta() {
+        RespostasIdempotentes.Resposta<String> primeira = respostas.executar("POST /x", "k1", Map.of("nome", "A"), this::criar);
+        RespostasIdempotentes.Resposta<String> segunda = respostas.executar("POST /x", "k1", Map.of("nome", "A"), this::criar);
+
+        assertEquals("criado-1", primeira.corpo());
+        assertFalse(primeira.repetida());
+        assertEquals("criado-1", segunda.corpo());
+        assertTrue(segunda.repetida());
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve executar sempre quando não há chave, e separar as chaves por operação")
+    void deveExecutarSemChaveEPorOperacao() {
+        respostas.executar("POST /x", null, Map.of(), this::criar);
+        respostas.executar("POST /x", null, Map.of(), this::criar);
+        respostas.executar("POST /x", "k1", Map.of(), this::criar);
+        respostas.executar("POST /y", "k1", Map.of(), this::criar);
+
+        assertEquals(4, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a mesma chave com outro corpo, e chaves vazias ou longas")
+    void deveRecusarChaveReutilizadaOuInvalida() {
+        respostas.executar("POST /x", "k1", Map.of("nome", "A"), this::criar);
+
+        assertThrows(ChaveReutilizadaException.class,
+                () -> respostas.executar("POST /x", "k1", Map.of("nome", "B"), this::criar));
+        assertThrows(IllegalArgumentException.class, () -> respostas.executar("POST /x", " ", Map.of(), this::criar));
+        assertThrows(IllegalArgumentException.class,
+                () -> respostas.executar("POST /x", "k".repeat(RespostasIdempotentes.MAX_CHAVE + 1), Map.of(), this::criar));
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar falhas: a repetição executa a operação de novo")
+    void naoDeveGuardarFalhas() {
+        assertThrows(IllegalStateException.class, () -> respostas.executar("POST /x", "k1", Map.of(), () -> {
+            throw new IllegalStateException("falhou");
+        }));
+
+        RespostasIdempotentes.Resposta<String> repetida = respostas.executar("POST /x", "k1", Map.of(), this::criar);
+        assertEquals("criado-1", repetida.corpo());
+        assertFalse(repetida.repetida());
+    }
+
+    @Test
+    @DisplayName("Deve executar uma só vez com pedidos simultâneos e devolver a mesma resposta a todos")
+    void deveBloquearPedidosSimultaneos() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch libertar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RespostasIdempotentes.Resposta<String>>> futuros = new ArrayList<>();
+            futuros.add(executor.submit(() -> respostas.executar("POST /x", "k1", Map.of(), () -> {
+                dentro.countDown();
+                await(libertar);
+                return criar();
+            })));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                futuros.add(executor.submit(() -> respostas.executar("POST /x", "k1", Map.of(), this::criar)));
+            }
+            libertar.countDown();
+
+            int repetidas = 0;
+            for (Future<RespostasIdempotentes.Resposta<String>> futuro : futuros) {
+                RespostasIdempotentes.Resposta<String> resposta = futuro.get(5, TimeUnit.SECONDS);
+                assertEquals("criado-1", resposta.corpo());
+                repetidas += resposta.repetida() ? 1 : 0;
+            }
+            assertEquals(7, repetidas);
+            assertEquals(1, execucoes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve responder que o pedido está em curso se o original não terminar a tempo")
+    void deveDesistirDeEsperar() throws Exception {
+        respostas = new RespostasIdempotentes(new ObjectMapper(), new SimpleMeterRegistry(), 100, Duration.ofHours(1), Duration.ofMillis(50));
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch libertar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<RespostasIdempotentes.Resposta<String>> original = executor.submit(() -> respostas.executar("POST /x", "k1", Map.of(), () -> {
+                dentro.countDown();
+                await(libertar);
+                return criar();
+            }));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+            assertThrows(PedidoEmCursoException.class, () -> respostas.executar("POST /x", "k1", Map.of(), this::criar));
+
+            libertar.countDown();
+            assertEquals("criado-1", original.get(5, TimeUnit.SECONDS).corpo());
+            assertTrue(respostas.executar("POST /x", "k1", Map.of(), this::criar).repetida());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.index.PesquisaExames;
+import com.example.simlab.index.SugestoesExames;
+import com.example.simlab.index.SugestoesPacientes;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração de {@code DELETE /pacientes/{id}} e {@code DELETE /exames/{id}}: os DELETE
+ * são feitos sem carregar entidades, em número fixo de instruções, e os índices em memória
+ * acompanham-nos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:apagar")
+@DisplayName("Testes de remoção de pacientes e exames")
+public class ApagarTest {
+    private static final int EXAMES = 500;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PesquisaExames pesquisaExames;
+
+    @Autowired
+    private SugestoesExames sugestoesExames;
+
+    @Autowired
+    private SugestoesPacientes sugestoesPacientes;
+
+    @Test
+    @DisplayName("Apaga um paciente com 500 exames em 3 instruções e retira-os dos índices")
+    void deveApagarPacienteComExames() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((!pesquisaExames.isPronto() || !sugestoesExames.isPronto() || !sugestoesPacientes.isPronto())
+                && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertTrue(pesquisaExames.isPronto() && sugestoesExames.isPronto() && sugestoesPacientes.isPronto(),
+                "os índices não ficaram prontos a tempo");
+        Object pacienteId = criarPaciente("Zacarias Quintela", "91234567");
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < EXAMES; i++) {
+            ndjson.append("{\"nome\":\"Zimografia ").append(i).append("\",\"descricao\":\"Análise xilográfica\",\"preco\":10,\"pacienteId\":")
+                    .append(pacienteId).append("}\n");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        Map<?, ?> lote = rest.postForObject("/exames/importar", new HttpEntity<>(ndjson.toString(), headers), Map.class);
+        assertEquals(EXAMES, ((Number) lote.get("criados")).intValue());
+        assertEquals(EXAMES, total("/exames/search?q=xilografica"));
+        assertEquals(1, rest.getForObject("/autocomplete?q=zacarias", List.class).size());
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long antes = estatisticas.getPrepareStatementCount();
+        assertEquals(HttpStatus.NO_CONTENT, apagar("/pacientes/" + pacienteId));
+        // leitura dos exames para os índices, DELETE dos exames e DELETE do paciente
+        assertEquals(3, estatisticas.getPrepareStatementCount() - antes);
+
+        assertEquals(0, total("/exames/search?q=xilografica"));
+        assertEquals(List.of(), rest.getForObject("/autocomplete?q=zacarias", List.class));
+        assertEquals(List.of(), rest.getForObject("/autocomplete?q=zimografia", List.class));
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/pacientes/" + pacienteId, Map.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, apagar("/pacientes/" + pacienteId));
+    }
+
+    @Test
+    @DisplayName("Apaga um exame pelo ID e devolve 404 na segunda vez")
+    void deveApagarExame() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!pesquisaExames.isPronto() && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertTrue(pesquisaExames.isPronto(), "o índice não ficou pronto a tempo");
+        Object pacienteId = criarPaciente("Ulisses Varela", "91234568");
+        ResponseEntity<Map> exame = rest.postForEntity("/exames", Map.of(
+                "nome", "Espirometria Forçada", "descricao", "Prova respiratória", "preco", 40, "pacienteId", pacienteId), Map.class);
+        assertEquals(HttpStatus.CREATED, exame.getStatusCode());
+        Object exameId = exame.getBody().get("id");
+        assertEquals(1, total("/exames/search?q=espirometria"));
+
+        assertEquals(HttpStatus.NO_CONTENT, apagar("/exames/" + exameId));
+        assertEquals(0, total("/exames/search?q=espirometria"));
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/exames/" + exameId, Map.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, apagar("/exames/" + exameId));
+    }
+
+    private Object criarPaciente(String nome, String cartaoCidadao) {
+        ResponseEntity<Map> resposta = rest.postForEntity("/pacientes", Map.of(
+                "nome", nome, "dataDeNascimento", "1980-03-02", "cartaoCidadao", cartaoCidadao, "telefone", "912345678"), Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody().get("id");
+    }
+
+    private HttpStatus apagar(String caminho) {
+        return (HttpStatus) rest.exchange(caminho, HttpMethod.DELETE, HttpEntity.EMPTY, Void.class).getStatusCode();
+    }
+
+    private long total(String url) {
+        return ((Number) rest.getForObject(url, Map.class).get("totalElements")).longValue();
+    }
+}
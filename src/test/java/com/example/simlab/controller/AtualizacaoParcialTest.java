@@ -0,0 +1,224 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.index.PesquisaExames;
+import com.example.simlab.index.PesquisaPacientes;
+import com.example.simlab.index.SugestoesExames;
+import com.example.simlab.index.SugestoesPacientes;
+import com.example.simlab.model.Exame;
+import com.example.simlab.model.Paciente;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração de {@code PATCH /pacientes/{id}} e {@code PATCH /exames/{id}}: os UPDATE
+ * só escrevem as colunas enviadas, verificam a versão lida, não esvaziam a cache de segundo
+ * nível e os índices em memória acompanham-nos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:atualizacaoparcial",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.simlab.controller.AtualizacaoParcialTest$Instrucoes"})
+@DisplayName("Testes de atualização parcial de pacientes e exames")
+public class AtualizacaoParcialTest {
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType("application/merge-patch+json");
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PesquisaPacientes pesquisaPacientes;
+
+    @Autowired
+    private PesquisaExames pesquisaExames;
+
+    @Autowired
+    private SugestoesPacientes sugestoesPacientes;
+
+    @Autowired
+    private SugestoesExames sugestoesExames;
+
+    @BeforeEach
+    void esperarIndices() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((!pesquisaPacientes.isPronto() || !pesquisaExames.isPronto()
+                || !sugestoesPacientes.isPronto() || !sugestoesExames.isPronto()) && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertTrue(pesquisaPacientes.isPronto() && pesquisaExames.isPronto()
+                && sugestoesPacientes.isPronto() && sugestoesExames.isPronto(),
+                "os índices não ficaram prontos a tempo");
+    }
+
+    @Test
+    @DisplayName("Altera o telefone e apaga o email de um paciente com um UPDATE só dessas colunas")
+    void deveAtualizarContactosDoPaciente() {
+        Object id = criarPaciente("Teodoro Valadares", "71234567");
+
+        Instrucoes.UPDATES.clear();
+        ResponseEntity<Map> resposta = patch("/pacientes/" + id, "{\"telefone\": \"923456789\", \"email\": null}");
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals("923456789", resposta.getBody().get("telefone"));
+        assertNull(resposta.getBody().get("email"));
+        assertEquals("Teodoro Valadares", resposta.getBody().get("nome"));
+        assertEquals(1, Instrucoes.UPDATES.size());
+        String update = Instrucoes.UPDATES.get(0);
+        assertTrue(update.contains("telefone") && update.contains("email"), update);
+        assertFalse(update.contains("nome") || update.contains("cartao_cidadao") || update.contains("data_nascimento"), update);
+        // o UPDATE é sempre condicionado pela versão lida, mesmo sem If-Match
+        assertTrue(update.replace(" ", "").contains("versao=?where") && update.replace(" ", "").endsWith("andversao=?"), update);
+
+        Map<?, ?> lido = rest.getForObject("/pacientes/" + id, Map.class);
+        assertEquals("923456789", lido.get("telefone"));
+        assertNull(lido.get("email"));
+    }
+
+    @Test
+    @DisplayName("Renomeia um paciente por PATCH e atualiza a pesquisa e as sugestões")
+    void deveRenomearPaciente() {
+        Object id = criarPaciente("Quirino Bettencourt", "71234568");
+
+        assertEquals(HttpStatus.OK, patch("/pacientes/" + id, "{\"nome\": \"Querubim Bettencourt\"}").getStatusCode());
+
+        assertEquals(List.of(), rest.getForObject("/autocomplete?q=quirino", List.class));
+        assertEquals(1, rest.getForObject("/autocomplete?q=querubim", List.class).size());
+        assertEquals(1, total("/pacientes/search?q=querubim"));
+        assertEquals(1, total("/pacientes?nome=querubim bettencourt"));
+    }
+
+    @Test
+    @DisplayName("Um PUT também só escreve as colunas que mudaram")
+    void deveAtualizarSoColunasAlteradasNoPut() {
+        Object id = criarPaciente("Leopoldina Arruda", "71234569");
+
+        Instrucoes.UPDATES.clear();
+        rest.put("/pacientes/" + id, Map.of("nome", "Leopoldina Arruda", "dataDeNascimento", "1980-03-02",
+                "cartaoCidadao", "71234569", "telefone", "934567890"));
+
+        assertEquals(1, Instrucoes.UPDATES.size());
+        String update = Instrucoes.UPDATES.get(0);
+        assertTrue(update.contains("telefone"), update);
+        assertFalse(update.contains("nome") || update.contains("cartao_cidadao"), update);
+    }
+
+    @Test
+    @DisplayName("Altera o preço de um exame e o nome com o índice de pesquisa atualizado")
+    void deveAtualizarExame() {
+        Object pacienteId = criarPaciente("Rosalina Pimentel", "71234570");
+        ResponseEntity<Map> exame = rest.postForEntity("/exames", Map.of(
+                "nome", "Cintigrafia Óssea", "descricao", "Imagem do esqueleto", "preco", 90, "pacienteId", pacienteId), Map.class);
+        assertEquals(HttpStatus.CREATED, exame.getStatusCode());
+        Object id = exame.getBody().get("id");
+
+        Instrucoes.UPDATES.clear();
+        ResponseEntity<Map> preco = patch("/exames/" + id, "{\"preco\": 95.5}");
+        assertEquals(HttpStatus.OK, preco.getStatusCode());
+        assertEquals(95.5, ((Number) preco.getBody().get("preco")).doubleValue());
+        assertEquals("Cintigrafia Óssea", preco.getBody().get("nome"));
+        assertEquals(1, Instrucoes.UPDATES.size());
+        assertFalse(Instrucoes.UPDATES.get(0).contains("nome"), Instrucoes.UPDATES.get(0));
+
+        assertEquals(HttpStatus.OK, patch("/exames/" + id, "{\"nome\": \"Densitometria Óssea\"}").getStatusCode());
+        assertEquals(0, total("/exames/search?q=cintigrafia"));
+        assertEquals(1, total("/exames/search?q=densitometria"));
+        assertEquals(1, total("/exames/search?q=esqueleto"));
+        assertEquals(1, rest.getForObject("/autocomplete?q=densito&tipo=exame", List.class).size());
+    }
+
+    @Test
+    @DisplayName("Um PATCH atualiza a entrada do registo na cache sem esvaziar a região")
+    void deveManterCacheDeSegundoNivel() {
+        Object a = criarPaciente("Hermenegildo Coutinho", "71234573");
+        Object b = criarPaciente("Filomena Coutinho", "71234574");
+        Object exameA = rest.postForObject("/exames", Map.of(
+                "nome", "Espirometria", "descricao", "Função respiratória", "preco", 35, "pacienteId", a), Map.class).get("id");
+        Object exameB = rest.postForObject("/exames", Map.of(
+                "nome", "Audiograma", "descricao", "Função auditiva", "preco", 25, "pacienteId", b), Map.class).get("id");
+        rest.getForObject("/pacientes/" + a, Map.class);
+        rest.getForObject("/exames/" + exameA, Map.class);
+        assertTrue(emCache(Paciente.class, a));
+        assertTrue(emCache(Exame.class, exameA));
+
+        assertEquals(HttpStatus.OK, patch("/pacientes/" + b, "{\"telefone\": \"923456780\"}").getStatusCode());
+        assertEquals(HttpStatus.OK, patch("/exames/" + exameB, "{\"preco\": 27}").getStatusCode());
+
+        assertTrue(emCache(Paciente.class, a));
+        assertTrue(emCache(Exame.class, exameA));
+        assertTrue(emCache(Paciente.class, b));
+        assertTrue(emCache(Exame.class, exameB));
+    }
+
+    @Test
+    @DisplayName("Devolve 400, 404 e 409 nos PATCH inválidos, de recursos inexistentes ou duplicados")
+    void deveRejeitarPatchInvalido() {
+        Object id = criarPaciente("Eufémia Carvalhal", "71234571");
+        criarPaciente("Eufrásio Carvalhal", "71234572");
+
+        assertEquals(HttpStatus.BAD_REQUEST, patch("/pacientes/" + id, "{\"nome\": null}").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, patch("/pacientes/" + id, "{\"cc\": \"71234573\"}").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, patch("/pacientes/" + id, "{\"telefone\": \"12\"}").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, patch("/pacientes/999999", "{\"email\": \"a@b.pt\"}").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, patch("/exames/999999", "{\"preco\": 1}").getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, patch("/pacientes/" + id, "{\"cartaoCidadao\": \"71234572\"}").getStatusCode());
+        assertEquals("71234571", rest.getForObject("/pacientes/" + id, Map.class).get("cartaoCidadao"));
+    }
+
+    private ResponseEntity<Map> patch(String caminho, String documento) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MERGE_PATCH);
+        return rest.exchange(caminho, HttpMethod.PATCH, new HttpEntity<>(documento, headers), Map.class);
+    }
+
+    private Object criarPaciente(String nome, String cartaoCidadao) {
+        ResponseEntity<Map> resposta = rest.postForEntity("/pacientes", Map.of(
+                "nome", nome, "dataDeNascimento", "1980-03-02", "cartaoCidadao", cartaoCidadao,
+                "telefone", "912345678", "email", "paciente@simlab.pt"), Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody().get("id");
+    }
+
+    private boolean emCache(Class<?> entidade, Object id) {
+        return entityManagerFactory.getCache().contains(entidade, ((Number) id).longValue());
+    }
+
+    private long total(String url) {
+        return ((Number) rest.getForObject(url, Map.class).get("totalElements")).longValue();
+    }
+
+    /**
+     * Guarda os UPDATE enviados pelo Hibernate.
+     */
+    public static class Instrucoes implements StatementInspector {
+        static final List<String> UPDATES = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase(Locale.ROOT).startsWith("update")) {
+                UPDATES.add(sql.toLowerCase(Locale.ROOT));
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.index.SugestoesExames;
+import com.example.simlab.index.SugestoesPacientes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração de {@code GET /autocomplete}: as sugestões acompanham as criações,
+ * atualizações e remoções confirmadas de pacientes e exames.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:autocomplete")
+@DisplayName("Testes do autocompletar")
+public class AutocompleteTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private SugestoesPacientes pacientes;
+
+    @Autowired
+    private SugestoesExames exames;
+
+    @Test
+    @DisplayName("Sugere nomes de pacientes e exames por popularidade e acompanha as alterações")
+    void deveSugerirEAcompanharAlteracoes() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((!pacientes.isPronto() || !exames.isPronto()) && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertTrue(pacientes.isPronto() && exames.isPronto(), "os índices não ficaram prontos a tempo");
+        Map<?, ?> helena = criar("/pacientes", paciente("Helena Marques", "81234567"));
+        criar("/pacientes", paciente("Hélio Santos", "81234568"));
+        Object pacienteId = helena.get("id");
+        // os nomes de exame são únicos, mas só a menos de maiúsculas e acentos
+        criar("/exames", exame("Hemograma Completo", pacienteId));
+        criar("/exames", exame("HEMOGRAMA COMPLETO", pacienteId));
+        Map<?, ?> glicemia = criar("/exames", exame("Hemoglobina Glicada", pacienteId));
+
+        assertEquals(List.of("Hemograma Completo:exame:2", "Helena Marques:paciente:1", "Hélio Santos:paciente:1", "Hemoglobina Glicada:exame:1"),
+                sugestoes("/autocomplete?q=HE"));
+        assertEquals(List.of("Helena Marques:paciente:1", "Hélio Santos:paciente:1"), sugestoes("/autocomplete?q=he&tipo=paciente"));
+        assertEquals(List.of("Hemograma Completo:exame:2"), sugestoes("/autocomplete?q=hem&limite=1"));
+
+        rest.put("/exames/" + glicemia.get("id"), Map.of("nome", "hemograma completo", "descricao", "Análise ao sangue", "preco", 35));
+        assertEquals(List.of("Hemograma Completo:exame:3"), sugestoes("/autocomplete?q=hem&tipo=exame"));
+
+        rest.exchange("/pacientes/" + helena.get("id"), HttpMethod.DELETE, HttpEntity.EMPTY, Void.class);
+        assertEquals(List.of("Hélio Santos:paciente:1"), sugestoes("/autocomplete?q=he&tipo=paciente"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/autocomplete?q=he&limite=11", Map.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/autocomplete?q=he&tipo=medico", Map.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/autocomplete?q= ", Map.class).getStatusCode());
+    }
+
+    private Map<?, ?> criar(String caminho, Map<String, ?> corpo) {
+        ResponseEntity<Map> resposta = rest.postForEntity(caminho, corpo, Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody();
+    }
+
+    private static Map<String, String> paciente(String nome, String cartaoCidadao) {
+        return Map.of("nome", nome, "dataDeNascimento", "1990-01-15", "cartaoCidadao", cartaoCidadao, "telefone", "912345678");
+    }
+
+    private static Map<String, Object> exame(String nome, Object pacienteId) {
+        return Map.of("nome", nome, "descricao", "Análise ao sangue", "preco", 35, "pacienteId", pacienteId);
+    }
+
+    private List<String> sugestoes(String url) {
+        List<?> lista = rest.getForObject(url, List.class);
+        return lista.stream().map(item -> {
+            Map<?, ?> sugestao = (Map<?, ?>) item;
+            return sugestao.get("texto") + ":" + sugestao.get("tipo") + ":" + sugestao.get("ocorrencias");
+        }).toList();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.SimlabApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga que compara o processamento de pedidos em threads de plataforma e em threads virtuais.
+ *
+ * <p>Arranca a aplicação duas vezes (sem e com o perfil {@code virtual}) e mantém milhares de
+ * clientes em simultâneo: a maioria faz {@code GET /pacientes/{id}} (rápido, servido da memória)
+ * e os restantes listagens por cursor de 500 pacientes, que disputam as ligações à bd. Imprime o
+ * débito e os percentis 50/99 de cada tipo de pedido em cada modo.</p>
+ *
+ * <p>Não corre no build normal. Para executar:</p>
+ * <pre>
+ * mvn test -Dtest=CargaThreadsTest -Dsimlab.carga=true [-Dsimlab.carga.clientes=2000] [-Dsimlab.carga.segundos=20]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "simlab.carga", matches = "true")
+@DisplayName("Teste de carga: threads de plataforma vs threads virtuais")
+public class CargaThreadsTest {
+    private static final int PACIENTES = 20_000;
+    private static final int TAMANHO_LOTE = 1_000;
+    private static final double FRACAO_LISTAGENS = 0.1;
+    private static final int CLIENTES = Integer.getInteger("simlab.carga.clientes", 2_000);
+    private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("simlab.carga.segundos", 20));
+    private static final Duration AQUECIMENTO = Duration.ofSeconds(5);
+
+    @Test
+    @DisplayName("Deve manter a latência dos pedidos rápidos com threads virtuais")
+    void compararModos() throws Exception {
+
+        Resultado plataforma = medir(false);
+        Resultado virtual = medir(true);
+
+        System.out.printf("%n%d clientes simultâneos, %ds por modo (%.0f%% listagens de 500 pacientes)%n",
+                CLIENTES, DURACAO.toSeconds(), FRACAO_LISTAGENS * 100);
+        System.out.printf("%-12s %10s %8s %10s %10s %10s %10s%n",
+                "modo", "pedidos/s", "erros", "id p50", "id p99", "lista p50", "lista p99");
+        plataforma.imprimir("plataforma");
+        virtual.imprimir("virtual");
+
+        assertEquals(0, virtual.erros, "pedidos falhados em modo virtual");
+    }
+
+    private static Resultado medir(boolean virtual) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SimlabApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:carga-" + (virtual ? "virtual" : "plataforma"),
+                        "spring.jpa.show-sql=false",
+                        "spring.devtools.restart.enabled=false");
+        if (virtual) {
+            builder.profiles("virtual");
+        }
+
+        try (ConfigurableApplicationContext contexto = builder.run();
+             ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(clientes)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            semear(http, base);
+
+            executar(http, base, clientes, AQUECIMENTO, null);
+            Resultado resultado = new Resultado();
+            executar(http, base, clientes, DURACAO, resultado);
+            return resultado;
+        }
+    }
+
+    private static void semear(HttpClient http, String base) throws Exception {
+        for (int inicio = 0; inicio < PACIENTES; inicio += TAMANHO_LOTE) {
+            StringBuilder corpo = new StringBuilder("[");
+            for (int i = inicio; i < inicio + TAMANHO_LOTE; i++) {
+                if (i > inicio) {
+                    corpo.append(',');
+                }
+                corpo.append(String.format("{\"nome\":\"Paciente %d\",\"dataDeNascimento\":\"1990-01-15\","
+                        + "\"cartaoCidadao\":\"%08d\",\"telefone\":\"912345678\"}", i, i));
+            }
+            corpo.append(']');
+            HttpResponse<String> resposta = http.send(HttpRequest.newBuilder(URI.create(base + "/pacientes/lote"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, resposta.statusCode(), resposta.body());
+        }
+    }
+
+    /**
+     * Corre os clientes em ciclo até ao fim da duração; com {@code resultado} null apenas aquece.
+     */
+    private static void executar(HttpClient http, String base, ExecutorService clientes,
+                                 Duration duracao, Resultado resultado) throws Exception {
+        long fim = System.nanoTime() + duracao.toNanos();
+        List<Future<Amostras>> futuros = new ArrayList<>(CLIENTES);
+        for (int c = 0; c < CLIENTES; c++) {
+            futuros.add(clientes.submit(() -> {
+                Amostras amostras = new Amostras();
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (System.nanoTime() < fim) {
+                    boolean listagem = aleatorio.nextDouble() < FRACAO_LISTAGENS;
+                    long id = aleatorio.nextLong(1, PACIENTES + 1);
+                    String caminho = listagem
+                            ? "/pacientes/cursor?size=500&after=" + Base64.getUrlEncoder().withoutPadding()
+                                    .encodeToString(("id:" + id).getBytes(StandardCharsets.UTF_8))
+                            : "/pacientes/" + id;
+
+                    long inicio = System.nanoTime();
+                    try {
+                        HttpResponse<Void> resposta = http.send(HttpRequest.newBuilder(URI.create(base + caminho))
+                                .timeout(Duration.ofSeconds(60))
+                                .build(), HttpResponse.BodyHandlers.discarding());
+                        if (resposta.statusCode() != 200) {
+                            amostras.erros++;
+                            continue;
+                        }
+                    } catch (IOException e) {
+                        amostras.erros++;
+                        continue;
+                    }
+                    amostras.registar(listagem, System.nanoTime() - inicio);
+                }
+                return amostras;
+            }));
+        }
+
+        for (Future<Amostras> futuro : futuros) {
+            Amostras amostras = futuro.get();
+            if (resultado != null) {
+                resultado.juntar(amostras);
+            }
+        }
+    }
+
+    /**
+     * Latências de um cliente, em nanossegundos.
+     */
+    private static final class Amostras {
+        private long[] rapidas = new long[256];
+        private int totalRapidas;
+        private long[] listagens = new long[64];
+        private int totalListagens;
+        private long erros;
+
+        void registar(boolean listagem, long nanos) {
+            if (listagem) {
+                if (totalListagens == listagens.length) {
+                    listagens = Arrays.copyOf(listagens, totalListagens * 2);
+                }
+                listagens[totalListagens++] = nanos;
+            } else {
+                if (totalRapidas == rapidas.length) {
+                    rapidas = Arrays.copyOf(rapidas, totalRapidas * 2);
+                }
+                rapidas[totalRapidas++] = nanos;
+            }
+        }
+    }
+
+    /**
+     * Agregado das amostras de todos os clientes num modo.
+     */
+    private static final class Resultado {
+        private final List<long[]> rapidas = new ArrayList<>();
+        private final List<long[]> listagens = new ArrayList<>();
+        private final AtomicLong pedidos = new AtomicLong();
+        private long erros;
+
+        void juntar(Amostras amostras) {
+            rapidas.add(Arrays.copyOf(amostras.rapidas, amostras.totalRapidas));
+            listagens.add(Arrays.copyOf(amostras.listagens, amostras.totalListagens));
+            pedidos.addAndGet(amostras.totalRapidas + amostras.totalListagens);
+            erros += amostras.erros;
+        }
+
+        void imprimir(String modo) {
+            long[] id = ordenar(rapidas);
+            long[] lista = ordenar(listagens);
+            System.out.printf("%-12s %10.0f %8d %8.1fms %8.1fms %8.1fms %8.1fms%n", modo,
+                    pedidos.get() / (double) DURACAO.toSeconds(), erros,
+                    percentil(id, 0.50), percentil(id, 0.99), percentil(lista, 0.50), percentil(lista, 0.99));
+        }
+
+        private static long[] ordenar(List<long[]> partes) {
+            long[] todos = partes.stream().flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(todos);
+            return todos;
+        }
+
+        private static double percentil(long[] ordenados, double p) {
+            if (ordenados.length == 0) {
+                return Double.NaN;
+            }
+            return ordenados[(int) Math.min(ordenados.length - 1, Math.ceil(p * ordenados.length) - 1)] / 1_000_000.0;
+        }
+    }
+}
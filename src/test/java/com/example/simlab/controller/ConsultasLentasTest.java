@@ -0,0 +1,57 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.dto.ConsultaLentaDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração do registo de consultas lentas, com o limiar a zero para todas as
+ * instruções serem registadas.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:consultaslentas", "simlab.consultas-lentas.limiar-ms=0"})
+@DisplayName("Testes das consultas lentas")
+public class ConsultasLentasTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    @DisplayName("Regista as consultas com parâmetros e plano, e limpa o registo")
+    void deveRegistarConsultasComPlano() throws InterruptedException {
+        rest.postForEntity("/pacientes", Map.of(
+                "nome", "Paciente Lento",
+                "dataDeNascimento", "1990-01-15",
+                "cartaoCidadao", "76543210",
+                "telefone", "912345678"), String.class);
+        rest.getForEntity("/pacientes?nome=Paciente Lento", String.class);
+
+        // o plano é obtido em segundo plano
+        ConsultaLentaDTO consulta = null;
+        for (int tentativa = 0; tentativa < 50 && (consulta == null || consulta.getPlano() == null); tentativa++) {
+            Thread.sleep(100);
+            List<ConsultaLentaDTO> consultas = Arrays.asList(rest.getForObject("/admin/consultas-lentas", ConsultaLentaDTO[].class));
+            consulta = consultas.stream()
+                    .filter(c -> c.getSql().toLowerCase().startsWith("select") && c.getParametros().contains("paciente lento"))
+                    .findFirst().orElse(null);
+        }
+
+        assertNotNull(consulta);
+        assertNotNull(consulta.getPlano());
+        // a pesquisa por nome usa o índice da coluna normalizada em vez de percorrer a tabela
+        assertTrue(consulta.getPlano().toUpperCase().contains("IDX_PACIENTES_NOME_NORM"), consulta.getPlano());
+
+        assertEquals(HttpStatus.NO_CONTENT, rest.exchange("/admin/consultas-lentas", HttpMethod.DELETE, null, Void.class).getStatusCode());
+    }
+}
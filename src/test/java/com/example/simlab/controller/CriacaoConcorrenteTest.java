@@ -0,0 +1,146 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga concorrente da criação de pacientes e exames: pedidos simultâneos com o mesmo
+ * Cartão de Cidadão ou nome de exame devem resultar num único registo e nos restantes em 409.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Testes de criação concorrente")
+public class CriacaoConcorrenteTest {
+    private static final int VALORES = 8;
+    private static final int PEDIDOS_POR_VALOR = 8;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Test
+    @DisplayName("Pedidos concorrentes com o mesmo CC criam um só paciente e os restantes recebem 409")
+    void deveCriarUmPacientePorCartaoCidadao() throws Exception {
+
+        int base = ThreadLocalRandom.current().nextInt(10_000_000, 90_000_000);
+        Map<String, AtomicInteger> criados = new ConcurrentHashMap<>();
+
+        List<HttpStatus> estados = executarEmSimultaneo(pedido -> {
+            String cc = String.valueOf(base + pedido % VALORES);
+            ResponseEntity<String> resposta = rest.postForEntity("/pacientes", Map.of(
+                    "nome", "Paciente " + pedido,
+                    "dataDeNascimento", "1990-01-15",
+                    "cartaoCidadao", cc,
+                    "telefone", "912345678"), String.class);
+            if (resposta.getStatusCode() == HttpStatus.CREATED) {
+                criados.computeIfAbsent(cc, k -> new AtomicInteger()).incrementAndGet();
+            }
+            return HttpStatus.valueOf(resposta.getStatusCode().value());
+        });
+
+        verificarEstados(estados);
+        assertEquals(VALORES, criados.size());
+        criados.values().forEach(contador -> assertEquals(1, contador.get()));
+        for (int i = 0; i < VALORES; i++) {
+            assertEquals(1, pacienteRepository.findCartoesCidadaoExistentes(List.of(String.valueOf(base + i))).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Pedidos concorrentes com o mesmo nome criam um só exame e os restantes recebem 409")
+    void deveCriarUmExamePorNome() throws Exception {
+
+        String cc = String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 90_000_000));
+        ResponseEntity<Map> paciente = rest.postForEntity("/pacientes", Map.of(
+                "nome", "Paciente dos exames",
+                "dataDeNascimento", "1990-01-15",
+                "cartaoCidadao", cc,
+                "telefone", "912345678"), Map.class);
+        assertEquals(HttpStatus.CREATED, paciente.getStatusCode());
+        long pacienteId = ((Number) paciente.getBody().get("id")).longValue();
+        String prefixo = "Exame " + cc + " ";
+
+        List<HttpStatus> estados = executarEmSimultaneo(pedido -> {
+            ResponseEntity<String> resposta = rest.postForEntity("/exames", Map.of(
+                    "nome", prefixo + pedido % VALORES,
+                    "descricao", "Concorrência",
+                    "preco", 10.0,
+                    "pacienteId", pacienteId), String.class);
+            return HttpStatus.valueOf(resposta.getStatusCode().value());
+        });
+
+        verificarEstados(estados);
+        List<String> nomes = new ArrayList<>();
+        for (int i = 0; i < VALORES; i++) {
+            nomes.add(prefixo + i);
+        }
+        assertEquals(VALORES, exameRepository.findNomesExistentes(nomes).size());
+    }
+
+    /**
+     * Lança todos os pedidos ao mesmo tempo e devolve o estado HTTP de cada um.
+     */
+    private static List<HttpStatus> executarEmSimultaneo(Pedido pedido) throws Exception {
+        int total = VALORES * PEDIDOS_POR_VALOR;
+        ExecutorService executor = Executors.newFixedThreadPool(total);
+        CountDownLatch partida = new CountDownLatch(1);
+        try {
+            List<Future<HttpStatus>> futuros = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                int numero = i;
+                Callable<HttpStatus> tarefa = () -> {
+                    partida.await();
+                    return pedido.executar(numero);
+                };
+                futuros.add(executor.submit(tarefa));
+            }
+            partida.countDown();
+
+            List<HttpStatus> estados = new ArrayList<>();
+            for (Future<HttpStatus> futuro : futuros) {
+                estados.add(futuro.get());
+            }
+            return estados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void verificarEstados(List<HttpStatus> estados) {
+        long criados = estados.stream().filter(estado -> estado == HttpStatus.CREATED).count();
+        long conflitos = estados.stream().filter(estado -> estado == HttpStatus.CONFLICT).count();
+
+        assertEquals(VALORES, criados, "estados: " + estados);
+        assertEquals(estados.size() - VALORES, conflitos, "estados: " + estados);
+    }
+
+    @FunctionalInterface
+    private interface Pedido {
+        HttpStatus executar(int numero);
+    }
+}
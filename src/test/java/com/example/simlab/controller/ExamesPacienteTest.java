@@ -0,0 +1,150 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.index.PesquisaExames;
+import com.example.simlab.index.PesquisaPacientes;
+import com.example.simlab.index.SugestoesExames;
+import com.example.simlab.index.SugestoesPacientes;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração de {@code GET /pacientes/{id}/exames} e {@code GET /pacientes/{id}?include=exames}:
+ * a ficha do paciente com os exames é lida numa só consulta e a página de exames usa o índice
+ * de {@code exames.paciente_id}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.datasource.url=jdbc:h2:mem:examespaciente",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.simlab.controller.ExamesPacienteTest$Instrucoes"})
+@DisplayName("Testes dos exames de um paciente")
+public class ExamesPacienteTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PesquisaPacientes pesquisaPacientes;
+
+    @Autowired
+    private PesquisaExames pesquisaExames;
+
+    @Autowired
+    private SugestoesPacientes sugestoesPacientes;
+
+    @Autowired
+    private SugestoesExames sugestoesExames;
+
+    @BeforeEach
+    void esperarIndices() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((!pesquisaPacientes.isPronto() || !pesquisaExames.isPronto()
+                || !sugestoesPacientes.isPronto() || !sugestoesExames.isPronto()) && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertTrue(pesquisaPacientes.isPronto() && pesquisaExames.isPronto()
+                && sugestoesPacientes.isPronto() && sugestoesExames.isPronto(),
+                "os índices não ficaram prontos a tempo");
+    }
+
+    @Test
+    @DisplayName("Devolve o paciente com os exames numa só consulta, sem ETag")
+    void deveIncluirExames() {
+        Object id = criarPaciente("Teodora Valente", "81234567");
+        Object outro = criarPaciente("Amílcar Sequeira", "81234568");
+        Object primeiro = criarExame("Ressonância lombar", 90, id);
+        criarExame("Análise de urina", 8, outro);
+        Object segundo = criarExame("Densitometria", 45, id);
+
+        Instrucoes.SELECTS.clear();
+        ResponseEntity<Map> resposta = rest.getForEntity("/pacientes/" + id + "?include=exames", Map.class);
+
+        assertEquals(HttpStatus.OK, resposta.getStatusCode());
+        assertEquals(1, Instrucoes.SELECTS.size(), "instruções: " + Instrucoes.SELECTS);
+        assertNull(resposta.getHeaders().getETag());
+        assertEquals("Teodora Valente", resposta.getBody().get("nome"));
+        List<Map<String, Object>> exames = (List<Map<String, Object>>) resposta.getBody().get("exames");
+        assertEquals(List.of(primeiro, segundo), exames.stream().map(exame -> exame.get("id")).toList());
+        assertEquals(id, exames.get(0).get("pacienteId"));
+
+        assertEquals(1, ((List<?>) rest.getForObject("/pacientes/" + outro + "?include=exames", Map.class).get("exames")).size());
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/pacientes/999999?include=exames", Map.class).getStatusCode());
+        // o ID 0 é a chave reservada do índice dos registos residentes, mas continua a ser um paciente inexistente
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/pacientes/0", Map.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/pacientes/" + id + "?include=moradas", Map.class).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Pagina os exames do paciente por ID com o índice de paciente_id")
+    void devePaginarExames() {
+        Object id = criarPaciente("Henriqueta Lobo", "81234569");
+        Object semExames = criarPaciente("Custódio Barros", "81234570");
+        Object a = criarExame("Eletrocardiograma", 30, id);
+        Object b = criarExame("Holter 24 horas", 60, id);
+        Object c = criarExame("Prova de esforço", 75, id);
+
+        Map<String, Object> primeira = rest.getForObject("/pacientes/" + id + "/exames?size=2", Map.class);
+        assertEquals(3, primeira.get("totalElements"));
+        assertEquals(List.of(a, b), ids(primeira));
+        assertEquals(List.of(c), ids(rest.getForObject("/pacientes/" + id + "/exames?size=2&page=1", Map.class)));
+        assertEquals(List.of(c, b, a), ids(rest.getForObject("/pacientes/" + id + "/exames?sort=preco,desc", Map.class)));
+
+        assertEquals(List.of(), ids(rest.getForObject("/pacientes/" + semExames + "/exames", Map.class)));
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/pacientes/999999/exames", Map.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/pacientes/0/exames", Map.class).getStatusCode());
+
+        String plano = jdbcTemplate.queryForObject(
+                "explain select id from exames where paciente_id = " + id + " order by id", String.class);
+        assertTrue(plano.toLowerCase(Locale.ROOT).contains("idx_exames_paciente_id"), plano);
+        // a chave estrangeira reutiliza o índice em vez de ficar com um índice próprio na mesma coluna
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from information_schema.index_columns"
+                + " where table_name = 'EXAMES' and column_name = 'PACIENTE_ID'", Integer.class));
+    }
+
+    private Object criarPaciente(String nome, String cartaoCidadao) {
+        ResponseEntity<Map> resposta = rest.postForEntity("/pacientes", Map.of(
+                "nome", nome, "dataDeNascimento", "1968-11-30", "cartaoCidadao", cartaoCidadao, "telefone", "912345678"), Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody().get("id");
+    }
+
+    private Object criarExame(String nome, int preco, Object pacienteId) {
+        ResponseEntity<Map> resposta = rest.postForEntity("/exames", Map.of(
+                "nome", nome, "descricao", "Ficha do paciente", "preco", preco, "pacienteId", pacienteId), Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody().get("id");
+    }
+
+    private static List<Object> ids(Map<String, Object> pagina) {
+        return ((List<Map<String, Object>>) pagina.get("content")).stream().map(exame -> exame.get("id")).toList();
+    }
+
+    public static class Instrucoes implements StatementInspector {
+        static final List<String> SELECTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase(Locale.ROOT).startsWith("select")) {
+                SELECTS.add(sql.toLowerCase(Locale.ROOT));
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.repository.ExameRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração do cabeçalho {@code Idempotency-Key} em POST /pacientes e POST /exames:
+ * as repetições devolvem a resposta original sem criar outro registo.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:idempotencia")
+@DisplayName("Testes de criação idempotente")
+public class IdempotenciaTest {
+    private static final int PEDIDOS = 16;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Test
+    @DisplayName("Repete a resposta do paciente criado e recusa a mesma chave com outro corpo")
+    void deveRepetirCriacaoDePaciente() {
+        Map<String, String> paciente = paciente("Leopoldina Arruda", "71234567");
+
+        ResponseEntity<Map> original = post("/pacientes", "paciente-1", paciente);
+        assertEquals(HttpStatus.CREATED, original.getStatusCode());
+        assertNull(original.getHeaders().getFirst("Idempotent-Replayed"));
+
+        ResponseEntity<Map> repetido = post("/pacientes", "paciente-1", paciente);
+        assertEquals(HttpStatus.CREATED, repetido.getStatusCode());
+        assertEquals("true", repetido.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(original.getBody(), repetido.getBody());
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY,
+                post("/pacientes", "paciente-1", paciente("Leopoldina Arruda", "71234568")).getStatusCode());
+        // sem chave, ou com outra chave, o pedido é executado de novo e o CC repetido é recusado
+        assertEquals(HttpStatus.CONFLICT, post("/pacientes", null, paciente).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, post("/pacientes", "paciente-2", paciente).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, post("/pacientes", " ", paciente("Isaura Pestana", "71234569")).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Pedidos simultâneos com a mesma chave criam um só exame e recebem todos a mesma resposta")
+    void deveCriarUmExamePorChave() throws Exception {
+        Object pacienteId = post("/pacientes", null, paciente("Rosalina Cunha", "71234570")).getBody().get("id");
+        Map<String, Object> exame = Map.of("nome", "Cintigrafia óssea", "descricao", "Repetida pelo motor de integração",
+                "preco", 120, "pacienteId", pacienteId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(PEDIDOS);
+        CountDownLatch partida = new CountDownLatch(1);
+        try {
+            List<Future<ResponseEntity<Map>>> futuros = new ArrayList<>();
+            for (int i = 0; i < PEDIDOS; i++) {
+                futuros.add(executor.submit(() -> {
+                    partida.await();
+                    return post("/exames", "exame-1", exame);
+                }));
+            }
+            partida.countDown();
+
+            Object id = null;
+            int repetidos = 0;
+            for (Future<ResponseEntity<Map>> futuro : futuros) {
+                ResponseEntity<Map> resposta = futuro.get();
+                assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+                if (id == null) {
+                    id = resposta.getBody().get("id");
+                }
+                assertEquals(id, resposta.getBody().get("id"));
+                repetidos += "true".equals(resposta.getHeaders().getFirst("Idempotent-Replayed")) ? 1 : 0;
+            }
+            assertEquals(PEDIDOS - 1, repetidos);
+            assertEquals(1, exameRepository.findNomesExistentes(List.of("Cintigrafia óssea")).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<String, String> paciente(String nome, String cartaoCidadao) {
+        return Map.of("nome", nome, "dataDeNascimento", "1982-03-09", "cartaoCidadao", cartaoCidadao, "telefone", "912345678");
+    }
+
+    private ResponseEntity<Map> post(String caminho, String chave, Object corpo) {
+        HttpHeaders headers = new HttpHeaders();
+        if (chave != null) {
+            headers.set("Idempotency-Key", chave);
+        }
+        return rest.postForEntity(caminho, new HttpEntity<>(corpo, headers), Map.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.simlab.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração das métricas exportadas em {@code /actuator/prometheus}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:metricas")
+@AutoConfigureObservability
+@DisplayName("Testes das métricas Prometheus")
+public class MetricasTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    @DisplayName("Exporta tempos por endpoint e filtros, tempos e linhas por método de repositório, Hikari e Hibernate")
+    void deveExportarMetricas() {
+        ResponseEntity<String> criado = rest.postForEntity("/pacientes", Map.of(
+                "nome", "Paciente Metricas",
+                "dataDeNascimento", "1990-01-15",
+                "cartaoCidadao", "87654321",
+                "telefone", "912345678"), String.class);
+        assertEquals(HttpStatus.CREATED, criado.getStatusCode());
+        rest.getForEntity("/pacientes?nome=Paciente Metricas&cartaoCidadao=87654321", String.class);
+
+        String metricas = rest.getForObject("/actuator/prometheus", String.class);
+
+        assertTrue(metricas.contains("http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",filtros=\"cartaoCidadao+nome\",method=\"GET\""));
+        assertTrue(metricas.contains("filtros=\"nenhum\",method=\"POST\",outcome=\"SUCCESS\",status=\"201\",uri=\"/pacientes\""));
+        assertTrue(metricas.contains("spring_data_repository_invocations_seconds_bucket{exception=\"None\",method=\"findByNomeNormAndCartaoCidadao\""));
+        assertTrue(metricas.contains("simlab_repositorio_linhas_sum{method=\"findByNomeNormAndCartaoCidadao\",repository=\"PacienteRepository\"} 1.0"));
+        assertFalse(metricas.contains("simlab_repositorio_linhas_count{method=\"count\""));
+        assertTrue(metricas.contains("hikaricp_connections_active"));
+        assertTrue(metricas.contains("hibernate_query_executions_total"));
+    }
+}
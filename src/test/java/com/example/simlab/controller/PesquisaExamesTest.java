@@ -0,0 +1,79 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.index.PesquisaExames;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração de {@code GET /exames/search}: o índice acompanha as criações, atualizações
+ * e remoções (incluindo em cascata) confirmadas.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:pesquisa")
+@DisplayName("Testes da pesquisa de exames")
+public class PesquisaExamesTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private PesquisaExames pesquisa;
+
+    @Test
+    @DisplayName("Pesquisa por palavras do nome e da descrição e acompanha as alterações")
+    void devePesquisarEAcompanharAlteracoes() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!pesquisa.isPronto() && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertTrue(pesquisa.isPronto(), "o índice não ficou pronto a tempo");
+        Map<?, ?> paciente = rest.postForObject("/pacientes", Map.of(
+                "nome", "Paciente Pesquisa",
+                "dataDeNascimento", "1990-01-15",
+                "cartaoCidadao", "65432109",
+                "telefone", "912345678"), Map.class);
+        Object pacienteId = paciente.get("id");
+        criarExame("Hemograma completo", "Contagem de células sanguíneas", pacienteId);
+        criarExame("Glicemia em jejum", "Glicose no sangue após jejum", pacienteId);
+        Map<?, ?> colesterol = criarExame("Colesterol total", "Perfil lipídico", pacienteId);
+
+        assertEquals(List.of("Hemograma completo"), nomes("sanguínea"));
+        assertEquals(List.of("Colesterol total"), nomes("PERFIS LIPIDICOS"));
+        assertEquals(List.of("Glicemia em jejum"), nomes("sangue"));
+
+        rest.put("/exames/" + colesterol.get("id"), Map.of("nome", "Colesterol total", "descricao", "Lípidos no sangue", "preco", 4.5));
+        assertEquals(List.of(), nomes("perfil"));
+        assertEquals(List.of("Glicemia em jejum", "Colesterol total"), nomes("sangue"));
+
+        ResponseEntity<Map> invalida = rest.getForEntity("/exames/search?q=de", Map.class);
+        assertEquals(HttpStatus.BAD_REQUEST, invalida.getStatusCode());
+
+        rest.exchange("/pacientes/" + pacienteId, HttpMethod.DELETE, HttpEntity.EMPTY, Void.class);
+        assertEquals(List.of(), nomes("sangue"));
+    }
+
+    private Map<?, ?> criarExame(String nome, String descricao, Object pacienteId) {
+        ResponseEntity<Map> resposta = rest.postForEntity("/exames", Map.of(
+                "nome", nome, "descricao", descricao, "preco", 5.0, "pacienteId", pacienteId), Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody();
+    }
+
+    private List<String> nomes(String q) {
+        Map<?, ?> pagina = rest.getForObject("/exames/search?q={q}", Map.class, q);
+        return ((List<?>) pagina.get("content")).stream().map(exame -> (String) ((Map<?, ?>) exame).get("nome")).toList();
+    }
+}
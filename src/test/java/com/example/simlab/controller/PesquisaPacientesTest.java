@@ -0,0 +1,78 @@
+package com.example.simlab.controller;
+
+import com.example.simlab.index.PesquisaPacientes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração de {@code GET /pacientes/search}: o índice acompanha as criações (incluindo
+ * em lote), atualizações e remoções confirmadas.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:pesquisapacientes")
+@DisplayName("Testes da pesquisa de pacientes")
+public class PesquisaPacientesTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private PesquisaPacientes pesquisa;
+
+    @Test
+    @DisplayName("Pesquisa por nome, exata e aproximada, e acompanha as alterações")
+    void devePesquisarEAcompanharAlteracoes() throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!pesquisa.isPronto() && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        assertTrue(pesquisa.isPronto(), "o índice não ficou pronto a tempo");
+        Map<?, ?> sousa = criar("Maria da Conceição Sousa", "71234567");
+        rest.postForObject("/pacientes/lote", List.of(
+                paciente("Maria Conceição Santos", "71234568"),
+                paciente("Joana Ferreira", "71234569")), Map.class);
+
+        assertEquals(List.of("Maria da Conceição Sousa"), nomes("conceicao souza", false));
+        assertEquals(List.of(), nomes("Concesao Souza", false));
+        assertEquals(List.of("Maria Conceição Santos", "Maria da Conceição Sousa"), nomes("Maria Concesao", true));
+
+        rest.put("/pacientes/" + sousa.get("id"), Map.of(
+                "nome", "Maria Ferreira", "dataDeNascimento", "1990-01-15", "cartaoCidadao", "71234567", "telefone", "912345678"));
+        assertEquals(List.of("Maria Conceição Santos"), nomes("conceicao", false));
+        assertEquals(List.of("Joana Ferreira", "Maria Ferreira"), nomes("Ferreira", false));
+
+        ResponseEntity<Map> invalida = rest.getForEntity("/pacientes/search?q=123", Map.class);
+        assertEquals(HttpStatus.BAD_REQUEST, invalida.getStatusCode());
+
+        rest.exchange("/pacientes/" + sousa.get("id"), HttpMethod.DELETE, HttpEntity.EMPTY, Void.class);
+        assertEquals(List.of("Joana Ferreira"), nomes("Ferreira", false));
+    }
+
+    private Map<?, ?> criar(String nome, String cartaoCidadao) {
+        ResponseEntity<Map> resposta = rest.postForEntity("/pacientes", paciente(nome, cartaoCidadao), Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody();
+    }
+
+    private static Map<String, String> paciente(String nome, String cartaoCidadao) {
+        return Map.of("nome", nome, "dataDeNascimento", "1990-01-15", "cartaoCidadao", cartaoCidadao, "telefone", "912345678");
+    }
+
+    private List<String> nomes(String q, boolean fuzzy) {
+        Map<?, ?> pagina = rest.getForObject("/pacientes/search?q={q}&fuzzy={fuzzy}", Map.class, q, fuzzy);
+        return ((List<?>) pagina.get("content")).stream().map(paciente -> (String) ((Map<?, ?>) paciente).get("nome")).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.simlab.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração das versões de pacientes e exames: ETag nos GET, 304 com
+ * {@code If-None-Match} e 412 nas escritas com um {@code If-Match} desatualizado.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:versoes")
+@DisplayName("Testes de versões e pedidos condicionais")
+public class VersoesTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    @DisplayName("Devolve a versão como ETag e 304 sem corpo enquanto não muda")
+    void deveResponderNaoModificado() {
+        Object id = criarPaciente("Bartolomeu Ferraz", "61234567");
+
+        ResponseEntity<Map> lido = rest.getForEntity("/pacientes/" + id, Map.class);
+        assertEquals(HttpStatus.OK, lido.getStatusCode());
+        assertEquals("\"0\"", lido.getHeaders().getETag());
+
+        ResponseEntity<String> igual = get("/pacientes/" + id, HttpHeaders.IF_NONE_MATCH, "\"0\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, igual.getStatusCode());
+        assertNull(igual.getBody());
+        assertEquals("\"0\"", igual.getHeaders().getETag());
+
+        ResponseEntity<Map> atualizado = put("/pacientes/" + id, "\"0\"", paciente("Bartolomeu Ferraz", "61234567", "923456789"));
+        assertEquals(HttpStatus.OK, atualizado.getStatusCode());
+        assertEquals("\"1\"", atualizado.getHeaders().getETag());
+
+        assertEquals(HttpStatus.OK, get("/pacientes/" + id, HttpHeaders.IF_NONE_MATCH, "\"0\"").getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, get("/pacientes/" + id, HttpHeaders.IF_NONE_MATCH, "\"1\"").getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Recusa com 412 o PUT, o PATCH e o DELETE de um paciente com versão desatualizada")
+    void deveRecusarEscritasDesatualizadas() {
+        Object id = criarPaciente("Clotilde Meireles", "61234568");
+        assertEquals("\"1\"", patch("/pacientes/" + id, "\"0\"", "{\"telefone\": \"923456789\"}").getHeaders().getETag());
+
+        // um segundo cliente que ainda tem a versão 0 não sobrepõe a alteração
+        assertEquals(HttpStatus.PRECONDITION_FAILED,
+                put("/pacientes/" + id, "\"0\"", paciente("Clotilde Meireles", "61234568", "934567890")).getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, patch("/pacientes/" + id, "\"0\"", "{\"telefone\": \"934567890\"}").getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, patch("/pacientes/" + id, "W/\"1\"", "{\"telefone\": \"934567890\"}").getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, apagar("/pacientes/" + id, "\"0\""));
+        assertEquals("923456789", rest.getForObject("/pacientes/" + id, Map.class).get("telefone"));
+
+        assertEquals(HttpStatus.NO_CONTENT, apagar("/pacientes/" + id, "\"1\""));
+        assertEquals(HttpStatus.NOT_FOUND, apagar("/pacientes/" + id, "\"1\""));
+    }
+
+    @Test
+    @DisplayName("Versiona os exames e mantém os exames do paciente quando o DELETE condicional falha")
+    void deveVersionarExames() {
+        Object pacienteId = criarPaciente("Gaspar Nogueira", "61234569");
+        ResponseEntity<Map> criado = rest.postForEntity("/exames", Map.of(
+                "nome", "Ecocardiograma", "descricao", "Ecografia ao coração", "preco", 80, "pacienteId", pacienteId), Map.class);
+        assertEquals(HttpStatus.CREATED, criado.getStatusCode());
+        Object id = criado.getBody().get("id");
+
+        assertEquals("\"0\"", rest.getForEntity("/exames/" + id, Map.class).getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, get("/exames/" + id, HttpHeaders.IF_NONE_MATCH, "\"0\"").getStatusCode());
+        assertEquals("\"1\"", patch("/exames/" + id, "\"0\"", "{\"preco\": 85}").getHeaders().getETag());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, put("/exames/" + id, "\"0\"",
+                Map.of("nome", "Ecocardiograma", "descricao", "Ecografia ao coração", "preco", 90)).getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, apagar("/exames/" + id, "\"0\""));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, apagar("/pacientes/" + pacienteId, "\"5\""));
+        assertEquals(HttpStatus.OK, rest.getForEntity("/exames/" + id, Map.class).getStatusCode());
+
+        assertEquals(HttpStatus.NO_CONTENT, apagar("/exames/" + id, "\"1\""));
+        // o DELETE condicional não distingue o exame apagado do alterado: a pré-condição falhou
+        assertEquals(HttpStatus.PRECONDITION_FAILED, apagar("/exames/" + id, "\"1\""));
+        assertEquals(HttpStatus.NOT_FOUND, rest.exchange("/exames/" + id, HttpMethod.DELETE, HttpEntity.EMPTY, Void.class).getStatusCode());
+    }
+
+    private Object criarPaciente(String nome, String cartaoCidadao) {
+        ResponseEntity<Map> resposta = rest.postForEntity("/pacientes", paciente(nome, cartaoCidadao, "912345678"), Map.class);
+        assertEquals(HttpStatus.CREATED, resposta.getStatusCode());
+        return resposta.getBody().get("id");
+    }
+
+    private static Map<String, String> paciente(String nome, String cartaoCidadao, String telefone) {
+        return Map.of("nome", nome, "dataDeNascimento", "1975-06-21", "cartaoCidadao", cartaoCidadao, "telefone", telefone);
+    }
+
+    private ResponseEntity<String> get(String caminho, String cabecalho, String valor) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(cabecalho, valor);
+        return rest.exchange(caminho, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private ResponseEntity<Map> put(String caminho, String ifMatch, Object corpo) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(ifMatch);
+        return rest.exchange(caminho, HttpMethod.PUT, new HttpEntity<>(corpo, headers), Map.class);
+    }
+
+    private ResponseEntity<Map> patch(String caminho, String ifMatch, String documento) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(ifMatch);
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        return rest.exchange(caminho, HttpMethod.PATCH, new HttpEntity<>(documento, headers), Map.class);
+    }
+
+    private HttpStatus apagar(String caminho, String ifMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(ifMatch);
+        return (HttpStatus) rest.exchange(caminho, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class).getStatusCode();
+    }
+}
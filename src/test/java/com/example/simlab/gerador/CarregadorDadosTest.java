@@ -0,0 +1,57 @@
+package com.example.simlab.gerador;
+
+import com.example.simlab.dto.PacienteDTO;
+import com.example.simlab.dto.PacienteDetalheDTO;
+import com.example.simlab.model.Paciente;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import com.example.simlab.service.PacienteService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de integração do perfil {@code gerador}: carga por CSVREAD numa base de dados própria.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:gerador",
+        "simlab.gerador.pacientes=2000",
+        "simlab.gerador.exames-por-paciente=3"})
+@ActiveProfiles("gerador")
+@DisplayName("Testes do CarregadorDados")
+class CarregadorDadosTest {
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private ExameRepository exameRepository;
+
+    @Autowired
+    private PacienteService pacienteService;
+
+    @Test
+    @DisplayName("Carrega os dados gerados e as criações seguintes usam IDs acima dos carregados")
+    void deveCarregarDadosGerados() {
+        assertEquals(2000, pacienteRepository.count());
+        assertTrue(exameRepository.count() > 2000);
+        assertTrue(pacienteRepository.findAll().stream().anyMatch(p -> p.getEmail() == null));
+        Paciente carregado = pacienteRepository.findById(1L).orElseThrow();
+        assertTrue(pacienteService.listar(carregado.getNome().toUpperCase(), null, null, PageRequest.of(0, 10)).getContent().stream()
+                .anyMatch(p -> p.getCartaoCidadao().equals(carregado.getCartaoCidadao())));
+
+        String cc = "00000000";
+        assertFalse(pacienteRepository.existsByCartaoCidadao(cc));
+        PacienteDetalheDTO criado = pacienteService.criar(
+                new PacienteDTO("Paciente Novo", LocalDate.of(1990, 1, 1), cc, "912345678", null));
+
+        assertTrue(criado.getId() > 2000);
+    }
+}
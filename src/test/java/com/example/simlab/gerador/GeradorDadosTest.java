@@ -0,0 +1,132 @@
+package com.example.simlab.gerador;
+
+import com.example.simlab.model.Normalizacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários do gerador de dados sintéticos.
+ */
+@DisplayName("Testes do GeradorDados")
+class GeradorDadosTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    @DisplayName("A mesma semente gera os mesmos ficheiros, independentemente do tamanho dos blocos")
+    void deveSerDeterministico() throws IOException {
+        GeradorDados gerador = new GeradorDados(7, GeradorDados.DATA_REFERENCIA);
+        gerador.gerar(diretorio.resolve("a"), 1_000, 3, 1_000);
+        new GeradorDados(7, GeradorDados.DATA_REFERENCIA).gerar(diretorio.resolve("b"), 1_000, 3, 300);
+
+        assertEquals(Files.readAllLines(diretorio.resolve("a/pacientes-000.csv")), linhas(diretorio.resolve("b"), "pacientes", 4));
+        assertEquals(Files.readAllLines(diretorio.resolve("a/exames-000.csv")), linhas(diretorio.resolve("b"), "exames", 4));
+    }
+
+    @Test
+    @DisplayName("Sementes diferentes geram dados diferentes")
+    void deveVariarComASemente() throws IOException {
+        new GeradorDados(1, GeradorDados.DATA_REFERENCIA).gerar(diretorio.resolve("a"), 100, 3, 100);
+        new GeradorDados(2, GeradorDados.DATA_REFERENCIA).gerar(diretorio.resolve("b"), 100, 3, 100);
+
+        assertNotEquals(Files.readAllLines(diretorio.resolve("a/pacientes-000.csv")),
+                Files.readAllLines(diretorio.resolve("b/pacientes-000.csv")));
+    }
+
+    @Test
+    @DisplayName("Os pacientes gerados respeitam as validações da entidade")
+    void deveGerarPacientesValidos() throws IOException {
+        LocalDate referencia = GeradorDados.DATA_REFERENCIA;
+        ResumoGeracao resumo = new GeradorDados(42, referencia).gerar(diretorio, 20_000, 0, 20_000);
+
+        List<String> linhas = Files.readAllLines(resumo.getBlocos().get(0).getPacientes());
+        assertEquals(GeradorDados.CABECALHO_PACIENTES, linhas.get(0));
+        assertEquals(20_001, linhas.size());
+
+        Set<String> cartoes = new HashSet<>();
+        for (String linha : linhas.subList(1, linhas.size())) {
+            String[] campos = linha.split(",", -1);
+            assertFalse(campos[1].isBlank());
+            LocalDate nascimento = LocalDate.parse(campos[2]);
+            assertFalse(nascimento.isAfter(referencia));
+            assertTrue(nascimento.isAfter(referencia.minusYears(101)));
+            assertTrue(campos[3].matches("^[0-9]{8}$"), campos[3]);
+            assertTrue(campos[4].matches("^9[0-9]{8}$"), campos[4]);
+            assertTrue(campos[5].isEmpty() || campos[5].matches("^[a-z]+\\.[a-z]+[0-9]+@exemplo\\.pt$"), campos[5]);
+            assertTrue(cartoes.add(campos[3]), "CC repetido: " + campos[3]);
+            assertEquals(Normalizacao.normalizar(campos[1]), campos[6]);
+        }
+    }
+
+    @Test
+    @DisplayName("O Cartão de Cidadão é distinto para IDs distintos")
+    void deveGerarCartoesUnicos() {
+        GeradorDados gerador = new GeradorDados(42, GeradorDados.DATA_REFERENCIA);
+        Set<String> cartoes = new HashSet<>();
+        for (long id = 1; id <= 200_000; id++) {
+            assertTrue(cartoes.add(gerador.cartaoCidadao(id)));
+        }
+        assertEquals(8, gerador.cartaoCidadao(GeradorDados.CARTOES_POSSIVEIS).length());
+    }
+
+    @Test
+    @DisplayName("O número de exames por paciente é assimétrico, com a média pedida")
+    void deveGerarExamesAssimetricos() throws IOException {
+        ResumoGeracao resumo = new GeradorDados(42, GeradorDados.DATA_REFERENCIA).gerar(diretorio, 20_000, 5, 20_000);
+
+        double media = (double) resumo.getExames() / resumo.getPacientes();
+        assertEquals(5, media, 0.25);
+
+        int[] porPaciente = new int[20_001];
+        Set<String> nomes = new HashSet<>();
+        List<String> linhas = Files.readAllLines(resumo.getBlocos().get(0).getExames());
+        for (String linha : linhas.subList(1, linhas.size())) {
+            String[] campos = linha.split(",", -1);
+            assertTrue(nomes.add(campos[1]), "Nome de exame repetido: " + campos[1]);
+            assertEquals(Normalizacao.normalizar(campos[1]), campos[5]);
+            assertTrue(Double.parseDouble(campos[3]) > 0);
+            porPaciente[Integer.parseInt(campos[4])]++;
+        }
+        int[] ordenados = Arrays.stream(porPaciente, 1, porPaciente.length).sorted().toArray();
+        int mediana = ordenados[ordenados.length / 2];
+        assertTrue(mediana < media, "A mediana deve ficar abaixo da média numa distribuição assimétrica");
+        assertTrue(ordenados[ordenados.length - 1] > 5 * media);
+        assertTrue(ordenados[ordenados.length - 1] <= GeradorDados.MAXIMO_EXAMES_POR_PACIENTE);
+    }
+
+    @Test
+    @DisplayName("Parâmetros inválidos são rejeitados")
+    void deveRejeitarParametrosInvalidos() {
+        GeradorDados gerador = new GeradorDados(42, GeradorDados.DATA_REFERENCIA);
+
+        assertThrows(IllegalArgumentException.class, () -> gerador.gerar(diretorio, GeradorDados.CARTOES_POSSIVEIS + 1, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> gerador.gerar(diretorio, 10, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> gerador.gerar(diretorio, 10, 1, 0));
+    }
+
+    /**
+     * Junta as linhas dos ficheiros de vários blocos, com um só cabeçalho.
+     */
+    private static List<String> linhas(Path diretorio, String prefixo, int blocos) throws IOException {
+        List<String> todas = new ArrayList<>();
+        for (int i = 0; i < blocos; i++) {
+            List<String> linhas = Files.readAllLines(diretorio.resolve(String.format("%s-%03d.csv", prefixo, i)));
+            todas.addAll(i == 0 ? linhas : linhas.subList(1, linhas.size()));
+        }
+        return todas;
+    }
+}
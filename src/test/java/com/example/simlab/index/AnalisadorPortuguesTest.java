@@ -0,0 +1,36 @@
+package com.example.simlab.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do AnalisadorPortugues")
+public class AnalisadorPortuguesTest {
+
+    @Test
+    @DisplayName("Deve ignorar acentos, maiúsculas, palavras vazias e números isolados")
+    void deveNormalizarTexto() {
+
+        assertEquals(List.of("contagem", "celul", "sanguine"), AnalisadorPortugues.termos("Contagem de CÉLULAS sanguíneas"));
+        assertEquals(List.of("hemogram", "complet"), AnalisadorPortugues.termos("Hemograma completo #12345"));
+        assertEquals(List.of("vitamin", "b12"), AnalisadorPortugues.termos("Vitamina B12"));
+        assertTrue(AnalisadorPortugues.termos("de 123").isEmpty());
+        assertTrue(AnalisadorPortugues.termos(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Singular e plural, masculino e feminino, devem dar o mesmo radical")
+    void deveReduzirAoRadical() {
+
+        assertEquals(AnalisadorPortugues.radical("analise"), AnalisadorPortugues.radical("analises"));
+        assertEquals(AnalisadorPortugues.radical("funcao"), AnalisadorPortugues.radical("funcoes"));
+        assertEquals(AnalisadorPortugues.radical("renal"), AnalisadorPortugues.radical("renais"));
+        assertEquals(AnalisadorPortugues.radical("perfil"), AnalisadorPortugues.radical("perfis"));
+        assertEquals(AnalisadorPortugues.radical("valor"), AnalisadorPortugues.radical("valores"));
+        assertEquals(AnalisadorPortugues.radical("completo"), AnalisadorPortugues.radical("completas"));
+        assertEquals("tsh", AnalisadorPortugues.radical("tsh"));
+    }
+}
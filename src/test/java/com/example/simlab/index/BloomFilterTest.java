@@ -0,0 +1,51 @@
+package com.example.simlab.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do BloomFilter")
+public class BloomFilterTest {
+
+    @Test
+    @DisplayName("Nunca deve dar falsos negativos")
+    void naoDeveDarFalsosNegativos() {
+
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(String.format("%08d", i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.talvezContenha(String.format("%08d", i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter os falsos positivos perto da probabilidade configurada")
+    void deveManterFalsosPositivosBaixos() {
+
+        BloomFilter filtro = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(String.format("%08d", i));
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filtro.talvezContenha(String.format("%08d", i))) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+        assertEquals(7, filtro.getFuncoes());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar dimensionamento inválido")
+    void deveRejeitarDimensionamentoInvalido() {
+
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.simlab.index;
+
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do FiltroUnicidade")
+public class FiltroUnicidadeTest {
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private ExameRepository exameRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FiltroUnicidade filtro;
+
+    @BeforeEach
+    void setUp() {
+        // reconstrução síncrona, para o teste controlar o momento em que acontece
+        filtro = new FiltroUnicidade(pacienteRepository, exameRepository, transactionManager, Runnable::run, 0.01);
+        when(exameRepository.streamNomes()).thenAnswer(inv -> Stream.empty());
+    }
+
+    @AfterEach
+    void limparTransacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve perder um valor registado antes da reconstrução e gravado depois da leitura")
+    void naoDevePerderValorGravadoDuranteReconstrucao() {
+
+        when(pacienteRepository.streamCartoesCidadao()).thenAnswer(inv -> Stream.of("11111111"));
+        filtro.construir();
+        assertTrue(filtro.isPronto());
+
+        // o CC entra no filtro numa transação que só termina depois de a reconstrução ler a bd
+        TransactionSynchronizationManager.initSynchronization();
+        filtro.adicionarCartaoCidadao("22222222");
+        filtro.construir();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(filtro.talvezCartaoCidadao("11111111"));
+        assertTrue(filtro.talvezCartaoCidadao("22222222"));
+        assertFalse(filtro.talvezCartaoCidadao("33333333"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.simlab.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes da FoneticaPortuguesa")
+public class FoneticaPortuguesaTest {
+
+    @Test
+    @DisplayName("Grafias que soam igual devem dar a mesma chave")
+    void deveIgualarGrafias() {
+
+        assertEquals(FoneticaPortuguesa.chave("Sousa"), FoneticaPortuguesa.chave("Souza"));
+        assertEquals(FoneticaPortuguesa.chave("Conceição"), FoneticaPortuguesa.chave("CONCEICAO"));
+        assertEquals(FoneticaPortuguesa.chave("Luiz Felipe"), FoneticaPortuguesa.chave("Luis Phelippe"));
+        assertEquals(FoneticaPortuguesa.chave("Thaís Cristina"), FoneticaPortuguesa.chave("Tais Kristina"));
+        assertEquals(FoneticaPortuguesa.chave("Henrique"), FoneticaPortuguesa.chave("Enrike"));
+        assertNotEquals(FoneticaPortuguesa.chave("Silva"), FoneticaPortuguesa.chave("Sousa"));
+    }
+
+    @Test
+    @DisplayName("Deve separar as palavras por um espaço e ignorar o que não são letras")
+    void deveSepararPalavras() {
+
+        assertEquals("ana sousa lima", FoneticaPortuguesa.chave("  Ana   Souza-Lima 2 "));
+        assertEquals("", FoneticaPortuguesa.chave("123 -"));
+        assertEquals("", FoneticaPortuguesa.chave(null));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.simlab.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do IndiceInvertido")
+public class IndiceInvertidoTest {
+
+    @Test
+    @DisplayName("Deve devolver os documentos com todos os termos, do mais para o menos relevante")
+    void devePesquisarPorRelevancia() {
+
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(1, Map.of("perfil", 1, "lipid", 1));
+        indice.adicionar(2, Map.of("colesterol", 2, "perfil", 1, "lipid", 1));
+        indice.adicionar(3, Map.of("glicos", 1, "sangu", 1));
+        indice.adicionar(4, Map.of("perfil", 3, "lipid", 1));
+
+        IndiceInvertido.Resultado resultado = indice.pesquisar(List.of("lipid", "perfil"), 0, 10);
+        assertEquals(3, resultado.total());
+        assertArrayEquals(new long[]{4, 1, 2}, resultado.ids());
+
+        assertEquals(0, indice.pesquisar(List.of("perfil", "sangu"), 0, 10).total());
+        assertEquals(0, indice.pesquisar(List.of("inexistente"), 0, 10).total());
+    }
+
+    @Test
+    @DisplayName("Deve paginar pela ordem de relevância e desempatar pelo ID")
+    void devePaginar() {
+
+        IndiceInvertido indice = new IndiceInvertido();
+        for (long id = 100; id >= 1; id--) {
+            indice.adicionar(id, Map.of("exam", 1));
+        }
+
+        IndiceInvertido.Resultado pagina = indice.pesquisar(List.of("exam"), 20, 10);
+        assertEquals(100, pagina.total());
+        assertArrayEquals(new long[]{21, 22, 23, 24, 25, 26, 27, 28, 29, 30}, pagina.ids());
+        assertEquals(0, indice.pesquisar(List.of("exam"), 100, 10).ids().length);
+    }
+
+    @Test
+    @DisplayName("Adicionar e remover devem ser idempotentes e manter a contagem de documentos")
+    void deveAtualizarIncrementalmente() {
+
+        IndiceInvertido indice = new IndiceInvertido();
+        indice.adicionar(1, Map.of("hemogram", 2));
+        indice.adicionar(1, Map.of("hemogram", 2));
+        indice.adicionar(2, Map.of("hemogram", 2, "complet", 2));
+        assertEquals(2, indice.getDocumentos());
+
+        indice.remover(2, List.of("hemogram", "complet"));
+        indice.remover(2, List.of("hemogram", "complet"));
+        assertEquals(1, indice.getDocumentos());
+        assertEquals(1, indice.getTermos());
+
+        indice.remover(1);
+        assertEquals(0, indice.getDocumentos());
+        assertEquals(0, indice.pesquisar(List.of("hemogram"), 0, 10).total());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.simlab.index;
+
+import com.example.simlab.model.Normalizacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do IndiceSugestoes")
+public class IndiceSugestoesTest {
+
+    @Test
+    @DisplayName("Deve sugerir os nomes mais frequentes do prefixo, sem distinguir maiúsculas nem acentos")
+    void deveSugerirPorPopularidade() {
+
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.colocar(1, "Hemograma");
+        indice.colocar(2, "Hemoglobina Glicada");
+        indice.colocar(3, "hemoglobina glicada");
+        indice.colocar(4, "Hemocultura");
+        indice.colocar(5, "Glicemia");
+
+        assertEquals(List.of(new Sugestao("Hemoglobina Glicada", 2), new Sugestao("Hemocultura", 1), new Sugestao("Hemograma", 1)),
+                indice.sugerir("HEMO", 10));
+        assertEquals(List.of(new Sugestao("Hemoglobina Glicada", 2)), indice.sugerir("hemo", 1));
+        assertEquals(List.of(new Sugestao("Hemoglobina Glicada", 2)), indice.sugerir("Hemoglobina  gli", 10));
+        assertEquals(List.of(new Sugestao("Glicemia", 1)), indice.sugerir("glí", 10));
+        assertEquals(List.of(), indice.sugerir("hemoz", 10));
+        assertEquals(4, indice.getEntradas());
+    }
+
+    @Test
+    @DisplayName("Colocar o mesmo nome duas vezes não deve contar duas vezes, e mudar o nome deve mover o registo")
+    void deveSerIdempotente() {
+
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.colocar(1, "Ana Silva");
+        indice.colocar(1, "Ana Silva");
+        indice.colocar(2, "Ana Sousa");
+        indice.colocar(2, "Ana Sousa");
+        assertEquals(2, indice.getRegistos());
+        assertEquals(List.of(new Sugestao("Ana Silva", 1), new Sugestao("Ana Sousa", 1)), indice.sugerir("ana", 10));
+
+        indice.colocar(1, "Ana Sousa");
+        assertEquals(List.of(new Sugestao("Ana Sousa", 2)), indice.sugerir("ana", 10));
+        assertEquals(1, indice.getEntradas());
+
+        indice.remover(1);
+        indice.remover(1);
+        indice.remover(2);
+        assertEquals(List.of(), indice.sugerir("", 10));
+        assertEquals(0, indice.getRegistos());
+        assertEquals(0, indice.getEntradas());
+    }
+
+    @Test
+    @DisplayName("As sugestões devem coincidir com uma pesquisa exaustiva após inserções, mudanças e remoções")
+    void deveCoincidirComPesquisaExaustiva() {
+
+        String[] nomes = {"Ana", "Ana Maria", "Ana Marta", "Andre", "Andreia", "Antonio", "Antonia", "Bruno", "Beatriz", "B"};
+        Random aleatorio = new Random(42);
+        IndiceSugestoes indice = new IndiceSugestoes();
+        Map<Long, String> registos = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + aleatorio.nextInt(300);
+            if (aleatorio.nextInt(4) == 0) {
+                indice.remover(id);
+                registos.remove(id);
+            } else {
+                String nome = nomes[aleatorio.nextInt(nomes.length)];
+                indice.colocar(id, nome);
+                registos.put(id, nome);
+            }
+            if (i % 97 == 0) {
+                for (String prefixo : List.of("", "a", "an", "ana m", "andr", "ant", "b", "bz")) {
+                    assertEquals(esperado(registos, prefixo), indice.sugerir(prefixo, 10), prefixo);
+                }
+            }
+        }
+        assertEquals(registos.size(), indice.getRegistos());
+    }
+
+    @Test
+    @DisplayName("A carga inicial deve dar as mesmas sugestões que as inserções uma a uma")
+    void deveCarregarEmLote() {
+
+        IndiceSugestoes carregado = new IndiceSugestoes();
+        IndiceSugestoes inserido = new IndiceSugestoes();
+        for (int i = 1; i <= 1000; i++) {
+            String nome = "Exame " + (i % 37) + " tipo " + (i % 5);
+            carregado.carregar(i, nome);
+            inserido.colocar(i, nome);
+        }
+        carregado.concluirCarga();
+
+        for (String prefixo : List.of("", "exame 1", "exame 3", "exame 36 tipo ")) {
+            assertEquals(inserido.sugerir(prefixo, 10), carregado.sugerir(prefixo, 10));
+        }
+        assertEquals(10, carregado.sugerir("exame", 10).size());
+    }
+
+    private static List<Sugestao> esperado(Map<Long, String> registos, String prefixo) {
+        Map<String, Integer> contagem = new TreeMap<>();
+        for (String nome : registos.values()) {
+            if (Normalizacao.normalizar(nome).startsWith(prefixo)) {
+                contagem.merge(nome, 1, Integer::sum);
+            }
+        }
+        List<Sugestao> sugestoes = new ArrayList<>();
+        contagem.forEach((nome, n) -> sugestoes.add(new Sugestao(nome, n)));
+        sugestoes.sort(Comparator.comparingInt(Sugestao::ocorrencias).reversed()
+                .thenComparing(sugestao -> Normalizacao.normalizar(sugestao.texto())));
+        return sugestoes.subList(0, Math.min(10, sugestoes.size()));
+    }
+}
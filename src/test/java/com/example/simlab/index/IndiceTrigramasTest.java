@@ -0,0 +1,96 @@
+package com.example.simlab.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do IndiceTrigramas")
+public class IndiceTrigramasTest {
+
+    @Test
+    @DisplayName("A pesquisa exata deve exigir todas as palavras, em qualquer posição do nome")
+    void devePesquisarPalavras() {
+
+        IndiceTrigramas indice = indice("Maria Sousa", "Ana Maria Sousa Pereira", "Mariana Sousa", "Maria Silva");
+
+        IndiceTrigramas.Resultado resultado = indice.pesquisar(FoneticaPortuguesa.chave("Souza Maria"), false, 0, 10);
+        assertEquals(2, resultado.total());
+        // o nome mais curto é o mais parecido
+        assertArrayEquals(new long[]{1, 2}, resultado.ids());
+        assertEquals(0, indice.pesquisar(FoneticaPortuguesa.chave("Mari"), false, 0, 10).total());
+    }
+
+    @Test
+    @DisplayName("A pesquisa aproximada deve tolerar erros de escrita e ordenar por semelhança")
+    void devePesquisarAproximado() {
+
+        IndiceTrigramas indice = indice("Maria da Conceição", "Conceição Silva", "Joana Ferreira", "Maria Conceição Santos");
+
+        // "Conseicao" soa igual a "Conceição"; "Concesao" é um erro de escrita
+        assertEquals(2, indice.pesquisar(FoneticaPortuguesa.chave("Maria Conseicao"), false, 0, 10).total());
+        assertEquals(0, indice.pesquisar(FoneticaPortuguesa.chave("Maria Concesao"), false, 0, 10).total());
+        IndiceTrigramas.Resultado resultado = indice.pesquisar(FoneticaPortuguesa.chave("Maria Concesao"), true, 0, 10);
+        assertArrayEquals(new long[]{1, 4}, resultado.ids());
+        assertEquals(0, indice.pesquisar(FoneticaPortuguesa.chave("Xavier"), true, 0, 10).total());
+    }
+
+    @Test
+    @DisplayName("Os documentos com a mesma chave devem ficar juntos, por ordem de ID")
+    void deveAgruparPorChave() {
+
+        IndiceTrigramas indice = indice("Rui Sousa", "Rui Souza Lima", "Rui Souza", "Rui Sousa Lima");
+
+        IndiceTrigramas.Resultado resultado = indice.pesquisar(FoneticaPortuguesa.chave("Rui Sousa"), false, 0, 10);
+        assertEquals(4, resultado.total());
+        assertArrayEquals(new long[]{1, 3, 2, 4}, resultado.ids());
+        assertArrayEquals(new long[]{3, 2}, indice.pesquisar(FoneticaPortuguesa.chave("Rui Sousa"), false, 1, 2).ids());
+        assertEquals(2, indice.getChaves());
+    }
+
+    @Test
+    @DisplayName("Adicionar, atualizar e remover devem ser idempotentes, mesmo depois de compactar")
+    void deveAtualizarIncrementalmente() {
+
+        IndiceTrigramas indice = new IndiceTrigramas();
+        for (long id = 1; id <= 3000; id++) {
+            indice.adicionar(id, chave(id));
+        }
+        indice.adicionar(7, "rui sousa");
+        indice.adicionar(7, "rui sousa");
+        for (long id = 1; id <= 3000; id++) {
+            if (id != 7 && (id % 2 == 1 || id > 1000)) {
+                indice.remover(id);
+                indice.remover(id);
+            }
+        }
+        indice.adicionar(5000, "paciente novo par");
+
+        assertEquals(502, indice.getDocumentos());
+        assertEquals(502, indice.getChaves());
+        assertEquals(501, indice.pesquisar("par", false, 0, 10).total());
+        assertArrayEquals(new long[]{2}, indice.pesquisar(chave(2), false, 0, 10).ids());
+        assertArrayEquals(new long[]{5000}, indice.pesquisar("paciente novo", false, 0, 10).ids());
+        assertArrayEquals(new long[]{7}, indice.pesquisar("rui sousa", false, 0, 10).ids());
+        assertEquals(0, indice.pesquisar("impar", false, 0, 10).total());
+    }
+
+    /**
+     * Chave distinta para cada ID: o ID escrito em letras e a paridade.
+     */
+    private static String chave(long id) {
+        StringBuilder letras = new StringBuilder();
+        for (long resto = id; resto > 0; resto = (resto - 1) / 26) {
+            letras.append((char) ('a' + (resto - 1) % 26));
+        }
+        return "paciente " + letras + (id % 2 == 0 ? " par" : " impar");
+    }
+
+    private static IndiceTrigramas indice(String... nomes) {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        for (int i = 0; i < nomes.length; i++) {
+            indice.adicionar(i + 1, FoneticaPortuguesa.chave(nomes[i]));
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.simlab.metricas;
+
+import com.example.simlab.dto.ConsultaLentaDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Testes do RegistoConsultasLentas")
+public class RegistoConsultasLentasTest {
+
+    private final RegistoConsultasLentas registo = new RegistoConsultasLentas(Runnable::run, 100, 2);
+
+    @Test
+    @DisplayName("Deve guardar a pior execução de cada instrução e contar as ocorrências")
+    void deveGuardarPiorExecucao() {
+
+        registo.registar("select 1", List.of("a"), 150, () -> "plano a");
+        registo.registar("select 1", List.of("b"), 300, () -> "plano b");
+        registo.registar("select 1", List.of("c"), 200, () -> "plano c");
+
+        List<ConsultaLentaDTO> consultas = registo.listar();
+        assertEquals(1, consultas.size());
+        assertEquals(300, consultas.get(0).getDuracaoMs());
+        assertEquals(List.of("b"), consultas.get(0).getParametros());
+        assertEquals("plano b", consultas.get(0).getPlano());
+        assertEquals(3, consultas.get(0).getOcorrencias());
+    }
+
+    @Test
+    @DisplayName("Cheio, deve trocar a instrução mais rápida por uma mais lenta")
+    void deveTrocarMaisRapida() {
+
+        registo.registar("select 1", List.of(), 150, null);
+        registo.registar("select 2", List.of(), 400, null);
+        registo.registar("select 3", List.of(), 120, null);
+        registo.registar("select 4", List.of(), 250, null);
+
+        List<ConsultaLentaDTO> consultas = registo.listar();
+        assertEquals(List.of("select 2", "select 4"), consultas.stream().map(ConsultaLentaDTO::getSql).toList());
+        assertNull(consultas.get(0).getPlano());
+
+        registo.limpar();
+        assertTrue(registo.listar().isEmpty());
+    }
+}
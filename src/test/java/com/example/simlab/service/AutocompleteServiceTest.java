@@ -0,0 +1,64 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.SugestaoDTO;
+import com.example.simlab.index.Sugestao;
+import com.example.simlab.index.SugestoesExames;
+import com.example.simlab.index.SugestoesPacientes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do AutocompleteService")
+public class AutocompleteServiceTest {
+
+    @Mock
+    private SugestoesPacientes pacientes;
+
+    @Mock
+    private SugestoesExames exames;
+
+    @Test
+    @DisplayName("Sem tipo, deve juntar as sugestões de pacientes e exames por popularidade")
+    void deveJuntarSugestoes() {
+
+        when(pacientes.sugerir("an", 3)).thenReturn(List.of(new Sugestao("Ana Silva", 4), new Sugestao("Ângela Sousa", 1)));
+        when(exames.sugerir("an", 3)).thenReturn(List.of(new Sugestao("Análise de Urina", 2), new Sugestao("Anticorpos", 1)));
+
+        List<SugestaoDTO> resultado = new AutocompleteService(pacientes, exames).sugerir("an", null, 3);
+
+        assertEquals(List.of("Ana Silva", "Análise de Urina", "Ângela Sousa"), resultado.stream().map(SugestaoDTO::getTexto).toList());
+        assertEquals(List.of("paciente", "exame", "paciente"), resultado.stream().map(SugestaoDTO::getTipo).toList());
+    }
+
+    @Test
+    @DisplayName("Com tipo, deve consultar só o índice desse tipo")
+    void deveFiltrarPorTipo() {
+
+        when(exames.sugerir("he", 10)).thenReturn(List.of(new Sugestao("Hemograma", 1)));
+
+        List<SugestaoDTO> resultado = new AutocompleteService(pacientes, exames).sugerir("he", "EXAME", 10);
+
+        assertEquals(1, resultado.size());
+        assertEquals("exame", resultado.get(0).getTipo());
+        verifyNoInteractions(pacientes);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar prefixo vazio e tipo desconhecido")
+    void deveRejeitarPedidosInvalidos() {
+
+        AutocompleteService service = new AutocompleteService(pacientes, exames);
+
+        assertThrows(IllegalArgumentException.class, () -> service.sugerir("  ", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.sugerir("he", "medico", 10));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.EstatisticasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do EstatisticasCacheService")
+public class EstatisticasCacheServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private CacheRegionStatistics pacientes;
+
+    @Test
+    @DisplayName("Deve calcular a taxa de acerto por região e no total")
+    void deveCalcularTaxaDeAcerto() {
+
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"pacientes"});
+        when(statistics.getCacheRegionStatistics("pacientes")).thenReturn(pacientes);
+        when(pacientes.getHitCount()).thenReturn(3L);
+        when(pacientes.getMissCount()).thenReturn(1L);
+        when(pacientes.getPutCount()).thenReturn(1L);
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(3L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(1L);
+
+        List<EstatisticasCacheDTO> resultado = new EstatisticasCacheService(entityManagerFactory).listar();
+
+        assertEquals(2, resultado.size());
+        assertEquals("pacientes", resultado.get(0).getRegiao());
+        assertEquals(0.75, resultado.get(0).getTaxaAcerto());
+        assertEquals("total", resultado.get(1).getRegiao());
+        assertEquals(0.75, resultado.get(1).getTaxaAcerto());
+    }
+
+    @Test
+    @DisplayName("Deve devolver taxa zero quando ainda não houve leituras")
+    void deveDevolverTaxaZeroSemLeituras() {
+
+        assertEquals(0.0, new EstatisticasCacheDTO("exames", 0, 0, 0).getTaxaAcerto());
+    }
+}
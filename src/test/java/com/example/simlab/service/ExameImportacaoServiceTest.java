@@ -0,0 +1,152 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.LoteResultadoDTO;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.model.Exame;
+import com.example.simlab.model.Paciente;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do ExameImportacaoService")
+public class ExameImportacaoServiceTest {
+
+    @Mock
+    private ExameRepository exameRepository;
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FiltroUnicidade unicidade;
+
+    private ExameImportacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExameImportacaoService(exameRepository, pacienteRepository, entityManager,
+                new ObjectMapper(), validator, transactionManager, unicidade, 2);
+    }
+
+    private static InputStream ndjson(String... linhas) {
+        return new ByteArrayInputStream(String.join("\n", linhas).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve importar em blocos resolvendo pacientes com uma consulta por bloco")
+    void deveImportarEmBlocos() throws Exception {
+
+        when(unicidade.talvezNomeExame(any())).thenAnswer(inv -> "Glicemia".equals(inv.getArgument(0)));
+        when(exameRepository.findNomesExistentes(any())).thenReturn(List.of());
+        when(pacienteRepository.findIdsExistentes(any())).thenReturn(List.of(1L));
+        when(pacienteRepository.getReferenceById(1L)).thenReturn(new Paciente());
+
+        LoteResultadoDTO resultado = service.importar(ndjson(
+                "{\"nome\":\"Hemograma\",\"descricao\":\"Sangue\",\"preco\":10.0,\"pacienteId\":1}",
+                "{\"nome\":\"Glicemia\",\"descricao\":\"Sangue\",\"preco\":5.0,\"pacienteId\":1}",
+                "{\"nome\":\"Colesterol\",\"descricao\":\"Sangue\",\"preco\":7.5,\"pacienteId\":1}"
+        ));
+
+        assertEquals(3, resultado.getRecebidos());
+        assertEquals(3, resultado.getCriados());
+        assertEquals(0, resultado.getRejeitados());
+        verify(pacienteRepository, times(2)).findIdsExistentes(any());
+        // só o primeiro bloco tem um nome que o filtro não exclui
+        verify(exameRepository, times(1)).findNomesExistentes(Set.of("Glicemia"));
+        verify(unicidade, times(3)).adicionarNomeExame(any());
+        verify(pacienteRepository, never()).findById(any());
+        verify(exameRepository, times(2)).saveAll(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar linhas com nome duplicado ou paciente inexistente")
+    void deveRejeitarLinhasInvalidas() throws Exception {
+
+        when(unicidade.talvezNomeExame(any())).thenReturn(true);
+        when(exameRepository.findNomesExistentes(any())).thenReturn(List.of("Hemograma"));
+        when(pacienteRepository.findIdsExistentes(any())).thenReturn(List.of(1L));
+
+        LoteResultadoDTO resultado = service.importar(ndjson(
+                "{\"nome\":\"Hemograma\",\"descricao\":\"Sangue\",\"preco\":10.0,\"pacienteId\":1}",
+                "{\"nome\":\"Glicemia\",\"descricao\":\"Sangue\",\"preco\":5.0,\"pacienteId\":999}"
+        ));
+
+        assertEquals(2, resultado.getRecebidos());
+        assertEquals(0, resultado.getCriados());
+        assertEquals(2, resultado.getRejeitados());
+        assertTrue(resultado.getErros().get(0).getMensagem().contains("Existe exame com esse nome"));
+        assertTrue(resultado.getErros().get(1).getMensagem().contains("Paciente não encontrado"));
+        verify(exameRepository).saveAll(argThat(lista -> !((List<Exame>) lista).iterator().hasNext()));
+    }
+
+    @Test
+    @DisplayName("Deve manter o erro das linhas já rejeitadas quando o bloco é revertido")
+    void deveReclassificarSoLinhasGravadasNoBlocoRevertido() throws Exception {
+
+        when(unicidade.talvezNomeExame(any())).thenReturn(false);
+        when(pacienteRepository.findIdsExistentes(any())).thenReturn(List.of(1L));
+        when(pacienteRepository.getReferenceById(1L)).thenReturn(new Paciente());
+        doThrow(new DataIntegrityViolationException("nome duplicado")).when(exameRepository).flush();
+
+        LoteResultadoDTO resultado = service.importar(ndjson(
+                "{\"nome\":\"Hemograma\",\"descricao\":\"Sangue\",\"preco\":10.0,\"pacienteId\":999}",
+                "{\"nome\":\"Glicemia\",\"descricao\":\"Sangue\",\"preco\":5.0,\"pacienteId\":1}"
+        ));
+
+        assertEquals(0, resultado.getCriados());
+        assertEquals(2, resultado.getRejeitados());
+        assertEquals(1, resultado.getErros().get(0).getLinha());
+        assertTrue(resultado.getErros().get(0).getMensagem().contains("Paciente não encontrado"));
+        assertEquals(2, resultado.getErros().get(1).getLinha());
+        assertTrue(resultado.getErros().get(1).getMensagem().startsWith("Bloco revertido"));
+    }
+
+    @Test
+    @DisplayName("Deve parar a importação na linha com JSON malformado")
+    void devePararEmJsonMalformado() throws Exception {
+
+        LoteResultadoDTO resultado = service.importar(ndjson(
+                "{\"nome\":\"Hemograma\",\"descricao\":\"Sangue\",\"preco\":\"caro\",\"pacienteId\":1}",
+                "{\"nome\": "
+        ));
+
+        assertEquals(2, resultado.getRecebidos());
+        assertEquals(0, resultado.getCriados());
+        assertEquals(2, resultado.getRejeitados());
+        assertTrue(resultado.getErros().get(0).getMensagem().startsWith("Exame inválido"));
+        assertTrue(resultado.getErros().get(1).getMensagem().startsWith("JSON malformado"));
+        verify(exameRepository, never()).saveAll(any());
+    }
+}
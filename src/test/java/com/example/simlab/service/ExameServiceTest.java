@@ -3,30 +3,51 @@ package com.example.simlab.service;
 import com.example.simlab.dto.ExameDTO;
 import com.example.simlab.dto.ExameDetalheDTO;
 import com.example.simlab.dto.ExameUpdateDTO;
+import com.example.simlab.dto.JanelaDTO;
 import com.example.simlab.exception.DuplicadoException;
 import com.example.simlab.exception.RecursoNaoEncontradoException;
+import com.example.simlab.exception.VersaoDesatualizadaException;
+import com.example.simlab.index.AlteracoesDiretas;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.index.PesquisaExames;
 import com.example.simlab.model.Exame;
 import com.example.simlab.model.Paciente;
 import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.ExameResumo;
 import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,12 +60,26 @@ public class ExameServiceTest {
     @Mock
     private PacienteRepository pacienteRepository;
 
+    @Mock
+    private FiltroUnicidade unicidade;
+
+    @Mock
+    private PesquisaExames pesquisa;
+
+    @Mock
+    private AlteracoesDiretas alteracoes;
+
+    @Spy
+    private LeitorMergePatch leitorPatch = new LeitorMergePatch(new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+
     @InjectMocks
     private ExameService service;
 
     private ExameDTO exameDTO;
     private ExameUpdateDTO exameUpdateDTO;
     private Exame exame;
+    private ExameResumo exameResumo;
     private Paciente paciente;
 
     @BeforeEach
@@ -78,6 +113,8 @@ public class ExameServiceTest {
                 paciente
         );
         exame.setId(1L);
+
+        exameResumo = new SpelAwareProxyProjectionFactory().createProjection(ExameResumo.class, exame);
     }
 
     //TESTES DO MÉTODO CRIAR
@@ -86,9 +123,10 @@ public class ExameServiceTest {
     @DisplayName("Deve criar exame com sucesso")
     void deveCriarExameComSucesso() {
 
+        when(unicidade.talvezNomeExame(exameDTO.getNome())).thenReturn(true);
         when(exameRepository.existsByNome(exameDTO.getNome())).thenReturn(false);
         when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
-        when(exameRepository.save(any(Exame.class))).thenReturn(exame);
+        when(exameRepository.saveAndFlush(any(Exame.class))).thenReturn(exame);
 
         ExameDetalheDTO resultado = service.criar(exameDTO);
 
@@ -100,13 +138,29 @@ public class ExameServiceTest {
 
         verify(exameRepository, times(1)).existsByNome("Hemograma Completo");
         verify(pacienteRepository, times(1)).findById(1L);
-        verify(exameRepository, times(1)).save(any(Exame.class));
+        verify(exameRepository, times(1)).saveAndFlush(any(Exame.class));
+        verify(unicidade).adicionarNomeExame("Hemograma Completo");
+    }
+
+    @Test
+    @DisplayName("Deve criar exame sem verificar o nome na base de dados quando o filtro o exclui")
+    void deveCriarExameComFiltroNegativo() {
+
+        when(unicidade.talvezNomeExame(exameDTO.getNome())).thenReturn(false);
+        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(exameRepository.saveAndFlush(any(Exame.class))).thenReturn(exame);
+
+        service.criar(exameDTO);
+
+        verify(exameRepository, never()).existsByNome(any());
+        verify(exameRepository, times(1)).saveAndFlush(any(Exame.class));
     }
 
     @Test
     @DisplayName("Deve lançar DuplicadoException quando nome já existe")
     void deveLancarExcecaoQuandoNomeDuplicado() {
 
+        when(unicidade.talvezNomeExame(exameDTO.getNome())).thenReturn(true);
         when(exameRepository.existsByNome(exameDTO.getNome())).thenReturn(true);
 
 
@@ -116,13 +170,27 @@ public class ExameServiceTest {
         );
 
         assertEquals("Existe exame com esse nome", exception.getMessage());
-        verify(exameRepository, never()).save(any(Exame.class));
+        verify(exameRepository, never()).saveAndFlush(any(Exame.class));
+    }
+
+    @Test
+    @DisplayName("Deve traduzir a violação da unicidade do nome num insert concorrente em DuplicadoException")
+    void deveTraduzirViolacaoDeUnicidade() {
+
+        when(pacienteRepository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(exameRepository.saveAndFlush(any(Exame.class))).thenThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), "PUBLIC.UK_EXAMES_NOME_INDEX_A")));
+
+        DuplicadoException exception = assertThrows(DuplicadoException.class, () -> service.criar(exameDTO));
+
+        assertEquals("Existe exame com esse nome", exception.getMessage());
     }
 
     @Test
     @DisplayName("Deve lançar RecursoNaoEncontradoException quando paciente não existe")
     void deveLancarExcecaoQuandoPacienteNaoExiste() {
 
+        when(unicidade.talvezNomeExame(exameDTO.getNome())).thenReturn(true);
         when(exameRepository.existsByNome(exameDTO.getNome())).thenReturn(false);
         when(pacienteRepository.findById(999L)).thenReturn(Optional.empty());
 
@@ -140,7 +208,7 @@ public class ExameServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("Paciente não encontrado"));
-        verify(exameRepository, never()).save(any(Exame.class));
+        verify(exameRepository, never()).saveAndFlush(any(Exame.class));
     }
 
     //TESTES DO MÉTODO LISTAR
@@ -150,15 +218,17 @@ public class ExameServiceTest {
     void deveListarTodosExames() {
 
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Exame> paginaMock = new PageImpl<>(List.of(exame));
+        Page<ExameResumo> paginaMock = new PageImpl<>(List.of(exameResumo));
 
-        when(exameRepository.findAll(pageable)).thenReturn(paginaMock);
+        when(exameRepository.findAllBy(pageable)).thenReturn(paginaMock);
 
         Page<ExameDTO> resultado = service.listar(null, null, pageable);
 
         assertNotNull(resultado);
         assertEquals(1, resultado.getTotalElements());
-        verify(exameRepository).findAll(pageable);
+        assertEquals(1L, resultado.getContent().get(0).getPacienteId());
+        verify(exameRepository).findAllBy(pageable);
+        verify(pacienteRepository, never()).findById(any());
     }
 
     @Test
@@ -167,16 +237,16 @@ public class ExameServiceTest {
 
         String nome = "Hemograma";
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Exame> paginaMock = new PageImpl<>(List.of(exame));
+        Page<ExameResumo> paginaMock = new PageImpl<>(List.of(exameResumo));
 
-        when(exameRepository.findByNomeIgnoreCase(nome, pageable)).thenReturn(paginaMock);
+        when(exameRepository.findByNomeNorm("hemograma", pageable)).thenReturn(paginaMock);
 
         Page<ExameDTO> resultado = service.listar(nome, null, pageable);
 
         assertNotNull(resultado);
         assertEquals(1, resultado.getTotalElements());
         assertEquals("Hemograma Completo", resultado.getContent().get(0).getNome());
-        verify(exameRepository).findByNomeIgnoreCase(nome, pageable);
+        verify(exameRepository).findByNomeNorm("hemograma", pageable);
     }
 
     @Test
@@ -185,7 +255,7 @@ public class ExameServiceTest {
 
         String descricao = "sangue";
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Exame> paginaMock = new PageImpl<>(List.of(exame));
+        Page<ExameResumo> paginaMock = new PageImpl<>(List.of(exameResumo));
 
         when(exameRepository.findByDescricaoContainingIgnoreCase(descricao, pageable))
                 .thenReturn(paginaMock);
@@ -206,7 +276,7 @@ public class ExameServiceTest {
         String nome = "Hemograma";
         String descricao = "sangue";
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Exame> paginaMock = new PageImpl<>(List.of(exame));
+        Page<ExameResumo> paginaMock = new PageImpl<>(List.of(exameResumo));
 
         when(exameRepository.findByNomeAndDescricaoIgnoreCase(nome, descricao, pageable))
                 .thenReturn(paginaMock);
@@ -224,9 +294,9 @@ public class ExameServiceTest {
 
         String nome = "Exame Inexistente";
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Exame> paginaVazia = new PageImpl<>(List.of());
+        Page<ExameResumo> paginaVazia = new PageImpl<>(List.of());
 
-        when(exameRepository.findByNomeIgnoreCase(nome, pageable)).thenReturn(paginaVazia);
+        when(exameRepository.findByNomeNorm("exame inexistente", pageable)).thenReturn(paginaVazia);
 
         Page<ExameDTO> resultado = service.listar(nome, null, pageable);
 
@@ -235,6 +305,42 @@ public class ExameServiceTest {
         assertTrue(resultado.isEmpty());
     }
 
+    // TESTES DO MÉTODO PESQUISAR
+
+    @Test
+    @DisplayName("Deve devolver os exames da pesquisa pela ordem de relevância do índice")
+    void devePesquisarPorRelevancia() {
+
+        Exame outro = new Exame("Glicemia", "Glicose no sangue", 5.0, paciente);
+        outro.setId(2L);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(pesquisa.pesquisar("sangue", 0, 10)).thenReturn(new PesquisaExames.Resultado(2, new long[]{2L, 1L}));
+        when(exameRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(exame, outro));
+
+        Page<ExameDTO> resultado = service.pesquisar("sangue", pageable);
+
+        assertEquals(2, resultado.getTotalElements());
+        assertEquals(List.of("Glicemia", "Hemograma Completo"), resultado.getContent().stream().map(ExameDTO::getNome).toList());
+    }
+
+    // TESTES DO MÉTODO LISTAR POR CURSOR
+
+    @Test
+    @DisplayName("Deve listar exames por descrição a partir do cursor")
+    void deveListarPorCursorComDescricao() {
+
+        Window<Exame> janelaMock = Window.from(List.of(exame), i -> ScrollPosition.forward(Map.of("id", 1L)), true);
+        when(exameRepository.findByDescricaoContainingIgnoreCase("sangue", ScrollPosition.forward(Map.of("id", 0L)), Limit.of(1), Sort.by("id")))
+                .thenReturn(janelaMock);
+
+        JanelaDTO<ExameDTO> resultado = service.listarPorCursor(null, "sangue", CursorPaginacao.codificar(0L), 1);
+
+        assertEquals("Hemograma Completo", resultado.getConteudo().get(0).getNome());
+        assertEquals(CursorPaginacao.codificar(1L), resultado.getProximoCursor());
+        verify(exameRepository, never()).findAllBy(any(Pageable.class));
+    }
+
     // TESTES DO MÉTODO BUSCAR POR ID
 
     @Test
@@ -272,14 +378,14 @@ public class ExameServiceTest {
     void deveAtualizarExameComSucesso() {
 
         when(exameRepository.findById(1L)).thenReturn(Optional.of(exame));
-        when(exameRepository.save(any(Exame.class))).thenReturn(exame);
+        when(exameRepository.saveAndFlush(any(Exame.class))).thenReturn(exame);
 
-        ExameDetalheDTO resultado = service.atualizar(1L, exameUpdateDTO);
+        ExameDetalheDTO resultado = service.atualizar(1L, exameUpdateDTO, null);
 
         assertNotNull(resultado);
         assertEquals("Hemograma Completo Atualizado", resultado.getNome());
         verify(exameRepository, times(1)).findById(1L);
-        verify(exameRepository, times(1)).save(any(Exame.class));
+        verify(exameRepository, times(1)).saveAndFlush(any(Exame.class));
     }
 
     @Test
@@ -291,42 +397,166 @@ public class ExameServiceTest {
 
         RecursoNaoEncontradoException exception = assertThrows(
                 RecursoNaoEncontradoException.class,
-                () -> service.atualizar(999L, exameUpdateDTO)
+                () -> service.atualizar(999L, exameUpdateDTO, null)
         );
 
         assertEquals("Exame não encontrado", exception.getMessage());
-        verify(exameRepository, never()).save(any(Exame.class));
+        verify(exameRepository, never()).saveAndFlush(any(Exame.class));
+    }
+
+    @Test
+    @DisplayName("Deve traduzir em DuplicadoException o nome repetido no PUT sem retirar o antigo do filtro")
+    void deveTraduzirNomeDuplicadoNoPut() {
+
+        when(exameRepository.findById(1L)).thenReturn(Optional.of(exame));
+        when(exameRepository.saveAndFlush(exame)).thenThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), Exame.RESTRICAO_NOME)));
+
+        assertThrows(DuplicadoException.class, () -> service.atualizar(1L, exameUpdateDTO, null));
+
+        verify(unicidade).adicionarNomeExame(exameUpdateDTO.getNome());
+        verify(unicidade, never()).removerNomeExame();
+    }
+
+    // TESTES DO MÉTODO ATUALIZAR PARCIAL
+
+    @Test
+    @DisplayName("Deve copiar para o exame só o preço enviado no PATCH")
+    void deveAtualizarParcialSoPreco() {
+
+        when(exameRepository.findById(1L)).thenReturn(Optional.of(exame));
+        when(exameRepository.saveAndFlush(exame)).thenReturn(exame);
+
+        ExameDetalheDTO resultado = service.atualizarParcial(1L, json("{\"preco\": 60}"), null);
+
+        assertEquals(60.0, resultado.getPreco());
+        assertEquals("Hemograma Completo", resultado.getNome());
+        assertEquals("Análise completa do sangue", resultado.getDescricao());
+        verifyNoInteractions(alteracoes, unicidade);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o filtro de unicidade quando o PATCH muda o nome")
+    void deveAtualizarParcialNome() {
+
+        when(exameRepository.findById(1L)).thenReturn(Optional.of(exame));
+        when(exameRepository.saveAndFlush(exame)).thenReturn(exame);
+
+        ExameDetalheDTO resultado = service.atualizarParcial(1L, json("{\"nome\": \"Hemograma Simples\"}"), null);
+
+        assertEquals("Hemograma Simples", resultado.getNome());
+        verify(unicidade).adicionarNomeExame("Hemograma Simples");
+        verify(unicidade).removerNomeExame();
+        verifyNoInteractions(alteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar no PATCH campos a null")
+    void deveRejeitarCampoNuloNoPatch() {
+
+        assertThrows(IllegalArgumentException.class, () -> service.atualizarParcial(1L, json("{\"descricao\": null}"), null));
+
+        verifyNoInteractions(exameRepository);
+    }
+
+    @Test
+    @DisplayName("Deve traduzir em DuplicadoException o nome repetido no PATCH")
+    void deveTraduzirNomeDuplicadoNoPatch() {
+
+        when(exameRepository.findById(1L)).thenReturn(Optional.of(exame));
+        when(exameRepository.saveAndFlush(exame)).thenThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), Exame.RESTRICAO_NOME)));
+
+        assertThrows(DuplicadoException.class, () -> service.atualizarParcial(1L, json("{\"nome\": \"Glicemia\"}"), null));
+
+        verify(unicidade, never()).removerNomeExame();
+    }
+
+    @Test
+    @DisplayName("Deve lançar RecursoNaoEncontradoException no PATCH de exame inexistente")
+    void deveLancarExcecaoNoPatchDeInexistente() {
+
+        when(exameRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(RecursoNaoEncontradoException.class, () -> service.atualizarParcial(999L, json("{\"preco\": 10}"), null));
+    }
+
+    @Test
+    @DisplayName("Deve recusar o PATCH condicional quando a versão já não é a atual")
+    void deveRecusarPatchComVersaoDesatualizada() {
+
+        when(exameRepository.findById(1L)).thenReturn(Optional.of(exame));
+
+        assertThrows(VersaoDesatualizadaException.class, () -> service.atualizarParcial(1L, json("{\"preco\": 10}"), 3L));
+
+        assertEquals(25.50, exame.getPreco());
+        verify(exameRepository, never()).saveAndFlush(any(Exame.class));
+    }
+
+    private static JsonNode json(String texto) {
+        try {
+            return new ObjectMapper().readTree(texto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     // TESTES DO MÉTODO APAGAR
 
     @Test
-    @DisplayName("Deve apagar exame com sucesso")
+    @DisplayName("Deve apagar exame com um único DELETE, sem o ler antes")
     void deveApagarExameComSucesso() {
 
-        when(exameRepository.existsById(1L)).thenReturn(true);
+        when(exameRepository.apagarPorId(1L)).thenReturn(1);
 
 
-        boolean resultado = service.apagar(1L);
+        boolean resultado = service.apagar(1L, null);
 
 
         assertTrue(resultado);
-        verify(exameRepository, times(1)).existsById(1L);
-        verify(exameRepository, times(1)).deleteById(1L);
+        verify(exameRepository, never()).findDetalheById(anyLong());
+        verify(exameRepository, never()).deleteById(anyLong());
+        verify(unicidade).removerNomeExame();
+        verify(alteracoes).exameApagado(1L);
     }
 
     @Test
-    @DisplayName("Deve retornar false ao apagar exame inexistente")
+    @DisplayName("Deve retornar false ao apagar exame inexistente, sem outra consulta")
     void deveRetornarFalseAoApagarInexistente() {
 
-        when(exameRepository.existsById(999L)).thenReturn(false);
+        when(exameRepository.apagarPorId(999L)).thenReturn(0);
 
 
-        boolean resultado = service.apagar(999L);
+        boolean resultado = service.apagar(999L, null);
 
 
         assertFalse(resultado);
-        verify(exameRepository, times(1)).existsById(999L);
-        verify(exameRepository, never()).deleteById(anyLong());
+        verify(exameRepository, never()).existsById(anyLong());
+        verify(unicidade, never()).removerNomeExame();
+        verifyNoInteractions(alteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a remoção quando o DELETE condicional do If-Match não apaga nada")
+    void deveRecusarApagarVersaoDesatualizada() {
+
+        when(exameRepository.apagarPorIdEVersao(1L, 1L)).thenReturn(0);
+
+        assertThrows(VersaoDesatualizadaException.class, () -> service.apagar(1L, 1L));
+
+        verify(exameRepository, never()).existsById(anyLong());
+        verifyNoInteractions(alteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve apagar com a versão do If-Match verificada pelo DELETE")
+    void deveApagarNaVersaoIndicada() {
+
+        when(exameRepository.apagarPorIdEVersao(1L, 2L)).thenReturn(1);
+
+        assertTrue(service.apagar(1L, 2L));
+
+        verify(exameRepository, never()).apagarPorId(anyLong());
+        verify(alteracoes).exameApagado(1L);
     }
 }
@@ -0,0 +1,88 @@
+package com.example.simlab.service;
+
+import com.example.simlab.dto.ExameDetalheDTO;
+import com.example.simlab.dto.PacienteDetalheDTO;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes do ExportacaoService")
+public class ExportacaoServiceTest {
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private ExameRepository exameRepository;
+
+    private ExportacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        service = new ExportacaoService(pacienteRepository, exameRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Deve exportar pacientes em NDJSON, um por linha")
+    void deveExportarPacientesEmNdjson() throws Exception {
+
+        when(pacienteRepository.streamTodos()).thenReturn(Stream.of(
+                new PacienteDetalheDTO(1L, "Maria Silva", LocalDate.of(1990, 1, 15), "12345678", "912345678", "maria@email.com", 0L),
+                new PacienteDetalheDTO(2L, "João Sousa", LocalDate.of(1980, 5, 2), "87654321", "934567890", null, 0L)
+        ));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.exportarPacientes(FormatoExportacao.NDJSON, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].contains("\"dataDeNascimento\":\"1990-01-15\""));
+        assertTrue(linhas[1].startsWith("{\"id\":2"));
+    }
+
+    @Test
+    @DisplayName("Deve exportar exames em CSV com cabeçalho e campos escapados")
+    void deveExportarExamesEmCsv() throws Exception {
+
+        when(exameRepository.streamTodos()).thenReturn(Stream.of(
+                new ExameDetalheDTO(1L, "Hemograma", "Sangue, completo", 25.5, 1L, 0L),
+                new ExameDetalheDTO(2L, "Glicemia", "Em \"jejum\"", 8.0, 2L, 0L)
+        ));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        service.exportarExames(FormatoExportacao.CSV, saida);
+
+        assertEquals("id,nome,descricao,preco,pacienteId\n"
+                        + "1,Hemograma,\"Sangue, completo\",25.5,1\n"
+                        + "2,Glicemia,\"Em \"\"jejum\"\"\",8.0,2\n",
+                saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar formato de exportação desconhecido")
+    void deveRejeitarFormatoDesconhecido() {
+
+        assertThrows(IllegalArgumentException.class, () -> FormatoExportacao.de("xml"));
+        assertEquals(FormatoExportacao.CSV, FormatoExportacao.de("CSV"));
+    }
+}
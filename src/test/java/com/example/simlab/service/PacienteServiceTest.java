@@ -1,30 +1,64 @@
 package com.example.simlab.service;
 
+import com.example.simlab.cache.PacienteRegistoStore;
+import com.example.simlab.dto.ExameDetalheDTO;
+import com.example.simlab.dto.JanelaDTO;
+import com.example.simlab.dto.LoteResultadoDTO;
+import com.example.simlab.dto.PacienteComExamesDTO;
 import com.example.simlab.dto.PacienteDTO;
 import com.example.simlab.dto.PacienteDetalheDTO;
 import com.example.simlab.dto.PacienteUpdateDTO;
 import com.example.simlab.exception.DuplicadoException;
 import com.example.simlab.exception.RecursoNaoEncontradoException;
+import com.example.simlab.exception.VersaoDesatualizadaException;
+import com.example.simlab.index.AlteracoesDiretas;
+import com.example.simlab.index.FiltroUnicidade;
+import com.example.simlab.index.PesquisaPacientes;
+import com.example.simlab.model.Exame;
 import com.example.simlab.model.Paciente;
+import com.example.simlab.repository.ExameRepository;
+import com.example.simlab.repository.ExameTexto;
 import com.example.simlab.repository.PacienteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +68,31 @@ public class PacienteServiceTest {
     @Mock
     private PacienteRepository repository;
 
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PacienteRegistoStore registos;
+
+    @Mock
+    private FiltroUnicidade unicidade;
+
+    @Mock
+    private PesquisaPacientes pesquisa;
+
+    @Mock
+    private ExameRepository exameRepository;
+
+    @Mock
+    private AlteracoesDiretas alteracoes;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private LeitorMergePatch leitorPatch = new LeitorMergePatch(new ObjectMapper().findAndRegisterModules(),
+            Validation.buildDefaultValidatorFactory().getValidator());
+
     @InjectMocks
     private PacienteService service;
 
@@ -75,8 +134,9 @@ public class PacienteServiceTest {
     @DisplayName("Deve criar paciente com sucesso")
     void testCriarPacienteComSucesso() {
 
-        when(repository.existsByCartaoCidadaoIgnoreCase(dto.getCartaoCidadao())).thenReturn(false);
-        when(repository.save(any(Paciente.class))).thenReturn(paciente);
+        when(unicidade.talvezCartaoCidadao(dto.getCartaoCidadao())).thenReturn(true);
+        when(repository.existsByCartaoCidadao(dto.getCartaoCidadao())).thenReturn(false);
+        when(repository.saveAndFlush(any(Paciente.class))).thenReturn(paciente);
 
         PacienteDetalheDTO resultado = service.criar(dto);
 
@@ -85,22 +145,181 @@ public class PacienteServiceTest {
         assertEquals("Maria Silva", resultado.getNome());
         assertEquals("12345678", resultado.getCartaoCidadao());
 
-        verify(repository, times(1)).existsByCartaoCidadaoIgnoreCase(dto.getCartaoCidadao());
-        verify(repository, times(1)).save(any(Paciente.class));
+        verify(repository, times(1)).existsByCartaoCidadao(dto.getCartaoCidadao());
+        verify(repository, times(1)).saveAndFlush(any(Paciente.class));
+        verify(unicidade).adicionarCartaoCidadao("12345678");
+    }
+
+    @Test
+    @DisplayName("Deve criar paciente sem consultar a base de dados quando o filtro exclui o CC")
+    void testCriarPacienteComFiltroNegativo() {
+
+        when(unicidade.talvezCartaoCidadao(dto.getCartaoCidadao())).thenReturn(false);
+        when(repository.saveAndFlush(any(Paciente.class))).thenReturn(paciente);
+
+        service.criar(dto);
+
+        verify(repository, never()).existsByCartaoCidadao(any());
+        verify(repository, times(1)).saveAndFlush(any(Paciente.class));
     }
 
     @Test
     @DisplayName("Deve lançar exceção ao tentar criar paciente com CC duplicado")
     void testCriarPacienteComCCDuplicado() {
 
-        when(repository.existsByCartaoCidadaoIgnoreCase(dto.getCartaoCidadao())).thenReturn(true);
+        when(unicidade.talvezCartaoCidadao(dto.getCartaoCidadao())).thenReturn(true);
+        when(repository.existsByCartaoCidadao(dto.getCartaoCidadao())).thenReturn(true);
 
 
         assertThrows(DuplicadoException.class, () -> {
             service.criar(dto);
         });
 
-        verify(repository, never()).save(any(Paciente.class));
+        verify(repository, never()).saveAndFlush(any(Paciente.class));
+    }
+
+    @Test
+    @DisplayName("Deve traduzir a violação da unicidade do CC num insert concorrente em DuplicadoException")
+    void testCriarPacienteComViolacaoDeUnicidade() {
+
+        when(repository.saveAndFlush(any(Paciente.class))).thenThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), "PUBLIC.UK_PACIENTES_CARTAO_CIDADAO_INDEX_4")));
+
+        assertThrows(DuplicadoException.class, () -> service.criar(dto));
+    }
+
+    @Test
+    @DisplayName("Deve propagar violações de outras restrições")
+    void testCriarPacienteComOutraViolacao() {
+
+        when(repository.saveAndFlush(any(Paciente.class))).thenThrow(new DataIntegrityViolationException("nulo",
+                new ConstraintViolationException("nulo", new SQLException(), "PUBLIC.CONSTRAINT_NOME")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.criar(dto));
+    }
+
+    //TESTES DO MÉTODO CRIAR LOTE
+
+    @Test
+    @DisplayName("Deve criar lote verificando duplicados numa única consulta")
+    void testCriarLoteComSucesso() {
+
+        PacienteDTO outro = new PacienteDTO("João Sousa", LocalDate.of(1980, 5, 2), "87654321", "934567890", null);
+        when(unicidade.talvezCartaoCidadao(any())).thenReturn(true);
+        when(repository.findCartoesCidadaoExistentes(any())).thenReturn(List.of());
+
+        LoteResultadoDTO resultado = service.criarLote(List.of(dto, outro));
+
+        assertEquals(2, resultado.getRecebidos());
+        assertEquals(2, resultado.getCriados());
+        assertEquals(0, resultado.getRejeitados());
+        verify(repository, times(1)).findCartoesCidadaoExistentes(Set.of("12345678", "87654321"));
+        verify(repository, times(1)).saveAll(argThat(lista -> ((List<?>) lista).size() == 2));
+        verify(repository, never()).existsByCartaoCidadao(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar no lote CC já existente e CC repetido no próprio lote")
+    void testCriarLoteComDuplicados() {
+
+        PacienteDTO repetido = new PacienteDTO("Outra Maria", LocalDate.of(1991, 2, 3), "12345678", "911111111", null);
+        PacienteDTO existente = new PacienteDTO("Ana Costa", LocalDate.of(1975, 7, 9), "11112222", "922222222", null);
+        when(unicidade.talvezCartaoCidadao("12345678")).thenReturn(false);
+        when(unicidade.talvezCartaoCidadao("11112222")).thenReturn(true);
+        when(repository.findCartoesCidadaoExistentes(any())).thenReturn(List.of("11112222"));
+
+        LoteResultadoDTO resultado = service.criarLote(List.of(dto, repetido, existente));
+
+        assertEquals(3, resultado.getRecebidos());
+        assertEquals(1, resultado.getCriados());
+        assertEquals(2, resultado.getRejeitados());
+        assertEquals(2, resultado.getErros().get(0).getLinha());
+        assertEquals(3, resultado.getErros().get(1).getLinha());
+        verify(repository).findCartoesCidadaoExistentes(Set.of("11112222"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar no lote a linha que falha a validação")
+    void testCriarLoteComLinhaInvalida() {
+
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<PacienteDTO> violacao = mock(ConstraintViolation.class);
+        Path caminho = mock(Path.class);
+        when(caminho.toString()).thenReturn("telefone");
+        when(violacao.getPropertyPath()).thenReturn(caminho);
+        when(violacao.getMessage()).thenReturn("Telefone deve ter 9 dígitos começando com 9");
+        when(validator.validate(dto)).thenReturn(Set.of(violacao));
+
+        LoteResultadoDTO resultado = service.criarLote(List.of(dto));
+
+        assertEquals(0, resultado.getCriados());
+        assertEquals(1, resultado.getRejeitados());
+        assertEquals("telefone: Telefone deve ter 9 dígitos começando com 9", resultado.getErros().get(0).getMensagem());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar no lote o elemento null sem impedir as restantes linhas")
+    void testCriarLoteComElementoNulo() {
+
+        when(unicidade.talvezCartaoCidadao(any())).thenReturn(false);
+
+        LoteResultadoDTO resultado = service.criarLote(Arrays.asList(dto, null));
+
+        assertEquals(2, resultado.getRecebidos());
+        assertEquals(1, resultado.getCriados());
+        assertEquals(1, resultado.getRejeitados());
+        assertEquals(2, resultado.getErros().get(0).getLinha());
+        assertEquals("Linha sem dados do paciente", resultado.getErros().get(0).getMensagem());
+        verify(repository, times(1)).saveAll(argThat(lista -> ((List<?>) lista).size() == 1));
+    }
+
+    @Test
+    @DisplayName("Deve gravar o lote de novo e rejeitar a linha cujo CC foi gravado por um pedido concorrente")
+    void testCriarLoteComViolacaoDeUnicidadeConcorrente() {
+
+        PacienteDTO outro = new PacienteDTO("João Sousa", LocalDate.of(1980, 5, 2), "87654321", "934567890", null);
+        when(unicidade.talvezCartaoCidadao(any())).thenReturn(true);
+        when(repository.findCartoesCidadaoExistentes(any())).thenReturn(List.of(), List.of("12345678"));
+        doThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), Paciente.RESTRICAO_CARTAO_CIDADAO)))
+                .doNothing().when(repository).flush();
+
+        LoteResultadoDTO resultado = service.criarLote(List.of(dto, outro));
+
+        assertEquals(1, resultado.getCriados());
+        assertEquals(1, resultado.getRejeitados());
+        assertEquals(1, resultado.getErros().get(0).getLinha());
+        verify(repository, times(2)).flush();
+        // a tentativa revertida não regista nada no filtro
+        verify(unicidade, never()).adicionarCartaoCidadao("12345678");
+        verify(unicidade, times(1)).adicionarCartaoCidadao("87654321");
+    }
+
+    @Test
+    @DisplayName("Deve lançar DuplicadoException quando a violação de unicidade persiste em todas as tentativas")
+    void testCriarLoteComViolacaoDeUnicidadePersistente() {
+
+        when(unicidade.talvezCartaoCidadao(any())).thenReturn(false);
+        doThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), Paciente.RESTRICAO_CARTAO_CIDADAO)))
+                .when(repository).flush();
+
+        assertThrows(DuplicadoException.class, () -> service.criarLote(List.of(dto)));
+        verify(repository, times(PacienteService.TENTATIVAS_LOTE)).flush();
+        verify(unicidade, never()).adicionarCartaoCidadao(any());
+    }
+
+    @Test
+    @DisplayName("Deve propagar no lote violações de outras restrições sem repetir")
+    void testCriarLoteComOutraViolacao() {
+
+        when(unicidade.talvezCartaoCidadao(any())).thenReturn(false);
+        doThrow(new DataIntegrityViolationException("nulo",
+                new ConstraintViolationException("nulo", new SQLException(), "PUBLIC.CONSTRAINT_NOME")))
+                .when(repository).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.criarLote(List.of(dto)));
+        verify(repository, times(1)).flush();
     }
 
     //TESTES DO MÉTODO LISTAR
@@ -122,20 +341,20 @@ public class PacienteServiceTest {
     }
 
     @Test
-    @DisplayName("Deve listar pacientes filtrados por nome")
+    @DisplayName("Deve listar pacientes filtrados por nome normalizado")
     void testListarPacientesPorNome() {
 
-        String nome = "Maria Silva";
+        String nome = "MARIA Conceição";
         Pageable pageable = PageRequest.of(0, 10);
         Page<Paciente> paginaMock = new PageImpl<>(List.of(paciente));
 
-        when(repository.findByNomeIgnoreCase(nome, pageable)).thenReturn(paginaMock);
+        when(repository.findByNomeNorm("maria conceicao", pageable)).thenReturn(paginaMock);
 
         Page<PacienteDTO> resultado = service.listar(nome, null, null, pageable);
 
         assertNotNull(resultado);
         assertEquals(1, resultado.getTotalElements());
-        verify(repository).findByNomeIgnoreCase(nome, pageable);
+        verify(repository).findByNomeNorm("maria conceicao", pageable);
     }
 
     @Test
@@ -146,13 +365,13 @@ public class PacienteServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<Paciente> paginaMock = new PageImpl<>(List.of(paciente));
 
-        when(repository.findByCartaoCidadaoIgnoreCase(cc, pageable)).thenReturn(paginaMock);
+        when(repository.findByCartaoCidadao(cc, pageable)).thenReturn(paginaMock);
 
         Page<PacienteDTO> resultado = service.listar(null, null, cc, pageable);
 
         assertNotNull(resultado);
         assertEquals(1, resultado.getTotalElements());
-        verify(repository).findByCartaoCidadaoIgnoreCase(cc, pageable);
+        verify(repository).findByCartaoCidadao(cc, pageable);
     }
 
     @Test
@@ -180,14 +399,14 @@ public class PacienteServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<Paciente> paginaMock = new PageImpl<>(List.of(paciente));
 
-        when(repository.findByNomeIgnoreCaseAndCartaoCidadaoIgnoreCase(nome,cc, pageable))
+        when(repository.findByNomeNormAndCartaoCidadao("maria silva", cc, pageable))
                 .thenReturn(paginaMock);
 
         Page<PacienteDTO> resultado = service.listar(nome,null, cc, pageable);
 
         assertNotNull(resultado);
         assertEquals(1, resultado.getTotalElements());
-        verify(repository).findByNomeIgnoreCaseAndCartaoCidadaoIgnoreCase(nome, cc, pageable);
+        verify(repository).findByNomeNormAndCartaoCidadao("maria silva", cc, pageable);
     }
 
     @Test
@@ -198,7 +417,7 @@ public class PacienteServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         Page<Paciente> paginaVazia = new PageImpl<>(List.of());
 
-        when(repository.findByNomeIgnoreCase(nome, pageable)).thenReturn(paginaVazia);
+        when(repository.findByNomeNorm("nome inexistente", pageable)).thenReturn(paginaVazia);
 
         Page<PacienteDTO> resultado = service.listar(nome, null, null, pageable);
 
@@ -207,20 +426,95 @@ public class PacienteServiceTest {
         assertTrue(resultado.isEmpty());
     }
 
+    // TESTES DO MÉTODO PESQUISAR
+
+    @Test
+    @DisplayName("Deve devolver os pacientes da pesquisa pela ordem de semelhança do índice")
+    void devePesquisarPorSemelhanca() {
+
+        Paciente outro = new Paciente("Maria Sousa", LocalDate.of(1985, 3, 2), "87654321", "912345679", null);
+        outro.setId(2L);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(pesquisa.pesquisar("Maria Souza", true, 0, 10)).thenReturn(new PesquisaPacientes.Resultado(2, new long[]{2L, 1L}));
+        when(repository.findAllById(List.of(2L, 1L))).thenReturn(List.of(paciente, outro));
+
+        Page<PacienteDTO> resultado = service.pesquisar("Maria Souza", true, pageable);
+
+        assertEquals(2, resultado.getTotalElements());
+        assertEquals(List.of("Maria Sousa", "Maria Silva"), resultado.getContent().stream().map(PacienteDTO::getNome).toList());
+    }
+
+    //TESTES DO MÉTODO LISTAR POR CURSOR
+
+    @Test
+    @DisplayName("Deve listar primeira janela por cursor e devolver o cursor seguinte")
+    void testListarPorCursorPrimeiraJanela() {
+
+        Window<Paciente> janelaMock = Window.from(List.of(paciente), i -> ScrollPosition.forward(Map.of("id", 1L)), true);
+        when(repository.findBy(ScrollPosition.keyset(), Limit.of(1), Sort.by("id"))).thenReturn(janelaMock);
+
+        JanelaDTO<PacienteDTO> resultado = service.listarPorCursor(null, null, null, null, 1);
+
+        assertEquals(1, resultado.getConteudo().size());
+        assertTrue(resultado.isTemMais());
+        assertEquals(CursorPaginacao.codificar(1L), resultado.getProximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve continuar a listagem a partir do ID codificado no cursor")
+    void testListarPorCursorJanelaSeguinte() {
+
+        KeysetScrollPosition posicao = ScrollPosition.forward(Map.of("id", 1L));
+        when(repository.findByNomeNorm(eq("maria silva"), eq(posicao), eq(Limit.of(20)), eq(Sort.by("id"))))
+                .thenReturn(Window.from(List.of(), i -> posicao, false));
+
+        JanelaDTO<PacienteDTO> resultado = service.listarPorCursor("Maria Silva", null, null, CursorPaginacao.codificar(1L), 20);
+
+        assertTrue(resultado.getConteudo().isEmpty());
+        assertFalse(resultado.isTemMais());
+        assertNull(resultado.getProximoCursor());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido")
+    void testListarPorCursorInvalido() {
+
+        assertThrows(IllegalArgumentException.class, () -> service.listarPorCursor(null, null, null, "nao-e-cursor", 20));
+        assertThrows(IllegalArgumentException.class, () -> service.listarPorCursor(null, null, null, null, 0));
+    }
+
     //TESTES DO MÉTODO BUSCAR POR ID
 
     @Test
     @DisplayName("Deve buscar paciente por ID com sucesso")
     void testBuscarPorIdComSucesso() {
 
-        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+        PacienteDetalheDTO detalhe = new PacienteDetalheDTO(1L, "Maria Silva", LocalDate.of(1990, 1, 15), "12345678", "912345678", "maria@email.com", 0L);
+        when(registos.marca()).thenReturn(7L);
+        when(repository.findDetalheById(1L)).thenReturn(Optional.of(detalhe));
 
         Optional<PacienteDetalheDTO> resultado = service.buscarPorId(1L);
 
         assertTrue(resultado.isPresent());
         assertEquals("Maria Silva", resultado.get().getNome());
         assertEquals("12345678", resultado.get().getCartaoCidadao());
-        verify(repository).findById(1L);
+        verify(repository).findDetalheById(1L);
+        verify(registos).guardar(detalhe, 7L);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve servir paciente residente no armazém de registos sem consultar a base de dados")
+    void testBuscarPorIdResidente() {
+
+        PacienteDetalheDTO detalhe = new PacienteDetalheDTO(1L, "Maria Silva", LocalDate.of(1990, 1, 15), "12345678", "912345678", "maria@email.com", 0L);
+        when(registos.ler(1L)).thenReturn(Optional.of(detalhe));
+
+        Optional<PacienteDetalheDTO> resultado = service.buscarPorId(1L);
+
+        assertSame(detalhe, resultado.orElseThrow());
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -228,12 +522,62 @@ public class PacienteServiceTest {
     void testBuscarPorIdNaoExiste() {
 
         Long idInexistente = 999L;
-        when(repository.findById(idInexistente)).thenReturn(Optional.empty());
+        when(repository.findDetalheById(idInexistente)).thenReturn(Optional.empty());
 
         Optional<PacienteDetalheDTO> resultado = service.buscarPorId(idInexistente);
 
         assertTrue(resultado.isEmpty());
-        verify(repository).findById(idInexistente);
+        verify(repository).findDetalheById(idInexistente);
+        verify(registos, never()).guardar(any(), anyLong());
+    }
+
+    //TESTES DOS EXAMES DO PACIENTE
+
+    @Test
+    @DisplayName("Deve devolver o paciente com os exames por ordem de ID")
+    void testBuscarComExames() {
+
+        Paciente comExames = new Paciente();
+        comExames.setId(1L);
+        comExames.setNome("Maria Silva");
+        Exame segundo = new Exame("Raio-X", "Tórax", 40.0, comExames);
+        segundo.setId(12L);
+        Exame primeiro = new Exame("Hemograma", "Sangue", 25.0, comExames);
+        primeiro.setId(11L);
+        comExames.getExames().addAll(List.of(segundo, primeiro));
+        when(repository.findComExamesById(1L)).thenReturn(Optional.of(comExames));
+
+        PacienteComExamesDTO resultado = service.buscarComExames(1L).orElseThrow();
+
+        assertEquals("Maria Silva", resultado.getNome());
+        assertEquals(List.of(11L, 12L), resultado.getExames().stream().map(ExameDetalheDTO::getId).toList());
+        assertEquals(1L, resultado.getExames().get(0).getPacienteId());
+        verify(repository, never()).findDetalheById(any());
+    }
+
+    @Test
+    @DisplayName("Deve listar os exames do paciente desempatando a ordenação pelo ID")
+    void testListarExames() {
+
+        ExameDetalheDTO exame = new ExameDetalheDTO(11L, "Hemograma", "Sangue", 25.0, 1L, 0L);
+        when(exameRepository.findDetalhesByPacienteId(eq(1L), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(exame), inv.getArgument(1), 1));
+
+        Page<ExameDetalheDTO> pagina = service.listarExames(1L, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "preco")));
+
+        assertEquals(List.of(exame), pagina.getContent());
+        assertEquals(Sort.by(Sort.Order.desc("preco"), Sort.Order.asc("id")), pagina.getPageable().getSort());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao listar exames de paciente inexistente")
+    void testListarExamesPacienteNaoExiste() {
+
+        when(exameRepository.findDetalhesByPacienteId(eq(999L), any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.findDetalheById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(RecursoNaoEncontradoException.class, () -> service.listarExames(999L, PageRequest.of(0, 10)));
     }
 
     //TESTES DO MÉTODO ATUALIZAR
@@ -243,14 +587,15 @@ public class PacienteServiceTest {
     void testAtualizarPacienteComSucesso() {
 
         when(repository.findById(1L)).thenReturn(Optional.of(paciente));
-        when(repository.save(any(Paciente.class))).thenReturn(paciente);
+        when(repository.saveAndFlush(any(Paciente.class))).thenReturn(paciente);
 
-        PacienteDetalheDTO resultado = service.atualizar(1L, updateDTO);
+        PacienteDetalheDTO resultado = service.atualizar(1L, updateDTO, null);
 
         assertNotNull(resultado);
         assertEquals(1L, resultado.getId());
         verify(repository).findById(1L);
-        verify(repository).save(any(Paciente.class));
+        verify(repository).saveAndFlush(any(Paciente.class));
+        verify(registos).remover(1L);
     }
 
     @Test
@@ -261,25 +606,154 @@ public class PacienteServiceTest {
         when(repository.findById(idInexistente)).thenReturn(Optional.empty());
 
         assertThrows(RecursoNaoEncontradoException.class, () -> {
-            service.atualizar(idInexistente, updateDTO);
+            service.atualizar(idInexistente, updateDTO, null);
         });
 
-        verify(repository, never()).save(any(Paciente.class));
+        verify(repository, never()).saveAndFlush(any(Paciente.class));
+    }
+
+    @Test
+    @DisplayName("Deve recusar a atualização quando a versão do If-Match já não é a atual")
+    void testAtualizarPacienteVersaoDesatualizada() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+
+        assertThrows(VersaoDesatualizadaException.class, () -> service.atualizar(1L, updateDTO, 3L));
+
+        verify(repository, never()).saveAndFlush(any(Paciente.class));
+        verify(registos, never()).remover(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve traduzir em DuplicadoException o Cartão de Cidadão repetido no PUT sem retirar o antigo do filtro")
+    void testAtualizarPacienteCartaoDuplicado() {
+
+        PacienteUpdateDTO outroCartao = new PacienteUpdateDTO("Maria Silva", LocalDate.of(1990, 1, 15), "87654321", "912345678", null);
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(repository.saveAndFlush(paciente)).thenThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), Paciente.RESTRICAO_CARTAO_CIDADAO)));
+
+        assertThrows(DuplicadoException.class, () -> service.atualizar(1L, outroCartao, null));
+
+        verify(unicidade).adicionarCartaoCidadao("87654321");
+        verify(unicidade, never()).removerCartaoCidadao();
+    }
+
+    //TESTES DO MÉTODO ATUALIZAR PARCIAL
+
+    @Test
+    @DisplayName("Deve copiar para o paciente só os campos enviados no PATCH")
+    void testAtualizarParcialSoContactos() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(repository.saveAndFlush(paciente)).thenReturn(paciente);
+
+        PacienteDetalheDTO resultado = service.atualizarParcial(1L, json("{\"telefone\": \"923456789\", \"email\": null}"), null);
+
+        assertEquals("923456789", resultado.getTelefone());
+        assertNull(resultado.getEmail());
+        assertEquals("Maria Silva", resultado.getNome());
+        assertEquals("12345678", resultado.getCartaoCidadao());
+        verify(registos).remover(1L);
+        verifyNoInteractions(alteracoes, unicidade);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o filtro de unicidade quando o PATCH muda o Cartão de Cidadão")
+    void testAtualizarParcialCartaoCidadao() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(repository.saveAndFlush(paciente)).thenReturn(paciente);
+
+        PacienteDetalheDTO resultado = service.atualizarParcial(1L, json("{\"nome\": \"Márcia Sousa\", \"cartaoCidadao\": \"87654321\"}"), null);
+
+        assertEquals("Márcia Sousa", resultado.getNome());
+        assertEquals("87654321", resultado.getCartaoCidadao());
+        verify(unicidade).adicionarCartaoCidadao("87654321");
+        verify(unicidade).removerCartaoCidadao();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar no PATCH campos obrigatórios a null, campos desconhecidos e valores inválidos")
+    void testAtualizarParcialInvalido() {
+
+        assertThrows(IllegalArgumentException.class, () -> service.atualizarParcial(1L, json("{\"nome\": null}"), null));
+        assertThrows(IllegalArgumentException.class, () -> service.atualizarParcial(1L, json("{\"id\": 2}"), null));
+        assertThrows(IllegalArgumentException.class, () -> service.atualizarParcial(1L, json("{\"telefone\": \"123\"}"), null));
+        assertThrows(IllegalArgumentException.class, () -> service.atualizarParcial(1L, json("{\"dataDeNascimento\": \"ontem\"}"), null));
+        assertThrows(IllegalArgumentException.class, () -> service.atualizarParcial(1L, json("[]"), null));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção no PATCH de paciente inexistente")
+    void testAtualizarParcialInexistente() {
+
+        when(repository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(RecursoNaoEncontradoException.class, () -> service.atualizarParcial(999L, json("{\"email\": \"a@b.pt\"}"), null));
+
+        verify(repository, never()).saveAndFlush(any(Paciente.class));
+        verify(registos, never()).remover(anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve traduzir em DuplicadoException o Cartão de Cidadão repetido no PATCH")
+    void testAtualizarParcialCartaoDuplicado() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+        when(repository.saveAndFlush(paciente)).thenThrow(new DataIntegrityViolationException("duplicado",
+                new ConstraintViolationException("duplicado", new SQLException(), Paciente.RESTRICAO_CARTAO_CIDADAO)));
+
+        assertThrows(DuplicadoException.class, () -> service.atualizarParcial(1L, json("{\"cartaoCidadao\": \"87654321\"}"), null));
+
+        verify(unicidade).adicionarCartaoCidadao("87654321");
+        verify(unicidade, never()).removerCartaoCidadao();
+    }
+
+    @Test
+    @DisplayName("Deve recusar o PATCH condicional quando a versão já não é a atual")
+    void testAtualizarParcialVersaoDesatualizada() {
+
+        when(repository.findById(1L)).thenReturn(Optional.of(paciente));
+
+        assertThrows(VersaoDesatualizadaException.class, () -> service.atualizarParcial(1L, json("{\"email\": \"a@b.pt\"}"), 3L));
+
+        assertEquals("maria@email.com", paciente.getEmail());
+        verify(repository, never()).saveAndFlush(any(Paciente.class));
+        verify(registos, never()).remover(anyLong());
+    }
+
+    private static JsonNode json(String texto) {
+        try {
+            return new ObjectMapper().readTree(texto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     //TESTES DO MÉTODO APAGAR
 
     @Test
-    @DisplayName("Deve apagar paciente com sucesso")
+    @DisplayName("Deve apagar paciente e os seus exames com um DELETE cada, sem carregar entidades")
     void testApagarPacienteComSucesso() {
 
-        when(repository.existsById(1L)).thenReturn(true);
+        List<ExameTexto> exames = List.of(mock(ExameTexto.class), mock(ExameTexto.class));
+        when(exameRepository.findTextosByPacienteId(1L)).thenReturn(exames);
+        when(repository.apagarPorId(1L)).thenReturn(1);
 
-        boolean resultado = service.apagar(1L);
+        boolean resultado = service.apagar(1L, null);
 
         assertTrue(resultado);
-        verify(repository).existsById(1L);
-        verify(repository).deleteById(1L);
+        verify(exameRepository).apagarPorPaciente(1L);
+        verify(repository, never()).deleteById(any());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).findVersaoById(any());
+        verify(registos).remover(1L);
+        verify(unicidade).removerNomesExames(2);
+        verify(alteracoes).pacienteApagado(1L);
+        verify(alteracoes).examesApagados(exames);
     }
 
     @Test
@@ -287,11 +761,41 @@ public class PacienteServiceTest {
     void testApagarPacienteInexistente() {
 
         Long idInexistente = 999L;
-        when(repository.existsById(idInexistente)).thenReturn(false);
+        when(exameRepository.findTextosByPacienteId(idInexistente)).thenReturn(List.of());
+        when(repository.apagarPorId(idInexistente)).thenReturn(0);
 
-        boolean resultado = service.apagar(idInexistente);
+        boolean resultado = service.apagar(idInexistente, null);
 
         assertFalse(resultado);
-        verify(repository, never()).deleteById(any());
+        verify(exameRepository, never()).apagarPorPaciente(anyLong());
+        verify(registos, never()).remover(anyLong());
+        verifyNoInteractions(alteracoes);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a remoção com versão desatualizada antes de ler ou apagar exames")
+    void testApagarPacienteVersaoDesatualizada() {
+
+        when(repository.findVersaoById(1L)).thenReturn(Optional.of(4L));
+
+        assertThrows(VersaoDesatualizadaException.class, () -> service.apagar(1L, 3L));
+
+        verifyNoInteractions(exameRepository, alteracoes);
+        verify(repository, never()).apagarPorIdEVersao(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve apagar na versão indicada, verificada antes e pelo DELETE")
+    void testApagarPacienteNaVersaoIndicada() {
+
+        when(repository.findVersaoById(1L)).thenReturn(Optional.of(3L));
+        when(exameRepository.findTextosByPacienteId(1L)).thenReturn(List.of());
+        when(repository.apagarPorIdEVersao(1L, 3L)).thenReturn(1);
+
+        assertTrue(service.apagar(1L, 3L));
+
+        verify(exameRepository, never()).apagarPorPaciente(anyLong());
+        verify(repository, never()).apagarPorId(anyLong());
+        verify(registos).remover(1L);
     }
 }